@@ -0,0 +1,177 @@
+/**
+ * LayoutExecutor.java
+ */
+package pfc.cli;
+
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+
+import pfc.cli.LayoutRunner.Algorithm;
+import pfc.cli.LayoutRunner.Layout;
+import pfc.models.Graph;
+import pfc.utilities.graph.ScratchBuffers;
+
+
+/**
+ * Dibujo en paralelo de una secuencia de grafos con un mismo algoritmo, en los hilos de
+ * un {@link ForkJoinPool} con robo de trabajo. Como mucho hay {@code capacity} grafos
+ * pendientes o en ejecucion: {@link #submit(Graph, Listener)} se bloquea hasta que
+ * termina alguno, de modo que quien lee los grafos no va mas rapido que quien los dibuja
+ * y la memoria ocupada no depende del numero de grafos.
+ * <p/>
+ * Cada hilo tiene sus propios {@link ScratchBuffers}, que se reutilizan entre los grafos
+ * que dibuja. Solo los usa {@link Algorithm#VISIBILITY}, que calcula sobre la copia
+ * indexada; el resto de algoritmos reservan sus estructuras con cada grafo, y para ellos
+ * lo que acota la memoria es el limite de grafos en ejecucion.
+ * @author walber
+ *
+ * UMLGraph
+ * @depend - - - LayoutRunner
+ * @depend - - - ScratchBuffers
+ */
+public class LayoutExecutor
+{
+	/**
+	 * Resultado de cada grafo, notificado desde el hilo que lo dibuja. Si
+	 * {@link #layoutCompleted(Graph, Layout)} lanza una excepcion, se notifica despues con
+	 * {@link #layoutFailed(Graph, Throwable)}.
+	 */
+	public interface Listener
+	{
+		public void layoutCompleted( Graph graph, Layout layout );
+
+		public void layoutFailed( Graph graph, Throwable cause );
+	}
+
+	/**
+	 * Hilo del pool con sus arrays de trabajo para {@link Algorithm#VISIBILITY}.
+	 */
+	private static class Worker extends ForkJoinWorkerThread
+	{
+		private final ScratchBuffers	scratch = new ScratchBuffers( );
+
+		private Worker( ForkJoinPool pool )
+		{
+			super( pool );
+		}
+	}
+
+	private final Algorithm		algorithm;
+	private final ForkJoinPool	pool;
+	private final int			capacity;
+	/**
+	 * un permiso por cada grafo que se puede enviar sin esperar
+	 */
+	private final Semaphore		permits;
+
+	/**
+	 * @param algorithm algoritmo a ejecutar
+	 * @param parallelism numero de hilos
+	 * @param capacity numero maximo de grafos pendientes o en ejecucion
+	 */
+	public LayoutExecutor( Algorithm algorithm, int parallelism, int capacity )
+	{
+		if ( parallelism < 1 || capacity < 1 )
+			throw new IllegalArgumentException( "parallelism and capacity must be positive" );
+
+		this.algorithm = algorithm;
+		this.capacity = capacity;
+		this.permits = new Semaphore( capacity );
+		this.pool = new ForkJoinPool( parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory( )
+		{
+			@Override
+			public ForkJoinWorkerThread newThread( ForkJoinPool pool )
+			{
+				return new Worker( pool );
+			}
+		}, null, true );
+	}
+
+	/**
+	 * Enviar un grafo, esperando si ya hay {@code capacity} pendientes. El grafo puede
+	 * modificarse, y el listener se llama desde uno de los hilos del pool.
+	 * @param graph Graph
+	 * @param listener Listener
+	 * @throws InterruptedException si se interrumpe la espera
+	 */
+	public void submit( final Graph graph, final Listener listener ) throws InterruptedException
+	{
+		this.permits.acquire( );
+		try
+		{
+			this.pool.execute( new Runnable( )
+			{
+				@Override
+				public void run( )
+				{
+					try
+					{
+						ScratchBuffers scratch = ( (Worker)Thread.currentThread( ) ).scratch;
+						scratch.reset( );
+						Layout layout;
+						try
+						{
+							layout = LayoutRunner.layout( LayoutExecutor.this.algorithm, graph, scratch );
+						}
+						catch ( Throwable ex )
+						{
+							listener.layoutFailed( graph, ex );
+							return;
+						}
+						try
+						{
+							listener.layoutCompleted( graph, layout );
+						}
+						catch ( Throwable ex )
+						{
+							listener.layoutFailed( graph, ex );
+						}
+					}
+					finally
+					{
+						LayoutExecutor.this.permits.release( );
+					}
+				}
+			} );
+		}
+		catch ( RuntimeException ex )
+		{
+			// RejectedExecution tras shutdown
+			this.permits.release( );
+			throw ex;
+		}
+	}
+
+	/**
+	 * Enviar todos los grafos de la secuencia y esperar a que terminen.
+	 * @param graphs Iterator, que se recorre a medida que hay sitio
+	 * @param listener Listener
+	 * @throws InterruptedException si se interrumpe la espera
+	 */
+	public void layoutAll( Iterator<Graph> graphs, Listener listener ) throws InterruptedException
+	{
+		while ( graphs.hasNext( ) )
+			this.submit( graphs.next( ), listener );
+		this.awaitCompletion( );
+	}
+
+	/**
+	 * Esperar a que terminen todos los grafos enviados.
+	 * @throws InterruptedException si se interrumpe la espera
+	 */
+	public void awaitCompletion( ) throws InterruptedException
+	{
+		this.permits.acquire( this.capacity );
+		this.permits.release( this.capacity );
+	}
+
+	/**
+	 * Terminar los hilos cuando acaben los grafos enviados.
+	 */
+	public void shutdown( )
+	{
+		this.pool.shutdown( );
+	}
+}
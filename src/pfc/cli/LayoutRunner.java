@@ -0,0 +1,504 @@
+/**
+ * LayoutRunner.java
+ */
+package pfc.cli;
+
+import java.awt.geom.Point2D;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pfc.models.*;
+import pfc.models.algorithms.NonIntersectingPathList;
+import pfc.models.algorithms.constrainedpolyline.ConstrainedPolylineAlgorithm;
+import pfc.models.algorithms.constrainedvisrep.ConstrainedVisRepAlgorithm;
+import pfc.models.algorithms.orthogonal.OrthogonalAlgorithm;
+import pfc.models.algorithms.polyline.UpwardPolylineAlgorithm;
+import pfc.models.algorithms.polylinedominance.PolylineDominanceAlgorithm;
+import pfc.models.algorithms.sldominance.SLDominanceAlgorithm;
+import pfc.models.algorithms.visibilityrepresentation.VertexSegment;
+import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationAlgorithm;
+import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
+import pfc.settings.GraphSettings;
+import pfc.utilities.GraphFileUtilities;
+import pfc.utilities.GraphUtilities;
+import pfc.utilities.graph.GraphValidator;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.ScratchBuffers;
+import pfc.utilities.graph.ValidationReport;
+import pfc.views.display.algorithms.visibilityrepresentation.VisRepDrawingDisplayView;
+import pfc.views.svg.GraphSvgView;
+import pfc.views.svg.VisRepDrawingSvgView;
+
+
+/**
+ * Ejecucion por lotes de los algoritmos de dibujo, sin crear ningun componente Swing.
+ * Cada fichero {@code .vsg} o {@code .vsgb} se lee, se comprueba con las mismas
+ * precondiciones que {@link pfc.gui.windows.MainWindow}, se dibuja y se escribe como
+ * {@code <nombre>-<algoritmo>.vsg} y/o {@code .svg}. Los ficheros se procesan a la vez
+ * en un {@link LayoutExecutor}; un fichero que falla no detiene al resto.
+ * <p/>
+ * Uso:
+ * {@code java -Djava.awt.headless=true -cp ... pfc.cli.LayoutRunner -a <algoritmo>
+ * [-o <directorio>] [-f vsg|svg|all] [-t <hilos>] <fichero o directorio>...}
+ * @author walber
+ *
+ * UMLGraph
+ * @depend - - - GraphValidator
+ * @depend - - - LayoutExecutor
+ * @depend - - - GraphFileUtilities
+ * @depend - - - GraphSvgView
+ * @depend - - - VisRepDrawingSvgView
+ */
+public class LayoutRunner
+{
+	/**
+	 * Algoritmos disponibles, con su nombre en la linea de comandos.
+	 */
+	public enum Algorithm
+	{
+		VISIBILITY( "visibility" ),
+		CONSTRAINED_VISIBILITY( "constrained-visibility" ),
+		UPWARD_POLYLINE( "upward-polyline" ),
+		CONSTRAINED_POLYLINE( "constrained-polyline" ),
+		ORTHOGONAL( "orthogonal" ),
+		SL_DOMINANCE( "sl-dominance" ),
+		POLYLINE_DOMINANCE( "polyline-dominance" );
+
+		private final String	name;
+
+		private Algorithm( String name )
+		{
+			this.name = name;
+		}
+
+		/**
+		 * @return nombre en la linea de comandos
+		 */
+		public String getName( )
+		{
+			return this.name;
+		}
+
+		/**
+		 * @param name nombre en la linea de comandos
+		 * @return Algorithm, null si no hay ninguno con ese nombre
+		 */
+		public static Algorithm forName( String name )
+		{
+			for ( Algorithm algorithm : values( ) )
+				if ( algorithm.name.equals( name ) )
+					return algorithm;
+			return null;
+		}
+
+		/**
+		 * @param graph Graph
+		 * @return precondiciones del algoritmo sobre el grafo
+		 */
+		public Set<GraphValidator.Check> getChecks( Graph graph )
+		{
+			switch ( this )
+			{
+			case ORTHOGONAL:
+				Set<GraphValidator.Check> checks = EnumSet.copyOf( GraphValidator.ORTHOGONAL_DRAWING );
+				if ( graph.areDirectedEdgesAllowed )
+					checks.add( GraphValidator.Check.ST_GRAPH );
+				return checks;
+			case SL_DOMINANCE:
+				return GraphValidator.SL_DOMINANCE_DRAWING;
+			default:
+				return GraphValidator.ST_GRAPH_DRAWING;
+			}
+		}
+	}
+
+	/**
+	 * Dibujo de un grafo: el grafo con sus nuevas coordenadas y, para los algoritmos
+	 * de visibilidad, la Representacion de Visibilidad.
+	 */
+	public static class Layout
+	{
+		public final Graph								graph;
+		public final VisibilityRepresentationDrawing	drawing;
+
+		private Layout( Graph graph, VisibilityRepresentationDrawing drawing )
+		{
+			this.graph = graph;
+			this.drawing = drawing;
+		}
+	}
+
+	private final Algorithm	algorithm;
+	/**
+	 * directorio de salida, null para escribir junto a cada fichero de entrada
+	 */
+	private final File		outputDirectory;
+	private final boolean	writeVsg;
+	private final boolean	writeSvg;
+	private final int		threads;
+
+	/**
+	 * @param algorithm algoritmo a ejecutar
+	 * @param outputDirectory directorio de salida, null para escribir junto a cada fichero de entrada
+	 * @param writeVsg escribir el grafo dibujado como {@code .vsg}
+	 * @param writeSvg escribir el dibujo como {@code .svg}
+	 * @param threads numero de ficheros procesados a la vez
+	 */
+	public LayoutRunner( Algorithm algorithm, File outputDirectory, boolean writeVsg, boolean writeSvg, int threads )
+	{
+		if ( threads < 1 )
+			throw new IllegalArgumentException( "threads must be positive" );
+
+		this.algorithm = algorithm;
+		this.outputDirectory = outputDirectory;
+		this.writeVsg = writeVsg;
+		this.writeSvg = writeSvg;
+		this.threads = threads;
+	}
+
+	/**
+	 * Dibujar un grafo con el algoritmo dado, sin animacion. El grafo puede modificarse.
+	 * @param algorithm Algorithm
+	 * @param graph Graph
+	 * @return Layout
+	 * @throws IllegalArgumentException si el grafo no cumple las precondiciones del algoritmo
+	 */
+	public static Layout layout( Algorithm algorithm, Graph graph )
+	{
+		return layout( algorithm, graph, new ScratchBuffers( ) );
+	}
+
+	/**
+	 * Dibujar un grafo con los arrays de trabajo tomados de scratch, que solo usa
+	 * el modo "solo calculo" de {@link Algorithm#VISIBILITY}.
+	 * @param algorithm Algorithm
+	 * @param graph Graph
+	 * @param scratch ScratchBuffers, que puede reutilizarse al terminar
+	 * @return Layout
+	 * @throws IllegalArgumentException si el grafo no cumple las precondiciones del algoritmo
+	 */
+	public static Layout layout( Algorithm algorithm, Graph graph, ScratchBuffers scratch )
+	{
+		if ( graph.vertices.isEmpty( ) || graph.edges.isEmpty( ) )
+			throw new IllegalArgumentException( "empty graph" );
+		ValidationReport report = GraphUtilities.validate( graph, algorithm.getChecks( graph ) );
+		if ( report.isValid( ) == false )
+			throw new IllegalArgumentException( "failed checks " + report.getFailedChecks( ) );
+
+		switch ( algorithm )
+		{
+		case VISIBILITY:
+		{
+			VisibilityRepresentationDrawing drawing = VisibilityRepresentationAlgorithm.computeDrawing( new IndexedGraph( graph ), scratch );
+			return new Layout( placeVertices( graph, drawing ), drawing );
+		}
+		case CONSTRAINED_VISIBILITY:
+		{
+			ConstrainedVisRepAlgorithm constrained = new ConstrainedVisRepAlgorithm( graph, new NonIntersectingPathList( ) );
+			constrained.executeAlgorithm( );
+			return new Layout( placeVertices( graph, constrained.getDrawing( ) ), constrained.getDrawing( ) );
+		}
+		case UPWARD_POLYLINE:
+		{
+			UpwardPolylineAlgorithm polyline = new UpwardPolylineAlgorithm( graph );
+			polyline.executeAlgorithm( );
+			return new Layout( polyline.getPolyline( ), null );
+		}
+		case CONSTRAINED_POLYLINE:
+		{
+			ConstrainedPolylineAlgorithm polyline = new ConstrainedPolylineAlgorithm( graph, new NonIntersectingPathList( ) );
+			polyline.executeAlgorithm( );
+			return new Layout( polyline.getPolyline( ), null );
+		}
+		case ORTHOGONAL:
+		{
+			OrthogonalAlgorithm orthogonal = new OrthogonalAlgorithm( graph );
+			orthogonal.executeAlgorithm( );
+			return new Layout( orthogonal.getOrthogonal( ), null );
+		}
+		case SL_DOMINANCE:
+		{
+			SLDominanceAlgorithm dominance = new SLDominanceAlgorithm( graph );
+			dominance.executeAlgorithm( );
+			return new Layout( dominance.getDrawing( ).getGraph( ), null );
+		}
+		default:
+		{
+			PolylineDominanceAlgorithm dominance = new PolylineDominanceAlgorithm( graph );
+			dominance.executeAlgorithm( );
+			return new Layout( dominance.getDominanceDrawing( ).getGraph( ), null );
+		}
+		}
+	}
+
+	/**
+	 * Colocar cada vertice en el centro de su segmento, como en {@link UpwardPolylineAlgorithm}.
+	 * Los segmentos se buscan por vertice, por lo que el dibujo puede ser de una copia del grafo.
+	 * @param graph Graph
+	 * @param drawing VisibilityRepresentationDrawing de graph
+	 * @return graph
+	 */
+	private static Graph placeVertices( Graph graph, VisibilityRepresentationDrawing drawing )
+	{
+		for ( Vertex v : graph.vertices )
+		{
+			VertexSegment vS = drawing.getVertexSegment( v );
+			int pos = ( vS.xRightCoordinate.get( ) + vS.xLeftCoordinate.get( ) ) / 2;
+			Point2D p = VisRepDrawingDisplayView.getCoordinatePoint( pos, vS.yCoordinate.get( ), drawing );
+			v.x.set( p.getX( ) );
+			v.y.set( p.getY( ) );
+		}
+		return graph;
+	}
+
+	/**
+	 * Procesar los ficheros a la vez. Se leen en este hilo a medida que hay sitio en un
+	 * {@link LayoutExecutor}, por lo que solo hay unos pocos grafos en memoria, y cada
+	 * resultado se escribe desde el hilo que lo dibuja. Los errores de cada fichero se
+	 * escriben en {@code System.err} y no detienen al resto.
+	 * @param files ficheros {@code .vsg} o {@code .vsgb}; un directorio, que
+	 *        {@link #collectFiles(List)} devuelve cuando no lo puede listar, cuenta como fallido
+	 * @return numero de ficheros que no se pudieron dibujar
+	 */
+	public int run( List<File> files )
+	{
+		final AtomicInteger failed = new AtomicInteger( );
+		LayoutExecutor executor = new LayoutExecutor( this.algorithm, this.threads, 2 * this.threads );
+		try
+		{
+			for ( int i = 0; i < files.size( ); i++ )
+			{
+				final File file = files.get( i );
+				if ( file.isDirectory( ) )
+				{
+					failed.incrementAndGet( );
+					System.err.println( file + ": cannot list directory" );
+					continue;
+				}
+				Graph graph;
+				try
+				{
+					graph = GraphFileUtilities.readGraph( file );
+				}
+				catch ( Throwable ex )
+				{
+					// el lector JSON lanza Error con un fichero mal formado
+					failed.incrementAndGet( );
+					System.err.println( file + ": " + ex );
+					continue;
+				}
+
+				try
+				{
+					executor.submit( graph, new LayoutExecutor.Listener( )
+					{
+						@Override
+						public void layoutCompleted( Graph graph, Layout layout )
+						{
+							try
+							{
+								for ( File output : LayoutRunner.this.write( file, layout ) )
+									System.out.println( file + " -> " + output );
+							}
+							catch ( IOException ex )
+							{
+								this.layoutFailed( graph, ex );
+							}
+						}
+
+						@Override
+						public void layoutFailed( Graph graph, Throwable cause )
+						{
+							failed.incrementAndGet( );
+							System.err.println( file + ": " + cause );
+						}
+					} );
+				}
+				catch ( InterruptedException ex )
+				{
+					Thread.currentThread( ).interrupt( );
+					return failed.get( ) + files.size( ) - i;
+				}
+			}
+
+			try
+			{
+				executor.awaitCompletion( );
+			}
+			catch ( InterruptedException ex )
+			{
+				Thread.currentThread( ).interrupt( );
+			}
+			return failed.get( );
+		}
+		finally
+		{
+			executor.shutdown( );
+		}
+	}
+
+	/**
+	 * Dibujar un fichero y escribir el resultado.
+	 * @param file fichero {@code .vsg} o {@code .vsgb}
+	 * @return ficheros escritos
+	 * @throws IOException
+	 */
+	public List<File> process( File file ) throws IOException
+	{
+		return this.write( file, layout( this.algorithm, GraphFileUtilities.readGraph( file ) ) );
+	}
+
+	/**
+	 * Escribir el dibujo de un fichero.
+	 * @param file fichero {@code .vsg} o {@code .vsgb} de entrada
+	 * @param layout Layout
+	 * @return ficheros escritos
+	 * @throws IOException
+	 */
+	private List<File> write( File file, Layout layout ) throws IOException
+	{
+		String name = file.getName( );
+		if ( name.lastIndexOf( '.' ) > 0 )
+			name = name.substring( 0, name.lastIndexOf( '.' ) );
+		name += "-" + this.algorithm.getName( );
+		File directory = this.outputDirectory != null ? this.outputDirectory : file.getAbsoluteFile( ).getParentFile( );
+
+		List<File> written = new ArrayList<File>( 2 );
+		if ( this.writeVsg )
+		{
+			File output = new File( directory, name + GraphFileUtilities.JSON_EXTENSION );
+			layout.graph.name.set( name );
+			GraphFileUtilities.writeGraph( layout.graph, output );
+			written.add( output );
+		}
+		if ( this.writeSvg )
+		{
+			File output = new File( directory, name + ".svg" );
+			Writer writer = new BufferedWriter( new FileWriter( output ) );
+			try
+			{
+				if ( layout.drawing != null )
+					writer.write( VisRepDrawingSvgView.format( layout.drawing ) );
+				else
+					writer.write( GraphSvgView.format( layout.graph, new GraphSettings( ) ) );
+			}
+			finally
+			{
+				writer.close( );
+			}
+			written.add( output );
+		}
+		return written;
+	}
+
+	/**
+	 * Ficheros de grafo dados en la linea de comandos; de cada directorio se toman
+	 * sus ficheros {@code .vsg} y {@code .vsgb}, ordenados por nombre. Un directorio que
+	 * no se puede listar se devuelve tal cual, y {@link #run(List)} lo cuenta como una
+	 * entrada que falla.
+	 * @param paths ficheros o directorios
+	 * @return ficheros
+	 */
+	public static List<File> collectFiles( List<String> paths )
+	{
+		List<File> files = new ArrayList<File>( );
+		for ( String path : paths )
+		{
+			File file = new File( path );
+			if ( file.isDirectory( ) )
+			{
+				File[ ] children = file.listFiles( new FileFilter( )
+				{
+					@Override
+					public boolean accept( File child )
+					{
+						return child.isFile( ) && ( child.getName( ).endsWith( GraphFileUtilities.JSON_EXTENSION ) ||
+								child.getName( ).endsWith( GraphFileUtilities.BINARY_EXTENSION ) );
+					}
+				} );
+				if ( children == null )
+				{
+					// sin permiso de lectura o error de E/S
+					files.add( file );
+					continue;
+				}
+				Arrays.sort( children );
+				files.addAll( Arrays.asList( children ) );
+			}
+			else
+				files.add( file );
+		}
+		return files;
+	}
+
+	private static void printUsage( )
+	{
+		StringBuilder algorithms = new StringBuilder( );
+		for ( Algorithm algorithm : Algorithm.values( ) )
+			algorithms.append( algorithms.length( ) == 0 ? "" : "|" ).append( algorithm.getName( ) );
+
+		System.err.println( "Usage: LayoutRunner -a <algorithm> [-o <directory>] [-f vsg|svg|all] [-t <threads>] <file or directory>..." );
+		System.err.println( "  -a  " + algorithms );
+		System.err.println( "  -o  output directory, by default next to each input file" );
+		System.err.println( "  -f  output format, vsg by default" );
+		System.err.println( "  -t  number of threads, by default the number of processors" );
+	}
+
+	/**
+	 * @param args arguments
+	 */
+	public static void main( String[ ] args )
+	{
+		// antes de cargar cualquier clase de AWT
+		if ( System.getProperty( "java.awt.headless" ) == null )
+			System.setProperty( "java.awt.headless", "true" );
+
+		Algorithm algorithm = null;
+		File outputDirectory = null;
+		String format = "vsg";
+		int threads = Runtime.getRuntime( ).availableProcessors( );
+		List<String> paths = new ArrayList<String>( );
+		try
+		{
+			for ( int i = 0; i < args.length; i++ )
+			{
+				if ( args[i].equals( "-a" ) )
+				{
+					algorithm = Algorithm.forName( args[++i] );
+					if ( algorithm == null )
+						throw new IllegalArgumentException( "unknown algorithm " + args[i] );
+				}
+				else if ( args[i].equals( "-o" ) )
+					outputDirectory = new File( args[++i] );
+				else if ( args[i].equals( "-f" ) )
+					format = args[++i];
+				else if ( args[i].equals( "-t" ) )
+					threads = Integer.parseInt( args[++i] );
+				else
+					paths.add( args[i] );
+			}
+			if ( algorithm == null || paths.isEmpty( ) )
+				throw new IllegalArgumentException( "missing algorithm or input files" );
+			if ( threads < 1 )
+				throw new IllegalArgumentException( "threads must be positive" );
+			if ( format.equals( "vsg" ) == false && format.equals( "svg" ) == false && format.equals( "all" ) == false )
+				throw new IllegalArgumentException( "unknown format " + format );
+			if ( outputDirectory != null && outputDirectory.isDirectory( ) == false && outputDirectory.mkdirs( ) == false )
+				throw new IllegalArgumentException( "cannot create " + outputDirectory );
+		}
+		catch ( RuntimeException ex )
+		{
+			// ArrayIndexOutOfBounds si falta el valor de una opcion, NumberFormat en -t
+			System.err.println( ex instanceof IllegalArgumentException ? ex.getMessage( ) : "missing option value" );
+			printUsage( );
+			System.exit( 2 );
+			return;
+		}
+
+		LayoutRunner runner = new LayoutRunner( algorithm, outputDirectory,
+				format.equals( "svg" ) == false, format.equals( "vsg" ) == false, threads );
+		int failed = runner.run( collectFiles( paths ) );
+		System.exit( failed == 0 ? 0 : 1 );
+	}
+}
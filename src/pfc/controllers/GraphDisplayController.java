@@ -32,6 +32,7 @@ import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
 import pfc.utilities.GeometryUtilities;
 import pfc.utilities.GraphUtilities;
+import pfc.utilities.MappedGraphFile;
 import pfc.utilities.SnapshotList;
 import pfc.views.display.EdgeDisplayView;
 import pfc.views.display.GraphDisplayView;
@@ -714,6 +715,7 @@ public class GraphDisplayController extends JPanel
 	private boolean                    isViewportInvalidated;
 	private final Timer                viewportValidationTimer;
 	private NonIntersectingPathList    nonIntersectingPaths;
+	private MappedGraphFile            preview;
 	
 	public GraphDisplayController( Graph graph )
 	{
@@ -1126,8 +1128,11 @@ public class GraphDisplayController extends JPanel
 		original.concatenate( this.transform );
 		g2D.setTransform( original );
 		
-		// Paint the graph
-		GraphDisplayView.paint( g2D, this.graph, this.settings );
+		// Paint the graph, or its raw coordinates while it is still being loaded
+		if( this.preview != null )
+			GraphDisplayView.paintPreview( g2D, this.preview, this.settings );
+		else
+			GraphDisplayView.paint( g2D, this.graph, this.settings );
 		
 		// Paint controller-specific stuff
 		if( this.isMouseDownOnCanvas )
@@ -1268,6 +1273,40 @@ public class GraphDisplayController extends JPanel
         this.nonIntersectingPaths.setSelected( selected );
     }
     
+	/**
+	 * Paint the specified mapped file instead of the graph until {@link #setLoadedGraph(Graph)} is called
+	 * 
+	 * @param preview MappedGraphFile
+	 */
+	public void setPreview( MappedGraphFile preview )
+	{
+		this.preview = preview;
+		this.isViewportInvalidated = true;
+	}
+	
+	/**
+	 * Replace the preview with the fully loaded graph, which becomes the start of the undo history
+	 * 
+	 * @param graph Graph
+	 */
+	public void setLoadedGraph( Graph graph )
+	{
+		this.preview = null;
+		this.setGraph( graph );
+		this.undoHistory.add( graph.toString( ) );
+		this.undoHistory.clear( );
+	}
+	
+	/**
+	 * The graph is empty and cannot be edited while a preview is shown
+	 * 
+	 * @return whether the graph is still being loaded
+	 */
+	public boolean isLoading( )
+	{
+		return this.preview != null;
+	}
+	
 	/**
 	 * @param graph Graph
 	 */
@@ -1338,6 +1377,9 @@ public class GraphDisplayController extends JPanel
 	
 	private void viewportKeyPressed( KeyEvent event )
 	{
+		if( this.isLoading( ) )
+			return;
+		
 		switch( event.getKeyCode( ) )
 		{
 			case KeyEvent.VK_BACK_SPACE: // Fall through...
@@ -1420,6 +1462,9 @@ public class GraphDisplayController extends JPanel
 	
 	private void viewportMouseDragged( MouseEvent event ) throws NoninvertibleTransformException
 	{
+		if( this.isLoading( ) )
+			return;
+		
 		Point oldPoint = new Point( this.currentMousePoint );
 		this.transform.inverseTransform( event.getPoint( ), this.currentMousePoint );
 		
@@ -1431,6 +1476,9 @@ public class GraphDisplayController extends JPanel
 	
 	private void viewportMousePressed( MouseEvent event ) throws NoninvertibleTransformException
 	{
+		if( this.isLoading( ) )
+			return;
+		
 		if( !this.viewport.hasFocus( ) )
 			this.viewport.requestFocus( );
 		
@@ -1562,6 +1610,9 @@ public class GraphDisplayController extends JPanel
 	
 	private void viewportMouseReleased( MouseEvent event ) throws NoninvertibleTransformException
 	{
+		if( this.isLoading( ) )
+			return;
+		
 		switch( this.tool )
 		{
 			case POINTER_TOOL:
@@ -1651,7 +1702,9 @@ public class GraphDisplayController extends JPanel
 	
 	public void zoomFit( )
 	{
-		if( this.graph.vertices.size( ) > 0 )
+		if( this.preview != null && this.preview.getVertexCount( ) > 0 )
+			this.zoomFit( this.preview.getBounds( ) );
+		else if( this.graph.vertices.size( ) > 0 )
 			this.zoomFit( GeometryUtilities.getBounds( this.graph ) );
 	}
 	
@@ -26,15 +26,14 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.NonIntersectingPathList;
 import pfc.models.algorithms.constrainedpolyline.ConstrainedPolylineAlgorithm;
-import pfc.models.algorithms.polyline.UpwardPolylineAlgorithmHistory;
 import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
 import pfc.resources.StringBundle;
 import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
 import pfc.utilities.GeometryUtilities;
-import pfc.utilities.SnapshotList;
 import pfc.utilities.StateSupport;
 import pfc.utilities.TransformUtilities;
 import pfc.views.display.GraphDisplayView;
@@ -174,7 +173,7 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport									exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<UpwardPolylineAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean											started;
 	
@@ -275,9 +274,8 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 	 */
 	private void setHistory ( )
 	{
-		UpwardPolylineAlgorithmHistory temp = new UpwardPolylineAlgorithmHistory( null, null, "" );
-		this.history = new SnapshotList<UpwardPolylineAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.VISIBILITY_DRAWING, AlgorithmHistory.GRAPH );
+		this.history.add( "", null, null );
 	}
 	
 	/**
@@ -294,7 +292,7 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -316,7 +314,7 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -339,11 +337,12 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -353,6 +352,7 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -373,11 +373,9 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String drawing = this.algorithm.getVisibilityDrawing( ).toString( );
-		String polyline = this.algorithm.getPolyline( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new UpwardPolylineAlgorithmHistory( drawing, polyline, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ),
+				this.algorithm.getVisibilityDrawing( ),
+				this.algorithm.getPolyline( ) );
 	}
 	
 	/**
@@ -394,12 +392,10 @@ public class ConstrainedPolylineDisplayController extends JPanel implements Exec
 	 */
 	private String updateExecutionStep ( )
 	{
-		UpwardPolylineAlgorithmHistory step = this.history.current( );
-		
-		this.setDrawing( step.getVisibilityDrawing( ) != null ? new VisibilityRepresentationDrawing( step.getVisibilityDrawing( ) ) : null );
-		this.setPolyline( step.getPolylineGraph( ) != null ? new Graph( step.getPolylineGraph( ) ) : null );
+		this.setDrawing( this.history.<VisibilityRepresentationDrawing>getModel( 0 ) );
+		this.setPolyline( this.history.<Graph>getModel( 1 ) );
 		
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 
 	/**
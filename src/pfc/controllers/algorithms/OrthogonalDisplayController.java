@@ -26,14 +26,13 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.orthogonal.OrthogonalAlgorithm;
-import pfc.models.algorithms.orthogonal.OrthogonalAlgorithmHistory;
 import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
 import pfc.resources.StringBundle;
 import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
 import pfc.utilities.GeometryUtilities;
-import pfc.utilities.SnapshotList;
 import pfc.utilities.StateSupport;
 import pfc.utilities.TransformUtilities;
 import pfc.views.display.GraphDisplayView;
@@ -258,7 +257,7 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport								exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<OrthogonalAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean										started;
 	
@@ -382,9 +381,8 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 	 */
 	private void setHistory ( )
 	{
-		OrthogonalAlgorithmHistory temp = new OrthogonalAlgorithmHistory( this.digraph.toString( ), null, null, "");
-		this.history = new SnapshotList<OrthogonalAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.GRAPH, AlgorithmHistory.VISIBILITY_DRAWING, AlgorithmHistory.GRAPH );
+		this.history.add( "", this.digraph, null, null );
 	}
 	
 	/**
@@ -401,7 +399,7 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -423,7 +421,7 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -446,11 +444,12 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -460,6 +459,7 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -480,13 +480,10 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String digraph = this.algorithm.getDigraph( ).toString( );
-		String drawing = ( this.algorithm.getVisibilityDrawing( ) != null )
-				? this.algorithm.getVisibilityDrawing( ).toString( ) : null;
-		String orthogonal = this.algorithm.getOrthogonal( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new OrthogonalAlgorithmHistory( digraph, drawing, orthogonal, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ),
+				this.algorithm.getDigraph( ),
+				this.algorithm.getVisibilityDrawing( ),
+				this.algorithm.getOrthogonal( ) );
 	}
 	
 	/**
@@ -504,13 +501,11 @@ public class OrthogonalDisplayController extends JPanel implements ExecutionCont
 	 */
 	private String updateExecutionStep ( )
 	{
-		OrthogonalAlgorithmHistory step = this.history.current( );
-		
-		this.setDigraph( step.getDigraph( ) != null ? new Graph( step.getDigraph( ) ) : null );
-		this.setDrawing( step.getVisibilityDrawing( ) != null ? new VisibilityRepresentationDrawing( step.getVisibilityDrawing( ) ) : null );
-		this.setOrtogonal( step.getOrthogonalGraph( ) != null ? new Graph( step.getOrthogonalGraph( ) ) : null );
+		this.setDigraph( this.history.<Graph>getModel( 0 ) );
+		this.setDrawing( this.history.<VisibilityRepresentationDrawing>getModel( 1 ) );
+		this.setOrtogonal( this.history.<Graph>getModel( 2 ) );
 
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 
 	/**
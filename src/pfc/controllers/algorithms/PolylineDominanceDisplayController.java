@@ -26,14 +26,13 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.polylinedominance.PolylineDominanceAlgorithm;
-import pfc.models.algorithms.polylinedominance.PolylineDominanceAlgorithmHistory;
 import pfc.models.algorithms.sldominance.DominanceDrawing;
 import pfc.resources.StringBundle;
 import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
 import pfc.utilities.GeometryUtilities;
-import pfc.utilities.SnapshotList;
 import pfc.utilities.StateSupport;
 import pfc.utilities.TransformUtilities;
 import pfc.views.display.GraphDisplayView;
@@ -241,7 +240,7 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport									exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<PolylineDominanceAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean											started;
 	
@@ -366,9 +365,8 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 	 */
 	private void setHistory ( )
 	{
-		PolylineDominanceAlgorithmHistory temp = new PolylineDominanceAlgorithmHistory( null, this.reduced.toString( ), "" );
-		this.history = new SnapshotList<PolylineDominanceAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.DOMINANCE_DRAWING, AlgorithmHistory.GRAPH );
+		this.history.add( "", null, this.reduced );
 	}
 	
 	/**
@@ -385,7 +383,7 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -407,7 +405,7 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -430,11 +428,12 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -444,6 +443,7 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -464,12 +464,9 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String drawing = ( this.algorithm.getDominanceDrawing( ) == null
-				? null : this.algorithm.getDominanceDrawing( ).toString( ) );
-		String reduced = this.algorithm.getReduced( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new PolylineDominanceAlgorithmHistory( drawing, reduced, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ),
+				this.algorithm.getDominanceDrawing( ),
+				this.algorithm.getReduced( ) );
 	}
 	
 	/**
@@ -487,12 +484,10 @@ public class PolylineDominanceDisplayController extends JPanel implements Execut
 	 */
 	private String updateExecutionStep ( )
 	{
-		PolylineDominanceAlgorithmHistory step = this.history.current( );
-		
-		this.setReduced( step.getReducedGraph( ) != null ? new Graph( step.getReducedGraph( ) ) : null );
-		this.setDrawing( step.getDrawing( ) != null ? new DominanceDrawing( step.getDrawing( ) ) : null );
+		this.setDrawing( this.history.<DominanceDrawing>getModel( 0 ) );
+		this.setReduced( this.history.<Graph>getModel( 1 ) );
 		
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 
 	/**
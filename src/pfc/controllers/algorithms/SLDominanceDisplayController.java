@@ -26,13 +26,12 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.sldominance.DominanceDrawing;
 import pfc.models.algorithms.sldominance.SLDominanceAlgorithm;
-import pfc.models.algorithms.sldominance.SLDominanceAlgorithmHistory;
 import pfc.resources.StringBundle;
 import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
-import pfc.utilities.SnapshotList;
 import pfc.utilities.StateSupport;
 import pfc.utilities.TransformUtilities;
 import pfc.views.display.algorithms.dominance.DominanceDrawingDisplayView;
@@ -154,7 +153,7 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport								exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<SLDominanceAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean										started;
 	
@@ -255,9 +254,8 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 	 */
 	private void setHistory ( )
 	{
-		SLDominanceAlgorithmHistory temp = new SLDominanceAlgorithmHistory( null, "" );
-		this.history = new SnapshotList<SLDominanceAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.DOMINANCE_DRAWING );
+		this.history.add( "", (DominanceDrawing) null );
 	}
 	
 	/**
@@ -274,7 +272,7 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -296,7 +294,7 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -319,11 +317,12 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -333,6 +332,7 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -353,10 +353,7 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String drawing = this.algorithm.getDrawing( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new SLDominanceAlgorithmHistory( drawing, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ), this.algorithm.getDrawing( ) );
 	}
 	
 	/**
@@ -373,11 +370,9 @@ public class SLDominanceDisplayController extends JPanel implements ExecutionCon
 	 */
 	private String updateExecutionStep ( )
 	{
-		SLDominanceAlgorithmHistory step = this.history.current( );
-		
-		this.setDrawing( step.getDominanceDrawing( ) != null ? new DominanceDrawing( step.getDominanceDrawing( ) ) : null );
+		this.setDrawing( this.history.<DominanceDrawing>getModel( 0 ) );
 		
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 
 	/**
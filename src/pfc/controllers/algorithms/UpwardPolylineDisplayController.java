@@ -26,14 +26,13 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.polyline.UpwardPolylineAlgorithm;
-import pfc.models.algorithms.polyline.UpwardPolylineAlgorithmHistory;
 import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
 import pfc.resources.StringBundle;
 import pfc.settings.GraphSettings;
 import pfc.settings.UserSettings;
 import pfc.utilities.GeometryUtilities;
-import pfc.utilities.SnapshotList;
 import pfc.utilities.StateSupport;
 import pfc.utilities.TransformUtilities;
 import pfc.views.display.GraphDisplayView;
@@ -173,7 +172,7 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport									exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<UpwardPolylineAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean										started;
 	
@@ -274,9 +273,8 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 	 */
 	private void setHistory ( )
 	{
-		UpwardPolylineAlgorithmHistory temp = new UpwardPolylineAlgorithmHistory( null, null, "" );
-		this.history = new SnapshotList<UpwardPolylineAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.VISIBILITY_DRAWING, AlgorithmHistory.GRAPH );
+		this.history.add( "", null, null );
 	}
 	
 	/**
@@ -293,7 +291,7 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -315,7 +313,7 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -338,11 +336,12 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -352,6 +351,7 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -372,11 +372,9 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String drawing = this.algorithm.getVisibilityDrawing( ).toString( );
-		String polyline = this.algorithm.getPolyline( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new UpwardPolylineAlgorithmHistory( drawing, polyline, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ),
+				this.algorithm.getVisibilityDrawing( ),
+				this.algorithm.getPolyline( ) );
 	}
 	
 	/**
@@ -393,12 +391,10 @@ public class UpwardPolylineDisplayController extends JPanel implements Execution
 	 */
 	private String updateExecutionStep ( )
 	{
-		UpwardPolylineAlgorithmHistory step = this.history.current( );
-		
-		this.setDrawing( step.getVisibilityDrawing( ) != null ? new VisibilityRepresentationDrawing( step.getVisibilityDrawing( ) ) : null );
-		this.setPolyline( step.getPolylineGraph( ) != null ? new Graph( step.getPolylineGraph( ) ) : null );
+		this.setDrawing( this.history.<VisibilityRepresentationDrawing>getModel( 0 ) );
+		this.setPolyline( this.history.<Graph>getModel( 1 ) );
 		
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 
 	/**
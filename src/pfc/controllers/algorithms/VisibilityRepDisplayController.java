@@ -13,6 +13,7 @@ import javax.swing.border.*;
 import javax.swing.event.ChangeListener;
 
 import pfc.models.Graph;
+import pfc.models.algorithms.AlgorithmHistory;
 import pfc.models.algorithms.visibilityrepresentation.*;
 import pfc.resources.*;
 import pfc.settings.*;
@@ -234,7 +235,7 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 	/** listener del evento cerrar el jinternalframe */
 	private StateSupport							exeCancelEventListener;
 	/** lista de cambios en el algoritmo */
-	private SnapshotList<VisRepAlgorithmHistory>	history;
+	private AlgorithmHistory	history;
 	/** inicio de la ejecucion, util para poner a inicio el historial */
 	private boolean										started;
 	
@@ -360,9 +361,8 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 	 */
 	private void setHistory ( )
 	{
-		VisRepAlgorithmHistory temp = new VisRepAlgorithmHistory( this.graph.toString( ), null, null, "");
-		this.history = new SnapshotList<VisRepAlgorithmHistory>( temp );
-		this.history.setCapacity( Short.MAX_VALUE );
+		this.history = new AlgorithmHistory( AlgorithmHistory.GRAPH, AlgorithmHistory.GRAPH, AlgorithmHistory.VISIBILITY_DRAWING );
+		this.history.add( "", this.graph, null, null );
 	}
 	
 	/**
@@ -379,7 +379,7 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 			this.setStarted( true );
 		}
 		
-		if ( this.history.next( ) != null )
+		if ( this.history.next( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -401,7 +401,7 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 			this.setStarted( true );
 		}
 		
-		if ( this.history.previous( ) != null )
+		if ( this.history.previous( ) )
 		{
 			explanation.append( this.updateExecutionStep( ) );
 			this.update( );
@@ -424,11 +424,12 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 			this.setStarted( true );
 		}
 		
-		old = this.history.current( ).getExplanation( );
+		old = this.history.getExplanation( );
 		current = "";
-		while ( this.history.next( ) != null )
+		// los pasos intermedios solo aportan su explicacion, no se reconstruyen sus modelos
+		while ( this.history.next( ) )
 		{
-			current = this.updateExecutionStep( );
+			current = this.history.getExplanation( );
 			
 			// si la explicacion actual es distinta de la ultima que se puso
 			if ( current != null && current.equals( old ) == false )
@@ -438,6 +439,7 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 				old = current;
 			}
 		}
+		this.updateExecutionStep( );
 		this.update( );
 		return explanation.toString( );
 	}
@@ -458,12 +460,10 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 	 */
 	private void onAlgorithmChanged ( Object source )
 	{
-		String graph = this.algorithm.getStGraphG( ).toString( );
-		String dual = this.algorithm.getStDualG( ).toString( );
-		String drawing = this.algorithm.getDrawing( ).toString( );
-		String explanation = this.algorithm.getAlgorithmExplanation( );
-		
-		this.history.add( new VisRepAlgorithmHistory( graph, dual, drawing, explanation ) );	
+		this.history.add( this.algorithm.getAlgorithmExplanation( ),
+				this.algorithm.getStGraphG( ),
+				this.algorithm.getStDualG( ),
+				this.algorithm.getDrawing( ) );
 	}
 	
 	/**
@@ -481,13 +481,11 @@ public class VisibilityRepDisplayController extends JPanel implements ExecutionC
 	 */
 	private String updateExecutionStep ( )
 	{
-		VisRepAlgorithmHistory step = this.history.current( );
-		
-		this.setGraph( step.getGraph( ) != null ? new Graph( step.getGraph( ) ) : null );
-		this.setDual( step.getDual( ) != null ? new Graph( step.getDual( ) ) : null );
-		this.setDrawing( step.getDrawing( ) != null ? new VisibilityRepresentationDrawing( step.getDrawing( ) ) : null );
+		this.setGraph( this.history.<Graph>getModel( 0 ) );
+		this.setDual( this.history.<Graph>getModel( 1 ) );
+		this.setDrawing( this.history.<VisibilityRepresentationDrawing>getModel( 2 ) );
 		
-		return step.getExplanation( );
+		return this.history.getExplanation( );
 	}
 	
 	/**
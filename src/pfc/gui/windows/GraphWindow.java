@@ -15,6 +15,7 @@ import pfc.controllers.GraphDisplayController.*;
 import pfc.models.*;
 import pfc.resources.*;
 import pfc.settings.*;
+import pfc.utilities.GraphFileUtilities;
 import pfc.views.svg.*;
 
 
@@ -156,6 +157,10 @@ public class GraphWindow extends JInternalFrame implements GraphChangeEventListe
 	
 	public void save( ) throws IOException
 	{
+		// the empty graph shown while a file is loading must never overwrite anything
+		if( this.gdc.isLoading( ) )
+			return;
+		
 		if( this.file == null )
 			this.saveAs( );
 		else
@@ -164,10 +169,14 @@ public class GraphWindow extends JInternalFrame implements GraphChangeEventListe
 	
 	public void saveAs( )
 	{
+		if( this.gdc.isLoading( ) )
+			return;
+		
 		this.fileChooser.resetChoosableFileFilters( );
 		this.fileChooser.setAcceptAllFileFilterUsed( false );
 		this.fileChooser.addChoosableFileFilter( new FileNameExtensionFilter( StringBundle.get( "portable_network_graphics_file_description" ), "png" ) );
 		this.fileChooser.addChoosableFileFilter( new FileNameExtensionFilter( StringBundle.get( "scalable_vector_graphics_file_description" ), "svg" ) );
+		this.fileChooser.addChoosableFileFilter( new FileNameExtensionFilter( StringBundle.get( "visigraph_binary_file_description" ), "vsgb" ) );
 		this.fileChooser.addChoosableFileFilter( new FileNameExtensionFilter( StringBundle.get( "visigraph_file_description" ), "vsg" ) );
 		this.fileChooser.setMultiSelectionEnabled( false );
 		
@@ -181,6 +190,8 @@ public class GraphWindow extends JInternalFrame implements GraphChangeEventListe
 					
 					if( this.fileChooser.getFileFilter( ).getDescription( ).equals( StringBundle.get( "visigraph_file_description" ) ) && !selectedFile.getName( ).endsWith( ".vsg" ) )
 						selectedFile = new File( selectedFile.getAbsolutePath( ) + ".vsg" );
+					else if( this.fileChooser.getFileFilter( ).getDescription( ).equals( StringBundle.get( "visigraph_binary_file_description" ) ) && !selectedFile.getName( ).endsWith( ".vsgb" ) )
+						selectedFile = new File( selectedFile.getAbsolutePath( ) + ".vsgb" );
 					else if( this.fileChooser.getFileFilter( ).getDescription( ).equals( StringBundle.get( "scalable_vector_graphics_file_description" ) ) && !selectedFile.getName( ).endsWith( ".svg" ) )
 						selectedFile = new File( selectedFile.getAbsolutePath( ) + ".svg" );
 					else if( this.fileChooser.getFileFilter( ).getDescription( ).equals( StringBundle.get( "portable_network_graphics_file_description" ) ) && !selectedFile.getName( ).endsWith( ".png" ) )
@@ -204,14 +215,12 @@ public class GraphWindow extends JInternalFrame implements GraphChangeEventListe
 		Graph graph = this.gdc.getGraph( );
 		GraphSettings settings = this.gdc.settings;
 		
-		if( file.getName( ).endsWith( ".vsg" ) )
+		if( file.getName( ).endsWith( ".vsg" ) || file.getName( ).endsWith( ".vsgb" ) )
 		{
-			graph.name.set( file.getName( ).substring( 0, file.getName( ).length( ) - 4 ) );
+			graph.name.set( file.getName( ).substring( 0, file.getName( ).lastIndexOf( '.' ) ) );
 			this.updateTitle( );
 			
-			FileWriter fw = new FileWriter( file );
-			fw.write( graph.toString( ) );
-			fw.close( );
+			GraphFileUtilities.writeGraph( graph, file );
 			
 			this.setFile( file );
 			this.setHasChanged( false );
@@ -4,6 +4,8 @@
 package pfc.gui.windows;
 
 import java.io.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.awt.*;
 import java.util.*;
 import java.beans.*;
@@ -27,6 +29,9 @@ import pfc.models.algorithms.NonIntersectingPathList;
 import pfc.resources.*;
 import pfc.settings.*;
 import pfc.utilities.*;
+import pfc.utilities.graph.GraphValidator;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.ValidationReport;
 
 
 /**
@@ -181,7 +186,7 @@ public class MainWindow extends JFrame
 					{
 						MainWindow.this.fileChooser.resetChoosableFileFilters( );
 						MainWindow.this.fileChooser.setAcceptAllFileFilterUsed( false );
-						MainWindow.this.fileChooser.setFileFilter( new FileNameExtensionFilter( StringBundle.get( "visigraph_file_description" ), "vsg" ) );
+						MainWindow.this.fileChooser.setFileFilter( new FileNameExtensionFilter( StringBundle.get( "visigraph_file_description" ), "vsg", "vsgb" ) );
 						MainWindow.this.fileChooser.setMultiSelectionEnabled( true );
 						
 						boolean success = false;
@@ -489,21 +494,26 @@ public class MainWindow extends JFrame
 						
 						if ( selectedFrame instanceof GraphWindow )
 						{
-							Graph graph = ( (GraphWindow) selectedFrame ).getGdc( ).getGraph( );							
+							final Graph graph = ( (GraphWindow) selectedFrame ).getGdc( ).getGraph( );							
 							// Realizar comprobaciones sobre el tipo de grafo
 							if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
 							{
-							    if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-							    		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) )
+							    MainWindow.this.validateInBackground( graph, GraphValidator.ST_GRAPH_DRAWING, new ValidationListener( )
 							    {
-							        // Agregar la ventana de ejecucion del algoritmo
-							        MainWindow.this.addVisibilityRepWindow( graph );
-							    }
-							    else
-							    {
-			                         JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
-							    }
+							        @Override
+							        public void validated( ValidationReport report )
+							        {
+							            if ( report.isValid( ) )
+							            {
+							                // Agregar la ventana de ejecucion del algoritmo
+							                MainWindow.this.addVisibilityRepWindow( graph );
+							            }
+							            else
+							            {
+							                JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
+							            }
+							        }
+							    } );
 							}
 						}
 						else if ( selectedFrame != null ) 
@@ -528,22 +538,27 @@ public class MainWindow extends JFrame
                         
                         if( selectedFrame instanceof GraphWindow )
                         {
-                            GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
                             {
-                                if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) )
+                                MainWindow.this.validateInBackground( graph, GraphValidator.ST_GRAPH_DRAWING, new ValidationListener( )
                                 {
-                                    // Agregar la ventana de ejecucion del algoritmo
-                                    MainWindow.this.addConstrainedVisibilityRepWindow( graph, gdc.getNonIntersectingPaths( ) );
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
-                                }
+                                    @Override
+                                    public void validated( ValidationReport report )
+                                    {
+                                        if ( report.isValid( ) )
+                                        {
+                                            // Agregar la ventana de ejecucion del algoritmo
+                                            MainWindow.this.addConstrainedVisibilityRepWindow( graph, gdc.getNonIntersectingPaths( ) );
+                                        }
+                                        else
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
+                                        }
+                                    }
+                                } );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -570,22 +585,27 @@ public class MainWindow extends JFrame
                         
                         if( selectedFrame instanceof GraphWindow )
                         {
-                            GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
                             {
-                                if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) )
+                                MainWindow.this.validateInBackground( graph, GraphValidator.ST_GRAPH_DRAWING, new ValidationListener( )
                                 {
-                                    // Agregar la ventana de ejecucion del algoritmo
-                                    MainWindow.this.addUpwardPolylineWindow( graph );
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
-                                }
+                                    @Override
+                                    public void validated( ValidationReport report )
+                                    {
+                                        if ( report.isValid( ) )
+                                        {
+                                            // Agregar la ventana de ejecucion del algoritmo
+                                            MainWindow.this.addUpwardPolylineWindow( graph );
+                                        }
+                                        else
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
+                                        }
+                                    }
+                                } );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -610,30 +630,32 @@ public class MainWindow extends JFrame
                         
                         if( selectedFrame instanceof GraphWindow )
                         {
-                            GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
                             {
-                                if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) )
+                                MainWindow.this.validateInBackground( graph, GraphValidator.ST_GRAPH_DRAWING, new ValidationListener( )
                                 {
-                                    // Comprobar si son vertex disjoint los paths
-                                	if ( gdc.getNonIntersectingPaths( ).areVertexDisjoint( ) )
-                                	{
-                                		// Agregar la ventana de ejecucion del algoritmo
-                                		MainWindow.this.addConstrainedUpwardPolylineWindow( graph, gdc.getNonIntersectingPaths( ) );
-                                	}
-                                	else
-                                	{
-                                        JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_paths_dialog_message" ) );
-                                	}
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ) );
-                                }
+                                    @Override
+                                    public void validated( ValidationReport report )
+                                    {
+                                        if ( report.isValid( ) == false )
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ) );
+                                        }
+                                        // Comprobar si son vertex disjoint los paths
+                                        else if ( gdc.getNonIntersectingPaths( ).areVertexDisjoint( ) )
+                                        {
+                                            // Agregar la ventana de ejecucion del algoritmo
+                                            MainWindow.this.addConstrainedUpwardPolylineWindow( graph, gdc.getNonIntersectingPaths( ) );
+                                        }
+                                        else
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_paths_dialog_message" ) );
+                                        }
+                                    }
+                                } );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -661,25 +683,33 @@ public class MainWindow extends JFrame
                         if( selectedFrame instanceof GraphWindow )
                         {
                             GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size( ) > 0 && graph.edges.size( ) > 0 )
                             {
-                            	if ( graph.areDirectedEdgesAllowed && GraphUtilities.isSTGraph( graph ) == false )
+                            	Set<GraphValidator.Check> checks = EnumSet.copyOf( GraphValidator.ORTHOGONAL_DRAWING );
+                            	if ( graph.areDirectedEdgesAllowed )
+                            		checks.add( GraphValidator.Check.ST_GRAPH );
+                            	MainWindow.this.validateInBackground( graph, checks, new ValidationListener( )
                             	{
-                            		JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ) );
-                            	}
-                            	else if ( GraphUtilities.getMaximumDegree( graph ) <= 4 &&
-                                		GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isBiconnected( graph ) )
-                                {
-                                    // Agregar la ventana de ejecucion del algoritmo
-                                    MainWindow.this.addOrthogonalWindow( graph );
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_orthogonal_graph_dialog_message" ));
-                                }
+                            		@Override
+                            		public void validated( ValidationReport report )
+                            		{
+                            			if ( graph.areDirectedEdgesAllowed && report.isPassed( GraphValidator.Check.ST_GRAPH ) == false )
+                            			{
+                            				JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ) );
+                            			}
+                            			else if ( report.isValid( ) )
+                            			{
+                            				// Agregar la ventana de ejecucion del algoritmo
+                            				MainWindow.this.addOrthogonalWindow( graph );
+                            			}
+                            			else
+                            			{
+                            				JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_orthogonal_graph_dialog_message" ));
+                            			}
+                            		}
+                            	} );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -706,23 +736,27 @@ public class MainWindow extends JFrame
                         
                         if( selectedFrame instanceof GraphWindow )
                         {
-                            GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
                             {
-                                if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) &&
-                                		GraphUtilities.isReducedDigraph( graph ) )
+                                MainWindow.this.validateInBackground( graph, GraphValidator.SL_DOMINANCE_DRAWING, new ValidationListener( )
                                 {
-                                    // Agregar la ventana de ejecucion del algoritmo
-                                    MainWindow.this.addStraightLineDominanceWindow( graph );
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_reduced_graph_dialog_message" ));
-                                }
+                                    @Override
+                                    public void validated( ValidationReport report )
+                                    {
+                                        if ( report.isValid( ) )
+                                        {
+                                            // Agregar la ventana de ejecucion del algoritmo
+                                            MainWindow.this.addStraightLineDominanceWindow( graph );
+                                        }
+                                        else
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_reduced_graph_dialog_message" ));
+                                        }
+                                    }
+                                } );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -747,22 +781,27 @@ public class MainWindow extends JFrame
                         
                         if( selectedFrame instanceof GraphWindow )
                         {
-                            GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
-                            Graph graph = gdc.getGraph( );
+                            final GraphDisplayController gdc = ( (GraphWindow) selectedFrame ).getGdc( );
+                            final Graph graph = gdc.getGraph( );
                             // Realizar comprobaciones sobre el tipo de grafo
                             if ( graph.vertices.size() > 0 && graph.edges.size() > 0 )
                             {
-                                if ( GraphUtilities.isPlanarEmbedding( graph ) &&
-                                		GraphUtilities.isSTGraph( graph ) &&
-							    		GraphUtilities.areSTOnOuterFace( graph ) )
+                                MainWindow.this.validateInBackground( graph, GraphValidator.ST_GRAPH_DRAWING, new ValidationListener( )
                                 {
-                                    // Agregar la ventana de ejecucion del algoritmo
-                                    MainWindow.this.addPolylineDominanceWindow( graph );
-                                }
-                                else
-                                {
-                                     JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
-                                }
+                                    @Override
+                                    public void validated( ValidationReport report )
+                                    {
+                                        if ( report.isValid( ) )
+                                        {
+                                            // Agregar la ventana de ejecucion del algoritmo
+                                            MainWindow.this.addPolylineDominanceWindow( graph );
+                                        }
+                                        else
+                                        {
+                                            JOptionPane.showMessageDialog( MainWindow.this, StringBundle.get( "error_algorithm_graph_dialog_message" ));
+                                        }
+                                    }
+                                } );
                             }
                         }
                         else if ( selectedFrame != null ) 
@@ -1228,16 +1267,116 @@ public class MainWindow extends JFrame
 		return frames;
 	}
 	
-	public void openFile( File file ) throws IOException
+	/**
+	 * Receives the report of {@link MainWindow#validateInBackground(Graph, Set, ValidationListener)} on the event dispatch thread
+	 */
+	private interface ValidationListener
 	{
-		Scanner scanner = new Scanner( file );
-		StringBuilder sb = new StringBuilder( );
-		while( scanner.hasNextLine( ) )
-			sb.append( scanner.nextLine( ) );
+		public void validated( ValidationReport report );
+	}
+	
+	/**
+	 * Checks the preconditions of an algorithm without blocking the event dispatch thread. The snapshot is taken here, on the event dispatch
+	 * thread, so the checks never read the live graph. If the graph is edited while they run, the report is discarded and the graph is validated
+	 * again, so the listener never acts on a stale report.
+	 * 
+	 * @param graph the graph shown in the selected window
+	 * @param checks the checks to run
+	 * @param listener notified on the event dispatch thread with the report
+	 */
+	private void validateInBackground( final Graph graph, final Set<GraphValidator.Check> checks, final ValidationListener listener )
+	{
+		final IndexedGraph snapshot = new IndexedGraph( graph );
+		final AtomicBoolean changed = new AtomicBoolean( );
+		final Observer observer = new Observer( )
+		{
+			@Override
+			public void update( Observable o, Object arg )
+			{
+				changed.set( true );
+			}
+		};
+		graph.addObserver( observer );
 		
-		scanner.close( );
+		new SwingWorker<ValidationReport, Object>( )
+		{
+			@Override
+			protected ValidationReport doInBackground( )
+			{
+				return new GraphValidator( graph, snapshot ).validate( checks );
+			}
+			
+			@Override
+			protected void done( )
+			{
+				graph.deleteObserver( observer );
+				if( changed.get( ) )
+				{
+					MainWindow.this.validateInBackground( graph, checks, listener );
+					return;
+				}
+				
+				try
+				{
+					listener.validated( this.get( ) );
+				}
+				catch( InterruptedException ex )
+				{
+					Thread.currentThread( ).interrupt( );
+				}
+				catch( ExecutionException ex )
+				{
+					throw new RuntimeException( ex.getCause( ) );
+				}
+			}
+		}.execute( );
+	}
+	
+	public void openFile( final File file ) throws IOException
+	{
+		// Binary files are mapped and painted from their raw coordinates while the full graph is built in the background.
+		// The window is bound to the file only once the graph is loaded, so that the empty graph can never be saved over it
+		if( GraphFileUtilities.isBinaryFile( file ) )
+		{
+			final MappedGraphFile mappedFile = new MappedGraphFile( file );
+			final GraphWindow graphWindow = this.addGraphWindow( mappedFile.getEmptyGraph( ) );
+			graphWindow.getGdc( ).setPreview( mappedFile );
+			graphWindow.getGdc( ).zoomFit( );
+			
+			new SwingWorker<Graph, Object>( )
+			{
+				@Override
+				protected Graph doInBackground( ) throws IOException
+				{
+					return mappedFile.toGraph( );
+				}
+				
+				@Override
+				protected void done( )
+				{
+					try
+					{
+						graphWindow.getGdc( ).setLoadedGraph( this.get( ) );
+						graphWindow.setFile( file );
+					}
+					catch( Exception ex )
+					{
+						System.out.println( "An exception occurred while loading a graph from file." );
+						graphWindow.getGdc( ).setPreview( null );
+						graphWindow.getGdc( ).dispose( );
+						graphWindow.dispose( );
+						JOptionPane.showMessageDialog( MainWindow.this, String.format( StringBundle.get( "an_exception_occurred_while_loading_graph_dialog_message" ), file.getName( ) ) );
+					}
+					finally
+					{
+						mappedFile.close( );
+					}
+				}
+			}.execute( );
+			return;
+		}
 		
-		Graph newGraph = new Graph( sb.toString( ) );
+		Graph newGraph = GraphFileUtilities.readGraph( file );
 		if( newGraph != null )
 			this.addGraphWindow( newGraph ).setFile( file );
 	}
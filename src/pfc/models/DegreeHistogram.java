@@ -0,0 +1,138 @@
+/**
+ * DegreeHistogram.java
+ */
+package pfc.models;
+
+import java.util.*;
+
+/**
+ * A {@code DegreeHistogram} counts how many vertices of a {@link Graph} have each degree. It is owned and kept up to date by its graph as vertices
+ * and edges are added and removed, so the maximum degree and the degree distribution are answered without rescanning the edges. Outside this
+ * package it is read-only.
+ *
+ * @author walber
+ * @see Graph#getDegreeHistogram()
+ */
+public class DegreeHistogram
+{
+	/**
+	 * The number of vertices with each degree, indexed by degree
+	 */
+	private int[ ]	counts;
+
+	/**
+	 * The highest degree with a nonzero count, or 0 if there are no vertices
+	 */
+	private int		maximum;
+
+	/**
+	 * The number of vertices counted
+	 */
+	private int		size;
+
+	/**
+	 * Constructs an empty histogram.
+	 */
+	DegreeHistogram( )
+	{
+		this.counts = new int[8];
+	}
+
+	/**
+	 * Returns the highest degree of any vertex, in constant time.
+	 *
+	 * @return the maximum degree, or 0 if there are no vertices
+	 */
+	public int getMaximumDegree( )
+	{
+		return this.maximum;
+	}
+
+	/**
+	 * Returns the number of vertices with a given degree.
+	 *
+	 * @param degree the degree
+	 * @return the number of vertices with exactly that degree
+	 */
+	public int getCount( int degree )
+	{
+		return ( degree < 0 || degree >= this.counts.length ) ? 0 : this.counts[degree];
+	}
+
+	/**
+	 * Returns the degree distribution as a new array, whose element {@code d} is the number of vertices with degree {@code d}.
+	 *
+	 * @return the counts from degree 0 up to the maximum degree
+	 */
+	public int[ ] getDistribution( )
+	{
+		return Arrays.copyOf( this.counts, this.size == 0 ? 0 : this.maximum + 1 );
+	}
+
+	/**
+	 * Returns the number of vertices counted in this histogram.
+	 *
+	 * @return the number of vertices
+	 */
+	public int getVertexCount( )
+	{
+		return this.size;
+	}
+
+	/**
+	 * Counts a vertex with the specified degree.
+	 *
+	 * @param degree the degree of the vertex
+	 */
+	void add( int degree )
+	{
+		if( degree >= this.counts.length )
+			this.counts = Arrays.copyOf( this.counts, Math.max( degree + 1, 2 * this.counts.length ) );
+		this.counts[degree]++;
+		this.size++;
+		if( degree > this.maximum )
+			this.maximum = degree;
+	}
+
+	/**
+	 * Stops counting a vertex with the specified degree.
+	 *
+	 * @param degree the degree of the vertex
+	 */
+	void remove( int degree )
+	{
+		this.counts[degree]--;
+		this.size--;
+		// degrees change by one or two edges at a time, so the maximum rarely moves far
+		while( this.maximum > 0 && this.counts[this.maximum] == 0 )
+			this.maximum--;
+	}
+
+	/**
+	 * Moves a vertex from one degree to another.
+	 *
+	 * @param from the old degree of the vertex
+	 * @param to the new degree of the vertex
+	 */
+	void move( int from, int to )
+	{
+		if( from != to )
+		{
+			this.add( to );
+			this.remove( from );
+		}
+	}
+
+	/**
+	 * Resets this histogram to a number of vertices of degree 0.
+	 *
+	 * @param vertexCount the number of vertices
+	 */
+	void reset( int vertexCount )
+	{
+		Arrays.fill( this.counts, 0 );
+		this.counts[0] = vertexCount;
+		this.size = vertexCount;
+		this.maximum = 0;
+	}
+}
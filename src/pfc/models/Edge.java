@@ -477,6 +477,7 @@ public class Edge extends ObservableModel
 	public void setBends( List<Point2D> bends )
 	{
 		this.bends = bends;
+		this.incrementModificationCount( );
 	}
 
 	/**
@@ -9,6 +9,7 @@ import java.awt.geom.*;
 
 import pfc.settings.*;
 import pfc.utilities.*;
+import pfc.utilities.graph.ReachabilityIndex;
 
 
 /**
@@ -81,9 +82,44 @@ public class Graph extends ObservableModel
 	public final boolean					areCyclesAllowed;
 	
 	/**
-	 * A {@code Map} of vertices to edge-incidence lists
+	 * A {@code Map} of vertices to their incidence and adjacency indexes
 	 */
-	private final Map<Vertex, Set<Edge>>	incidences;
+	private final Map<Vertex, Adjacency>	incidences;
+	
+	/**
+	 * The vertices of this digraph that have outgoing edges but no incoming ones, maintained along with {@link #incidences}
+	 */
+	private final Set<Vertex>				sources;
+	
+	/**
+	 * The vertices of this digraph that have incoming edges but no outgoing ones, maintained along with {@link #incidences}
+	 */
+	private final Set<Vertex>				sinks;
+	
+	/**
+	 * The number of vertices with each total degree, counting loops twice, maintained along with {@link #incidences}
+	 */
+	private final DegreeHistogram			degrees;
+	
+	/**
+	 * The number of vertices with each in-degree; in undirected graphs the same histogram as {@link #degrees}
+	 */
+	private final DegreeHistogram			inDegrees;
+	
+	/**
+	 * The number of vertices with each out-degree; in undirected graphs the same histogram as {@link #degrees}
+	 */
+	private final DegreeHistogram			outDegrees;
+	
+	/**
+	 * A counter incremented on every change to this graph's vertex or edge sets, used to tell whether cached indexes are still valid
+	 */
+	private int								structureVersion;
+	
+	/**
+	 * A {@code boolean} flag set by {@link #addAcyclicEdges(Collection)} to skip the path search made for each edge added to an acyclic graph
+	 */
+	private boolean							isCycleCheckSuspended;
 	
 	/**
 	 * An {@code Observer} used to notify this graph's subscribed {@code Observer}s of changes to any of its elements' properties
@@ -187,7 +223,12 @@ public class Graph extends ObservableModel
 			}
 		};
 		
-		this.incidences = new HashMap<Vertex, Set<Edge>>( );
+		this.incidences = new HashMap<Vertex, Adjacency>( );
+		this.sources = new LinkedHashSet<Vertex>( );
+		this.sinks = new LinkedHashSet<Vertex>( );
+		this.degrees = new DegreeHistogram( );
+		this.inDegrees = areDirectedEdgesAllowed ? new DegreeHistogram( ) : this.degrees;
+		this.outDegrees = areDirectedEdgesAllowed ? new DegreeHistogram( ) : this.degrees;
 		
 		this.vertices = new ArrayList<Vertex>( )
 		{
@@ -200,7 +241,9 @@ public class Graph extends ObservableModel
 				Graph.this.suspendNotifications( true );
 				
 				super.add( element );
-				Graph.this.incidences.put( element, new HashSet<Edge>( ) );
+				Graph.this.incidences.put( element, new Adjacency( Graph.this.areDirectedEdgesAllowed ) );
+				Graph.this.countVertex( true );
+				Graph.this.structureVersion++;
 				element.addObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -241,6 +284,8 @@ public class Graph extends ObservableModel
 					vertex.deleteObserver( Graph.this.elementObserver );
 				super.clear( );
 				Graph.this.incidences.clear( );
+				Graph.this.resetDegrees( );
+				Graph.this.structureVersion++;
 				Graph.this.edges.clear( );
 				
 				Graph.this.suspendNotifications( false );
@@ -278,6 +323,8 @@ public class Graph extends ObservableModel
 				Graph.this.edges.removeAll( Graph.this.getEdges( removedVertex ) );
 				
 				Graph.this.incidences.remove( removedVertex );
+				Graph.this.countVertex( false );
+				Graph.this.structureVersion++;
 				removedVertex.deleteObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -340,7 +387,8 @@ public class Graph extends ObservableModel
 				
 				super.set( index, element );
 				
-				Graph.this.incidences.put( element, new HashSet<Edge>( ) );
+				Graph.this.incidences.put( element, new Adjacency( Graph.this.areDirectedEdgesAllowed ) );
+				Graph.this.structureVersion++;
 				element.addObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -370,9 +418,7 @@ public class Graph extends ObservableModel
 				Graph.this.suspendNotifications( true );
 				
 				super.add( index, element );
-				Graph.this.incidences.get( element.from ).add( element );
-				if( !element.isLoop )
-					Graph.this.incidences.get( element.to ).add( element );
+				Graph.this.addIncidences( element );
 				element.addObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -392,7 +438,12 @@ public class Graph extends ObservableModel
 			{
 				int originalSize = this.size( );
 				for( Edge edge : c )
-					this.add( index++, edge );
+				{
+					int size = this.size( );
+					this.add( index, edge );
+					if( this.size( ) != size )
+						index++;
+				}
 				return originalSize != this.size( );
 			}
 			
@@ -403,8 +454,12 @@ public class Graph extends ObservableModel
 				
 				for( Edge edge : this )
 					edge.deleteObserver( Graph.this.elementObserver );
-				for( Set<Edge> edgeMapValue : Graph.this.incidences.values( ) )
-					edgeMapValue.clear( );
+				for( Adjacency adjacency : Graph.this.incidences.values( ) )
+					adjacency.clear( );
+				Graph.this.resetDegrees( );
+				Graph.this.sources.clear( );
+				Graph.this.sinks.clear( );
+				Graph.this.structureVersion++;
 				super.clear( );
 				
 				Graph.this.suspendNotifications( false );
@@ -416,7 +471,7 @@ public class Graph extends ObservableModel
 			@Override
 			public boolean contains( Object o )
 			{
-				return ( o instanceof Edge && Graph.this.incidences.containsKey( ( (Edge) o ).from ) && Graph.this.incidences.get( ( (Edge) o ).from ).contains( o ) );
+				return ( o instanceof Edge && Graph.this.incidences.containsKey( ( (Edge) o ).from ) && Graph.this.incidences.get( ( (Edge) o ).from ).edges.contains( o ) );
 			}
 			
 			@Override
@@ -439,9 +494,9 @@ public class Graph extends ObservableModel
 					return false;
 				else if( this.contains( element ) )
 					return false;
-				else if( !Graph.this.areMultipleEdgesAllowed && !Graph.this.getEdges( element.from, element.to ).isEmpty( ) )
+				else if( !Graph.this.areMultipleEdgesAllowed && Graph.this.getEdge( element.from, element.to ) != null )
 					return false;
-				else if( !Graph.this.areCyclesAllowed && Graph.this.areConnected( element.from, element.to ) )
+				else if( !Graph.this.areCyclesAllowed && !Graph.this.isCycleCheckSuspended && Graph.this.areConnected( element.from, element.to ) )
 					return false;
 				
 				return true;
@@ -453,9 +508,7 @@ public class Graph extends ObservableModel
 				Graph.this.suspendNotifications( true );
 				
 				Edge removedEdge = super.remove( index );
-				Graph.this.incidences.get( removedEdge.from ).remove( removedEdge );
-				if( !removedEdge.isLoop )
-					Graph.this.incidences.get( removedEdge.to ).remove( removedEdge );
+				Graph.this.removeIncidences( removedEdge );
 				removedEdge.deleteObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -509,16 +562,12 @@ public class Graph extends ObservableModel
 				Graph.this.suspendNotifications( true );
 				
 				Edge oldEdge = this.get( index );
-				Graph.this.incidences.get( oldEdge.from ).remove( oldEdge );
-				if( !oldEdge.isLoop )
-					Graph.this.incidences.get( oldEdge.to ).remove( oldEdge );
+				Graph.this.removeIncidences( oldEdge );
 				oldEdge.deleteObserver( Graph.this.elementObserver );
 				
 				super.set( index, element );
 				
-				Graph.this.incidences.get( element.from ).add( element );
-				if( !element.isLoop )
-					Graph.this.incidences.get( element.to ).add( element );
+				Graph.this.addIncidences( element );
 				element.addObserver( Graph.this.elementObserver );
 				
 				Graph.this.suspendNotifications( false );
@@ -531,10 +580,142 @@ public class Graph extends ObservableModel
 		};
 	}
 	
+	/**
+	 * Adds an edge to the incidence and adjacency indexes of its endpoints. Called by the {@link #edges} list after the edge has been validated.
+	 * 
+	 * @param edge the edge being added to this graph
+	 */
+	private void addIncidences( Edge edge )
+	{
+		Adjacency from = this.incidences.get( edge.from );
+		Adjacency to = this.incidences.get( edge.to );
+		this.structureVersion++;
+		
+		from.edges.add( edge );
+		to.edges.add( edge );
+		if( this.areDirectedEdgesAllowed )
+		{
+			from.edgesOut.add( edge );
+			to.edgesIn.add( edge );
+			this.updateTerminals( edge.from, from );
+			this.updateTerminals( edge.to, to );
+		}
+		
+		// in undirected graphs the successor and predecessor maps are the same, so the edge is reachable from both of its endpoints
+		from.addSuccessor( edge.to, edge );
+		to.addPredecessor( edge.from, edge );
+		this.updateDegrees( from, to, 1 );
+	}
+	
+	/**
+	 * Removes an edge from the incidence and adjacency indexes of its endpoints. Called by the {@link #edges} list when the edge is removed.
+	 * 
+	 * @param edge the edge being removed from this graph
+	 */
+	private void removeIncidences( Edge edge )
+	{
+		Adjacency from = this.incidences.get( edge.from );
+		Adjacency to = this.incidences.get( edge.to );
+		this.structureVersion++;
+		
+		from.edges.remove( edge );
+		to.edges.remove( edge );
+		if( this.areDirectedEdgesAllowed )
+		{
+			from.edgesOut.remove( edge );
+			to.edgesIn.remove( edge );
+			this.updateTerminals( edge.from, from );
+			this.updateTerminals( edge.to, to );
+		}
+		
+		from.removeSuccessor( edge.to, edge );
+		to.removePredecessor( edge.from, edge );
+		this.updateDegrees( from, to, -1 );
+	}
+	
+	/**
+	 * Updates the degrees of the endpoints of an edge, and the degree histograms, after the edge has been added or removed. A loop adds one to both
+	 * the in-degree and the out-degree of its vertex, and so two to its degree.
+	 * 
+	 * @param from the incidence indexes of the vertex from which the edge goes
+	 * @param to the incidence indexes of the vertex to which the edge goes
+	 * @param delta 1 if the edge has been added, -1 if it has been removed
+	 */
+	private void updateDegrees( Adjacency from, Adjacency to, int delta )
+	{
+		int fromDegree = from.inDegree + from.outDegree;
+		if( this.areDirectedEdgesAllowed )
+			this.outDegrees.move( from.outDegree, from.outDegree + delta );
+		from.outDegree += delta;
+		this.degrees.move( fromDegree, from.inDegree + from.outDegree );
+		
+		int toDegree = to.inDegree + to.outDegree;
+		if( this.areDirectedEdgesAllowed )
+			this.inDegrees.move( to.inDegree, to.inDegree + delta );
+		to.inDegree += delta;
+		this.degrees.move( toDegree, to.inDegree + to.outDegree );
+	}
+	
+	/**
+	 * Counts a vertex of degree 0 in the degree histograms, or stops counting it. Vertices are removed only after all of their edges.
+	 * 
+	 * @param added {@code true} if the vertex has been added, {@code false} if it has been removed
+	 */
+	private void countVertex( boolean added )
+	{
+		for( DegreeHistogram histogram : this.getHistograms( ) )
+			if( added )
+				histogram.add( 0 );
+			else
+				histogram.remove( 0 );
+	}
+	
+	/**
+	 * Resets the degree histograms after all edges, or all vertices, have been removed.
+	 */
+	private void resetDegrees( )
+	{
+		for( DegreeHistogram histogram : this.getHistograms( ) )
+			histogram.reset( this.incidences.size( ) );
+	}
+	
+	/**
+	 * Returns the distinct degree histograms of this graph: one in undirected graphs, three in digraphs.
+	 * 
+	 * @return the degree histograms
+	 */
+	private DegreeHistogram[ ] getHistograms( )
+	{
+		if( this.areDirectedEdgesAllowed )
+			return new DegreeHistogram[ ] { this.degrees, this.inDegrees, this.outDegrees };
+		return new DegreeHistogram[ ] { this.degrees };
+	}
+	
+	/**
+	 * Updates the membership of a vertex in the {@link #sources} and {@link #sinks} sets after one of its edges has been added or removed.
+	 * 
+	 * @param vertex the vertex whose degree has changed
+	 * @param adjacency the incidence indexes of the vertex
+	 */
+	private void updateTerminals( Vertex vertex, Adjacency adjacency )
+	{
+		if( !adjacency.edgesOut.isEmpty( ) && adjacency.edgesIn.isEmpty( ) )
+			this.sources.add( vertex );
+		else
+			this.sources.remove( vertex );
+		
+		if( !adjacency.edgesIn.isEmpty( ) && adjacency.edgesOut.isEmpty( ) )
+			this.sinks.add( vertex );
+		else
+			this.sinks.remove( vertex );
+	}
+	
 	/**
 	 * Returns a {@code boolean} indicating whether or not there exists a path between the two vertices. Although implemented using a relatively fast
 	 * algorithm, the method still has a worst-case performance of O(|E| + |V|log|V|), where E is the set of all edges in the graph, and V is the set
-	 * of all vertices. Caution must therefore be used when calling this method, especially where performance is a consideration.
+	 * of all vertices. Caution must therefore be used when calling this method, especially where performance is a consideration. In a digraph
+	 * queried many times without changes the answer comes instead from its {@link ReachabilityIndex}, see {@link ReachabilityIndex#lookup(Graph)};
+	 * the search is still made for isolated queries, such as the cycle check of each edge added to an acyclic graph, and for graphs with cycles.
 	 * 
 	 * @param from the vertex from which the path begins
 	 * @param to the vertex at which the path ends
@@ -544,8 +725,12 @@ public class Graph extends ObservableModel
 	 */
 	public boolean areConnected( Vertex from, Vertex to )
 	{
+		ReachabilityIndex index = this.areDirectedEdgesAllowed ? ReachabilityIndex.lookup( this ) : null;
+		if( index != null )
+			return to.equals( from ) || index.reaches( to, from );
+		
 		Set<Vertex> visited = new HashSet<Vertex>( );
-		Stack<Vertex> toVisit = new Stack<Vertex>( );
+		Deque<Vertex> toVisit = new ArrayDeque<Vertex>( );
 		
 		toVisit.push( to );
 		
@@ -556,9 +741,7 @@ public class Graph extends ObservableModel
 				return true;
 			visited.add( vertex );
 			
-			Set<Vertex> neighbors = this.getNeighbors( vertex );
-			
-			for( Vertex neighbor : neighbors )
+			for( Vertex neighbor : this.getSuccessors( vertex ) )
 				if( !visited.contains( neighbor ) )
 					toVisit.push( neighbor );
 		}
@@ -566,6 +749,38 @@ public class Graph extends ObservableModel
 		return false;
 	}
 	
+	/**
+	 * Adds edges that are known not to close a cycle, such as edges oriented along a topological numbering or an st-numbering. Adding an edge to a
+	 * graph that does not allow cycles normally costs a path search with {@link #areConnected(Vertex, Vertex)}; this method skips it, so each edge
+	 * is added in constant time. All other constraints are still checked, and edges that fail them are not added.
+	 * 
+	 * @param edges the edges to add, which must not form a cycle with each other or with the edges already in this graph
+	 * @return {@code true} if this graph changed as a result of the call
+	 */
+	public boolean addAcyclicEdges( Collection<? extends Edge> edges )
+	{
+		this.isCycleCheckSuspended = true;
+		try
+		{
+			return this.edges.addAll( edges );
+		}
+		finally
+		{
+			this.isCycleCheckSuspended = false;
+		}
+	}
+	
+	/**
+	 * Returns the version of this graph's structure, which changes every time a vertex or an edge is added or removed. Indexes built from the
+	 * graph, such as a reachability index, can keep the version at which they were built to tell whether they are still valid.
+	 * 
+	 * @return the current structure version
+	 */
+	public int getStructureVersion( )
+	{
+		return this.structureVersion;
+	}
+	
 	/**
 	 * Returns the set of all edges incident to a given vertex. In both directed and undirected graphs this includes all edges, both from- and to-,
 	 * the specified vertex.
@@ -577,7 +792,7 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Edge> getEdges( Vertex vertex )
 	{
-		return new HashSet<Edge>( this.incidences.get( vertex ) );
+		return new HashSet<Edge>( this.getIncidentEdges( vertex ) );
 	}
 	
 	/**
@@ -593,13 +808,10 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Edge> getEdges( Vertex from, Vertex to )
 	{
-		Set<Edge> spanningEdges = new HashSet<Edge>( );
-		for( Edge edge : this.incidences.get( from ) )
-			if( ( edge.from.equals( from ) && edge.to.equals( to ) ) ||
-					( !edge.isDirected && edge.from.equals( to ) && edge.to.equals( from ) ) )
-				spanningEdges.add( edge );
+		Adjacency adjacency = this.incidences.get( from );
+		Set<Edge> spanningEdges = ( adjacency == null ) ? null : adjacency.successors.get( to );
 		
-		return spanningEdges;
+		return ( spanningEdges == null ) ? new HashSet<Edge>( ) : new HashSet<Edge>( spanningEdges );
 	}
 	
 	/**
@@ -613,15 +825,7 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Edge> getEdgesFrom( Vertex vertex )
 	{
-		if( !this.areDirectedEdgesAllowed )
-			return this.getEdges( vertex );
-		
-		Set<Edge> edgesFrom = new HashSet<Edge>( );
-		for( Edge edge : this.incidences.get( vertex ) )
-			if( edge.from.equals( vertex ) )
-				edgesFrom.add( edge );
-		
-		return edgesFrom;
+		return new HashSet<Edge>( this.getOutgoingEdges( vertex ) );
 	}
 	
 	/**
@@ -635,15 +839,7 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Edge> getEdgesTo( Vertex vertex )
 	{
-		if( !this.areDirectedEdgesAllowed )
-			return this.getEdges( vertex );
-		
-		Set<Edge> edgesTo = new HashSet<Edge>( );
-		for( Edge edge : this.incidences.get( vertex ) )
-			if( edge.to.equals( vertex ) )
-				edgesTo.add( edge );
-		
-		return edgesTo;
+		return new HashSet<Edge>( this.getIncomingEdges( vertex ) );
 	}
 	
 	/**
@@ -658,11 +854,7 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Vertex> getNeighbors( Vertex vertex )
 	{
-		Set<Vertex> neighbors = new HashSet<Vertex>( );
-		for( Edge edge : this.getEdgesFrom( vertex ) )
-			neighbors.add( ( edge.from.equals( vertex ) ) ? edge.to : edge.from );
-		
-		return neighbors;
+		return new HashSet<Vertex>( this.getSuccessors( vertex ) );
 	}
 	
 	/**
@@ -676,6 +868,9 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Vertex> getNeighborsIn( Vertex vertex )
 	{
+		if( this.areDirectedEdgesAllowed )
+			return new HashSet<Vertex>( this.getPredecessors( vertex ) );
+		
 		Set<Edge> in = this.getEdgesTo( vertex );
 		Set<Vertex> neighborsIn = new HashSet<Vertex>( );
 		for ( Iterator<Edge> it = in.iterator( ); it.hasNext( ); )
@@ -694,6 +889,9 @@ public class Graph extends ObservableModel
 	 */
 	public Set<Vertex> getNeighborsOut( Vertex vertex )
 	{
+		if( this.areDirectedEdgesAllowed )
+			return new HashSet<Vertex>( this.getSuccessors( vertex ) );
+		
 		Set<Edge> out = this.getEdgesFrom( vertex );
 		Set<Vertex> neighborsOut = new HashSet<Vertex>( );
 		for ( Iterator<Edge> it = out.iterator( ); it.hasNext( ); )
@@ -714,6 +912,214 @@ public class Graph extends ObservableModel
 		return neighbors;
 	}
 	
+	/**
+	 * Returns a read-only view of the edges incident to a given vertex. Unlike {@link #getEdges(Vertex)} the set is not copied, so this method runs in
+	 * constant time and the view reflects later changes to this graph. The view must not be iterated while the graph is being modified.
+	 * 
+	 * @param vertex the vertex to which the edges are incident
+	 * @return the edges incident to the specified vertex, or an empty set if the vertex does not belong to this graph
+	 * @see #getEdges(Vertex)
+	 */
+	public Set<Edge> getIncidentEdges( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? Collections.<Edge> emptySet( ) : adjacency.edgesView;
+	}
+	
+	/**
+	 * Returns a read-only view of the edges coming from a given vertex. In an undirected graph this includes all edges incident to the specified
+	 * vertex.
+	 * 
+	 * @param vertex the vertex from which the edges go
+	 * @return the edges going from the specified vertex, or an empty set if the vertex does not belong to this graph
+	 * @see #getEdgesFrom(Vertex)
+	 */
+	public Set<Edge> getOutgoingEdges( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? Collections.<Edge> emptySet( ) : adjacency.edgesOutView;
+	}
+	
+	/**
+	 * Returns a read-only view of the edges going to a given vertex. In an undirected graph this includes all edges incident to the specified
+	 * vertex.
+	 * 
+	 * @param vertex the vertex to which the edges go
+	 * @return the edges going to the specified vertex, or an empty set if the vertex does not belong to this graph
+	 * @see #getEdgesTo(Vertex)
+	 */
+	public Set<Edge> getIncomingEdges( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? Collections.<Edge> emptySet( ) : adjacency.edgesInView;
+	}
+	
+	/**
+	 * Returns a read-only view of the vertices B such that there exists an edge from the given vertex to B. In an undirected graph these are all the
+	 * neighbors of the vertex.
+	 * 
+	 * @param vertex the vertex from which the edges go
+	 * @return the successors of the specified vertex, or an empty set if the vertex does not belong to this graph
+	 * @see #getNeighbors(Vertex)
+	 * @see #getNeighborsOut(Vertex)
+	 */
+	public Set<Vertex> getSuccessors( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? Collections.<Vertex> emptySet( ) : adjacency.successorsView;
+	}
+	
+	/**
+	 * Returns a read-only view of the vertices B such that there exists an edge from B to the given vertex. In an undirected graph these are all the
+	 * neighbors of the vertex.
+	 * 
+	 * @param vertex the vertex to which the edges go
+	 * @return the predecessors of the specified vertex, or an empty set if the vertex does not belong to this graph
+	 * @see #getNeighborsIn(Vertex)
+	 */
+	public Set<Vertex> getPredecessors( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? Collections.<Vertex> emptySet( ) : adjacency.predecessorsView;
+	}
+	
+	/**
+	 * Returns an edge going from one specified vertex to another, looked up in constant time. In undirected graphs the edge may go in either
+	 * direction. When several edges bridge the vertices, which one is returned is unspecified.
+	 * 
+	 * @param from the vertex from which the edge goes
+	 * @param to the vertex to which the edge goes
+	 * @return an edge bridging the specified vertices, or {@code null} if there is none
+	 * @see #getEdges(Vertex, Vertex)
+	 */
+	public Edge getEdge( Vertex from, Vertex to )
+	{
+		Adjacency adjacency = this.incidences.get( from );
+		Set<Edge> spanningEdges = ( adjacency == null ) ? null : adjacency.successors.get( to );
+		
+		return ( spanningEdges == null ) ? null : spanningEdges.iterator( ).next( );
+	}
+	
+	/**
+	 * Returns the number of edges coming from a given vertex, in constant time. In an undirected graph this is the number of incident edges.
+	 * 
+	 * @param vertex the vertex from which the edges go
+	 * @return the out-degree of the specified vertex, or 0 if the vertex does not belong to this graph
+	 */
+	public int getOutDegree( Vertex vertex )
+	{
+		return this.getOutgoingEdges( vertex ).size( );
+	}
+	
+	/**
+	 * Returns the number of edges going to a given vertex, in constant time. In an undirected graph this is the number of incident edges.
+	 * 
+	 * @param vertex the vertex to which the edges go
+	 * @return the in-degree of the specified vertex, or 0 if the vertex does not belong to this graph
+	 */
+	public int getInDegree( Vertex vertex )
+	{
+		return this.getIncomingEdges( vertex ).size( );
+	}
+	
+	/**
+	 * Returns the degree of a given vertex, that is, the number of edge ends at the vertex, in constant time. Loops are counted twice.
+	 * 
+	 * @param vertex the vertex whose degree is returned
+	 * @return the degree of the specified vertex, or 0 if the vertex does not belong to this graph
+	 * @see #getDegreeHistogram()
+	 */
+	public int getDegree( Vertex vertex )
+	{
+		Adjacency adjacency = this.incidences.get( vertex );
+		return ( adjacency == null ) ? 0 : adjacency.inDegree + adjacency.outDegree;
+	}
+	
+	/**
+	 * Returns the highest degree of any vertex in this graph, in constant time. Loops are counted twice.
+	 * 
+	 * @return the maximum degree, or 0 if this graph has no vertices
+	 * @see #getDegree(Vertex)
+	 */
+	public int getMaximumDegree( )
+	{
+		return this.degrees.getMaximumDegree( );
+	}
+	
+	/**
+	 * Returns the highest degree of any of the given vertices, in time proportional to their number.
+	 * 
+	 * @param selected the vertices whose degrees are compared
+	 * @return the maximum degree of the specified vertices, or 0 if there are none
+	 * @see #getDegree(Vertex)
+	 */
+	public int getMaximumDegree( Collection<Vertex> selected )
+	{
+		int maximum = 0;
+		for( Vertex vertex : selected )
+			maximum = Math.max( maximum, this.getDegree( vertex ) );
+		return maximum;
+	}
+	
+	/**
+	 * Returns the live histogram of the degrees of this graph's vertices, counting loops twice. The histogram is updated as vertices and edges are
+	 * added and removed.
+	 * 
+	 * @return the degree histogram
+	 * @see #getInDegreeHistogram()
+	 * @see #getOutDegreeHistogram()
+	 */
+	public DegreeHistogram getDegreeHistogram( )
+	{
+		return this.degrees;
+	}
+	
+	/**
+	 * Returns the live histogram of the in-degrees of this graph's vertices. In an undirected graph this is the degree histogram.
+	 * 
+	 * @return the in-degree histogram
+	 * @see #getDegreeHistogram()
+	 */
+	public DegreeHistogram getInDegreeHistogram( )
+	{
+		return this.inDegrees;
+	}
+	
+	/**
+	 * Returns the live histogram of the out-degrees of this graph's vertices. In an undirected graph this is the degree histogram.
+	 * 
+	 * @return the out-degree histogram
+	 * @see #getDegreeHistogram()
+	 */
+	public DegreeHistogram getOutDegreeHistogram( )
+	{
+		return this.outDegrees;
+	}
+	
+	/**
+	 * Returns a read-only view of the sources of this digraph, that is, the vertices with outgoing edges and no incoming ones. The set is maintained
+	 * as edges are added and removed, so this method runs in constant time. Isolated vertices are neither sources nor sinks.
+	 * 
+	 * @return the sources of this graph, always empty in undirected graphs
+	 * @see #getVertexSource()
+	 */
+	public Set<Vertex> getSources( )
+	{
+		return Collections.unmodifiableSet( this.sources );
+	}
+	
+	/**
+	 * Returns a read-only view of the sinks of this digraph, that is, the vertices with incoming edges and no outgoing ones. The set is maintained as
+	 * edges are added and removed, so this method runs in constant time.
+	 * 
+	 * @return the sinks of this graph, always empty in undirected graphs
+	 * @see #getVertexTarget()
+	 */
+	public Set<Vertex> getSinks( )
+	{
+		return Collections.unmodifiableSet( this.sinks );
+	}
+	
 	/**
 	 * Returns a list of all edges in this graph with isSelected flags set to {@code true}
 	 * 
@@ -933,13 +1339,9 @@ public class Graph extends ObservableModel
 	 */
 	public Vertex getVertexSource( )
 	{
-		if ( areDirectedEdgesAllowed )
-		{
-			for ( Vertex v : this.vertices )
-				if ( this.isVertexSource( v ) )
-					return v;
-		}
-		return null;		
+		if ( this.sources.isEmpty( ) )
+			return null;
+		return this.sources.iterator( ).next( );
 	}
 
 	/**
@@ -948,34 +1350,98 @@ public class Graph extends ObservableModel
 	 */
 	public Vertex getVertexTarget( )
 	{
-		if ( areDirectedEdgesAllowed )
-		{
-			for ( Vertex v : this.vertices )
-				if ( this.isVertexTarget( v ) )
-					return v;
-		}
-		return null;		
+		if ( this.sinks.isEmpty( ) )
+			return null;
+		return this.sinks.iterator( ).next( );
 	}
-	
-	/**
-	 * Si todas las aristas son entrantes y ninguna saliente
-	 * @param v {@link Vertex}
-	 * @return {@link Boolean}
-	 */
-	private boolean isVertexSource ( Vertex v )
-	{
-		return ( ( this.getEdgesFrom( v ).isEmpty() == false )
-				&& ( this.getEdgesTo( v ).isEmpty() ) );
-	}
-	
+
 	/**
-	 * Si todas las aristas son salientes y ninguna entrante
-	 * @param v {@link Vertex}
-	 * @return {@link Boolean}
+	 * The incidence and adjacency indexes of a single vertex, maintained incrementally by the {@link Graph#vertices} and {@link Graph#edges} lists.
+	 * The successor and predecessor maps are keyed by the vertex at the other end of the edges, so their key sets are the neighbor sets and a
+	 * {@code (from, to)} lookup is a single hash probe. In undirected graphs the outgoing, incoming and incident edge sets are the same set, and so are
+	 * the successor and predecessor maps. The read-only views are created once, so handing them out does not allocate.
 	 */
-	private boolean isVertexTarget ( Vertex v )
+	private static class Adjacency
 	{
-		return ( ( this.getEdgesTo( v ).isEmpty() == false )
-				&& ( this.getEdgesFrom( v ).isEmpty() ) );
+		public final Set<Edge>					edges;
+		public final Set<Edge>					edgesOut;
+		public final Set<Edge>					edgesIn;
+		public final Map<Vertex, Set<Edge>>		successors;
+		public final Map<Vertex, Set<Edge>>		predecessors;
+		
+		public final Set<Edge>					edgesView;
+		public final Set<Edge>					edgesOutView;
+		public final Set<Edge>					edgesInView;
+		public final Set<Vertex>				successorsView;
+		public final Set<Vertex>				predecessorsView;
+		
+		// edges going from and to this vertex, loops counted in both; in undirected graphs by the direction in which each edge was created
+		public int								outDegree;
+		public int								inDegree;
+		
+		public Adjacency( boolean directed )
+		{
+			this.edges = new HashSet<Edge>( );
+			this.edgesOut = directed ? new HashSet<Edge>( ) : this.edges;
+			this.edgesIn = directed ? new HashSet<Edge>( ) : this.edges;
+			this.successors = new HashMap<Vertex, Set<Edge>>( );
+			this.predecessors = directed ? new HashMap<Vertex, Set<Edge>>( ) : this.successors;
+			
+			this.edgesView = Collections.unmodifiableSet( this.edges );
+			this.edgesOutView = directed ? Collections.unmodifiableSet( this.edgesOut ) : this.edgesView;
+			this.edgesInView = directed ? Collections.unmodifiableSet( this.edgesIn ) : this.edgesView;
+			this.successorsView = Collections.unmodifiableSet( this.successors.keySet( ) );
+			this.predecessorsView = directed ? Collections.unmodifiableSet( this.predecessors.keySet( ) ) : this.successorsView;
+		}
+		
+		public void addSuccessor( Vertex vertex, Edge edge )
+		{
+			add( this.successors, vertex, edge );
+		}
+		
+		public void addPredecessor( Vertex vertex, Edge edge )
+		{
+			add( this.predecessors, vertex, edge );
+		}
+		
+		public void removeSuccessor( Vertex vertex, Edge edge )
+		{
+			remove( this.successors, vertex, edge );
+		}
+		
+		public void removePredecessor( Vertex vertex, Edge edge )
+		{
+			remove( this.predecessors, vertex, edge );
+		}
+		
+		public void clear( )
+		{
+			this.edges.clear( );
+			this.edgesOut.clear( );
+			this.edgesIn.clear( );
+			this.successors.clear( );
+			this.predecessors.clear( );
+			this.outDegree = 0;
+			this.inDegree = 0;
+		}
+		
+		private static void add( Map<Vertex, Set<Edge>> adjacent, Vertex vertex, Edge edge )
+		{
+			Set<Edge> spanningEdges = adjacent.get( vertex );
+			if( spanningEdges == null )
+			{
+				// most vertex pairs are bridged by a single edge
+				spanningEdges = new HashSet<Edge>( 2 );
+				adjacent.put( vertex, spanningEdges );
+			}
+			spanningEdges.add( edge );
+		}
+		
+		private static void remove( Map<Vertex, Set<Edge>> adjacent, Vertex vertex, Edge edge )
+		{
+			Set<Edge> spanningEdges = adjacent.get( vertex );
+			if( spanningEdges != null && spanningEdges.remove( edge ) && spanningEdges.isEmpty( ) )
+				adjacent.remove( vertex );
+		}
 	}
 }
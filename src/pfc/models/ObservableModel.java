@@ -17,6 +17,33 @@ import java.util.*;
  */
 public class ObservableModel extends Observable
 {
+	/**
+	 * The number of times any of this model's {@code Property} members has changed value. Unlike the notifications themselves, this counter can
+	 * be compared at any later point to find out whether the model was modified in between, without having to subscribe to it.
+	 * 
+	 * @see #getModificationCount()
+	 */
+	private int	modificationCount;
+	
+	/**
+	 * Returns the number of changes made so far to this model's {@code Property} members
+	 * 
+	 * @return the current modification count of this model
+	 */
+	public int getModificationCount( )
+	{
+		return this.modificationCount;
+	}
+	
+	/**
+	 * Increments this model's modification count. Subclasses holding state outside of {@code Property} members should call this method whenever
+	 * that state changes.
+	 */
+	protected void incrementModificationCount( )
+	{
+		++this.modificationCount;
+	}
+	
 	/**
 	 * According to Wikipedia's page on properties:
 	 * <blockquote>
@@ -139,6 +166,7 @@ public class ObservableModel extends Observable
 				
 				this.suspendNotifications( false );
 				
+				ObservableModel.this.incrementModificationCount( );
 				ObservableModel.this.setChanged( );
 				ObservableModel.this.notifyObservers( this );
 			}
@@ -0,0 +1,726 @@
+/**
+ * AlgorithmHistory.java
+ */
+package pfc.models.algorithms;
+
+import java.util.*;
+
+import pfc.models.*;
+import pfc.models.algorithms.sldominance.DominanceDrawing;
+import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
+import pfc.utilities.JsonUtilities;
+
+
+/**
+ * Historial de la ejecucion paso a paso de un algoritmo, compartido por todos los
+ * controladores de {@code pfc.controllers.algorithms}.
+ * <p/>
+ * Cada paso guarda la explicacion del algoritmo y, para cada modelo mostrado (capa),
+ * unicamente los elementos (vertices, aristas, segmentos) que se han insertado, borrado
+ * o modificado desde el paso anterior. Los elementos modificados se detectan comparando
+ * su {@link ObservableModel#getModificationCount()}, por lo que solo se serializan los
+ * elementos que han cambiado. Cuando los cambios acumulados de una capa superan su tamano
+ * se guarda un fotograma clave completo, de modo que la memoria crece linealmente con el
+ * numero de cambios y reconstruir el paso N solo requiere aplicar los cambios desde el
+ * fotograma clave anterior.
+ * <p/>
+ * Los modelos no se guardan: se conservan los atributos ya interpretados de los elementos
+ * de los ultimos {@link #SNAPSHOT_CACHE_SIZE} pasos reconstruidos de cada capa, compartidos
+ * entre pasos, y {@link #getModel(int)} construye con ellos un modelo nuevo y completo
+ * (O(|V|+|E|)) en cada llamada. Los modelos devueltos son modelos normales, modificables y
+ * observables, que no se comparten con el historial, por lo que modificarlos no cambia
+ * los pasos que se reconstruyan despues.
+ *
+ * @author walber
+ * @see Layer
+ */
+public class AlgorithmHistory
+{
+	/**
+	 * Tipo de modelo de una capa del historial. Indica cuales son las listas de elementos
+	 * del modelo, sus atributos de cabecera y como reconstruirlo a partir de su JSON.
+	 */
+	public static abstract class Layer
+	{
+		/**
+		 * nombre JSON de cada una de las listas de elementos del modelo
+		 */
+		private final String[]	listNames;
+
+		/**
+		 * @param listNames nombres JSON de las listas de elementos, en el orden de {@link #getElementLists(ObservableModel)}
+		 */
+		protected Layer( String... listNames )
+		{
+			this.listNames = listNames;
+		}
+
+		/**
+		 * @param model {@link ObservableModel}
+		 * @return listas de elementos del modelo
+		 */
+		protected abstract List<?>[ ] getElementLists( ObservableModel model );
+
+		/**
+		 * @param model {@link ObservableModel}
+		 * @return modelo cuyas propiedades forman la cabecera (atributos que no son listas)
+		 */
+		protected abstract ObservableModel getHeaderModel( ObservableModel model );
+
+		/**
+		 * @param model {@link ObservableModel}
+		 * @return atributos de cabecera del modelo
+		 */
+		protected abstract Map<String, Object> getHeader( ObservableModel model );
+
+		/**
+		 * @param attributes atributos del modelo completo, con el formato de {@link JsonUtilities#parseObject(String)};
+		 * se comparten con otros pasos y no deben modificarse
+		 * @return nuevo modelo
+		 */
+		protected abstract ObservableModel rebuild( Map<String, Object> attributes );
+	}
+
+	/**
+	 * Capa para un {@link Graph} (o cualquier subclase, que se reconstruye como {@code Graph})
+	 */
+	public static final Layer	GRAPH					= new Layer( "vertices", "edges" )
+	{
+		@Override
+		protected List<?>[ ] getElementLists( ObservableModel model )
+		{
+			Graph graph = (Graph) model;
+			return new List<?>[ ] { graph.vertices, graph.edges };
+		}
+
+		@Override
+		protected ObservableModel getHeaderModel( ObservableModel model )
+		{
+			return model;
+		}
+
+		@Override
+		protected Map<String, Object> getHeader( ObservableModel model )
+		{
+			return AlgorithmHistory.getGraphHeader( (Graph) model );
+		}
+
+		@Override
+		protected ObservableModel rebuild( Map<String, Object> attributes )
+		{
+			return new Graph( attributes );
+		}
+	};
+
+	/**
+	 * Capa para un {@link VisibilityRepresentationDrawing}
+	 */
+	public static final Layer	VISIBILITY_DRAWING		= new Layer( "verticesSegments", "edgeSegments" )
+	{
+		@Override
+		protected List<?>[ ] getElementLists( ObservableModel model )
+		{
+			VisibilityRepresentationDrawing drawing = (VisibilityRepresentationDrawing) model;
+			return new List<?>[ ] { drawing.vertexSegments, drawing.edgeSegments };
+		}
+
+		@Override
+		protected ObservableModel getHeaderModel( ObservableModel model )
+		{
+			return model;
+		}
+
+		@Override
+		protected Map<String, Object> getHeader( ObservableModel model )
+		{
+			return new HashMap<String, Object>( );
+		}
+
+		@Override
+		protected ObservableModel rebuild( Map<String, Object> attributes )
+		{
+			return new VisibilityRepresentationDrawing( attributes );
+		}
+	};
+
+	/**
+	 * Capa para un {@link DominanceDrawing}, cuyos elementos son los de su grafo
+	 */
+	public static final Layer	DOMINANCE_DRAWING		= new Layer( "vertices", "edges" )
+	{
+		@Override
+		protected List<?>[ ] getElementLists( ObservableModel model )
+		{
+			return GRAPH.getElementLists( ( (DominanceDrawing) model ).getGraph( ) );
+		}
+
+		@Override
+		protected ObservableModel getHeaderModel( ObservableModel model )
+		{
+			return ( (DominanceDrawing) model ).getGraph( );
+		}
+
+		@Override
+		protected Map<String, Object> getHeader( ObservableModel model )
+		{
+			return AlgorithmHistory.getGraphHeader( ( (DominanceDrawing) model ).getGraph( ) );
+		}
+
+		@Override
+		protected ObservableModel rebuild( Map<String, Object> attributes )
+		{
+			return new DominanceDrawing( new Graph( attributes ) );
+		}
+	};
+
+	/**
+	 * Numero minimo de cambios en una capa antes de guardar un nuevo fotograma clave
+	 */
+	private static final int	KEYFRAME_MINIMUM_CHANGES	= 64;
+
+	/**
+	 * Numero de modelos reconstruidos que se conservan por capa
+	 */
+	private static final int	SNAPSHOT_CACHE_SIZE			= 16;
+
+	/** operaciones sobre una lista de elementos */
+	private static final int	SET						= 0;
+	private static final int	INSERT					= 1;
+	private static final int	REMOVE					= 2;
+
+	/**
+	 * Cambios de una capa en un paso. Si {@code keyframe} no es {@code null} el paso guarda
+	 * la capa completa; si {@code absent} es {@code true} el modelo no existe en el paso.
+	 */
+	private static class Delta
+	{
+		public boolean		absent;
+		public String		header;
+		public String[ ][ ]	keyframe;
+		/** ternas (lista, operacion, indice) */
+		public int[ ]		operations;
+		/** JSON del elemento de cada operacion ({@code null} para REMOVE) */
+		public String[ ]	values;
+
+		public int size( )
+		{
+			return this.values == null ? 0 : this.values.length;
+		}
+	}
+
+	/**
+	 * Paso del historial
+	 */
+	private static class Step
+	{
+		public final String		explanation;
+		/** cambios de cada capa, {@code null} si la capa no ha cambiado */
+		public final Delta[ ]	deltas;
+
+		public Step( String explanation, Delta[ ] deltas )
+		{
+			this.explanation = explanation;
+			this.deltas = deltas;
+		}
+	}
+
+	/**
+	 * Elemento de una capa tal y como se registro por ultima vez
+	 */
+	private static class Element
+	{
+		public final Object	element;
+		public int			modificationCount;
+		public String		json;
+
+		public Element( Object element )
+		{
+			this.element = element;
+			this.modificationCount = AlgorithmHistory.getModificationCount( element );
+			this.json = element.toString( );
+		}
+	}
+
+	/**
+	 * Estado de una capa: la ultima version registrada y la ultima reconstruida.
+	 */
+	private static class LayerState
+	{
+		/** modelo registrado en el ultimo paso */
+		public ObservableModel			model;
+		public int						headerModificationCount;
+		public String					header;
+		public List<List<Element>>		elements;
+		/** numero de cambios desde el ultimo fotograma clave */
+		public int						changesSinceKeyframe;
+		/** pasos en los que la capa tiene fotograma clave (o no existe) */
+		public final List<Integer>		keyframes	= new ArrayList<Integer>( );
+
+		/** paso reconstruido, -1 si ninguno */
+		public int						replayStep	= -1;
+		public Map<String, Object>		replayHeader;
+		/** atributos de cada elemento del paso reconstruido, compartidos entre pasos */
+		public List<List<Object>>		replayLists;
+		/**
+		 * atributos de los modelos ya reconstruidos, indexados por el paso en el que la capa
+		 * cambio; nunca se entregan, solo se construyen modelos a partir de ellos
+		 */
+		public final Map<Integer, Map<String, Object>>	snapshots	= new LinkedHashMap<Integer, Map<String, Object>>( SNAPSHOT_CACHE_SIZE, 0.75f, true )
+		{
+			private static final long	serialVersionUID	= 1L;
+
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Integer, Map<String, Object>> eldest )
+			{
+				return this.size( ) > SNAPSHOT_CACHE_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * tipos de las capas
+	 */
+	private final Layer[ ]		layers;
+	/**
+	 * estado de cada capa
+	 */
+	private final LayerState[ ]	states;
+	/**
+	 * pasos registrados
+	 */
+	private final List<Step>	steps;
+	/**
+	 * paso actual
+	 */
+	private int					current;
+
+	/**
+	 * @param layers tipos de los modelos que se guardan en cada paso, en el orden en que se pasan a {@link #add(String, ObservableModel...)}
+	 */
+	public AlgorithmHistory( Layer... layers )
+	{
+		this.layers = layers;
+		this.states = new LayerState[layers.length];
+		for ( int i = 0; i < layers.length; i++ )
+			this.states[i] = new LayerState( );
+		this.steps = new ArrayList<Step>( );
+		this.current = -1;
+	}
+
+	/**
+	 * Registrar un nuevo paso con el estado actual de los modelos. Solo se guardan los
+	 * cambios respecto al paso anterior. Si ningun modelo ha cambiado y la explicacion es
+	 * la misma, no se registra el paso.
+	 * @param explanation {@link String} explicacion del paso
+	 * @param models modelos de cada capa, {@code null} si el modelo no existe todavia
+	 */
+	public void add( String explanation, ObservableModel... models )
+	{
+		Delta[ ] deltas = new Delta[this.layers.length];
+		boolean changed = this.steps.isEmpty( );
+
+		for ( int i = 0; i < this.layers.length; i++ )
+		{
+			deltas[i] = this.record( i, models[i] );
+			changed |= deltas[i] != null;
+		}
+
+		if ( changed == false && explanation != null
+				&& explanation.equals( this.steps.get( this.steps.size( ) - 1 ).explanation ) )
+			return;
+
+		for ( int i = 0; i < this.layers.length; i++ )
+			if ( deltas[i] != null && ( deltas[i].absent || deltas[i].keyframe != null ) )
+				this.states[i].keyframes.add( this.steps.size( ) );
+
+		this.steps.add( new Step( explanation, deltas ) );
+		this.current = this.steps.size( ) - 1;
+	}
+
+	/**
+	 * @return numero de pasos registrados
+	 */
+	public int size( )
+	{
+		return this.steps.size( );
+	}
+
+	/**
+	 * @return indice del paso actual
+	 */
+	public int getCurrentStep( )
+	{
+		return this.current;
+	}
+
+	/**
+	 * Avanzar al paso siguiente.
+	 * @return {@code false} si ya se estaba en el ultimo paso
+	 */
+	public boolean next( )
+	{
+		if ( this.current >= this.steps.size( ) - 1 )
+			return false;
+
+		this.current++;
+		return true;
+	}
+
+	/**
+	 * Retroceder al paso anterior.
+	 * @return {@code false} si ya se estaba en el primer paso
+	 */
+	public boolean previous( )
+	{
+		if ( this.current <= 0 )
+			return false;
+
+		this.current--;
+		return true;
+	}
+
+	/**
+	 * Situarse en el primer paso
+	 */
+	public void setBeginning( )
+	{
+		this.current = this.steps.isEmpty( ) ? -1 : 0;
+	}
+
+	/**
+	 * @return explicacion del paso actual
+	 */
+	public String getExplanation( )
+	{
+		return this.getExplanation( this.current );
+	}
+
+	/**
+	 * @param step indice del paso
+	 * @return explicacion del paso
+	 */
+	public String getExplanation( int step )
+	{
+		return this.steps.get( step ).explanation;
+	}
+
+	/**
+	 * Obtener el modelo de una capa en el paso actual. Cada llamada construye un modelo
+	 * nuevo, que puede modificarse u observarse sin afectar al historial. Los atributos de
+	 * los ultimos pasos reconstruidos se conservan, por lo que avanzar y retroceder dentro de
+	 * ellos no vuelve a aplicar los cambios ni a interpretar el JSON; fuera de la cache solo
+	 * se interpretan los elementos que cambian desde el ultimo paso reconstruido.
+	 * @param layer indice de la capa
+	 * @return modelo, o {@code null} si no existe en el paso actual
+	 */
+	@SuppressWarnings( "unchecked" )
+	public <T extends ObservableModel> T getModel( int layer )
+	{
+		LayerState state = this.states[layer];
+		int keyframe = this.getKeyframe( layer, this.current );
+
+		if ( keyframe < 0 || this.steps.get( keyframe ).deltas[layer].absent )
+			return null;
+
+		// ultimo paso en el que cambio la capa
+		int version = this.current;
+		while ( version > keyframe && this.steps.get( version ).deltas[layer] == null )
+			version--;
+
+		Map<String, Object> attributes = state.snapshots.get( version );
+		if ( attributes == null )
+		{
+			this.replay( layer, keyframe, version );
+
+			// las listas se copian porque replay las sigue modificando; los elementos se comparten
+			attributes = new HashMap<String, Object>( state.replayHeader );
+			String[ ] listNames = this.layers[layer].listNames;
+			for ( int l = 0; l < listNames.length; l++ )
+				attributes.put( listNames[l], new ArrayList<Object>( state.replayLists.get( l ) ) );
+			state.snapshots.put( version, attributes );
+		}
+		return (T) this.layers[layer].rebuild( attributes );
+	}
+
+	/**
+	 * Dejar en {@code replayLists} los atributos de los elementos de la capa en el paso
+	 * indicado. Si el ultimo paso reconstruido esta entre el fotograma clave y el paso,
+	 * solo se aplican los cambios que faltan.
+	 * @param layer indice de la capa
+	 * @param keyframe fotograma clave anterior o igual al paso
+	 * @param step indice del paso
+	 */
+	private void replay( int layer, int keyframe, int step )
+	{
+		LayerState state = this.states[layer];
+
+		if ( state.replayStep < keyframe || state.replayStep > step )
+		{
+			Delta delta = this.steps.get( keyframe ).deltas[layer];
+			state.replayHeader = JsonUtilities.parseObject( delta.header );
+			state.replayLists = new ArrayList<List<Object>>( delta.keyframe.length );
+			for ( String[ ] list : delta.keyframe )
+			{
+				List<Object> elements = new ArrayList<Object>( list.length );
+				for ( String json : list )
+					elements.add( JsonUtilities.parseObject( json ) );
+				state.replayLists.add( elements );
+			}
+			state.replayStep = keyframe;
+		}
+
+		for ( int s = state.replayStep + 1; s <= step; s++ )
+		{
+			Delta delta = this.steps.get( s ).deltas[layer];
+			if ( delta == null )
+				continue;
+
+			if ( delta.header != null )
+				state.replayHeader = JsonUtilities.parseObject( delta.header );
+			for ( int i = 0; i < delta.size( ); i++ )
+			{
+				List<Object> list = state.replayLists.get( delta.operations[3 * i] );
+				int index = delta.operations[3 * i + 2];
+				switch ( delta.operations[3 * i + 1] )
+				{
+				case SET:
+					list.set( index, JsonUtilities.parseObject( delta.values[i] ) );
+					break;
+				case INSERT:
+					list.add( index, JsonUtilities.parseObject( delta.values[i] ) );
+					break;
+				case REMOVE:
+					list.remove( index );
+					break;
+				}
+			}
+		}
+		state.replayStep = step;
+	}
+
+	/**
+	 * Ultimo paso, anterior o igual a {@code step}, en el que la capa tiene fotograma clave.
+	 * @param layer indice de la capa
+	 * @param step indice del paso
+	 * @return indice del paso, -1 si no hay ninguno
+	 */
+	private int getKeyframe( int layer, int step )
+	{
+		List<Integer> keyframes = this.states[layer].keyframes;
+		int low = 0, high = keyframes.size( ) - 1, found = -1;
+
+		while ( low <= high )
+		{
+			int middle = ( low + high ) >>> 1;
+			if ( keyframes.get( middle ) <= step )
+			{
+				found = keyframes.get( middle );
+				low = middle + 1;
+			}
+			else
+				high = middle - 1;
+		}
+		return found;
+	}
+
+	/**
+	 * Calcular los cambios de una capa respecto al ultimo paso registrado.
+	 * @param layer indice de la capa
+	 * @param model modelo actual de la capa
+	 * @return {@link Delta}, o {@code null} si la capa no ha cambiado
+	 */
+	private Delta record( int layer, ObservableModel model )
+	{
+		LayerState state = this.states[layer];
+		Delta delta;
+
+		if ( model == null )
+		{
+			if ( state.model == null && this.steps.isEmpty( ) == false )
+				return null;
+
+			state.model = null;
+			state.elements = null;
+			delta = new Delta( );
+			delta.absent = true;
+			return delta;
+		}
+
+		if ( model != state.model )
+			return this.recordKeyframe( layer, model );
+
+		delta = new Delta( );
+		ObservableModel headerModel = this.layers[layer].getHeaderModel( model );
+		if ( headerModel.getModificationCount( ) != state.headerModificationCount )
+		{
+			String header = this.formatHeader( this.layers[layer].getHeader( model ) );
+			state.headerModificationCount = headerModel.getModificationCount( );
+			if ( header.equals( state.header ) == false )
+				delta.header = state.header = header;
+		}
+
+		List<Integer> operations = new ArrayList<Integer>( );
+		List<String> values = new ArrayList<String>( );
+		List<?>[ ] lists = this.layers[layer].getElementLists( model );
+
+		for ( int l = 0; l < lists.length; l++ )
+			this.diff( l, state.elements.get( l ), lists[l], operations, values );
+
+		if ( delta.header == null && values.isEmpty( ) )
+			return null;
+
+		state.changesSinceKeyframe += values.size( );
+		if ( state.changesSinceKeyframe > Math.max( KEYFRAME_MINIMUM_CHANGES, this.countElements( state ) ) )
+			return this.recordKeyframe( layer, model );
+
+		delta.operations = new int[operations.size( )];
+		for ( int i = 0; i < delta.operations.length; i++ )
+			delta.operations[i] = operations.get( i );
+		delta.values = values.toArray( new String[values.size( )] );
+
+		return delta;
+	}
+
+	/**
+	 * Guardar la capa completa.
+	 * @param layer indice de la capa
+	 * @param model modelo actual de la capa
+	 * @return {@link Delta} con el fotograma clave
+	 */
+	private Delta recordKeyframe( int layer, ObservableModel model )
+	{
+		LayerState state = this.states[layer];
+		List<?>[ ] lists = this.layers[layer].getElementLists( model );
+		Delta delta = new Delta( );
+
+		if ( model != state.model )
+		{
+			state.model = model;
+			state.elements = new ArrayList<List<Element>>( lists.length );
+			for ( List<?> list : lists )
+			{
+				List<Element> elements = new ArrayList<Element>( list.size( ) );
+				for ( Object element : list )
+					elements.add( new Element( element ) );
+				state.elements.add( elements );
+			}
+			state.header = this.formatHeader( this.layers[layer].getHeader( model ) );
+		}
+		state.headerModificationCount = this.layers[layer].getHeaderModel( model ).getModificationCount( );
+		state.changesSinceKeyframe = 0;
+
+		delta.header = state.header;
+		delta.keyframe = new String[lists.length][ ];
+		for ( int l = 0; l < lists.length; l++ )
+		{
+			List<Element> elements = state.elements.get( l );
+			delta.keyframe[l] = new String[elements.size( )];
+			for ( int i = 0; i < elements.size( ); i++ )
+				delta.keyframe[l][i] = elements.get( i ).json;
+		}
+		return delta;
+	}
+
+	/**
+	 * Comparar una lista de elementos con su ultima version registrada y anadir las
+	 * operaciones necesarias para pasar de una a otra. Los elementos comunes al principio
+	 * y al final de la lista se comparan por su contador de modificaciones; los del medio
+	 * se borran e insertan.
+	 * @param list indice de la lista en la capa
+	 * @param recorded ultima version registrada, se actualiza
+	 * @param current lista actual del modelo
+	 * @param operations operaciones (lista, operacion, indice)
+	 * @param values JSON de los elementos de cada operacion
+	 */
+	private void diff( int list, List<Element> recorded, List<?> current, List<Integer> operations, List<String> values )
+	{
+		int prefix = 0;
+		int min = Math.min( recorded.size( ), current.size( ) );
+		while ( prefix < min && recorded.get( prefix ).element == current.get( prefix ) )
+			prefix++;
+
+		int suffix = 0;
+		while ( suffix < min - prefix
+				&& recorded.get( recorded.size( ) - 1 - suffix ).element == current.get( current.size( ) - 1 - suffix ) )
+			suffix++;
+
+		// elementos del medio: borrar los antiguos e insertar los nuevos
+		int removed = recorded.size( ) - prefix - suffix;
+		for ( int i = 0; i < removed; i++ )
+		{
+			recorded.remove( prefix );
+			this.addOperation( list, REMOVE, prefix, null, operations, values );
+		}
+		for ( int i = prefix; i < current.size( ) - suffix; i++ )
+		{
+			Element element = new Element( current.get( i ) );
+			recorded.add( i, element );
+			this.addOperation( list, INSERT, i, element.json, operations, values );
+		}
+
+		// elementos comunes modificados
+		for ( int i = 0; i < recorded.size( ); i++ )
+		{
+			if ( i == prefix )
+				i = current.size( ) - suffix;
+			if ( i >= recorded.size( ) )
+				break;
+
+			Element element = recorded.get( i );
+			int modificationCount = getModificationCount( element.element );
+			if ( modificationCount != element.modificationCount )
+			{
+				element.modificationCount = modificationCount;
+				String json = element.element.toString( );
+				if ( json.equals( element.json ) == false )
+				{
+					element.json = json;
+					this.addOperation( list, SET, i, json, operations, values );
+				}
+			}
+		}
+	}
+
+	private void addOperation( int list, int operation, int index, String value, List<Integer> operations, List<String> values )
+	{
+		operations.add( list );
+		operations.add( operation );
+		operations.add( index );
+		values.add( value );
+	}
+
+	private int countElements( LayerState state )
+	{
+		int count = 0;
+		for ( List<Element> elements : state.elements )
+			count += elements.size( );
+		return count;
+	}
+
+	/**
+	 * @param header atributos de cabecera
+	 * @return JSON de la cabecera
+	 */
+	private String formatHeader( Map<String, Object> header )
+	{
+		return JsonUtilities.formatObject( header );
+	}
+
+	private static int getModificationCount( Object element )
+	{
+		return element instanceof ObservableModel ? ( (ObservableModel) element ).getModificationCount( ) : 0;
+	}
+
+	private static Map<String, Object> getGraphHeader( Graph graph )
+	{
+		Map<String, Object> header = new HashMap<String, Object>( );
+
+		header.put( "name", graph.name );
+		header.put( "areLoopsAllowed", graph.areLoopsAllowed );
+		header.put( "areDirectedEdgesAllowed", graph.areDirectedEdgesAllowed );
+		header.put( "areMultipleEdgesAllowed", graph.areMultipleEdgesAllowed );
+		header.put( "areCyclesAllowed", graph.areCyclesAllowed );
+
+		return header;
+	}
+}
@@ -0,0 +1,347 @@
+/**
+ * DoublyConnectedEdgeList.java
+ */
+package pfc.models.algorithms;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+import pfc.models.Edge;
+import pfc.utilities.graph.IndexedGraph;
+
+
+/**
+ * Lista de aristas doblemente enlazada (DCEL) de un grafo embebido en el plano, construida
+ * a partir de su {@link RotationSystem}. Cada slot (v, w) de la rotacion es la semiarista
+ * de v a w, con punteros a su gemela (w, v), a la siguiente y a la anterior de su cara
+ * y a la propia cara. La siguiente de (u, v) es la semiarista de v al vecino que sigue
+ * a u alrededor de v en el sentido de las agujas del reloj, de modo que una cara se
+ * recorre como en {@link DualGraph} y la cara de la semiarista de una arista e es
+ * left(e), y la de su gemela right(e).
+ * <p/>
+ * Todas las caras se etiquetan en un unico recorrido de las semiaristas. La cara externa
+ * es la de la semiarista indicada o, si no se indica, la de mayor area orientada en el
+ * dibujo. En un dibujo sin cruces de un grafo conexo es la unica que se recorre en
+ * sentido contrario a las internas. Si el grafo no es conexo, el contorno de cada
+ * componente forma una cara aparte y solo se toma como externa la de mayor area; las de
+ * las demas componentes se tratan como caras internas. Los algoritmos que la usan
+ * trabajan con st-graphs, que son conexos.
+ * <p/>
+ * Las aristas multiples comparten un par de semiaristas y los bucles no tienen ninguna.
+ * Complejidad: O(|V|+|E|) a partir del sistema de rotaciones
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-rotations" RotationSystem
+ */
+public class DoublyConnectedEdgeList
+{
+    private final RotationSystem    rotations;
+    /**
+     * siguiente semiarista de la misma cara
+     */
+    private final int[ ]            next;
+    /**
+     * anterior semiarista de la misma cara
+     */
+    private final int[ ]            previous;
+    /**
+     * cara de cada semiarista
+     */
+    private final int[ ]            faces;
+    /**
+     * arista del grafo de cada semiarista, indice en el {@link IndexedGraph}, -1 si ninguna
+     */
+    private final int[ ]            edges;
+    /**
+     * si la arista va del origen al destino de la semiarista
+     */
+    private final boolean[ ]        forward;
+    /**
+     * semiarista en el sentido de cada arista, -1 para los bucles
+     */
+    private final int[ ]            halfEdges;
+    /**
+     * una semiarista de cada cara
+     */
+    private final int[ ]            faceHalfEdges;
+    private final int               outerFace;
+
+    /**
+     * Cara externa tomada de las coordenadas del dibujo.
+     * @param rotations RotationSystem
+     */
+    public DoublyConnectedEdgeList( RotationSystem rotations )
+    {
+        this( rotations, -1 );
+    }
+
+    /**
+     * @param rotations RotationSystem
+     * @param outerHalfEdge semiarista de la cara externa, -1 para tomarla del dibujo
+     */
+    public DoublyConnectedEdgeList( RotationSystem rotations, int outerHalfEdge )
+    {
+        this.rotations = rotations;
+        IndexedGraph graph = rotations.getGraph( );
+        int m = rotations.getSlotCount( );
+
+        this.next = new int[m];
+        this.previous = new int[m];
+        for ( int h = 0; h < m; h++ )
+        {
+            this.next[h] = rotations.getClockwiseSlot( rotations.getTwin( h ) );
+            this.previous[this.next[h]] = h;
+        }
+
+        // arista de cada semiarista
+        this.edges = new int[m];
+        this.forward = new boolean[m];
+        this.halfEdges = new int[graph.getEdgeCount( )];
+        Arrays.fill( this.edges, -1 );
+        Arrays.fill( this.halfEdges, -1 );
+        for ( int e = 0; e < graph.getEdgeCount( ); e++ )
+        {
+            Edge edge = graph.getEdge( e );
+            int h = rotations.getSlot( graph.indexOf( edge.from ), graph.indexOf( edge.to ) );
+            if ( h == -1 )
+                continue;
+            this.halfEdges[e] = h;
+            if ( this.edges[h] == -1 )
+            {
+                this.edges[h] = e;
+                this.forward[h] = true;
+                this.edges[rotations.getTwin( h )] = e;
+            }
+        }
+
+        // etiquetar las caras en un solo recorrido
+        this.faces = new int[m];
+        Arrays.fill( this.faces, -1 );
+        int[ ] starts = new int[m];
+        int count = 0;
+        for ( int h = 0; h < m; h++ )
+        {
+            if ( this.faces[h] != -1 )
+                continue;
+            starts[count] = h;
+            int current = h;
+            do
+            {
+                this.faces[current] = count;
+                current = this.next[current];
+            }
+            while ( current != h );
+            count++;
+        }
+        this.faceHalfEdges = Arrays.copyOf( starts, count );
+
+        if ( outerHalfEdge != -1 )
+            this.outerFace = this.faces[outerHalfEdge];
+        else
+            this.outerFace = this.findOuterFace( );
+    }
+
+    /**
+     * Cara de mayor area orientada. La cara externa se recorre en sentido contrario a las
+     * internas, por lo que en un dibujo sin cruces de un grafo conexo es la unica con area
+     * positiva en coordenadas de pantalla. Con varias componentes hay una cara de area
+     * positiva por componente y se devuelve la mayor; con cruces, la mayor aunque no sea
+     * la unica positiva.
+     * @return cara externa, -1 si no hay caras
+     */
+    private int findOuterFace( )
+    {
+        IndexedGraph graph = this.rotations.getGraph( );
+        Point2D[ ] points = new Point2D[graph.getVertexCount( )];
+        for ( int v = 0; v < points.length; v++ )
+            points[v] = graph.getPoint2D( v );
+
+        int outer = -1;
+        double maximum = 0;
+        for ( int f = 0; f < this.faceHalfEdges.length; f++ )
+        {
+            double area = 0;
+            int h = this.faceHalfEdges[f];
+            do
+            {
+                Point2D p = points[this.getSource( h )];
+                Point2D q = points[this.getTarget( h )];
+                area += p.getX( ) * q.getY( ) - q.getX( ) * p.getY( );
+                h = this.next[h];
+            }
+            while ( h != this.faceHalfEdges[f] );
+            if ( outer == -1 || area > maximum )
+            {
+                outer = f;
+                maximum = area;
+            }
+        }
+        return outer;
+    }
+
+    /**
+     * @return RotationSystem del que se construyo
+     */
+    public RotationSystem getRotationSystem( )
+    {
+        return this.rotations;
+    }
+
+    /**
+     * @return numero de semiaristas
+     */
+    public int getHalfEdgeCount( )
+    {
+        return this.next.length;
+    }
+
+    /**
+     * @param h semiarista
+     * @return indice del vertice origen
+     */
+    public int getSource( int h )
+    {
+        return this.rotations.getSource( h );
+    }
+
+    /**
+     * @param h semiarista
+     * @return indice del vertice destino
+     */
+    public int getTarget( int h )
+    {
+        return this.rotations.getNeighbor( h );
+    }
+
+    /**
+     * @param h semiarista (v, w)
+     * @return semiarista (w, v)
+     */
+    public int getTwin( int h )
+    {
+        return this.rotations.getTwin( h );
+    }
+
+    /**
+     * @param h semiarista
+     * @return siguiente semiarista de su cara
+     */
+    public int getNext( int h )
+    {
+        return this.next[h];
+    }
+
+    /**
+     * @param h semiarista
+     * @return anterior semiarista de su cara
+     */
+    public int getPrevious( int h )
+    {
+        return this.previous[h];
+    }
+
+    /**
+     * @param h semiarista
+     * @return cara de la semiarista
+     */
+    public int getFace( int h )
+    {
+        return this.faces[h];
+    }
+
+    /**
+     * @param h semiarista
+     * @return indice de la arista en el {@link IndexedGraph}, -1 si no hay ninguna
+     */
+    public int getEdge( int h )
+    {
+        return this.edges[h];
+    }
+
+    /**
+     * @param h semiarista
+     * @return si su arista va del origen al destino de la semiarista
+     */
+    public boolean isForward( int h )
+    {
+        return this.forward[h];
+    }
+
+    /**
+     * @param e indice de la arista en el {@link IndexedGraph}
+     * @return semiarista en el sentido de la arista, -1 si es un bucle
+     */
+    public int getHalfEdge( int e )
+    {
+        return this.halfEdges[e];
+    }
+
+    /**
+     * @param e indice de la arista en el {@link IndexedGraph}, que no sea un bucle
+     * @return cara a la izquierda de la arista
+     */
+    public int getLeftFace( int e )
+    {
+        return this.faces[this.halfEdges[e]];
+    }
+
+    /**
+     * @param e indice de la arista en el {@link IndexedGraph}, que no sea un bucle
+     * @return cara a la derecha de la arista
+     */
+    public int getRightFace( int e )
+    {
+        return this.faces[this.getTwin( this.halfEdges[e] )];
+    }
+
+    /**
+     * @return numero de caras
+     */
+    public int getFaceCount( )
+    {
+        return this.faceHalfEdges.length;
+    }
+
+    /**
+     * @param f cara
+     * @return una semiarista de la cara
+     */
+    public int getFaceHalfEdge( int f )
+    {
+        return this.faceHalfEdges[f];
+    }
+
+    /**
+     * @return cara externa, -1 si no hay caras; con varias componentes conexas, la de la
+     *         componente de mayor area
+     */
+    public int getOuterFace( )
+    {
+        return this.outerFace;
+    }
+
+    /**
+     * @param h semiarista
+     * @return origen de cada semiarista de la cara de h, empezando por h
+     */
+    public int[ ] getFaceVertices( int h )
+    {
+        int count = 0;
+        int current = h;
+        do
+        {
+            count++;
+            current = this.next[current];
+        }
+        while ( current != h );
+
+        int[ ] vertices = new int[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            vertices[i] = this.getSource( current );
+            current = this.next[current];
+        }
+        return vertices;
+    }
+}
@@ -8,6 +8,8 @@ import java.util.*;
 
 import pfc.models.*;
 import pfc.utilities.GeometryUtilities;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.PlanarityTester;
 
 
 /**
@@ -23,8 +25,10 @@ import pfc.utilities.GeometryUtilities;
  * @navassoc - - "*\n-rightVerticesFaces" Vertex
  * @navassoc - - "*\n-leftEdgesFaces" Edge
  * @navassoc - - "*\n-rightEdgesFaces" Edge
- * @navassoc - - "*\n-rotations" Rotation
+ * @navassoc - - "1\n-halfEdges" DoublyConnectedEdgeList
  * @depend - - - GeometryUtilities
+ * @depend - - - PlanarityTester
+ * @depend - - - RotationSystem
  */
 public class DualGraph extends Graph
 {
@@ -71,14 +75,30 @@ public class DualGraph extends Graph
 	 */
 	private Map<Edge, Vertex>		rightEdgesFaces;
 	/**
-	 * conjunto de rotaciones alrededor de cada vertice del grafo primal G. 
+	 * semiaristas y caras del embedding del grafo primal G. 
 	 */
-	private Map<Vertex, Rotation>	rotations;
+	private DoublyConnectedEdgeList	halfEdges;
+	/**
+	 * embedding combinatorio de G, null si las rotaciones se toman del dibujo.
+	 */
+	private final PlanarityTester	embedding;
 	
 	/**
 	 * @param stGraph Graph
 	 */
 	public DualGraph ( Graph stGraph )
+	{
+		this( stGraph, null );
+	}
+	
+	/**
+	 * Grafo dual a partir de un embedding combinatorio de G en lugar del dibujo.
+	 * El embedding debe calcularse con s y t en la misma cara, que sera la externa:
+	 * {@code new PlanarityTester( stGraph, s, t )}.
+	 * @param stGraph Graph
+	 * @param embedding PlanarityTester, null para usar las coordenadas del dibujo
+	 */
+	public DualGraph ( Graph stGraph, PlanarityTester embedding )
 	{
 		super( "dual", false, true, true, false );
 		
@@ -91,8 +111,8 @@ public class DualGraph extends Graph
 		this.vertexS = this.stGraphG.getVertexSource( );
 		this.vertexT = this.stGraphG.getVertexTarget( );
 		
-		this.rotations = new HashMap<Vertex, Rotation>( );
-		this.constructRotations( );
+		this.embedding = embedding;
+		this.constructHalfEdges( );
 	}
 
 	/**
@@ -188,12 +208,17 @@ public class DualGraph extends Graph
 	}
 
 	/**
-	 * Contruir las rotaciones de cada vertice en el grafo primal G.
+	 * Contruir las semiaristas y las caras del grafo primal G a partir de sus rotaciones.
 	 */
-	private void constructRotations( )
+	private void constructHalfEdges( )
 	{
-		for ( Vertex v : this.stGraphG.vertices )
-			this.rotations.put( v, new Rotation( v, this.stGraphG.getNeighborsInOut( v ) ) );
+		RotationSystem rotations = new RotationSystem( new IndexedGraph( this.stGraphG ), this.embedding );
+		// con un embedding combinatorio la rotacion de s empieza en la cara externa
+		int outer = -1;
+		int s = rotations.getGraph( ).indexOf( this.vertexS );
+		if ( this.embedding != null && s != -1 )
+			outer = rotations.getFirstSlot( s );
+		this.halfEdges = new DoublyConnectedEdgeList( rotations, outer );
 	}
 	
 	/**
@@ -235,95 +260,89 @@ public class DualGraph extends Graph
 	}
 	
 	/**
-	 * Determina las aristas que estan conectadas con las caras externas.
+	 * Determina las aristas que estan conectadas con las caras externas,
+	 * recorriendo la cara externa del embedding.
 	 */
 	private void determineOuterEdges( )
 	{
-		Vertex current = GeometryUtilities.getTheClosestVertexToOrigin( stGraphG );
-		Vertex destination = current;
-		Vertex vertexNew, vertexOld;
-		Edge edgeTmp;
-		Set<Edge> edgesTmp;
-		
-		vertexOld = new Vertex( 0, 0 );
+		int outer = this.halfEdges.getOuterFace( );
+		if ( outer == -1 )
+			return;
+		int start = this.halfEdges.getFaceHalfEdge( outer );
+		int h = start;
 		do {
-			// obtener el siguiente vertice en el sentido clockwise a partir de vertexOld alrededor de current
-			vertexNew = this.rotations.get( current ).getClockwiseVertex( vertexOld );
-			
-			edgesTmp = this.stGraphG.getEdges( current, vertexNew );
-			if ( edgesTmp.isEmpty( ) )
-			{
-				edgeTmp = ( Edge ) this.stGraphG.getEdges( vertexNew, current ).toArray()[ 0 ];
-				this.rightEdgesFaces.put( edgeTmp, this.faceT );
-			}
-			else
-			{
-				edgeTmp = ( Edge ) edgesTmp.toArray()[ 0 ];
+			Edge edgeTmp = this.getPrimalEdge( h );
+			if ( this.halfEdges.isForward( h ) )
 				this.leftEdgesFaces.put( edgeTmp, this.faceS );
-			}
-			vertexOld = current;
-			current = vertexNew;
-		} while ( destination.equals( current ) == false );
+			else
+				this.rightEdgesFaces.put( edgeTmp, this.faceT );
+			h = this.halfEdges.getNext( h );
+		} while ( h != start );
 	}
 
 	/**
-	 * Determina para cada arista su cara derecha, si aun no esta definida.
+	 * Crea las caras internas en el orden de las aristas de G, la cara derecha
+	 * de cada una si aun no esta creada.
 	 */
 	private void determineInnerFaces ( )
 	{
-		for ( Edge e : this.stGraphG.edges )
-			if ( this.rightEdgesFaces.containsKey( e ) == false )
-				this.determineInnerFace ( e );
+		Vertex[ ] faces = new Vertex[this.halfEdges.getFaceCount( )];
+		for ( int e = 0; e < this.halfEdges.getRotationSystem( ).getGraph( ).getEdgeCount( ); e++ )
+		{
+			int h = this.halfEdges.getHalfEdge( e );
+			if ( h != -1 )
+				this.determineInnerFace( this.halfEdges.getTwin( h ), faces );
+		}
+		// caras que no estan a la derecha de ninguna arista
+		for ( int h = 0; h < this.halfEdges.getHalfEdgeCount( ); h++ )
+			this.determineInnerFace( h, faces );
 	}
 	
 	/**
-	 * Determina la cara interna derecha a la que pertenece la arista e.
-	 * Realiza un recorrido en sentido clockwise y actualiza la informacion
-	 * de las demas aristas de la cara. Finalmente, inserta la nueva cara 
-	 * en el grafo dual.
-	 * @param e Edge
+	 * Crea la cara interna de la semiarista h, si aun no esta creada.
+	 * Recorre la cara en sentido clockwise desde h y actualiza la informacion
+	 * de sus aristas. Finalmente, inserta la nueva cara en el grafo dual.
+	 * @param h semiarista
+	 * @param faces vertice del dual de cada cara ya creada
 	 */
-	private void determineInnerFace( Edge e )
+	private void determineInnerFace( int h, Vertex[ ] faces )
 	{
+		int f = this.halfEdges.getFace( h );
+		if ( f == this.halfEdges.getOuterFace( ) || faces[f] != null )
+			return;
+		
 		List<Point2D> faceVerticesPoints = new ArrayList<Point2D>( );
 		Vertex face = new Vertex( );
-		Vertex current = this.orig( e );
-		Vertex destination = this.dest( e );
-		Vertex vertexNew, vertexOld;
-		Edge edgeTmp;
-		Set<Edge> edgesTmp;
-				
-		faceVerticesPoints.add( destination.getPoint2D( ) );
-		faceVerticesPoints.add( current.getPoint2D( ) );
+		faces[f] = face;
 		
-		this.rightEdgesFaces.put( e, face );
+		IndexedGraph graph = this.halfEdges.getRotationSystem( ).getGraph( );
+		int[ ] boundary = this.halfEdges.getFaceVertices( h );
+		for ( int v : boundary )
+			faceVerticesPoints.add( graph.getVertex( v ).getPoint2D( ) );
+		faceVerticesPoints.add( graph.getVertex( boundary[0] ).getPoint2D( ) );
 		
-		vertexOld = destination;
-		while ( destination.equals( current ) == false )
-		{
-			// obtener el siguiente vertice en el sentido clockwise a partir de vertexOld alrededor de current
-			vertexNew = this.rotations.get( current ).getClockwiseVertex( vertexOld );
-
-			faceVerticesPoints.add( vertexNew.getPoint2D( ) );
-			
-			edgesTmp = this.stGraphG.getEdges( current, vertexNew );
-			if ( edgesTmp.isEmpty( ) )
-			{
-				edgeTmp = ( Edge ) this.stGraphG.getEdges( vertexNew, current ).toArray()[ 0 ];
-				this.rightEdgesFaces.put( edgeTmp, face );
-			}
-			else
-			{
-				edgeTmp = ( Edge ) edgesTmp.toArray()[ 0 ];
+		int current = h;
+		do {
+			Edge edgeTmp = this.getPrimalEdge( current );
+			if ( this.halfEdges.isForward( current ) )
 				this.leftEdgesFaces.put( edgeTmp, face );
-			}
-			vertexOld = current;
-			current = vertexNew;
-		};
+			else
+				this.rightEdgesFaces.put( edgeTmp, face );
+			current = this.halfEdges.getNext( current );
+		} while ( current != h );
 		
 		this.setInnerFace( faceVerticesPoints, face );
 	}
 	
+	/**
+	 * @param h semiarista
+	 * @return arista de G de la semiarista h
+	 */
+	private Edge getPrimalEdge( int h )
+	{
+		return this.halfEdges.getRotationSystem( ).getGraph( ).getEdge( this.halfEdges.getEdge( h ) );
+	}
+	
 	/**
 	 * @param polygon puntos que rodean la cara
 	 * @param face vertice cara del dual
@@ -367,54 +386,43 @@ public class DualGraph extends Graph
 	 */
 	private void setLeftRightVerticesFaces ( )
 	{
-		for ( Vertex v : this.stGraphG.vertices )
+		RotationSystem rotations = this.halfEdges.getRotationSystem( );
+		IndexedGraph graph = rotations.getGraph( );
+		for ( int v = 0; v < graph.getVertexCount( ); v++ )
 		{
+			Vertex vertex = graph.getVertex( v );
 			/*
 			 *  Si v es el vertice source o target,
 			 *  cara izquierda es faceS y cara derecha es faceT
 			 */
-			if ( this.vertexS.equals( v ) || this.vertexT.equals( v ) )
+			if ( this.vertexS.equals( vertex ) || this.vertexT.equals( vertex ) )
 			{
-				this.leftVerticesFaces.put( v, this.faceS );
-				this.rightVerticesFaces.put( v, this.faceT );
+				this.leftVerticesFaces.put( vertex, this.faceS );
+				this.rightVerticesFaces.put( vertex, this.faceT );
 			}
-			else
+			else if ( rotations.getDegree( v ) > 0 )
 			{
-				Iterator<Edge> edgesIn;
-				Iterator<Edge> edgesOut;
-				Edge e1;
-				Edge e2;
-				
-				edgesIn = this.stGraphG.getEdgesTo( v ).iterator( );
-				// Para todas las aristas entrantes a v
-				while ( edgesIn.hasNext( ) )
-				{
-					e1 = edgesIn.next( );
-					
-					Vertex left = this.leftEdgesFaces.get( e1 );
-					Vertex right = this.rightEdgesFaces.get( e1 );
-					
-					edgesOut = this.stGraphG.getEdgesFrom( v ).iterator( );
-					// Para todas las aristas salientes de v
-					while ( edgesOut.hasNext( ) )
-					{
-						e2 = edgesOut.next( );
-						/*
-						 * Si la cara izquierda de la arista entrante e1 es la misma
-						 * que la cara izquierda de la arista saliente e2,
-						 * left es la cara izquierda de v.
-						 */
-						if ( left.equals( this.leftEdgesFaces.get( e2 ) ) )
-							this.leftVerticesFaces.put( v, left );
-						/*
-						 * Si la cara derecha de la arista entrante e1 es la misma
-						 * que la cara derecha de la arista saliente e2,
-						 * right es la cara derecha de v.
-						 */
-						if ( right.equals( this.rightEdgesFaces.get( e2 ) ) )
-							this.rightVerticesFaces.put( v, right );
-					}
-				}
+				// recorrer las aristas de v en el sentido de las agujas del reloj
+				int first = rotations.getFirstSlot( v );
+				int h = first;
+				do {
+					int h2 = rotations.getClockwiseSlot( h );
+					Edge e = this.getPrimalEdge( h );
+					boolean incoming = this.halfEdges.isForward( h ) == false;
+					/*
+					 * Si a la arista entrante e le sigue una saliente,
+					 * la cara entre ambas, left(e), es la cara izquierda de v.
+					 */
+					if ( incoming && this.halfEdges.isForward( h2 ) )
+						this.leftVerticesFaces.put( vertex, this.leftEdgesFaces.get( e ) );
+					/*
+					 * Si a la arista saliente e le sigue una entrante,
+					 * la cara entre ambas, right(e), es la cara derecha de v.
+					 */
+					if ( incoming == false && this.halfEdges.isForward( h2 ) == false )
+						this.rightVerticesFaces.put( vertex, this.rightEdgesFaces.get( e ) );
+					h = h2;
+				} while ( h != first );
 			}
 		}
 	}
@@ -8,15 +8,14 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
 import pfc.utilities.GeometryUtilities;
+import pfc.utilities.graph.IndexedGraph;
 
 
 /**
@@ -31,9 +30,10 @@ import pfc.utilities.GeometryUtilities;
  * @navassoc - - "-faceT" Vertex
  * @navassoc - - "*\n-leftEdgesFaces" Edge
  * @navassoc - - "*\n-rightEdgesFaces" Edge
- * @navassoc - - "*\n-rotations" Rotation
+ * @navassoc - - "1\n-halfEdges" DoublyConnectedEdgeList
  * @navassoc - - "*\n-pathsFaces" DirectedPath
  * @depend - - - GeometryUtilities
+ * @depend - - - RotationSystem
  */
 public class DualPathGraph extends Graph
 {
@@ -72,9 +72,9 @@ public class DualPathGraph extends Graph
 	 */
 	private Map<Edge, Vertex>		rightEdgesFaces;
 	/**
-	 * conjunto de rotaciones alrededor de cada vertice del grafo primal G. 
+	 * semiaristas y caras del embedding del grafo primal G. 
 	 */
-	private Map<Vertex, Rotation>	rotations;
+	private DoublyConnectedEdgeList	halfEdges;
 	/**
 	 * caras que representan a los caminos
 	 */
@@ -96,8 +96,7 @@ public class DualPathGraph extends Graph
 		this.setVertexS( );
 		this.setVertexT( );
 		
-		this.rotations = new HashMap<Vertex, Rotation>( );
-		this.constructRotations( );
+		this.constructHalfEdges( );
 	}
 
 	/**
@@ -183,12 +182,7 @@ public class DualPathGraph extends Graph
 	 */
 	private void setVertexS ( )
 	{
-		for ( Vertex v : this.stGraphG.vertices )
-			if ( this.isVertexSource( v ) )
-			{
-				this.vertexS = v;
-				break;
-			}
+		this.vertexS = this.stGraphG.getVertexSource( );
 	}
 
 	/**
@@ -196,58 +190,15 @@ public class DualPathGraph extends Graph
 	 */
 	private void setVertexT ( )
 	{
-		for ( Vertex v : this.stGraphG.vertices )
-			if ( this.isVertexTarget( v ) )
-			{
-				this.vertexT = v;
-				break;
-			}
-	}
-	
-	/**
-	 * Si todas las aristas son entrantes y ninguna saliente
-	 * @param v
-	 * @return boolean
-	 */
-	private boolean isVertexSource ( Vertex v )
-	{
-		return ( ( this.stGraphG.getEdgesFrom( v ).isEmpty() == false )
-				&& ( this.stGraphG.getEdgesTo( v ).isEmpty() ) );
-	}
-	
-	/**
-	 * Si todas las aristas son salientes y ninguna entrante
-	 * @param v
-	 * @return boolean
-	 */
-	private boolean isVertexTarget ( Vertex v )
-	{
-		return ( ( this.stGraphG.getEdgesTo( v ).isEmpty() == false )
-				&& ( this.stGraphG.getEdgesFrom( v ).isEmpty() ) );
+		this.vertexT = this.stGraphG.getVertexTarget( );
 	}
 
 	/**
-	 * Contruir las rotaciones de cada vertice en el grafo primal G.
+	 * Contruir las semiaristas y las caras del grafo primal G a partir de sus rotaciones.
 	 */
-	private void constructRotations( )
+	private void constructHalfEdges( )
 	{
-		for ( Vertex v : this.stGraphG.vertices )
-			this.rotations.put( v, new Rotation( v, this.getAllNeighbors( v ) ) );
-	}
-	
-	/**
-	 * Obtener todos los vertices vecinos del vertice v
-	 * @param v Vertex
-	 * @return Set<Vertex>
-	 * @see #constructRotations( )
-	 */
-	private Set<Vertex> getAllNeighbors ( Vertex v )
-	{
-		Set<Vertex> neighbors = new HashSet<Vertex>( );
-		for ( Edge edge : this.stGraphG.getEdges( v ) )
-			neighbors.add( ( edge.from == v ) ? edge.to : edge.from );
-				
-		return neighbors;
+		this.halfEdges = new DoublyConnectedEdgeList( new RotationSystem( this.stGraphG ) );
 	}
 	
 	/**
@@ -319,95 +270,89 @@ public class DualPathGraph extends Graph
 	}
 	
 	/**
-	 * Determina las aristas que estan conectadas con las caras externas.
+	 * Determina las aristas que estan conectadas con las caras externas,
+	 * recorriendo la cara externa del embedding.
 	 */
 	private void determineOuterEdges( )
 	{
-		Vertex current = GeometryUtilities.getTheClosestVertexToOrigin( stGraphG );
-		Vertex destination = current;
-		Vertex vertexNew, vertexOld;
-		Edge edgeTmp;
-		Set<Edge> edgesTmp;
-		
-		vertexOld = new Vertex( 0, 0 );
+		int outer = this.halfEdges.getOuterFace( );
+		if ( outer == -1 )
+			return;
+		int start = this.halfEdges.getFaceHalfEdge( outer );
+		int h = start;
 		do {
-			// obtener el siguiente vertice en el sentido clockwise a partir de vertexOld alrededor de current
-			vertexNew = this.rotations.get( current ).getClockwiseVertex( vertexOld );
-			
-			edgesTmp = this.stGraphG.getEdges( current, vertexNew );
-			if ( edgesTmp.isEmpty( ) )
-			{
-				edgeTmp = ( Edge ) this.stGraphG.getEdges( vertexNew, current ).toArray()[ 0 ];
-				this.rightEdgesFaces.put( edgeTmp, this.faceT );
-			}
-			else
-			{
-				edgeTmp = ( Edge ) edgesTmp.toArray()[ 0 ];
+			Edge edgeTmp = this.getPrimalEdge( h );
+			if ( this.halfEdges.isForward( h ) )
 				this.leftEdgesFaces.put( edgeTmp, this.faceS );
-			}
-			vertexOld = current;
-			current = vertexNew;
-		} while ( destination.equals( current ) == false );
+			else
+				this.rightEdgesFaces.put( edgeTmp, this.faceT );
+			h = this.halfEdges.getNext( h );
+		} while ( h != start );
 	}
 
 	/**
-	 * Determina para cada arista su cara derecha, si aun no esta definida.
+	 * Crea las caras internas en el orden de las aristas de G, la cara derecha
+	 * de cada una si aun no esta creada.
 	 */
 	private void determineInnerFaces ( )
 	{
-		for ( Edge e : this.stGraphG.edges )
-			if ( this.rightEdgesFaces.containsKey( e ) == false )
-				this.determineInnerFace ( e );
+		Vertex[ ] faces = new Vertex[this.halfEdges.getFaceCount( )];
+		for ( int e = 0; e < this.halfEdges.getRotationSystem( ).getGraph( ).getEdgeCount( ); e++ )
+		{
+			int h = this.halfEdges.getHalfEdge( e );
+			if ( h != -1 )
+				this.determineInnerFace( this.halfEdges.getTwin( h ), faces );
+		}
+		// caras que no estan a la derecha de ninguna arista
+		for ( int h = 0; h < this.halfEdges.getHalfEdgeCount( ); h++ )
+			this.determineInnerFace( h, faces );
 	}
 	
 	/**
-	 * Determina la cara interna derecha a la que pertenece la arista e.
-	 * Realiza un recorrido en sentido clockwise y actualiza la informacion
-	 * de las demas aristas de la cara. Finalmente, inserta la nueva cara 
-	 * en el grafo dual.
-	 * @param e Edge
+	 * Crea la cara interna de la semiarista h, si aun no esta creada.
+	 * Recorre la cara en sentido clockwise desde h y actualiza la informacion
+	 * de sus aristas. Finalmente, inserta la nueva cara en el grafo dual.
+	 * @param h semiarista
+	 * @param faces vertice del dual de cada cara ya creada
 	 */
-	private void determineInnerFace( Edge e )
+	private void determineInnerFace( int h, Vertex[ ] faces )
 	{
+		int f = this.halfEdges.getFace( h );
+		if ( f == this.halfEdges.getOuterFace( ) || faces[f] != null )
+			return;
+		
 		List<Point2D> faceVerticesPoints = new ArrayList<Point2D>( );
 		Vertex face = new Vertex( );
-		Vertex current = this.orig( e );
-		Vertex destination = this.dest( e );
-		Vertex vertexNew, vertexOld;
-		Edge edgeTmp;
-		Set<Edge> edgesTmp;
-				
-		faceVerticesPoints.add( destination.getPoint2D( ) );
-		faceVerticesPoints.add( current.getPoint2D( ) );
+		faces[f] = face;
 		
-		this.rightEdgesFaces.put( e, face );
+		IndexedGraph graph = this.halfEdges.getRotationSystem( ).getGraph( );
+		int[ ] boundary = this.halfEdges.getFaceVertices( h );
+		for ( int v : boundary )
+			faceVerticesPoints.add( graph.getVertex( v ).getPoint2D( ) );
+		faceVerticesPoints.add( graph.getVertex( boundary[0] ).getPoint2D( ) );
 		
-		vertexOld = destination;
-		while ( destination.equals( current ) == false )
-		{
-			// obtener el siguiente vertice en el sentido clockwise a partir de vertexOld alrededor de current
-			vertexNew = this.rotations.get( current ).getClockwiseVertex( vertexOld );
-
-			faceVerticesPoints.add( vertexNew.getPoint2D( ) );
-			
-			edgesTmp = this.stGraphG.getEdges( current, vertexNew );
-			if ( edgesTmp.isEmpty( ) )
-			{
-				edgeTmp = ( Edge ) this.stGraphG.getEdges( vertexNew, current ).toArray()[ 0 ];
-				this.rightEdgesFaces.put( edgeTmp, face );
-			}
-			else
-			{
-				edgeTmp = ( Edge ) edgesTmp.toArray()[ 0 ];
+		int current = h;
+		do {
+			Edge edgeTmp = this.getPrimalEdge( current );
+			if ( this.halfEdges.isForward( current ) )
 				this.leftEdgesFaces.put( edgeTmp, face );
-			}
-			vertexOld = current;
-			current = vertexNew;
-		};
+			else
+				this.rightEdgesFaces.put( edgeTmp, face );
+			current = this.halfEdges.getNext( current );
+		} while ( current != h );
 		
 		this.setInnerFace( faceVerticesPoints, face );
 	}
 	
+	/**
+	 * @param h semiarista
+	 * @return arista de G de la semiarista h
+	 */
+	private Edge getPrimalEdge( int h )
+	{
+		return this.halfEdges.getRotationSystem( ).getGraph( ).getEdge( this.halfEdges.getEdge( h ) );
+	}
+	
 	/**
 	 * @param polygon puntos que rodean la cara
 	 * @param face vertice cara del dual
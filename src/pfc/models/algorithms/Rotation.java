@@ -4,48 +4,51 @@
  */
 package pfc.models.algorithms;
 
-import java.util.Comparator;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import pfc.models.Vertex;
 import pfc.utilities.GeometryUtilities;
 
 
 /**
+ * Rotacion de los vecinos alrededor de un vertice centro, en el sentido de las
+ * agujas del reloj. El angulo de cada vecino se calcula una sola vez al construirla
+ * y los vecinos se guardan ordenados en un array, con un mapa de la posicion de
+ * cada uno, por lo que el siguiente en cada sentido se obtiene en O(1).
+ * Dos vecinos con el mismo angulo se consideran el mismo y se conserva el primero.
+ * La rotacion no se modifica una vez construida; para todos los vertices de un
+ * grafo a la vez ver {@link RotationSystem}.
  * @author Walber Gonzalez
- * 
+ *
  * UMLGraph
  * @navassoc - - "*\n" Vertex
- * @depend - - - RotationComparator
+ * @depend - - - GeometryUtilities
  */
-public class Rotation extends TreeSet<Vertex>
+public class Rotation implements Iterable<Vertex>
 {
-    private static final long serialVersionUID = -297457897744190066L;
-    
     /**
-     * Constructor definiendo el vertice centro de la rotacion.
-     * El vertice referencia sera tomado como el punto ( x=center.x, y=0).
-     * @param center Vertex
+     * vertice centro de la rotacion
      */
-    public Rotation( Vertex center )
-    {
-        this( center, new Vertex( center.x.get( ), 0 ) );
-    }
-    
+    private final Vertex                center;
     /**
-     * Constructor definiendo el vertice centro de la rotacion y el vertice referencia.
-     * @param center Vertex
-     * @param reference Vertex
+     * vecinos en el sentido de las agujas del reloj
      */
-    public Rotation( Vertex center, Vertex reference )
-    {
-        super( new RotationComparator( center, reference ) );
-    }
-    
+    private final Vertex[ ]             order;
+    /**
+     * posicion de cada vecino en order
+     */
+    private final Map<Vertex, Integer>  positions;
+
     /**
      * Constructor definiendo el vertice centro de la rotacion y los vertices vecinos.
+     * El vertice referencia sera tomado como el punto ( x=center.x, y=0).
      * @param center Vertex
      * @param neighbors Set<Vertex>
      */
@@ -53,7 +56,7 @@ public class Rotation extends TreeSet<Vertex>
     {
         this( center, new Vertex( center.x.get( ), 0 ), neighbors );
     }
-    
+
     /**
      * Constructor definiendo el vertice centro de la rotacion, el vertice referencia
      * y el conjunto de vecinos.
@@ -63,10 +66,21 @@ public class Rotation extends TreeSet<Vertex>
      */
     public Rotation( Vertex center, Vertex reference, Set<Vertex> neighbors )
     {
-        super( new RotationComparator( center, reference ) );
-        this.addAll( neighbors );
+        this( center, sortClockwise( center, reference, neighbors ) );
     }
-    
+
+    /**
+     * Constructor definiendo el vertice centro de la rotacion y el orden de los
+     * vecinos en el sentido de las agujas del reloj, por ejemplo el calculado por
+     * {@link pfc.utilities.graph.PlanarityTester}. No se usan las coordenadas.
+     * @param center Vertex
+     * @param clockwise List<Vertex>
+     */
+    public Rotation( Vertex center, List<Vertex> clockwise )
+    {
+        this( center, clockwise.toArray( new Vertex[clockwise.size( )] ) );
+    }
+
     /**
      * Constructor definiendo el vertice centro de la rotacion, el conjunto de vecinos
      * y determinando el vertice referencia.
@@ -78,97 +92,181 @@ public class Rotation extends TreeSet<Vertex>
     {
         this( center, determineReference( center, neighbors ), neighbors );
     }
-    
+
+    private Rotation( Vertex center, Vertex[ ] clockwise )
+    {
+        this.center = center;
+        this.order = clockwise;
+        this.positions = new HashMap<Vertex, Integer>( 2 * clockwise.length );
+        for ( int i = clockwise.length - 1; i >= 0; i-- )
+            this.positions.put( clockwise[i], i );
+    }
+
+    /**
+     * Ordenar los vecinos por el angulo que forman con el segmento center-reference,
+     * calculado una vez por vecino, descartando los que repiten angulo.
+     * @param center Vertex
+     * @param reference Vertex
+     * @param neighbors Collection<Vertex>
+     * @return vecinos en el sentido de las agujas del reloj
+     */
+    private static Vertex[ ] sortClockwise( Vertex center, Vertex reference, Collection<Vertex> neighbors )
+    {
+        Vertex[ ] vertices = neighbors.toArray( new Vertex[neighbors.size( )] );
+        double[ ] angles = getAngles( center, reference, vertices );
+        int[ ] sorted = RotationSystem.sortClockwise( angles, vertices.length );
+
+        Vertex[ ] clockwise = new Vertex[vertices.length];
+        int count = 0;
+        for ( int i = 0; i < sorted.length; i++ )
+        {
+            // con el mismo angulo se queda el primero
+            if ( count > 0 && ( angles[sorted[i]] > angles[sorted[i - 1]] ) == false )
+                continue;
+            clockwise[count++] = vertices[sorted[i]];
+        }
+        return Arrays.copyOf( clockwise, count );
+    }
+
+    private static double[ ] getAngles( Vertex center, Vertex reference, Vertex[ ] vertices )
+    {
+        Point2D c = center.getPoint2D( );
+        Point2D r = reference.getPoint2D( );
+        double[ ] angles = new double[vertices.length];
+        for ( int i = 0; i < vertices.length; i++ )
+            angles[i] = GeometryUtilities.getClockwiseAngle( r, c, vertices[i].getPoint2D( ) );
+        return angles;
+    }
+
     /**
      * Determinar el vertice referencia de la rotacion.
      * Seleccionamos el vertice referencia como el que se encuentra mas a la izquierda
      * formando el menor angulo con el vertice mas alejado de su rotacion.
+     * Complejidad: O(d^2) angulos, con d el numero de vecinos
 	 * @param center {@link Vertex}
 	 * @param neighbors {@link Set}
 	 * @return {@link Vertex}
 	 */
 	private static Vertex determineReference( Vertex center, Set<Vertex> neighbors )
 	{
-		TreeSet<Rotation> rotations = new TreeSet<Rotation>( new Comparator<Rotation>( ) {
-
-			@Override
-			public int compare( Rotation r1, Rotation r2 )
+		Vertex[ ] vertices = neighbors.toArray( new Vertex[neighbors.size( )] );
+		Vertex reference = null;
+		double minimum = 0;
+		// tomar cada vertice vecino como referencia; el angulo del ultimo de
+		// su rotacion es el mayor de todos
+		for ( Vertex n : vertices )
+		{
+			double maximum = 0;
+			for ( double angle : getAngles( center, n, vertices ) )
+				maximum = Math.max( maximum, angle );
+			if ( reference == null || maximum < minimum )
 			{
-				RotationComparator rc1 = (RotationComparator) r1.comparator( );
-				RotationComparator rc2 = (RotationComparator) r2.comparator( );
-				double angleR1 = GeometryUtilities.getClockwiseAngle(
-		                rc1.getReference( ).getPoint2D( ),
-		                rc1.getCenter( ).getPoint2D( ),
-		                r1.last( ).getPoint2D( ) );
-				double angleR2 = GeometryUtilities.getClockwiseAngle(
-		                rc2.getReference( ).getPoint2D( ),
-		                rc2.getCenter( ).getPoint2D( ),
-		                r2.last( ).getPoint2D( ) );
-		        
-		        if ( angleR1 < angleR2 )
-		            return -1;
-		        if ( angleR1 > angleR2 )
-		            return 1;
-		        return 0;
+				reference = n;
+				minimum = maximum;
 			}
-		} );
-		// construir las rotaciones tomando cada vertice vecino como referencia
-		for ( Vertex n : neighbors )
-		{
-			rotations.add( new Rotation( center, n, neighbors) );
-		}
-		if ( rotations.isEmpty( ) == false )
-		{
-			return ( (RotationComparator) rotations.first( ).comparator( ) ).getReference( );
 		}
+		if ( reference != null )
+			return reference;
 		return new Vertex( center.x.get( ), 0 );
 	}
 
+    /**
+     * @return vertice centro de la rotacion
+     */
+    public Vertex getCenter( )
+    {
+        return this.center;
+    }
+
+    /**
+     * @return numero de vecinos
+     */
+    public int size( )
+    {
+        return this.order.length;
+    }
+
+    /**
+     * @return si no hay vecinos
+     */
+    public boolean isEmpty( )
+    {
+        return this.order.length == 0;
+    }
+
+    /**
+     * @param v Vertex
+     * @return si v esta en la rotacion
+     */
+    public boolean contains( Vertex v )
+    {
+        return this.positions.containsKey( v );
+    }
+
+    /**
+     * @return primer vecino en el sentido de las agujas del reloj, null si no hay vecinos
+     */
+    public Vertex first( )
+    {
+        return this.isEmpty( ) ? null : this.order[0];
+    }
+
+    /**
+     * @return ultimo vecino en el sentido de las agujas del reloj, null si no hay vecinos
+     */
+    public Vertex last( )
+    {
+        return this.isEmpty( ) ? null : this.order[this.order.length - 1];
+    }
+
+    /**
+     * @return vecinos en el sentido de las agujas del reloj
+     */
+    public Vertex[ ] getClockwiseOrder( )
+    {
+        return this.order.clone( );
+    }
+
+    /**
+     * @return vecinos en el sentido contrario a las agujas del reloj
+     */
+    public Vertex[ ] getCounterClockwiseOrder( )
+    {
+        Vertex[ ] reversed = new Vertex[this.order.length];
+        for ( int i = 0; i < this.order.length; i++ )
+            reversed[i] = this.order[this.order.length - 1 - i];
+        return reversed;
+    }
+
 	/**
      * Siguiente vertice en el sentido Clockwise (N->E->S->O) desde el vertice v.
-     * @param v Vertex
+     * @param v Vertex, si no esta en la rotacion se devuelve el primero
      * @return Vertex
      */
     public Vertex getClockwiseVertex( Vertex v )
     {
-        Vertex higher = this.higher( v );
-        if ( higher == null )
+        Integer position = this.positions.get( v );
+        if ( position == null || position + 1 == this.order.length )
             return this.first( );
-        return higher;
+        return this.order[position + 1];
     }
-    
+
     /**
      * Siguiente vertice en el sentido CounterClockwise (N->O->S->E) desde el vertice v.
-     * @param v Vertex
+     * @param v Vertex, si no esta en la rotacion se devuelve el ultimo
      * @return Vertex
      */
     public Vertex getCounterClockwiseVertex( Vertex v )
     {
-        Vertex lower = this.lower( v );
-        if ( lower == null )
+        Integer position = this.positions.get( v );
+        if ( position == null || position == 0 )
             return this.last( );
-        return lower;
+        return this.order[position - 1];
     }
 
     @Override
-    public Vertex higher( Vertex v )
+    public Iterator<Vertex> iterator( )
     {
-    	for ( Iterator<Vertex> it = this.iterator( ); it.hasNext( ); )
-    	{
-    		if ( it.next( ).equals( v ) && it.hasNext( ) )
-    			return it.next( );
-    	}
-    	return null;
-    }
-
-    @Override
-    public Vertex lower( Vertex v )
-    {
-    	for ( Iterator<Vertex> it = this.descendingIterator( ); it.hasNext( ); )
-    	{
-    		if ( it.next( ).equals( v ) && it.hasNext( ) )
-    			return it.next( );
-    	}
-    	return null;
+        return Arrays.asList( this.order ).iterator( );
     }
 }
@@ -0,0 +1,407 @@
+/**
+ * RotationSystem.java
+ */
+package pfc.models.algorithms;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.List;
+
+import pfc.models.Graph;
+import pfc.models.Vertex;
+import pfc.utilities.GeometryUtilities;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.PlanarityTester;
+import pfc.utilities.graph.ScratchBuffers;
+
+
+/**
+ * Sistema de rotaciones de todo un grafo, construido en una sola pasada sobre su
+ * copia indexada ({@link IndexedGraph}). Cada par (v, w) de vecinos es un slot: los
+ * slots de v son {@code getFirstSlot( v ) .. getFirstSlot( v ) + getDegree( v ) - 1}
+ * y guardan los vecinos de v en el sentido de las agujas del reloj. Se ignora la
+ * direccion de las aristas, las aristas multiples cuentan una vez y los bucles no
+ * forman parte de la rotacion.
+ * <p/>
+ * El angulo de cada vecino se calcula una sola vez, respecto al punto
+ * ( x=v.x, y=0 ) como {@link Rotation}; los vecinos con el mismo angulo se
+ * conservan en el orden de la copia indexada. El slot gemelo de cada slot se
+ * precalcula, de modo que el vecino siguiente en cualquiera de los dos sentidos
+ * se obtiene en O(1), y el slot de un par (v, w) se busca entre los vecinos de v
+ * ordenados por indice.
+ * <p/>
+ * Complejidad: O(|V| + |E| log dmax) construirlo, O(log dmax) {@link #getSlot(int, int)}
+ * y O(1) el resto de consultas
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - GeometryUtilities
+ * @depend - - - PlanarityTester
+ */
+public class RotationSystem
+{
+    private final IndexedGraph          graph;
+    /**
+     * slots de cada vertice, offsets[v] .. offsets[v+1]-1
+     */
+    private final int[ ]                offsets;
+    /**
+     * vertice centro de cada slot
+     */
+    private final int[ ]                sources;
+    /**
+     * vecino de cada slot, en el sentido de las agujas del reloj
+     */
+    private final int[ ]                neighbors;
+    /**
+     * slot (w, v) de cada slot (v, w)
+     */
+    private final int[ ]                twins;
+    /**
+     * vecinos de cada vertice ordenados por indice, en el mismo rango que sus slots
+     */
+    private final int[ ]                sortedNeighbors;
+    /**
+     * slot (v, w) de cada vecino w de sortedNeighbors
+     */
+    private final int[ ]                sortedSlots;
+
+    /**
+     * Rotaciones tomadas de las coordenadas del dibujo.
+     * @param graph Graph
+     */
+    public RotationSystem( Graph graph )
+    {
+        this( new IndexedGraph( graph ) );
+    }
+
+    /**
+     * Rotaciones tomadas de las coordenadas del dibujo.
+     * @param graph IndexedGraph
+     */
+    public RotationSystem( IndexedGraph graph )
+    {
+        this( graph, null );
+    }
+
+    /**
+     * Rotaciones tomadas de un embedding combinatorio, sin usar las coordenadas.
+     * @param graph IndexedGraph
+     * @param embedding PlanarityTester de un grafo planar con los mismos vertices,
+     * null para usar las coordenadas del dibujo
+     */
+    public RotationSystem( IndexedGraph graph, PlanarityTester embedding )
+    {
+        this( graph, embedding, new ScratchBuffers( ) );
+    }
+
+    /**
+     * Rotaciones con los arrays de trabajo tomados de scratch, que pueden reutilizarse
+     * despues de construirlas.
+     * @param graph IndexedGraph
+     * @param embedding PlanarityTester, null para usar las coordenadas del dibujo
+     * @param scratch ScratchBuffers
+     */
+    public RotationSystem( IndexedGraph graph, PlanarityTester embedding, ScratchBuffers scratch )
+    {
+        this.graph = graph;
+        int n = graph.getVertexCount( );
+
+        // vecinos distintos de cada vertice, sin bucles
+        int[ ] mark = scratch.getInts( n );
+        Arrays.fill( mark, 0, n, -1 );
+        this.offsets = new int[n + 1];
+        // cada arista aparece como mucho una vez en cada extremo
+        int[ ] adjacency = scratch.getInts( 2 * graph.getEdgeCount( ) );
+        int count = 0;
+        for ( int v = 0; v < n; v++ )
+        {
+            this.offsets[v] = count;
+            mark[v] = v;
+            for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ); i++ )
+                if ( mark[graph.getOutTarget( i )] != v )
+                {
+                    mark[graph.getOutTarget( i )] = v;
+                    adjacency[count++] = graph.getOutTarget( i );
+                }
+            if ( graph.isDirected( ) )
+                for ( int i = graph.getInStart( v ); i < graph.getInEnd( v ); i++ )
+                    if ( mark[graph.getInSource( i )] != v )
+                    {
+                        mark[graph.getInSource( i )] = v;
+                        adjacency[count++] = graph.getInSource( i );
+                    }
+        }
+        this.offsets[n] = count;
+
+        this.sources = new int[count];
+        this.neighbors = new int[count];
+        this.twins = new int[count];
+        this.sortedNeighbors = new int[count];
+        this.sortedSlots = new int[count];
+
+        if ( embedding == null )
+            this.sortByAngle( adjacency, scratch );
+        else
+            this.sortByEmbedding( embedding );
+
+        for ( int v = 0; v < n; v++ )
+            for ( int slot = this.offsets[v]; slot < this.offsets[v + 1]; slot++ )
+                this.sources[slot] = v;
+        this.sortNeighbors( scratch );
+    }
+
+    /**
+     * Vecinos ordenados y gemelos con dos trasposiciones por cubetas, O(|V| + |E|): la
+     * primera deja en el rango de w los slots (v, w) ordenados por v; la segunda, al
+     * recorrerlos en orden de w, deja en el rango de v los vecinos w ordenados y sus
+     * slots (v, w). Como la relacion de vecinos es simetrica, la posicion i del rango de w
+     * tiene (v, w) en la primera y (w, v) en la segunda.
+     * @param scratch ScratchBuffers
+     */
+    private void sortNeighbors( ScratchBuffers scratch )
+    {
+        int n = this.graph.getVertexCount( );
+        int count = this.neighbors.length;
+        int[ ] next = scratch.getInts( n );
+        int[ ] incoming = scratch.getInts( count );
+
+        System.arraycopy( this.offsets, 0, next, 0, n );
+        for ( int slot = 0; slot < count; slot++ )
+        {
+            int w = this.neighbors[slot];
+            if ( next[w] == this.offsets[w + 1] )
+                throw new IllegalArgumentException( "el embedding no corresponde al grafo" );
+            incoming[next[w]++] = slot;
+        }
+
+        System.arraycopy( this.offsets, 0, next, 0, n );
+        for ( int i = 0; i < count; i++ )
+        {
+            int slot = incoming[i];
+            int position = next[this.sources[slot]]++;
+            this.sortedNeighbors[position] = this.neighbors[slot];
+            this.sortedSlots[position] = slot;
+        }
+
+        for ( int i = 0; i < count; i++ )
+        {
+            if ( this.sources[incoming[i]] != this.sortedNeighbors[i] )
+                throw new IllegalArgumentException( "el embedding no corresponde al grafo" );
+            this.twins[this.sortedSlots[i]] = incoming[i];
+        }
+    }
+
+    private void sortByAngle( int[ ] adjacency, ScratchBuffers scratch )
+    {
+        int n = this.graph.getVertexCount( );
+        Point2D[ ] points = new Point2D[n];
+        int maximum = 0;
+        for ( int v = 0; v < n; v++ )
+        {
+            points[v] = this.graph.getPoint2D( v );
+            maximum = Math.max( maximum, this.getDegree( v ) );
+        }
+
+        double[ ] angles = scratch.getDoubles( maximum );
+        int[ ] order = scratch.getInts( maximum );
+        int[ ] buffer = scratch.getInts( maximum );
+        for ( int v = 0; v < n; v++ )
+        {
+            int start = this.offsets[v];
+            int degree = this.offsets[v + 1] - start;
+            Point2D reference = new Point2D.Double( points[v].getX( ), 0 );
+            for ( int i = 0; i < degree; i++ )
+                angles[i] = GeometryUtilities.getClockwiseAngle( reference, points[v], points[adjacency[start + i]] );
+            sortClockwise( angles, degree, order, buffer );
+            for ( int i = 0; i < degree; i++ )
+                this.neighbors[start + i] = adjacency[start + order[i]];
+        }
+    }
+
+    private void sortByEmbedding( PlanarityTester embedding )
+    {
+        for ( int v = 0; v < this.graph.getVertexCount( ); v++ )
+        {
+            List<Vertex> clockwise = embedding.getRotation( this.graph.getVertex( v ) );
+            if ( clockwise == null || clockwise.size( ) != this.offsets[v + 1] - this.offsets[v] )
+                throw new IllegalArgumentException( "el embedding no corresponde al grafo" );
+            int slot = this.offsets[v];
+            for ( Vertex w : clockwise )
+                this.neighbors[slot++] = this.graph.indexOf( w );
+        }
+    }
+
+    /**
+     * Ordenar de forma estable las posiciones 0 .. count-1 por su angulo.
+     * @param angles angulo de cada posicion
+     * @param count numero de posiciones
+     * @return posiciones en el sentido de las agujas del reloj
+     */
+    static int[ ] sortClockwise( double[ ] angles, int count )
+    {
+        int[ ] sorted = new int[count];
+        sortClockwise( angles, count, sorted, new int[count] );
+        return sorted;
+    }
+
+    /**
+     * Ordenacion estable por mezcla, sin objetos: los empates quedan en el orden original.
+     * @param angles angulo de cada posicion
+     * @param count numero de posiciones
+     * @param order posiciones en el sentido de las agujas del reloj, de longitud count o mayor
+     * @param buffer array auxiliar, de longitud count o mayor
+     */
+    private static void sortClockwise( double[ ] angles, int count, int[ ] order, int[ ] buffer )
+    {
+        for ( int i = 0; i < count; i++ )
+            order[i] = i;
+        int[ ] from = order, to = buffer;
+        for ( int width = 1; width < count; width *= 2 )
+        {
+            for ( int low = 0; low < count; low += 2 * width )
+            {
+                int middle = Math.min( low + width, count ), high = Math.min( low + 2 * width, count );
+                int i = low, j = middle, k = low;
+                while ( i < middle && j < high )
+                    to[k++] = Double.compare( angles[from[j]], angles[from[i]] ) < 0 ? from[j++] : from[i++];
+                while ( i < middle )
+                    to[k++] = from[i++];
+                while ( j < high )
+                    to[k++] = from[j++];
+            }
+            int[ ] swap = from;
+            from = to;
+            to = swap;
+        }
+        if ( from != order )
+            System.arraycopy( from, 0, order, 0, count );
+    }
+
+    /**
+     * @return IndexedGraph sobre el que se construyo
+     */
+    public IndexedGraph getGraph( )
+    {
+        return this.graph;
+    }
+
+    /**
+     * @return numero total de slots, dos por cada par de vecinos
+     */
+    public int getSlotCount( )
+    {
+        return this.neighbors.length;
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return numero de vecinos distintos de v
+     */
+    public int getDegree( int v )
+    {
+        return this.offsets[v + 1] - this.offsets[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return primer slot de v en el sentido de las agujas del reloj, -1 si v no tiene vecinos
+     */
+    public int getFirstSlot( int v )
+    {
+        return this.getDegree( v ) == 0 ? -1 : this.offsets[v];
+    }
+
+    /**
+     * @param v indice del vertice centro
+     * @param w indice del vecino
+     * @return slot (v, w), -1 si w no es vecino de v
+     */
+    public int getSlot( int v, int w )
+    {
+        int i = Arrays.binarySearch( this.sortedNeighbors, this.offsets[v], this.offsets[v + 1], w );
+        return i < 0 ? -1 : this.sortedSlots[i];
+    }
+
+    /**
+     * @param slot slot (v, w)
+     * @return indice del vertice centro v
+     */
+    public int getSource( int slot )
+    {
+        return this.sources[slot];
+    }
+
+    /**
+     * @param slot slot (v, w)
+     * @return indice del vecino w
+     */
+    public int getNeighbor( int slot )
+    {
+        return this.neighbors[slot];
+    }
+
+    /**
+     * @param slot slot (v, w)
+     * @return slot (w, v)
+     */
+    public int getTwin( int slot )
+    {
+        return this.twins[slot];
+    }
+
+    /**
+     * @param slot slot (v, w)
+     * @return slot del vecino siguiente a w alrededor de v en el sentido de las agujas del reloj
+     */
+    public int getClockwiseSlot( int slot )
+    {
+        int v = this.sources[slot];
+        return slot + 1 == this.offsets[v + 1] ? this.offsets[v] : slot + 1;
+    }
+
+    /**
+     * @param slot slot (v, w)
+     * @return slot del vecino anterior a w alrededor de v en el sentido de las agujas del reloj
+     */
+    public int getCounterClockwiseSlot( int slot )
+    {
+        int v = this.sources[slot];
+        return slot == this.offsets[v] ? this.offsets[v + 1] - 1 : slot - 1;
+    }
+
+    /**
+     * Siguiente vecino en el sentido Clockwise (N->E->S->O) desde el vertice v
+     * alrededor de center, como {@link Rotation#getClockwiseVertex(Vertex)}.
+     * @param center Vertex
+     * @param v Vertex, si no es vecino de center se devuelve el primer vecino
+     * @return Vertex, null si center no tiene vecinos
+     */
+    public Vertex getClockwiseVertex( Vertex center, Vertex v )
+    {
+        int c = this.graph.indexOf( center );
+        if ( c == -1 || this.getDegree( c ) == 0 )
+            return null;
+        int w = this.graph.indexOf( v );
+        int slot = w == -1 ? -1 : this.getSlot( c, w );
+        return this.graph.getVertex( this.neighbors[slot == -1 ? this.offsets[c] : this.getClockwiseSlot( slot )] );
+    }
+
+    /**
+     * Siguiente vecino en el sentido CounterClockwise (N->O->S->E) desde el vertice v
+     * alrededor de center, como {@link Rotation#getCounterClockwiseVertex(Vertex)}.
+     * @param center Vertex
+     * @param v Vertex, si no es vecino de center se devuelve el ultimo vecino
+     * @return Vertex, null si center no tiene vecinos
+     */
+    public Vertex getCounterClockwiseVertex( Vertex center, Vertex v )
+    {
+        int c = this.graph.indexOf( center );
+        if ( c == -1 || this.getDegree( c ) == 0 )
+            return null;
+        int w = this.graph.indexOf( v );
+        int slot = w == -1 ? -1 : this.getSlot( c, w );
+        return this.graph.getVertex( this.neighbors[slot == -1 ? this.offsets[c + 1] - 1 : this.getCounterClockwiseSlot( slot )] );
+    }
+}
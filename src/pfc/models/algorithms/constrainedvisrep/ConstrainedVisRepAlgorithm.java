@@ -61,7 +61,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 	/**
 	 * numeracion topologica Y del grafo G
 	 */
-	private Map<Vertex, Float>				topologicalNumberingY;
+	private Map<Vertex, Integer>			topologicalNumberingY;
 	/**
 	 * numeracion topologica X del grafo G
 	 */
@@ -105,7 +105,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 		this.stGraphG.addObserver( elementObserver );
 		this.drawing.addObserver( elementObserver );
 				
-		this.topologicalNumberingY = new HashMap<Vertex, Float>( );
+		this.topologicalNumberingY = new HashMap<Vertex, Integer>( );
 		this.topologicalNumberingX = new HashMap<Vertex, Float>( );
 				
 		this.step = Step.DUAL_GRAPH;
@@ -130,7 +130,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 	/**
 	 * @return    the topologicalNumberingY
 	 */
-	public Map<Vertex, Float> getTopologicalNumberingY( )
+	public Map<Vertex, Integer> getTopologicalNumberingY( )
 	{
 		return topologicalNumberingY;
 	}
@@ -151,7 +151,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 	 */
 	public Integer numberY ( Vertex v )
 	{
-		return this.topologicalNumberingY.get( v ).intValue( );
+		return this.topologicalNumberingY.get( v );
 	}
 	
 	/**
@@ -241,7 +241,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 	 */
 	private void topologicalNumberingY ( )
 	{
-		this.topologicalNumberingY = GraphUtilities.getTopologicalNumbering( this.stDualG.getVertexS( ), this.stGraphG );
+		this.topologicalNumberingY = GraphUtilities.getTopologicalNumbering( this.stGraphG ).getRanks( );
 		
 		for ( Vertex v : this.stGraphG.vertices )
 		{
@@ -265,9 +265,7 @@ public class ConstrainedVisRepAlgorithm extends ObservableModel
 	 */
 	private void topologicalNumberingX ( )
 	{
-		this.topologicalNumberingX = GraphUtilities.getTopologicalNumbering(
-				this.stDualG.getFaceS( ), this.stDualG,
-				-0.5f, 0.5f  );
+		this.topologicalNumberingX = GraphUtilities.getTopologicalNumbering( this.stDualG ).getNumbering( -0.5f, 0.5f );
 		
 		for ( Vertex v : this.stDualG.vertices )
 		{
@@ -147,13 +147,11 @@ public class PolylineDominanceAlgorithm extends ObservableModel
 	private void makeGraphReduced( )
 	{
 		this.dummyVertices = new ArrayList<Vertex>( );
-		Graph tmp = new Graph( this.reduced.toString( ) );
+		// las aristas transitivas se calculan sobre el grafo original antes de modificarlo
+		List<Edge> transitiveEdges = GraphUtilities.getTransitiveReduction( this.reduced ).getTransitiveEdges( );
 		// convertir cada arista transitiva en dos aristas con un nuevo vertice dummy
-		for ( Edge e : tmp.edges )
-		{
-			if ( GraphUtilities.isTransitiveEdge( tmp, e ) )
-				insertDummyVertex( e );
-		}
+		for ( Edge e : transitiveEdges )
+			insertDummyVertex( e );
 	}
 	
 	/**
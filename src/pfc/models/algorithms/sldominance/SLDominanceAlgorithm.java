@@ -17,6 +17,8 @@ import pfc.models.ObservableModel;
 import pfc.models.Vertex;
 import pfc.models.algorithms.Rotation;
 import pfc.resources.StringBundle;
+import pfc.utilities.graph.DepthFirstSearch;
+import pfc.utilities.graph.IndexedGraph;
 
 
 /**
@@ -29,6 +31,7 @@ import pfc.resources.StringBundle;
  * @depend - - - Vertex
  * @depend - - - Rotation
  * @depend - - - StringBundle
+ * @depend - - - DepthFirstSearch
  */
 public class SLDominanceAlgorithm extends ObservableModel
 {
@@ -156,56 +159,6 @@ public class SLDominanceAlgorithm extends ObservableModel
 		}
 	}
 	
-	/**
-	 * @param v {@link Vertex}
-	 * @param n {@link Vertex}
-	 * @return {@link Edge} next outgoing edge from vertex n which is neighbor of v. 
-	 */
-	private Edge nextOut( Vertex v, Vertex n )
-	{
-		Vertex to = this.rotationsOut.get( v ).higher( n );
-		if ( to == null )
-			return null;
-		return this.dominance.getEdges( v, to ).iterator( ).next( );
-	}
-	
-	/**
-	 * @param v {@link Vertex}
-	 * @param n {@link Vertex}
-	 * @return {@link Edge} pred outgoing edge from vertex n which is neighbor of v. 
-	 */
-	private Edge predOut( Vertex v, Vertex n )
-	{
-		Vertex to = this.rotationsOut.get( v ).lower( n );
-		if ( to == null )
-			return null;
-		return this.dominance.getEdges( v, to ).iterator( ).next( );
-	}
-	
-	/**
-	 * @param v {@link Vertex}
-	 * @return {@link Edge} leftmost outgoing edge of vertex v. 
-	 */
-	private Edge firstOut( Vertex v )
-	{
-		Vertex to = this.rotationsOut.get( v ).first( );
-		if ( to == null )
-			return null;
-		return this.dominance.getEdges( v, to ).iterator( ).next( );
-	}
-	
-	/**
-	 * @param v {@link Vertex}
-	 * @return {@link Edge} rightmost incoming edge of vertex v. 
-	 */
-	private Edge lastOut( Vertex v )
-	{
-		Vertex to = this.rotationsOut.get( v ).last( );
-		if ( to == null )
-			return null;
-		return this.dominance.getEdges( v, to ).iterator( ).next( );
-	}
-	
 	/**
 	 * @param v {@link Vertex}
 	 * @return {@link Edge} leftmost incoming edge of vertex v. 
@@ -215,7 +168,7 @@ public class SLDominanceAlgorithm extends ObservableModel
 		Vertex from = this.rotationsIn.get( v ).last( );
 		if ( from == null )
 			return null;
-		return this.dominance.getEdges( from, v ).iterator( ).next( );
+		return this.dominance.getEdge( from, v );
 	}
 	
 	/**
@@ -227,7 +180,7 @@ public class SLDominanceAlgorithm extends ObservableModel
 		Vertex from = this.rotationsIn.get( v ).first( );
 		if ( from == null )
 			return null;
-		return this.dominance.getEdges( from, v ).iterator( ).next( );
+		return this.dominance.getEdge( from, v );
 	}
 	
 	/**
@@ -262,47 +215,90 @@ public class SLDominanceAlgorithm extends ObservableModel
 	/**
 	 * Asignar coordenada X preliminar al vertice v.
 	 * @param v {@link Vertex}
-	 * @param count {@link Integer}
 	 */
 	private void labelX( Vertex v )
 	{
-		// asignacion de la coordenada X
-		v.x.set( count.doubleValue( ) );
-		count++;
-		if ( v.equals( this.dominance.getVertexTarget( ) ) == false )
-		{
-			Edge e = firstOut( v );
-			do {
-				if ( e.equals( lastIn( e.to ) ) )
-				{
-					labelX( e.to );
-				}
-				e = nextOut( v, e.to );
-			} while ( e != null );
-		}
+		label( v, true );
 	}
 	
 	/**
 	 * Asignar coordenada Y preliminar al vertice v.
 	 * @param v {@link Vertex}
-	 * @param count {@link Integer}
 	 */
 	private void labelY( Vertex v )
 	{
-		// asignacion de la coordenada Y
-		v.y.set( count.doubleValue( ) );
-		count++;
-		if ( v.equals( this.dominance.getVertexTarget( ) ) == false )
+		label( v, false );
+	}
+	
+	/**
+	 * Recorrido en profundidad desde v que asigna la coordenada X (o Y) en preorden.
+	 * Las aristas salientes de cada vertice se recorren de izquierda a derecha para X
+	 * (de derecha a izquierda para Y), y solo se desciende por una arista si es la
+	 * entrante mas a la derecha (mas a la izquierda para Y) de su vertice destino.
+	 * @param v {@link Vertex}
+	 * @param isX {@code true} para la coordenada X, {@code false} para la Y
+	 */
+	private void label( Vertex v, final boolean isX )
+	{
+		final IndexedGraph indexed = new IndexedGraph( this.dominance );
+		final Vertex target = this.dominance.getVertexTarget( );
+		// vecinos salientes de cada vertice en el orden del recorrido
+		final Vertex[ ][ ] children = new Vertex[indexed.getVertexCount( )][ ];
+		
+		new DepthFirstSearch( indexed.getVertexCount( ) )
 		{
-			Edge e = lastOut( v );
-			do {
-				if ( e.equals( firstIn( e.to ) ) )
-				{
-					labelY( e.to );
-				}
-				e = predOut( v, e.to );
-			} while ( e != null );
-		}
+			@Override
+			protected void preVisit( int u, int parent, int edge )
+			{
+				Vertex vertex = indexed.getVertex( u );
+				// asignacion de la coordenada
+				if ( isX )
+					vertex.x.set( count.doubleValue( ) );
+				else
+					vertex.y.set( count.doubleValue( ) );
+				count++;
+				
+				Rotation rotation = rotationsOut.get( vertex );
+				if ( vertex.equals( target ) )
+					children[u] = new Vertex[0];
+				else if ( isX )
+					children[u] = rotation.getClockwiseOrder( );
+				else
+					children[u] = rotation.getCounterClockwiseOrder( );
+			}
+			
+			@Override
+			protected int getDegree( int u )
+			{
+				return children[u].length;
+			}
+			
+			@Override
+			protected int getNeighbor( int u, int k )
+			{
+				return indexed.indexOf( children[u][k] );
+			}
+			
+			@Override
+			protected int getEdge( int u, int k )
+			{
+				return -1;
+			}
+			
+			@Override
+			protected boolean followEdge( int u, int w, int edge )
+			{
+				Vertex to = indexed.getVertex( w );
+				Edge in = isX ? lastIn( to ) : firstIn( to );
+				return in != null && in.from.equals( indexed.getVertex( u ) );
+			}
+			
+			@Override
+			protected void postVisit( int u )
+			{
+				children[u] = null;
+			}
+		}.search( indexed.indexOf( v ) );
 	}
 
 	/**
@@ -414,8 +410,8 @@ public class SLDominanceAlgorithm extends ObservableModel
 	 */
 	private boolean equalsDegreeInOut( Vertex u, Vertex v )
 	{
-		return this.dominance.getEdges( u, v ).isEmpty( ) == false
-				&& ( this.dominance.getEdgesFrom( u ).size( ) == 1 )
-						&& ( this.dominance.getEdgesTo( v ).size( ) == 1 ); 
+		return this.dominance.getEdge( u, v ) != null
+				&& ( this.dominance.getOutgoingEdges( u ).size( ) == 1 )
+						&& ( this.dominance.getIncomingEdges( v ).size( ) == 1 ); 
 	}
 }
@@ -6,9 +6,14 @@ package pfc.models.algorithms.visibilityrepresentation;
 import java.util.*;
 
 import pfc.models.*;
+import pfc.models.algorithms.DoublyConnectedEdgeList;
 import pfc.models.algorithms.DualGraph;
+import pfc.models.algorithms.RotationSystem;
 import pfc.resources.StringBundle;
 import pfc.utilities.GraphUtilities;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.ScratchBuffers;
+import pfc.utilities.graph.TopologicalNumbering;
 
 
 /**
@@ -19,6 +24,8 @@ import pfc.utilities.GraphUtilities;
  * @navassoc - - "-stDualG" DualGraph
  * @navassoc - - "-drawing" VisibilityRepresentationDrawing
  * @depend - - - GraphUtilities
+ * @depend - - - DoublyConnectedEdgeList
+ * @depend - - - TopologicalNumbering
  * @depend - - - StringBundle
  */
 public class VisibilityRepresentationAlgorithm extends ObservableModel
@@ -42,11 +49,11 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	/**
 	 * numeracion topologica Y del grafo G
 	 */
-	private Map<Vertex, Float>	topologicalNumberingY;
+	private Map<Vertex, Integer>	topologicalNumberingY;
 	/**
 	 * numeracion topologica X del grafo G
 	 */
-	private Map<Vertex, Float>	topologicalNumberingX;
+	private Map<Vertex, Integer>	topologicalNumberingX;
 	/**
 	 * modelo de la Representacion de Visibilidad
 	 */
@@ -84,8 +91,8 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 		this.stGraphG.addObserver( elementObserver );
 		this.drawing.addObserver( elementObserver );
 				
-		this.topologicalNumberingY = new HashMap<Vertex, Float>( );
-		this.topologicalNumberingX = new HashMap<Vertex, Float>( );
+		this.topologicalNumberingY = new HashMap<Vertex, Integer>( );
+		this.topologicalNumberingX = new HashMap<Vertex, Integer>( );
 				
 		this.step = Step.DUAL_GRAPH;
 	}
@@ -109,7 +116,7 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	/**
 	 * @return    the topologicalNumberingY
 	 */
-	public Map<Vertex, Float> getTopologicalNumberingY( )
+	public Map<Vertex, Integer> getTopologicalNumberingY( )
 	{
 		return topologicalNumberingY;
 	}
@@ -117,7 +124,7 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	/**
 	 * @return    the topologicalNumberingX
 	 */
-	public Map<Vertex, Float> getTopologicalNumberingX( )
+	public Map<Vertex, Integer> getTopologicalNumberingX( )
 	{
 		return topologicalNumberingX;
 	}
@@ -183,13 +190,144 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 		this.constructVerticalEdges( );
 	}
 	
+	/**
+	 * Modo "solo calculo", para dibujar grafos grandes sin interfaz: las mismas etapas
+	 * que {@link #executeAlgorithm()} sobre una copia indexada de G, sin copiar ni
+	 * modificar el grafo, sin escribir etiquetas y sin notificar a ningun {@code Observer}.
+	 * Complejidad: O(|V| + |E| log dmax)
+	 * @param stGraphG grafo planar, st, aciclico, conexo
+	 * @return dibujo de solo lectura, con los vertices y aristas de stGraphG
+	 * @throws IllegalArgumentException si G no tiene source, target o cara externa
+	 */
+	public static VisibilityRepresentationDrawing computeDrawing ( Graph stGraphG )
+	{
+		return computeDrawing( new IndexedGraph( stGraphG ) );
+	}
+	
+	/**
+	 * Modo "solo calculo" sobre una copia indexada ya construida. Las caras de G son las
+	 * de su {@link DoublyConnectedEdgeList}; el grafo dual G* se guarda solo como arrays,
+	 * con la cara externa partida en faceS (0) y faceT (1) y las caras internas a continuacion.
+	 * @param graph IndexedGraph de un grafo planar, st, aciclico, conexo
+	 * @return dibujo de solo lectura, con los vertices y aristas de graph
+	 * @throws IllegalArgumentException si G no tiene source, target o cara externa
+	 * @see #computeDrawing(Graph)
+	 */
+	public static VisibilityRepresentationDrawing computeDrawing ( IndexedGraph graph )
+	{
+		return computeDrawing( graph, new ScratchBuffers( ) );
+	}
+	
+	/**
+	 * Modo "solo calculo" con los arrays de trabajo tomados de scratch, para dibujar
+	 * muchos grafos seguidos en el mismo hilo sin reservar memoria para cada uno.
+	 * @param graph IndexedGraph de un grafo planar, st, aciclico, conexo
+	 * @param scratch ScratchBuffers, que puede reutilizarse al terminar
+	 * @return dibujo de solo lectura, con los vertices y aristas de graph
+	 * @throws IllegalArgumentException si G no tiene source, target o cara externa
+	 */
+	public static VisibilityRepresentationDrawing computeDrawing ( IndexedGraph graph, ScratchBuffers scratch )
+	{
+		int n = graph.getVertexCount( );
+		int m = graph.getEdgeCount( );
+		
+		int s = -1, t = -1;
+		for ( int v = 0; v < n; v++ )
+		{
+			if ( s == -1 && graph.getInDegree( v ) == 0 && graph.getOutDegree( v ) > 0 )
+				s = v;
+			if ( t == -1 && graph.getOutDegree( v ) == 0 && graph.getInDegree( v ) > 0 )
+				t = v;
+		}
+		DoublyConnectedEdgeList halfEdges = new DoublyConnectedEdgeList( new RotationSystem( graph, null, scratch ) );
+		int outer = halfEdges.getOuterFace( );
+		if ( s == -1 || t == -1 || outer == -1 )
+			throw new IllegalArgumentException( "el grafo no es un st-graph planar" );
+		// s y t deben estar en la cara externa para que G* sea aciclico
+		boolean outerS = false, outerT = false;
+		int start = halfEdges.getFaceHalfEdge( outer );
+		int current = start;
+		do {
+			outerS |= halfEdges.getSource( current ) == s;
+			outerT |= halfEdges.getSource( current ) == t;
+			current = halfEdges.getNext( current );
+		} while ( current != start );
+		if ( outerS == false || outerT == false )
+			throw new IllegalArgumentException( "s y t no estan en la cara externa" );
+		
+		// vertice del dual de cada cara interna
+		int faceCount = halfEdges.getFaceCount( );
+		int[ ] faces = scratch.getInts( faceCount );
+		for ( int f = 0, count = 2; f < faceCount; f++ )
+			faces[f] = f == outer ? -1 : count++;
+		
+		// left(e) y right(e), la cara externa es faceS a la izquierda y faceT a la derecha
+		int[ ] origins = scratch.getInts( m );
+		int[ ] destinations = scratch.getInts( m );
+		int[ ] leftEdges = scratch.getInts( m );
+		int[ ] rightEdges = scratch.getInts( m );
+		for ( int e = 0; e < m; e++ )
+		{
+			int h = halfEdges.getHalfEdge( e );
+			if ( h == -1 )
+				throw new IllegalArgumentException( "el grafo tiene bucles" );
+			origins[e] = halfEdges.getSource( h );
+			destinations[e] = halfEdges.getTarget( h );
+			int left = halfEdges.getFace( h );
+			int right = halfEdges.getFace( halfEdges.getTwin( h ) );
+			leftEdges[e] = left == outer ? 0 : faces[left];
+			rightEdges[e] = right == outer ? 1 : faces[right];
+		}
+		
+		int[ ] numberY = TopologicalNumbering.getRanks( n, m, origins, destinations, scratch );
+		int[ ] numberX = TopologicalNumbering.getRanks( faceCount + 1, m, leftEdges, rightEdges, scratch );
+		
+		// left(v) y right(v) como en DualGraph, recorriendo la rotacion de cada vertice
+		RotationSystem rotations = halfEdges.getRotationSystem( );
+		List<VertexSegment> vertexSegments = new ArrayList<VertexSegment>( n );
+		for ( int v = 0; v < n; v++ )
+		{
+			int left = -1, right = -1;
+			if ( v == s || v == t )
+			{
+				left = 0;
+				right = 1;
+			}
+			else if ( rotations.getDegree( v ) > 0 )
+			{
+				int first = rotations.getFirstSlot( v );
+				int h = first;
+				do {
+					int h2 = rotations.getClockwiseSlot( h );
+					int e = halfEdges.getEdge( h );
+					boolean incoming = halfEdges.isForward( h ) == false;
+					if ( incoming && halfEdges.isForward( h2 ) )
+						left = leftEdges[e];
+					if ( incoming == false && halfEdges.isForward( h2 ) == false )
+						right = rightEdges[e];
+					h = h2;
+				} while ( h != first );
+			}
+			if ( left == -1 || right == -1 )
+				throw new IllegalArgumentException( "el grafo no es un st-graph planar" );
+			
+			vertexSegments.add( new VertexSegment( numberY[v], numberX[left], numberX[right] - 1, graph.getVertex( v ) ) );
+		}
+		
+		List<EdgeSegment> edgeSegments = new ArrayList<EdgeSegment>( m );
+		for ( int e = 0; e < m; e++ )
+			edgeSegments.add( new EdgeSegment( numberX[leftEdges[e]], numberY[origins[e]], numberY[destinations[e]], graph.getEdge( e ) ) );
+		
+		return new VisibilityRepresentationDrawing( vertexSegments, edgeSegments );
+	}
+	
 	/**
 	 * Calcular la numeracion topologica Y para el grafo primal G.
 	 * Actualizar las etiquetas de cada vertice de G con su numeracion topologica.
 	 */
 	private void topologicalNumberingY ( )
 	{
-		this.topologicalNumberingY = GraphUtilities.getTopologicalNumbering( this.stDualG.getVertexS( ), this.stGraphG );
+		this.topologicalNumberingY = GraphUtilities.getTopologicalNumbering( this.stGraphG ).getRanks( );
 		
 		for ( Vertex v : this.stGraphG.vertices )
 		{
@@ -213,7 +351,7 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	 */
 	private void topologicalNumberingX ( )
 	{
-		this.topologicalNumberingX = GraphUtilities.getTopologicalNumbering( this.stDualG.getFaceS( ), this.stDualG );
+		this.topologicalNumberingX = GraphUtilities.getTopologicalNumbering( this.stDualG ).getRanks( );
 		
 		for ( Vertex v : this.stDualG.vertices )
 		{
@@ -239,7 +377,7 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	 */
 	private Integer numberY ( Vertex v )
 	{
-		return this.topologicalNumberingY.get( v ).intValue( );
+		return this.topologicalNumberingY.get( v );
 	}
 	
 	/**
@@ -250,7 +388,7 @@ public class VisibilityRepresentationAlgorithm extends ObservableModel
 	 */
 	private Integer numberX ( Vertex v )
 	{
-		return this.topologicalNumberingX.get( v ).intValue( );
+		return this.topologicalNumberingX.get( v );
 	}
 	
 	/**
@@ -111,6 +111,29 @@ public class VisibilityRepresentationDrawing extends ObservableModel
 		this( JsonUtilities.parseObject( json ) );
 	}
 	
+	/**
+	 * Dibujo de solo lectura con los segmentos ya calculados, sin {@code Observer}
+	 * en los segmentos: las listas no se pueden modificar y nunca notifica cambios.
+	 * Usado por {@link VisibilityRepresentationAlgorithm#computeDrawing(pfc.models.Graph)}.
+	 * @param vertexSegments segmentos vertice, uno por vertice
+	 * @param edgeSegments segmentos arista, uno por arista
+	 */
+	VisibilityRepresentationDrawing( List<VertexSegment> vertexSegments, List<EdgeSegment> edgeSegments )
+	{
+		this.notificationsSuspended = true;
+		this.elementObserver = null;
+		
+		this.vertexSegments = Collections.unmodifiableList( vertexSegments );
+		this.edgeSegments = Collections.unmodifiableList( edgeSegments );
+		
+		this.vertexToSegment = new HashMap<Vertex, VertexSegment>( 2 * vertexSegments.size( ) );
+		for ( VertexSegment vS : vertexSegments )
+			this.vertexToSegment.put( vS.vertex, vS );
+		this.edgeToSegment = new HashMap<Edge, EdgeSegment>( 2 * edgeSegments.size( ) );
+		for ( EdgeSegment eS : edgeSegments )
+			this.edgeToSegment.put( eS.edge, eS );
+	}
+	
 	@Override
 	public String toString( )
 	{
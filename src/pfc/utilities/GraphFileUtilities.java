@@ -0,0 +1,534 @@
+/**
+ * GraphFileUtilities.java
+ */
+package pfc.utilities;
+
+import java.awt.geom.*;
+import java.io.*;
+import java.util.*;
+
+import pfc.models.*;
+
+
+/**
+ * Lectura y escritura de grafos en ficheros {@code .vsg} (JSON) y {@code .vsgb} (binario).
+ * <p/>
+ * El texto JSON se procesa en streaming con {@link JsonReader} y {@link JsonWriter}: solo
+ * se construye en memoria un vertice o una arista cada vez, nunca el documento completo
+ * como {@code String} o como arbol de mapas. El formato es el mismo que el de
+ * {@link Graph#toString()}.
+ * <p/>
+ * El formato binario guarda los textos una sola vez en una tabla de cadenas, los
+ * atributos de los vertices en columnas de tipos primitivos y las aristas como pares de
+ * indices de vertice. Guarda los mismos atributos que el JSON, por lo que la conversion
+ * entre ambos formatos ({@link #convert(File, File)}) no pierde informacion.
+ *
+ * @author walber
+ */
+public class GraphFileUtilities
+{
+	/**
+	 * Extension de los ficheros JSON
+	 */
+	public static final String	JSON_EXTENSION		= ".vsg";
+
+	/**
+	 * Extension de los ficheros binarios
+	 */
+	public static final String	BINARY_EXTENSION	= ".vsgb";
+
+	/**
+	 * Cabecera de los ficheros binarios, "VSGB"
+	 */
+	static final int			BINARY_MAGIC		= 0x56534742;
+
+	/**
+	 * Version del formato binario
+	 */
+	static final int			BINARY_VERSION		= 1;
+
+	/** indicadores de los grafos */
+	static final int			LOOPS_ALLOWED		= 1;
+	static final int			DIRECTED_ALLOWED	= 2;
+	static final int			MULTIPLE_ALLOWED	= 4;
+	static final int			CYCLES_ALLOWED		= 8;
+
+	/** indicadores de las aristas */
+	private static final int	DIRECTED			= 1;
+	private static final int	SELECTED			= 2;
+	private static final int	LINEAR				= 4;
+
+	/**
+	 * @param file {@link File}
+	 * @return {@code true} si el fichero tiene la extension del formato binario
+	 */
+	public static boolean isBinaryFile( File file )
+	{
+		return file.getName( ).endsWith( BINARY_EXTENSION );
+	}
+
+	/**
+	 * Leer un grafo de un fichero {@code .vsg} o {@code .vsgb}, segun su extension.
+	 * @param file {@link File}
+	 * @return {@link Graph} leido
+	 * @throws IOException
+	 */
+	public static Graph readGraph( File file ) throws IOException
+	{
+		if ( isBinaryFile( file ) )
+		{
+			DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+			try
+			{
+				return readBinaryGraph( in );
+			}
+			finally
+			{
+				in.close( );
+			}
+		}
+
+		JsonReader reader = new JsonReader( new FileReader( file ) );
+		try
+		{
+			Graph graph = readGraph( reader );
+			// un fichero con algo despues del grafo no se lee a medias
+			if ( reader.peek( ) != JsonReader.Token.END_DOCUMENT )
+				throw new Error( "Unexpected content after the graph in " + file );
+			return graph;
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	/**
+	 * Leer un grafo con el formato de {@link Graph#toString()}. Los miembros pueden venir
+	 * en cualquier orden; si las aristas aparecen antes que los vertices (como en los
+	 * ficheros escritos con {@code toString}) se guardan sus atributos hasta leer los
+	 * vertices.
+	 * @param reader {@link JsonReader}
+	 * @return {@link Graph} leido
+	 * @throws IOException
+	 */
+	@SuppressWarnings( "unchecked" )
+	public static Graph readGraph( JsonReader reader ) throws IOException
+	{
+		Map<String, Object> attributes = new HashMap<String, Object>( );
+		List<Vertex> vertices = new ArrayList<Vertex>( );
+		List<Edge> edges = new ArrayList<Edge>( );
+		List<Map<String, Object>> pendingEdges = new ArrayList<Map<String, Object>>( );
+		Map<String, Vertex> idToVertexMap = null;
+
+		reader.beginObject( );
+		while ( reader.hasNext( ) )
+		{
+			String name = reader.nextName( );
+			if ( name.equals( "vertices" ) && reader.peek( ) == JsonReader.Token.BEGIN_ARRAY )
+			{
+				idToVertexMap = new HashMap<String, Vertex>( );
+				reader.beginArray( );
+				while ( reader.hasNext( ) )
+				{
+					Object value = reader.nextValue( );
+					if ( value instanceof Map<?, ?> )
+					{
+						Map<String, Object> vertexPropertyMap = (Map<String, Object>) value;
+						Vertex vertex = new Vertex( vertexPropertyMap );
+						vertices.add( vertex );
+						idToVertexMap.put( (String) vertexPropertyMap.get( "id" ), vertex );
+					}
+				}
+				reader.endArray( );
+			}
+			else if ( name.equals( "edges" ) && reader.peek( ) == JsonReader.Token.BEGIN_ARRAY )
+			{
+				reader.beginArray( );
+				while ( reader.hasNext( ) )
+				{
+					Object value = reader.nextValue( );
+					if ( value instanceof Map<?, ?> )
+					{
+						if ( idToVertexMap != null )
+							edges.add( new Edge( (Map<String, Object>) value, idToVertexMap ) );
+						else
+							pendingEdges.add( (Map<String, Object>) value );
+					}
+				}
+				reader.endArray( );
+			}
+			else
+			{
+				Object value = reader.nextValue( );
+				if ( value != null )
+					attributes.put( name, value );
+			}
+		}
+		reader.endObject( );
+
+		// cabecera del grafo, los elementos se anaden despues
+		attributes.put( "vertices", Collections.emptyList( ) );
+		attributes.put( "edges", Collections.emptyList( ) );
+		Graph graph = new Graph( attributes );
+
+		graph.vertices.addAll( vertices );
+		if ( idToVertexMap == null )
+			idToVertexMap = new HashMap<String, Vertex>( );
+		for ( Map<String, Object> edge : pendingEdges )
+			edges.add( new Edge( edge, idToVertexMap ) );
+		graph.edges.addAll( edges );
+
+		return graph;
+	}
+
+	/**
+	 * Escribir un grafo en un fichero {@code .vsg} o {@code .vsgb}, segun su extension.
+	 * @param graph {@link Graph}
+	 * @param file {@link File}
+	 * @throws IOException
+	 */
+	public static void writeGraph( Graph graph, File file ) throws IOException
+	{
+		if ( isBinaryFile( file ) )
+		{
+			DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+			try
+			{
+				writeBinaryGraph( graph, out );
+			}
+			finally
+			{
+				out.close( );
+			}
+			return;
+		}
+
+		JsonWriter writer = new JsonWriter( new BufferedWriter( new FileWriter( file ) ) );
+		try
+		{
+			writeGraph( graph, writer );
+		}
+		finally
+		{
+			writer.close( );
+		}
+	}
+
+	/**
+	 * Escribir un grafo con el formato de {@link Graph#toString()}. La cabecera y los
+	 * vertices se escriben antes que las aristas, de modo que al leerlo no es necesario
+	 * guardar ninguna arista.
+	 * @param graph {@link Graph}
+	 * @param writer {@link JsonWriter}
+	 * @throws IOException
+	 */
+	public static void writeGraph( Graph graph, JsonWriter writer ) throws IOException
+	{
+		writer.beginObject( );
+		writer.member( "name", graph.name );
+		writer.member( "areLoopsAllowed", graph.areLoopsAllowed );
+		writer.member( "areDirectedEdgesAllowed", graph.areDirectedEdgesAllowed );
+		writer.member( "areMultipleEdgesAllowed", graph.areMultipleEdgesAllowed );
+		writer.member( "areCyclesAllowed", graph.areCyclesAllowed );
+
+		writer.name( "vertices" ).beginArray( );
+		for ( Vertex vertex : graph.vertices )
+			writer.jsonValue( vertex.toString( ) );
+		writer.endArray( );
+
+		writer.name( "edges" ).beginArray( );
+		for ( Edge edge : graph.edges )
+			writer.jsonValue( edge.toString( ) );
+		writer.endArray( );
+
+		writer.endObject( );
+		writer.flush( );
+	}
+
+	/**
+	 * Convertir un fichero de grafo entre los formatos JSON y binario, segun las
+	 * extensiones de los ficheros.
+	 * @param source {@link File} fichero de origen
+	 * @param target {@link File} fichero de destino
+	 * @throws IOException
+	 */
+	public static void convert( File source, File target ) throws IOException
+	{
+		writeGraph( readGraph( source ), target );
+	}
+
+	/**
+	 * Leer un grafo en formato binario.
+	 * @param in {@link DataInput}
+	 * @return {@link Graph} leido
+	 * @throws IOException si el formato o la version no son validos
+	 */
+	public static Graph readBinaryGraph( DataInput in ) throws IOException
+	{
+		if ( in.readInt( ) != BINARY_MAGIC )
+			throw new IOException( "Not a binary graph file" );
+		int version = in.readInt( );
+		if ( version != BINARY_VERSION )
+			throw new IOException( "Unsupported binary graph version " + version );
+
+		// tabla de cadenas
+		String[ ] strings = new String[in.readInt( )];
+		for ( int i = 0; i < strings.length; i++ )
+		{
+			byte[ ] bytes = new byte[in.readInt( )];
+			in.readFully( bytes );
+			strings[i] = new String( bytes, "UTF-8" );
+		}
+
+		// cabecera
+		String name = readString( in, strings );
+		String tag = readString( in, strings );
+		int flags = in.readUnsignedByte( );
+		Graph graph = new Graph( name, ( flags & LOOPS_ALLOWED ) != 0, ( flags & DIRECTED_ALLOWED ) != 0,
+				( flags & MULTIPLE_ALLOWED ) != 0, ( flags & CYCLES_ALLOWED ) != 0 );
+		graph.tag.set( tag );
+
+		// vertices
+		int n = in.readInt( );
+		long[ ] mostSignificantBits = readLongs( in, n );
+		long[ ] leastSignificantBits = readLongs( in, n );
+		double[ ] x = readDoubles( in, n );
+		double[ ] y = readDoubles( in, n );
+		double[ ] radius = readDoubles( in, n );
+		double[ ] weight = readDoubles( in, n );
+		int[ ] color = readInts( in, n );
+		int[ ] label = readInts( in, n );
+		int[ ] vertexTag = readInts( in, n );
+		byte[ ] isSelected = new byte[n];
+		in.readFully( isSelected );
+
+		List<Vertex> vertices = new ArrayList<Vertex>( n );
+		String[ ] ids = new String[n];
+		Map<String, Vertex> idToVertexMap = new HashMap<String, Vertex>( );
+		Map<String, Object> members = new HashMap<String, Object>( );
+		for ( int i = 0; i < n; i++ )
+		{
+			ids[i] = new UUID( mostSignificantBits[i], leastSignificantBits[i] ).toString( );
+			members.clear( );
+			members.put( "id", ids[i] );
+			members.put( "x", x[i] );
+			members.put( "y", y[i] );
+			members.put( "label", label[i] < 0 ? null : strings[label[i]] );
+			members.put( "radius", radius[i] );
+			members.put( "color", color[i] );
+			members.put( "isSelected", isSelected[i] != 0 );
+			members.put( "weight", weight[i] );
+			if ( vertexTag[i] >= 0 )
+				members.put( "tag", strings[vertexTag[i]] );
+
+			Vertex vertex = new Vertex( members );
+			vertices.add( vertex );
+			idToVertexMap.put( ids[i], vertex );
+		}
+		graph.vertices.addAll( vertices );
+
+		// aristas
+		int m = in.readInt( );
+		int[ ] from = readInts( in, m );
+		int[ ] to = readInts( in, m );
+		byte[ ] edgeFlags = new byte[m];
+		in.readFully( edgeFlags );
+		double[ ] edgeWeight = readDoubles( in, m );
+		int[ ] edgeColor = readInts( in, m );
+		int[ ] edgeLabel = readInts( in, m );
+		double[ ] thickness = readDoubles( in, m );
+		double[ ] handleX = readDoubles( in, m );
+		double[ ] handleY = readDoubles( in, m );
+		int[ ] edgeTag = readInts( in, m );
+		int[ ] bendCount = readInts( in, m );
+
+		List<Edge> edges = new ArrayList<Edge>( m );
+		for ( int i = 0; i < m; i++ )
+		{
+			members.clear( );
+			members.put( "isDirected", ( edgeFlags[i] & DIRECTED ) != 0 );
+			members.put( "from.id", ids[from[i]] );
+			members.put( "to.id", ids[to[i]] );
+			members.put( "weight", edgeWeight[i] );
+			members.put( "color", edgeColor[i] );
+			members.put( "label", edgeLabel[i] < 0 ? null : strings[edgeLabel[i]] );
+			members.put( "isSelected", ( edgeFlags[i] & SELECTED ) != 0 );
+			members.put( "thickness", thickness[i] );
+			members.put( "isLinear", ( edgeFlags[i] & LINEAR ) != 0 );
+			members.put( "handleX", handleX[i] );
+			members.put( "handleY", handleY[i] );
+			if ( edgeTag[i] >= 0 )
+				members.put( "tag", strings[edgeTag[i]] );
+			if ( bendCount[i] > 0 )
+			{
+				List<Map<String, Object>> bends = new ArrayList<Map<String, Object>>( bendCount[i] );
+				for ( int b = 0; b < bendCount[i]; b++ )
+				{
+					Map<String, Object> point = new HashMap<String, Object>( );
+					point.put( "x", in.readDouble( ) );
+					point.put( "y", in.readDouble( ) );
+					bends.add( point );
+				}
+				members.put( "bends", bends );
+			}
+
+			edges.add( new Edge( members, idToVertexMap ) );
+		}
+		graph.edges.addAll( edges );
+
+		return graph;
+	}
+
+	/**
+	 * Escribir un grafo en formato binario.
+	 * @param graph {@link Graph}
+	 * @param out {@link DataOutput}
+	 * @throws IOException
+	 */
+	public static void writeBinaryGraph( Graph graph, DataOutput out ) throws IOException
+	{
+		int n = graph.vertices.size( );
+		int m = graph.edges.size( );
+
+		// tabla de cadenas
+		Map<String, Integer> strings = new LinkedHashMap<String, Integer>( );
+		int name = addString( graph.name.get( ), strings );
+		int tag = addString( graph.tag.get( ), strings );
+		int[ ] label = new int[n];
+		int[ ] vertexTag = new int[n];
+		Map<Vertex, Integer> vertexToIndex = new HashMap<Vertex, Integer>( );
+		for ( int i = 0; i < n; i++ )
+		{
+			Vertex vertex = graph.vertices.get( i );
+			label[i] = addString( vertex.label.get( ), strings );
+			vertexTag[i] = "".equals( vertex.tag.get( ) ) ? -1 : addString( vertex.tag.get( ), strings );
+			vertexToIndex.put( vertex, i );
+		}
+		int[ ] edgeLabel = new int[m];
+		int[ ] edgeTag = new int[m];
+		for ( int i = 0; i < m; i++ )
+		{
+			Edge edge = graph.edges.get( i );
+			edgeLabel[i] = addString( edge.label.get( ), strings );
+			edgeTag[i] = "".equals( edge.tag.get( ) ) ? -1 : addString( edge.tag.get( ), strings );
+		}
+
+		out.writeInt( BINARY_MAGIC );
+		out.writeInt( BINARY_VERSION );
+		out.writeInt( strings.size( ) );
+		for ( String s : strings.keySet( ) )
+		{
+			byte[ ] bytes = s.getBytes( "UTF-8" );
+			out.writeInt( bytes.length );
+			out.write( bytes );
+		}
+
+		// cabecera
+		out.writeInt( name );
+		out.writeInt( tag );
+		out.writeByte( ( graph.areLoopsAllowed ? LOOPS_ALLOWED : 0 ) | ( graph.areDirectedEdgesAllowed ? DIRECTED_ALLOWED : 0 )
+				| ( graph.areMultipleEdgesAllowed ? MULTIPLE_ALLOWED : 0 ) | ( graph.areCyclesAllowed ? CYCLES_ALLOWED : 0 ) );
+
+		// vertices, por columnas
+		out.writeInt( n );
+		for ( Vertex vertex : graph.vertices )
+			out.writeLong( vertex.id.get( ).getMostSignificantBits( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeLong( vertex.id.get( ).getLeastSignificantBits( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeDouble( vertex.x.get( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeDouble( vertex.y.get( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeDouble( vertex.radius.get( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeDouble( vertex.weight.get( ) );
+		for ( Vertex vertex : graph.vertices )
+			out.writeInt( vertex.color.get( ) );
+		writeInts( out, label );
+		writeInts( out, vertexTag );
+		for ( Vertex vertex : graph.vertices )
+			out.writeByte( vertex.isSelected.get( ) ? 1 : 0 );
+
+		// aristas, por columnas
+		out.writeInt( m );
+		for ( Edge edge : graph.edges )
+			out.writeInt( vertexToIndex.get( edge.from ) );
+		for ( Edge edge : graph.edges )
+			out.writeInt( vertexToIndex.get( edge.to ) );
+		for ( Edge edge : graph.edges )
+			out.writeByte( ( edge.isDirected ? DIRECTED : 0 ) | ( edge.isSelected.get( ) ? SELECTED : 0 ) | ( edge.isLinear( ) ? LINEAR : 0 ) );
+		for ( Edge edge : graph.edges )
+			out.writeDouble( edge.weight.get( ) );
+		for ( Edge edge : graph.edges )
+			out.writeInt( edge.color.get( ) );
+		writeInts( out, edgeLabel );
+		for ( Edge edge : graph.edges )
+			out.writeDouble( edge.thickness.get( ) );
+		for ( Edge edge : graph.edges )
+			out.writeDouble( edge.handleX.get( ) );
+		for ( Edge edge : graph.edges )
+			out.writeDouble( edge.handleY.get( ) );
+		writeInts( out, edgeTag );
+		for ( Edge edge : graph.edges )
+			out.writeInt( edge.isPolyline( ) ? edge.getBends( ).size( ) : 0 );
+		for ( Edge edge : graph.edges )
+			if ( edge.isPolyline( ) )
+				for ( Point2D bend : edge.getBends( ) )
+				{
+					out.writeDouble( bend.getX( ) );
+					out.writeDouble( bend.getY( ) );
+				}
+	}
+
+	private static int addString( String s, Map<String, Integer> strings )
+	{
+		if ( s == null )
+			return -1;
+
+		Integer index = strings.get( s );
+		if ( index == null )
+		{
+			index = strings.size( );
+			strings.put( s, index );
+		}
+		return index;
+	}
+
+	private static String readString( DataInput in, String[ ] strings ) throws IOException
+	{
+		int index = in.readInt( );
+		return index < 0 ? null : strings[index];
+	}
+
+	private static long[ ] readLongs( DataInput in, int length ) throws IOException
+	{
+		long[ ] values = new long[length];
+		for ( int i = 0; i < length; i++ )
+			values[i] = in.readLong( );
+		return values;
+	}
+
+	private static double[ ] readDoubles( DataInput in, int length ) throws IOException
+	{
+		double[ ] values = new double[length];
+		for ( int i = 0; i < length; i++ )
+			values[i] = in.readDouble( );
+		return values;
+	}
+
+	private static int[ ] readInts( DataInput in, int length ) throws IOException
+	{
+		int[ ] values = new int[length];
+		for ( int i = 0; i < length; i++ )
+			values[i] = in.readInt( );
+		return values;
+	}
+
+	private static void writeInts( DataOutput out, int[ ] values ) throws IOException
+	{
+		for ( int value : values )
+			out.writeInt( value );
+	}
+}
@@ -15,12 +15,16 @@ import pfc.utilities.graph.*;
  *
  * UMLGraph
  * @depend - - - DepthFirstSearchFinder
+ * @depend - - - TopologicalNumbering
  * @depend - - - BipolarOrientation
  * @depend - - - StronglyConnectedComponentsFinder
  * @depend - - - WeaklyConnectedComponentsFinder
+ * @depend - - - ParallelComponentsFinder
  * @depend - - - BiconnectedComponentsFinder
  * @depend - - - STGraphTester
  * @depend - - - PlanarEmbeddingTester
+ * @depend - - - CrossingDetector
+ * @depend - - - GraphValidator
  * @depend - - - DegreeCounter
  * @depend - - - RoyFloydWarshallDistancesAlgorithm
  */
@@ -41,14 +45,29 @@ public class GraphUtilities
 		return new DepthFirstSearchFinder( ).topologicalSorting( v, graph );
 	}
 	
+	/**
+	 * La numeracion es la de todo el grafo y no depende de v.
+	 * @deprecated usar {@code getTopologicalNumbering( graph ).getNumbering( 0, 1 )}
+	 */
+	@Deprecated
 	public static Map<Vertex, Float> getTopologicalNumbering ( Vertex v, Graph graph )
 	{
-		return new DepthFirstSearchFinder( ).topologicalNumbering( v, graph );
+		return new TopologicalNumbering( graph ).getNumbering( 0, 1 );
 	}
 	
+	/**
+	 * La numeracion es la de todo el grafo y no depende de v.
+	 * @deprecated usar {@code getTopologicalNumbering( graph ).getNumbering( seed, weight )}
+	 */
+	@Deprecated
 	public static Map<Vertex, Float> getTopologicalNumbering ( Vertex v, Graph graph, float seed, float weight )
 	{
-		return new DepthFirstSearchFinder( seed, weight ).topologicalNumbering( v, graph );
+		return new TopologicalNumbering( graph ).getNumbering( seed, weight );
+	}
+	
+	public static TopologicalNumbering getTopologicalNumbering ( Graph graph )
+	{
+		return new TopologicalNumbering( graph );
 	}
 	
 	public static Graph getDirectedPlanarGraph ( Graph graph )
@@ -61,11 +80,25 @@ public class GraphUtilities
 		return ( graph.areDirectedEdgesAllowed ? new StronglyConnectedComponentsFinder( ).find( graph ) : new WeaklyConnectedComponentsFinder( ).find( graph ) );
 	}
 	
+	public static Collection<Collection<Vertex>> findStronglyConnectedComponents( Graph graph, int parallelism )
+	{
+		if ( parallelism <= 1 )
+			return findStronglyConnectedComponents( graph );
+		return new ParallelComponentsFinder( parallelism ).findStronglyConnectedComponents( graph );
+	}
+	
 	public static Collection<Collection<Vertex>> findWeaklyConnectedComponents( Graph graph )
 	{
 		return new WeaklyConnectedComponentsFinder( ).find( graph );
 	}
 	
+	public static Collection<Collection<Vertex>> findWeaklyConnectedComponents( Graph graph, int parallelism )
+	{
+		if ( parallelism <= 1 )
+			return findWeaklyConnectedComponents( graph );
+		return new ParallelComponentsFinder( parallelism ).findWeaklyConnectedComponents( graph );
+	}
+	
 	public static Set<Set<Vertex>> findBiconnectedComponents( Graph graph )
 	{
 	    return new BiconnectedComponentsFinder( ).getBiconnectedComponents( graph );
@@ -96,16 +129,51 @@ public class GraphUtilities
 	    return DigraphTester.isReducedDigraph( graph );
     }
 	
+	public static ValidationReport validate( Graph graph, Set<GraphValidator.Check> checks )
+	{
+	    return GraphValidator.validate( graph, checks );
+	}
+	
 	public static boolean isTransitiveEdge( Graph graph, Edge e )
     {
 	    return DigraphTester.isTransitiveEdge( graph, e );
     }
 	
+	public static TransitiveReduction getTransitiveReduction( Graph graph )
+	{
+	    return new TransitiveReduction( graph );
+	}
+	
+	public static boolean isPlanar( Graph graph )
+	{
+	    return new PlanarityTester( graph ).isPlanar( );
+	}
+	
+	public static PlanarityTester getPlanarEmbedding( Graph graph )
+	{
+	    return new PlanarityTester( graph );
+	}
+	
+	public static PlanarityTester getPlanarEmbedding( Graph graph, Vertex s, Vertex t )
+	{
+	    return new PlanarityTester( graph, s, t );
+	}
+	
 	public static boolean isPlanarEmbedding( Graph graph )
 	{
 	    return PlanarEmbeddingTester.isPlanarEmbedding( graph );
 	}
 	
+	public static int getNumberOfCrossings( Graph graph )
+	{
+	    return new CrossingDetector( graph ).getCrossingCount( );
+	}
+	
+	public static CrossingDetector getCrossings( Graph graph, int k )
+	{
+	    return new CrossingDetector( graph, k );
+	}
+	
 	public static int getMaximumDegree( Graph g )
 	{
 		return DegreeCounter.getMaximumDegree( g );
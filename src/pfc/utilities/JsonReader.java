@@ -0,0 +1,506 @@
+/**
+ * JsonReader.java
+ */
+package pfc.utilities;
+
+import java.io.*;
+import java.util.*;
+
+
+/**
+ * The {@code JsonReader} class is a pull-based reader of JSON text. Instead of building the whole document as a tree of maps and lists, as
+ * {@link JsonUtilities#parseObject(String)} does, it reads one token at a time from a {@link Reader}, so large documents can be consumed element by
+ * element with flat memory usage.
+ * <p/>
+ * Values are typed the same way as in {@link JsonUtilities}: quoted text is a {@code String}, integral numbers are {@code Integer}s, other numbers
+ * are {@code Double}s, and objects and arrays read with {@link #nextValue()} become {@code Map}s and {@code List}s.
+ *
+ * @author walber
+ * @see JsonWriter
+ */
+public class JsonReader implements Closeable
+{
+	/**
+	 * The kinds of token that may be returned by {@link JsonReader#peek()}
+	 */
+	public enum Token
+	{
+		BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, LITERAL, END_DOCUMENT
+	}
+
+	/**
+	 * The source of the JSON text
+	 */
+	private final Reader	reader;
+
+	/**
+	 * The characters read ahead from the source
+	 */
+	private final char[ ]	buffer;
+
+	/**
+	 * The position of the next character in the buffer
+	 */
+	private int				position;
+
+	/**
+	 * The number of valid characters in the buffer
+	 */
+	private int				limit;
+
+	/**
+	 * The number of characters consumed before the current buffer
+	 */
+	private long			offset;
+
+	/**
+	 * For each open object or array, whether it is an object
+	 */
+	private boolean[ ]		isObject;
+
+	/**
+	 * For each open object, whether the next string is a member name
+	 */
+	private boolean[ ]		isExpectingName;
+
+	/**
+	 * The number of open objects and arrays
+	 */
+	private int				depth;
+
+	/**
+	 * The token returned by the last call to {@link #peek()} and not yet consumed, or {@code null}
+	 */
+	private Token			peeked;
+
+	/**
+	 * The text of the peeked name, string or literal
+	 */
+	private String			peekedText;
+
+	/**
+	 * Constructs a {@code JsonReader} over the specified JSON text
+	 *
+	 * @param reader the source of the JSON text
+	 */
+	public JsonReader( Reader reader )
+	{
+		this.reader = reader;
+		this.buffer = new char[8192];
+		this.isObject = new boolean[16];
+		this.isExpectingName = new boolean[16];
+	}
+
+	/**
+	 * Constructs a {@code JsonReader} over the specified JSON string
+	 *
+	 * @param json the JSON text
+	 */
+	public JsonReader( String json )
+	{
+		this( new StringReader( json ) );
+	}
+
+	/**
+	 * Returns the type of the next token without consuming it
+	 *
+	 * @return the next {@link Token}
+	 * @throws IOException if the source cannot be read
+	 */
+	public Token peek( ) throws IOException
+	{
+		while( this.peeked == null )
+		{
+			int c = this.nextNonWhitespaceChar( );
+
+			switch( c )
+			{
+				case -1:
+					this.peeked = Token.END_DOCUMENT;
+					break;
+				case '{':
+					this.peeked = Token.BEGIN_OBJECT;
+					break;
+				case '}':
+					this.peeked = Token.END_OBJECT;
+					break;
+				case '[':
+					this.peeked = Token.BEGIN_ARRAY;
+					break;
+				case ']':
+					this.peeked = Token.END_ARRAY;
+					break;
+				case ',':
+				case ';':
+				case ':':
+					// Separators carry no information the nesting state does not already have
+					break;
+				case '"':
+				case '\'':
+					this.peekedText = this.nextString( (char) c );
+					this.peeked = ( this.depth > 0 && this.isObject[this.depth - 1] && this.isExpectingName[this.depth - 1] ) ? Token.NAME : Token.STRING;
+					break;
+				default:
+					this.peekedText = this.nextLiteral( (char) c );
+					this.peeked = Token.LITERAL;
+			}
+		}
+
+		return this.peeked;
+	}
+
+	/**
+	 * Returns a {@code boolean} indicating whether or not the current object or array has more members
+	 *
+	 * @return {@code true} if the next token is not the end of the current object or array
+	 * @throws IOException if the source cannot be read
+	 */
+	public boolean hasNext( ) throws IOException
+	{
+		Token token = this.peek( );
+		return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+	}
+
+	/**
+	 * Consumes the beginning of an object
+	 *
+	 * @throws IOException if the source cannot be read
+	 */
+	public void beginObject( ) throws IOException
+	{
+		this.consume( Token.BEGIN_OBJECT );
+		this.push( true );
+	}
+
+	/**
+	 * Consumes the end of the current object
+	 *
+	 * @throws IOException if the source cannot be read
+	 */
+	public void endObject( ) throws IOException
+	{
+		this.consume( Token.END_OBJECT );
+		this.depth--;
+		this.valueConsumed( );
+	}
+
+	/**
+	 * Consumes the beginning of an array
+	 *
+	 * @throws IOException if the source cannot be read
+	 */
+	public void beginArray( ) throws IOException
+	{
+		this.consume( Token.BEGIN_ARRAY );
+		this.push( false );
+	}
+
+	/**
+	 * Consumes the end of the current array
+	 *
+	 * @throws IOException if the source cannot be read
+	 */
+	public void endArray( ) throws IOException
+	{
+		this.consume( Token.END_ARRAY );
+		this.depth--;
+		this.valueConsumed( );
+	}
+
+	/**
+	 * Consumes the name of the next member of the current object
+	 *
+	 * @return the member name
+	 * @throws IOException if the source cannot be read
+	 */
+	public String nextName( ) throws IOException
+	{
+		this.consume( Token.NAME );
+		this.isExpectingName[this.depth - 1] = false;
+		return this.peekedText;
+	}
+
+	/**
+	 * Consumes the next value, building {@code Map}s and {@code List}s for objects and arrays
+	 *
+	 * @return the value, typed as in {@link JsonUtilities}
+	 * @throws IOException if the source cannot be read
+	 */
+	public Object nextValue( ) throws IOException
+	{
+		switch( this.peek( ) )
+		{
+			case BEGIN_OBJECT:
+				return this.nextObject( );
+			case BEGIN_ARRAY:
+				List<Object> items = new ArrayList<Object>( );
+				this.beginArray( );
+				while( this.hasNext( ) )
+					items.add( this.nextValue( ) );
+				this.endArray( );
+				return items;
+			case STRING:
+				this.consume( Token.STRING );
+				this.valueConsumed( );
+				return this.peekedText;
+			case LITERAL:
+				this.consume( Token.LITERAL );
+				this.valueConsumed( );
+				return parseLiteral( this.peekedText );
+			default:
+				throw new Error( "Expected a value at " + this.getIndex( ) );
+		}
+	}
+
+	/**
+	 * Consumes the next object, building a {@code Map} of its members
+	 *
+	 * @return a {@code Map} of member names to values
+	 * @throws IOException if the source cannot be read
+	 */
+	public Map<String, Object> nextObject( ) throws IOException
+	{
+		Map<String, Object> members = new HashMap<String, Object>( );
+
+		this.beginObject( );
+		while( this.hasNext( ) )
+		{
+			String key = this.nextName( );
+			Object value = this.nextValue( );
+			if( value != null )
+			{
+				if( members.containsKey( key ) )
+					throw new Error( "Duplicate key \"" + key + "\"" );
+
+				members.put( key, value );
+			}
+		}
+		this.endObject( );
+
+		return members;
+	}
+
+	/**
+	 * Consumes and discards the next value
+	 *
+	 * @throws IOException if the source cannot be read
+	 */
+	public void skipValue( ) throws IOException
+	{
+		int level = 0;
+		do
+		{
+			switch( this.peek( ) )
+			{
+				case BEGIN_OBJECT:
+					this.beginObject( );
+					level++;
+					break;
+				case BEGIN_ARRAY:
+					this.beginArray( );
+					level++;
+					break;
+				case END_OBJECT:
+					this.endObject( );
+					level--;
+					break;
+				case END_ARRAY:
+					this.endArray( );
+					level--;
+					break;
+				case NAME:
+					this.nextName( );
+					break;
+				case END_DOCUMENT:
+					throw new Error( "Unexpected end of JSON text" );
+				default:
+					this.peeked = null;
+					this.valueConsumed( );
+			}
+		}
+		while( level > 0 );
+	}
+
+	/**
+	 * Closes the underlying {@link Reader}
+	 */
+	@Override
+	public void close( ) throws IOException
+	{
+		this.reader.close( );
+	}
+
+	private void consume( Token expected ) throws IOException
+	{
+		if( this.peek( ) != expected )
+			throw new Error( "Expected " + expected + " but found " + this.peeked + " at " + this.getIndex( ) );
+
+		this.peeked = null;
+	}
+
+	private void push( boolean object )
+	{
+		if( this.depth == this.isObject.length )
+		{
+			this.isObject = Arrays.copyOf( this.isObject, this.depth * 2 );
+			this.isExpectingName = Arrays.copyOf( this.isExpectingName, this.depth * 2 );
+		}
+
+		this.isObject[this.depth] = object;
+		this.isExpectingName[this.depth] = object;
+		this.depth++;
+	}
+
+	private void valueConsumed( )
+	{
+		if( this.depth > 0 && this.isObject[this.depth - 1] )
+			this.isExpectingName[this.depth - 1] = true;
+	}
+
+	private long getIndex( )
+	{
+		return this.offset + this.position;
+	}
+
+	private int nextChar( ) throws IOException
+	{
+		if( this.position == this.limit )
+		{
+			this.offset += this.limit;
+			this.position = 0;
+			this.limit = this.reader.read( this.buffer, 0, this.buffer.length );
+			if( this.limit <= 0 )
+			{
+				this.limit = 0;
+				return -1;
+			}
+		}
+
+		return this.buffer[this.position++];
+	}
+
+	private int nextNonWhitespaceChar( ) throws IOException
+	{
+		while( true )
+		{
+			int c = this.nextChar( );
+			if( c == -1 || c > ' ' )
+				return c;
+		}
+	}
+
+	// Reads up to the closing quote, processing backslash escapes as JsonUtilities does
+	private String nextString( char quote ) throws IOException
+	{
+		StringBuilder sb = new StringBuilder( );
+
+		while( true )
+		{
+			int c = this.nextChar( );
+			switch( c )
+			{
+				case -1:
+				case '\n':
+				case '\r':
+					throw new Error( "Unterminated string at " + this.getIndex( ) );
+				case '\\':
+					c = this.nextChar( );
+					switch( c )
+					{
+						case 'b':
+							sb.append( '\b' );
+							break;
+						case 't':
+							sb.append( '\t' );
+							break;
+						case 'n':
+							sb.append( '\n' );
+							break;
+						case 'f':
+							sb.append( '\f' );
+							break;
+						case 'r':
+							sb.append( '\r' );
+							break;
+						case 'u':
+							char[ ] hex = new char[4];
+							for( int i = 0; i < hex.length; ++i )
+							{
+								int h = this.nextChar( );
+								if( h == -1 )
+									throw new Error( "Substring bounds error at " + this.getIndex( ) );
+								hex[i] = (char) h;
+							}
+							try
+							{
+								sb.append( (char) Integer.parseInt( new String( hex ), 16 ) );
+							}
+							catch( NumberFormatException exception )
+							{
+								throw new Error( "Illegal escape at " + this.getIndex( ) );
+							}
+							break;
+						case '"':
+						case '\'':
+						case '\\':
+						case '/':
+							sb.append( (char) c );
+							break;
+						default:
+							throw new Error( "Illegal escape at " + this.getIndex( ) );
+					}
+					break;
+				default:
+					if( c == quote )
+						return sb.toString( );
+					sb.append( (char) c );
+			}
+		}
+	}
+
+	// Accumulates unquoted text up to the next formatting character
+	private String nextLiteral( char first ) throws IOException
+	{
+		StringBuilder sb = new StringBuilder( );
+		int c = first;
+
+		while( c >= ' ' && ",:]}/\\\"[{;=".indexOf( c ) < 0 )
+		{
+			sb.append( (char) c );
+			c = this.nextChar( );
+		}
+		if( c != -1 )
+			this.position--;
+
+		String s = sb.toString( ).trim( );
+		if( s.length( ) <= 0 )
+			throw new Error( "Missing value at " + this.getIndex( ) );
+
+		return s;
+	}
+
+	// Numbers are the common case in graph files, so they skip the regular expressions of JsonUtilities.parseValue
+	private static Object parseLiteral( String s )
+	{
+		char c = s.charAt( 0 );
+		if( ( c >= '0' && c <= '9' ) || c == '-' || c == '+' || c == '.' )
+		{
+			boolean isIntegral = true;
+			for( int i = 1; i < s.length( ) && isIntegral; ++i )
+				isIntegral = s.charAt( i ) >= '0' && s.charAt( i ) <= '9';
+
+			try
+			{
+				if( isIntegral && c != '.' )
+					return Integer.valueOf( c == '+' ? s.substring( 1 ) : s );
+				return Double.valueOf( s );
+			}
+			catch( NumberFormatException exception )
+			{
+				// fall back to the general rules
+			}
+		}
+
+		return JsonUtilities.parseValue( s );
+	}
+}
@@ -0,0 +1,201 @@
+/**
+ * JsonWriter.java
+ */
+package pfc.utilities;
+
+import java.io.*;
+import java.util.*;
+
+
+/**
+ * The {@code JsonWriter} class writes JSON text token by token to a {@link Writer}, using the same layout as
+ * {@link JsonUtilities#formatObject(Map)}. Unlike the {@code toString} serialization of the models, it never holds the whole document in memory.
+ *
+ * @author walber
+ * @see JsonReader
+ */
+public class JsonWriter implements Closeable, Flushable
+{
+	/**
+	 * The destination of the JSON text
+	 */
+	private final Writer	writer;
+
+	/**
+	 * For each open object or array, whether it has no members yet
+	 */
+	private boolean[ ]		isEmpty;
+
+	/**
+	 * The number of open objects and arrays
+	 */
+	private int				depth;
+
+	/**
+	 * Whether a member name has just been written, so the next value needs no separator
+	 */
+	private boolean			isAfterName;
+
+	/**
+	 * Constructs a {@code JsonWriter} to the specified destination
+	 *
+	 * @param writer the destination of the JSON text
+	 */
+	public JsonWriter( Writer writer )
+	{
+		this.writer = writer;
+		this.isEmpty = new boolean[16];
+	}
+
+	/**
+	 * Writes the beginning of an object
+	 *
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter beginObject( ) throws IOException
+	{
+		this.beforeValue( );
+		this.writer.write( "{ " );
+		this.push( );
+		return this;
+	}
+
+	/**
+	 * Writes the end of the current object
+	 *
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter endObject( ) throws IOException
+	{
+		this.writer.write( this.isEmpty[--this.depth] ? "}" : " }" );
+		return this;
+	}
+
+	/**
+	 * Writes the beginning of an array
+	 *
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter beginArray( ) throws IOException
+	{
+		this.beforeValue( );
+		this.writer.write( "[ " );
+		this.push( );
+		return this;
+	}
+
+	/**
+	 * Writes the end of the current array
+	 *
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter endArray( ) throws IOException
+	{
+		// as in JsonUtilities.formatArray, an empty array is written as "[  ]"
+		this.depth--;
+		this.writer.write( " ]" );
+		return this;
+	}
+
+	/**
+	 * Writes the name of the next member of the current object
+	 *
+	 * @param name the member name
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter name( String name ) throws IOException
+	{
+		this.beforeValue( );
+		this.writer.write( JsonUtilities.formatString( name ) );
+		this.writer.write( " : " );
+		this.isAfterName = true;
+		return this;
+	}
+
+	/**
+	 * Writes a value, formatted with {@link JsonUtilities#formatValue(Object)}
+	 *
+	 * @param value the value
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter value( Object value ) throws IOException
+	{
+		return this.jsonValue( JsonUtilities.formatValue( value ) );
+	}
+
+	/**
+	 * Writes a value that is already JSON text, such as the {@code toString} of a {@code Vertex} or {@code Edge}
+	 *
+	 * @param json the JSON text of the value
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter jsonValue( String json ) throws IOException
+	{
+		this.beforeValue( );
+		this.writer.write( json );
+		return this;
+	}
+
+	/**
+	 * Writes a member of the current object
+	 *
+	 * @param name the member name
+	 * @param value the value
+	 * @return this {@code JsonWriter}
+	 * @throws IOException if the destination cannot be written
+	 */
+	public JsonWriter member( String name, Object value ) throws IOException
+	{
+		return this.name( name ).value( value );
+	}
+
+	/**
+	 * Flushes the underlying {@link Writer}
+	 */
+	@Override
+	public void flush( ) throws IOException
+	{
+		this.writer.flush( );
+	}
+
+	/**
+	 * Closes the underlying {@link Writer}
+	 */
+	@Override
+	public void close( ) throws IOException
+	{
+		this.writer.close( );
+	}
+
+	private void push( )
+	{
+		if( this.depth == this.isEmpty.length )
+			this.isEmpty = Arrays.copyOf( this.isEmpty, this.depth * 2 );
+
+		this.isEmpty[this.depth++] = true;
+	}
+
+	private void beforeValue( ) throws IOException
+	{
+		if( this.isAfterName )
+		{
+			this.isAfterName = false;
+			return;
+		}
+
+		if( this.depth > 0 )
+		{
+			if( this.isEmpty[this.depth - 1] )
+				this.isEmpty[this.depth - 1] = false;
+			else
+				this.writer.write( ", " );
+		}
+	}
+}
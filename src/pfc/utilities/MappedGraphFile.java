@@ -0,0 +1,299 @@
+/**
+ * MappedGraphFile.java
+ */
+package pfc.utilities;
+
+import java.awt.geom.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import pfc.models.*;
+
+
+/**
+ * Fichero de grafo binario ({@code .vsgb}) proyectado en memoria con
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)}. Al abrirlo solo se leen la
+ * cabecera y las posiciones de las columnas; las coordenadas, radios, colores y extremos
+ * de las aristas se decodifican del fichero en el momento en que se piden. De este modo
+ * se puede pintar una primera imagen del grafo antes de construir el {@link Graph}
+ * completo con {@link #toGraph()}.
+ *
+ * @author walber
+ * @see GraphFileUtilities#writeBinaryGraph(Graph, DataOutput)
+ */
+public class MappedGraphFile implements Closeable
+{
+	/**
+	 * contenido del fichero, null despues de {@link #close()}
+	 */
+	private ByteBuffer			buffer;
+
+	/**
+	 * numero de vertices
+	 */
+	private final int			vertexCount;
+
+	/**
+	 * numero de aristas
+	 */
+	private final int			edgeCount;
+
+	/** posiciones de las columnas de los vertices */
+	private final int			xOffset;
+	private final int			yOffset;
+	private final int			radiusOffset;
+	private final int			vertexColorOffset;
+
+	/** posiciones de las columnas de las aristas */
+	private final int			fromOffset;
+	private final int			toOffset;
+	private final int			edgeColorOffset;
+
+	/**
+	 * @param file {@link File} fichero {@code .vsgb}
+	 * @throws IOException si no se puede leer o no es un fichero binario de grafo
+	 */
+	public MappedGraphFile( File file ) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile( file, "r" );
+		try
+		{
+			// la proyeccion sigue siendo valida despues de cerrar el canal
+			this.buffer = raf.getChannel( ).map( FileChannel.MapMode.READ_ONLY, 0, raf.length( ) );
+		}
+		finally
+		{
+			raf.close( );
+		}
+
+		if ( this.buffer.getInt( 0 ) != GraphFileUtilities.BINARY_MAGIC )
+			throw new IOException( "Not a binary graph file" );
+		if ( this.buffer.getInt( 4 ) != GraphFileUtilities.BINARY_VERSION )
+			throw new IOException( "Unsupported binary graph version " + this.buffer.getInt( 4 ) );
+
+		// saltar la tabla de cadenas sin decodificarla
+		int position = 8;
+		int strings = this.buffer.getInt( position );
+		position += 4;
+		for ( int i = 0; i < strings; i++ )
+			position += 4 + this.buffer.getInt( position );
+
+		// nombre, etiqueta e indicadores del grafo
+		position += 4 + 4 + 1;
+
+		this.vertexCount = this.buffer.getInt( position );
+		position += 4;
+		int n = this.vertexCount;
+		position += 2 * 8 * n; // identificadores
+		this.xOffset = position;
+		this.yOffset = this.xOffset + 8 * n;
+		this.radiusOffset = this.yOffset + 8 * n;
+		this.vertexColorOffset = this.radiusOffset + 2 * 8 * n; // radio y peso
+		position = this.vertexColorOffset + 3 * 4 * n + n; // color, etiqueta, tag y seleccion
+
+		this.edgeCount = this.buffer.getInt( position );
+		position += 4;
+		int m = this.edgeCount;
+		this.fromOffset = position;
+		this.toOffset = this.fromOffset + 4 * m;
+		this.edgeColorOffset = this.toOffset + 4 * m + m + 8 * m; // indicadores y peso
+	}
+
+	/**
+	 * @return numero de vertices
+	 */
+	public int getVertexCount( )
+	{
+		return this.vertexCount;
+	}
+
+	/**
+	 * @return numero de aristas
+	 */
+	public int getEdgeCount( )
+	{
+		return this.edgeCount;
+	}
+
+	/**
+	 * @param vertex indice del vertice
+	 * @return coordenada x del vertice
+	 */
+	public double getX( int vertex )
+	{
+		return this.getBuffer( ).getDouble( this.xOffset + 8 * vertex );
+	}
+
+	/**
+	 * @param vertex indice del vertice
+	 * @return coordenada y del vertice
+	 */
+	public double getY( int vertex )
+	{
+		return this.getBuffer( ).getDouble( this.yOffset + 8 * vertex );
+	}
+
+	/**
+	 * @param vertex indice del vertice
+	 * @return radio del vertice
+	 */
+	public double getRadius( int vertex )
+	{
+		return this.getBuffer( ).getDouble( this.radiusOffset + 8 * vertex );
+	}
+
+	/**
+	 * @param vertex indice del vertice
+	 * @return color numerico del vertice
+	 */
+	public int getVertexColor( int vertex )
+	{
+		return this.getBuffer( ).getInt( this.vertexColorOffset + 4 * vertex );
+	}
+
+	/**
+	 * @param edge indice de la arista
+	 * @return indice del vertice origen
+	 */
+	public int getFrom( int edge )
+	{
+		return this.getBuffer( ).getInt( this.fromOffset + 4 * edge );
+	}
+
+	/**
+	 * @param edge indice de la arista
+	 * @return indice del vertice destino
+	 */
+	public int getTo( int edge )
+	{
+		return this.getBuffer( ).getInt( this.toOffset + 4 * edge );
+	}
+
+	/**
+	 * @param edge indice de la arista
+	 * @return color numerico de la arista
+	 */
+	public int getEdgeColor( int edge )
+	{
+		return this.getBuffer( ).getInt( this.edgeColorOffset + 4 * edge );
+	}
+
+	/**
+	 * @return rectangulo que contiene todos los vertices, {@code null} si no hay vertices
+	 */
+	public Rectangle2D getBounds( )
+	{
+		if ( this.vertexCount == 0 )
+			return null;
+
+		Rectangle2D bounds = null;
+		for ( int i = 0; i < this.vertexCount; i++ )
+		{
+			double radius = this.getRadius( i );
+			Rectangle2D vertex = new Rectangle2D.Double( this.getX( i ) - radius, this.getY( i ) - radius, 2 * radius, 2 * radius );
+			if ( bounds == null )
+				bounds = vertex;
+			else
+				bounds.add( vertex );
+		}
+		return bounds;
+	}
+
+	/**
+	 * Construir el grafo completo a partir del fichero. Se puede llamar desde cualquier
+	 * hilo, ya que no modifica el estado de este objeto.
+	 * @return {@link Graph}
+	 * @throws IOException
+	 */
+	public Graph toGraph( ) throws IOException
+	{
+		final ByteBuffer source = this.getBuffer( ).duplicate( );
+		source.position( 0 );
+
+		InputStream in = new InputStream( )
+		{
+			@Override
+			public int read( )
+			{
+				return source.hasRemaining( ) ? source.get( ) & 0xff : -1;
+			}
+
+			@Override
+			public int read( byte[ ] b, int off, int len )
+			{
+				if ( source.hasRemaining( ) == false )
+					return -1;
+
+				len = Math.min( len, source.remaining( ) );
+				source.get( b, off, len );
+				return len;
+			}
+		};
+
+		return GraphFileUtilities.readBinaryGraph( new DataInputStream( in ) );
+	}
+
+	/**
+	 * Soltar la proyeccion, que se libera cuando el recolector reclama el buffer. Despues
+	 * todos los metodos que leen el fichero lanzan {@link IllegalStateException}; los
+	 * numeros de vertices y aristas se siguen pudiendo consultar.
+	 */
+	@Override
+	public void close( )
+	{
+		this.buffer = null;
+	}
+
+	/**
+	 * @return contenido del fichero
+	 * @throws IllegalStateException si ya se ha llamado a {@link #close()}
+	 */
+	private ByteBuffer getBuffer( )
+	{
+		ByteBuffer buffer = this.buffer;
+		if ( buffer == null )
+			throw new IllegalStateException( "MappedGraphFile is closed" );
+		return buffer;
+	}
+
+	/**
+	 * @return grafo vacio con el nombre y los indicadores del fichero
+	 */
+	public Graph getEmptyGraph( )
+	{
+		ByteBuffer buffer = this.getBuffer( );
+		int position = 8;
+		int strings = buffer.getInt( position );
+		position += 4;
+		int[ ] offsets = new int[strings];
+		for ( int i = 0; i < strings; i++ )
+		{
+			offsets[i] = position;
+			position += 4 + buffer.getInt( position );
+		}
+
+		int name = buffer.getInt( position );
+		int flags = buffer.get( position + 8 );
+
+		return new Graph( name < 0 ? null : this.getString( offsets[name] ), ( flags & GraphFileUtilities.LOOPS_ALLOWED ) != 0,
+				( flags & GraphFileUtilities.DIRECTED_ALLOWED ) != 0, ( flags & GraphFileUtilities.MULTIPLE_ALLOWED ) != 0,
+				( flags & GraphFileUtilities.CYCLES_ALLOWED ) != 0 );
+	}
+
+	private String getString( int offset )
+	{
+		byte[ ] bytes = new byte[this.buffer.getInt( offset )];
+		ByteBuffer source = this.buffer.duplicate( );
+		source.position( offset + 4 );
+		source.get( bytes );
+		try
+		{
+			return new String( bytes, "UTF-8" );
+		}
+		catch( UnsupportedEncodingException e )
+		{
+			throw new Error( e );
+		}
+	}
+}
@@ -1,13 +1,9 @@
 package pfc.utilities.graph;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
-import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
 
@@ -20,23 +16,27 @@ import pfc.models.Vertex;
  * components of three or more vertices have the property that every pair of vertices in the component
  * are connected by two or more vertex-disjoint paths.
  * <p>
+ * The components are those of a {@link BlockCutTree}, and the cutpoints are the vertices
+ * that belong to more than one component.  The results are kept until the finder is
+ * asked about a different graph, or about a {@link Graph} whose
+ * {@link Graph#getStructureVersion() structure version} has changed since the search.
+ * <p>
  * Running time: O(|V| + |E|) where |V| is the number of vertices and |E| is the number of edges
  * @see "Depth first search and linear graph algorithms by R. E. Tarjan (1972), SIAM J. Comp."
  * 
  * UMLGraph
  * @depend - - - Graph
- * @depend - - - Edge
  * @depend - - - Vertex
+ * @depend - - - IndexedGraph
+ * @depend - - - BlockCutTree
  */
 public class BiconnectedComponentsFinder
 {
-    private final Map<Vertex, Integer> dfs_num = new HashMap<Vertex, Integer>( );
-    private final Map<Vertex, Integer> high = new HashMap<Vertex, Integer>( );
-    private final Map<Vertex, Vertex>  parents = new HashMap<Vertex, Vertex>( );
     private final Set<Set<Vertex>>     bicomponents = new LinkedHashSet<Set<Vertex>>( );
     private final Set<Vertex>          cut_points = new HashSet<Vertex>( );
-    private final Stack<Edge>          stack = new Stack<Edge>( );
-    private int                        converse_depth;
+    // grafo cuyos resultados estan calculados y su version, si es un Graph
+    private Object                     searched;
+    private int                        searchedVersion;
 
     /**
      * @param graph Graph
@@ -44,9 +44,19 @@ public class BiconnectedComponentsFinder
      */
     public boolean isBiconnected( Graph graph )
     {
-        if ( cut_points.isEmpty( ) )
+        if ( isSearched( graph ) == false )
+            find( graph );
+        return bicomponents.size( ) == 1;
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @return Boolean whether the given graph is biconnected
+     */
+    public boolean isBiconnected( IndexedGraph graph )
+    {
+        if ( searched != graph )
             find( graph );
-        //cut_points.isEmpty( ) && 
         return bicomponents.size( ) == 1;
     }
     
@@ -56,8 +66,7 @@ public class BiconnectedComponentsFinder
      */
     public Set<Vertex> getCutPoints( Graph graph )
     {
-        // TODO falla cutpoints
-        if ( cut_points.isEmpty( ) )
+        if ( isSearched( graph ) == false )
             find( graph );
         return cut_points;
     }
@@ -68,7 +77,7 @@ public class BiconnectedComponentsFinder
      */
     public Set<Set<Vertex>> getBiconnectedComponents( Graph graph )
     {
-        if ( bicomponents.isEmpty( ) )
+        if ( isSearched( graph ) == false )
             find( graph );
         return bicomponents;
     }
@@ -78,100 +87,41 @@ public class BiconnectedComponentsFinder
      * @param graph the graph whose bicomponents are to be extracted
      */ 
     public void find( Graph graph ) {
-        if ( graph.vertices.isEmpty( ) )
-            return;
-
-        // initialize DFS number for each vertex to 0
-        for ( Vertex v : graph.vertices )
-            dfs_num.put( v, 0 );
-
-        for ( Vertex v : graph.vertices )
-        {
-            if ( dfs_num.get( v ) == 0 ) // if we haven't hit this vertex yet...
-            {
-                converse_depth = graph.vertices.size( );
-                // find the biconnected components for this subgraph, starting from v
-                findBiconnectedComponents( graph, v, bicomponents );
-
-                // if we only visited one vertex, this method won't have
-                // ID'd it as a biconnected component, so mark it as one
-                if ( graph.vertices.size() - converse_depth == 1 )
-                {
-                    Set<Vertex> s = new HashSet<Vertex>( );
-                    s.add( v );
-                    bicomponents.add( s );
-                }
-            }
-        }
+        find( new IndexedGraph( graph ) );
+        searched = graph;
+        searchedVersion = graph.getStructureVersion( );
     }
 
     /**
-     * <p>Stores, in <code>bicomponents</code>, all the biconnected
-     * components that are reachable from <code>v</code>.</p>
-     * 
-     * <p>The algorithm basically proceeds as follows: do a depth-first
-     * traversal starting from <code>v</code>, marking each vertex with
-     * a value that indicates the order in which it was encountered (dfs_num), 
-     * and with
-     * a value that indicates the highest point in the DFS tree that is known
-     * to be reachable from this vertex using non-DFS edges (high).  (Since it
-     * is measured on non-DFS edges, "high" tells you how far back in the DFS
-     * tree you can reach by two distinct paths, hence biconnectivity.) 
-     * Each time a new vertex w is encountered, push the edge just traversed
-     * on a stack, and call this method recursively.  If w.high is no greater than
-     * v.dfs_num, then the contents of the stack down to (v,w) is a 
-     * biconnected component (and v is an articulation point, that is, a 
-     * component boundary).  In either case, set v.high to max(v.high, w.high), 
-     * and continue.  If w has already been encountered but is 
-     * not v's parent, set v.high max(v.high, w.dfs_num) and continue. 
-     * 
-     * <p>(In case anyone cares, the version of this algorithm on p. 224 of 
-     * Udi Manber's "Introduction to Algorithms: A Creative Approach" seems to be
-     * wrong: the stack should be initialized outside this method, 
-     * (v,w) should only be put on the stack if w hasn't been seen already,
-     * and there's no real benefit to putting v on the stack separately: just
-     * check for (v,w) on the stack rather than v.  Had I known this, I could
-     * have saved myself a few days.  JRTOM)</p>
-     * 
+     * @param graph Graph
+     * @return {@code true} si los resultados son los del grafo en su version actual
      */
-    private void findBiconnectedComponents( Graph graph, Vertex v, Set<Set<Vertex>> bicomponents )
+    private boolean isSearched( Graph graph )
     {
-        int v_dfs_num = converse_depth;
-        dfs_num.put( v, v_dfs_num );
-        converse_depth--;
-        high.put( v, v_dfs_num );
+        return searched == graph && searchedVersion == graph.getStructureVersion( );
+    }
+
+    /**
+     * Extracts the bicomponents and cutpoints from a snapshot of the graph.
+     * @param graph the graph whose bicomponents are to be extracted
+     */
+    public void find( IndexedGraph graph ) {
+        bicomponents.clear( );
+        cut_points.clear( );
+        searched = graph;
+        if ( graph.getVertexCount( ) == 0 )
+            return;
 
-        for ( Edge vw : graph.getEdges( v ) )
+        BlockCutTree tree = new BlockCutTree( graph );
+        for ( int i = 0; i < tree.getBlockCount( ); i++ )
         {
-            Vertex w = vw.from == v ? vw.to : vw.from; 
-            int w_dfs_num = dfs_num.get( w );//get(w, dfs_num);
-            if (w_dfs_num == 0) // w hasn't yet been visited
-            {
-                parents.put( w, v ); // v is w's parent in the DFS tree
-                stack.push( vw );
-                findBiconnectedComponents( graph, w, bicomponents );
-                int w_high = high.get( w );//get(w, high);
-                if ( w_high <= v_dfs_num )
-                {
-                    // v disconnects w from the rest of the graph,
-                    // i.e., v is an articulation point
-                    // thus, everything between the top of the stack and
-                    // v is part of a single biconnected component
-                    cut_points.add( v );
-                    Set<Vertex> bicomponent = new HashSet<Vertex>( );
-                    Edge e;
-                    do
-                    {
-                        e = stack.pop( );
-                        bicomponent.add( e.from );
-                        bicomponent.add( e.to );
-                    } while ( e != vw );
-                    bicomponents.add( bicomponent );
-                }
-                high.put( v, Math.max( w_high, high.get( v ) ) );
-            }
-            else if ( w != parents.get( v ) ) // (v,w) is a back or a forward edge
-                high.put( v, Math.max( w_dfs_num, high.get( v ) ) );
+            Set<Vertex> bicomponent = new HashSet<Vertex>( );
+            for ( int v : tree.getVertices( tree.getBlock( i ) ) )
+                bicomponent.add( graph.getVertex( v ) );
+            bicomponents.add( bicomponent );
         }
+        for ( int v = 0; v < graph.getVertexCount( ); v++ )
+            if ( tree.isCutVertex( v ) )
+                cut_points.add( graph.getVertex( v ) );
     }
 }
@@ -1,7 +1,9 @@
 package pfc.utilities.graph;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -13,7 +15,9 @@ import pfc.utilities.GeometryUtilities;
 
 
 /**
- * Complejidad: O(|V|*|E|)
+ * El arbol de bloques y vertices corte se construye una sola vez y se actualiza al
+ * eliminar cada vertice, recalculando solo los bloques que lo contenian.
+ * Complejidad: O(|V|*|E|) en el peor caso, O(|V|+|E|) por cada bloque recalculado
  * @see "Parameterized st-Orientations of Graphs: Algorithms and Experiments by C. Papamanthou and I. G. Tollis (2007)"
  * @author walber
  * 
@@ -25,6 +29,9 @@ import pfc.utilities.GeometryUtilities;
  * @depend - - - Edge
  * @depend - - - GeometryUtilities
  * @depend - - - UserSettings
+ * @depend - - - IndexedGraph
+ * @depend - - - DepthFirstSearch
+ * @depend - - - BlockCutTree
  */
 public class BipolarOrientationPapamanthouAlgorithm
 {
@@ -37,7 +44,10 @@ public class BipolarOrientationPapamanthouAlgorithm
     private final Set<Vertex>          setQ = new HashSet<Vertex>( );
     private final Map<Vertex, Integer> timestamp = new HashMap<Vertex, Integer>( );
     private final Map<Vertex, Integer> stNumbering = new HashMap<Vertex, Integer>( );
-    private Map<Vertex, Set<Vertex>>   leafBlocks;
+    private IndexedGraph               indexed;
+    private BlockCutTree               tree;
+    // bloques hoja de cada vertice visitado, pares {bloque, vertice corte}
+    private final List<List<int[ ]>>   children = new ArrayList<List<int[ ]>>( );
 
     /**
      * @param graph Graph
@@ -82,8 +92,67 @@ public class BipolarOrientationPapamanthouAlgorithm
         return directed;
     }
     
-    private void stOrientationRecursive( Vertex v )
+    /**
+     * Cada llamada recursiva del algoritmo original es un vertice del recorrido en
+     * profundidad: al visitar v se calculan sus bloques hoja, y el hijo k-esimo de v
+     * es la siguiente fuente elegida en el k-esimo bloque hoja, que se decide justo
+     * antes de descender a el. Si en el bloque ya no quedan candidatos, porque los ha
+     * eliminado un hijo anterior, no se desciende. La recursion se sustituye por una
+     * pila explicita.
+     * @param s Vertex source
+     */
+    private void stOrientationRecursive( Vertex s )
+    {
+        // indices de los vertices del grafo antes de empezar a eliminarlos
+        indexed = new IndexedGraph( graph );
+        tree = new BlockCutTree( indexed );
+        for ( int i = 0; i < n; i++ )
+            children.add( null );
+        new DepthFirstSearch( n )
+        {
+            @Override
+            protected void preVisit( int v, int parent, int edge )
+            {
+                children.set( v, stOrientationStep( v ) );
+            }
+
+            @Override
+            protected int getDegree( int v )
+            {
+                return children.get( v ).size( );
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k )
+            {
+                int[ ] leafBlock = children.get( v ).get( k );
+                Vertex nextSource = chooseNextSource( leafBlock[0], leafBlock[1] );
+                // sin candidatos v se encuentra a si mismo ya visitado y no desciende
+                return nextSource == null ? v : indexed.indexOf( nextSource );
+            }
+
+            @Override
+            protected int getEdge( int v, int k )
+            {
+                return -1;
+            }
+
+            @Override
+            protected void postVisit( int v )
+            {
+                children.set( v, null );
+            }
+        }.search( indexed.indexOf( s ) );
+    }
+    
+    /**
+     * Orientar las aristas de v y eliminarlo del grafo.
+     * @param index indice del vertice
+     * @return bloques hoja del arbol de bloques y vertices corte, vacio si se ha terminado
+     */
+    private List<int[ ]> stOrientationStep( int index )
     {
+        Vertex v = indexed.getVertex( index );
         counter++;
         // set st-numbering of v
         stNumbering.put( v, counter );
@@ -97,6 +166,7 @@ public class BipolarOrientationPapamanthouAlgorithm
         Set<Vertex> neighborsV = graph.getNeighbors( v );
         // remove v from G and remove edges of v too
         graph.vertices.remove( v );
+        tree.removeVertex( index );
         // remove vertex target from neighbors if it's there
         neighborsV.remove( target );
         // add neighbors of vertex v to Q
@@ -112,70 +182,54 @@ public class BipolarOrientationPapamanthouAlgorithm
         {
             // set st-numbering of vertex target and end
             stNumbering.put( target, n );
-            return;
+            return new ArrayList<int[ ]>( );
         }
         else
-        {
-            // update the block-cutpoint tree
-            updateBlocksCutPointsTree( );
-            for ( Vertex h : leafBlocks.keySet() )
-            {
-                Set<Vertex> nextSources = leafBlocks.get( h );
-                nextSources.remove( h );
-                nextSources.retainAll( setQ );
-                stOrientationRecursive( chooseNextSource( nextSources ) );
-            }
-        }
+            return getLeafBlocks( );
     }
 
     /**
      * the final st-oriented graph has relatively small longest path length
      * MIN-STN : {v -> Q : m(v) = min{m(i) : i -> Q}}
-     * @param nextSources Set
-     * @return Vertex
+     * @param block indice del bloque hoja
+     * @param cutpoint indice de su vertice corte, -1 si no tiene
+     * @return Vertex del bloque, sin el vertice corte, que esta en Q; null si no hay
      */
-    private Vertex chooseNextSource(Set<Vertex> nextSources)
+    private Vertex chooseNextSource( int block, int cutpoint )
     {
         Vertex nextSource = null;
-        for ( Vertex v : nextSources )
+        for ( int i : tree.getVertices( block ) )
+        {
+            Vertex v = indexed.getVertex( i );
+            if ( i == cutpoint || tree.isRemoved( i ) || setQ.contains( v ) == false )
+                continue;
             if ( nextSource == null || timestamp.get( v ) < timestamp.get( nextSource ) )
                 nextSource = v;
-
+        }
         return nextSource;
     }
 
     /**
-     * Crea la estructura del arbol de bloques componentes biconexas y vertices corte.
-     * @param graph Graph
+     * Bloques hoja del arbol de bloques y vertices corte, tomando como raiz el vertice
+     * target o el bloque que lo contiene, que nunca es una hoja salvo si es el unico.
+     * @return pares {bloque, vertice corte}
      */
-    private void updateBlocksCutPointsTree( )
+    private List<int[ ]> getLeafBlocks( )
     {
-        BiconnectedComponentsFinder biFinder = new BiconnectedComponentsFinder( );
-        Set<Set<Vertex>> bicomponents = biFinder.getBiconnectedComponents( this.graph );
-        Set<Vertex> cut_points = biFinder.getCutPoints( this.graph );
-        leafBlocks = new HashMap<Vertex, Set<Vertex>>( );
-        Vertex cutpointBlock = null;
-        
-        for ( Set<Vertex> component : bicomponents )
+        int t = indexed.indexOf( target );
+        int root = tree.isCutVertex( t ) ? -1 : tree.getVertexBlock( t, 0 );
+        List<int[ ]> leafBlocks = new ArrayList<int[ ]>( );
+        for ( int i = 0; i < tree.getBlockCount( ); i++ )
         {
-            int degree = 0;
-            // block that contains vertex target can not be a leaf block
-            if ( cut_points.contains( target ) || component.contains( target ) == false )
-            {
-                for ( Vertex cutpoint : cut_points )
-                {
-                    if ( component.contains( cutpoint ) )
-                    {
-                        degree++;
-                        cutpointBlock = cutpoint;
-                    }
-                    if ( degree > 1 )
-                        break;
-                }
-            }
+            int block = tree.getBlock( i );
+            int degree = tree.getCutVertexCount( block );
             // leaf block
-            if ( degree == 1 )
-                leafBlocks.put( cutpointBlock, component );
+            if ( degree == 1 && block != root )
+                leafBlocks.add( new int[ ] { block, tree.getCutVertex( block ) } );
+            // the remaining graph is biconnected
+            else if ( degree == 0 )
+                leafBlocks.add( new int[ ] { block, -1 } );
         }
+        return leafBlocks;
     }
 }
@@ -4,12 +4,9 @@
  */
 package pfc.utilities.graph;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import pfc.models.Edge;
 import pfc.models.Graph;
@@ -19,6 +16,10 @@ import pfc.utilities.GeometryUtilities;
 
 
 /**
+ * La lista L del algoritmo es una lista doblemente enlazada de indices de vertices, en
+ * la que cada vertice se inserta en O(1) antes o despues de su padre. Al terminar se
+ * recorre una vez para numerar los vertices, y cada arista se orienta comparando la
+ * numeracion de sus extremos.
  * Complejidad: O(|V|+|E|)
  * Grafo debe ser biconexo.
  * @see "Two streamlined depth-first search algorithms by R. Tarjan (1986)"
@@ -32,6 +33,8 @@ import pfc.utilities.GeometryUtilities;
  * @depend - - - Edge
  * @depend - - - GeometryUtilities
  * @depend - - - UserSettings
+ * @depend - - - IndexedGraph
+ * @depend - - - IndexedDepthFirstSearch
  */
 public class BipolarOrientationTarjanAlgorithm
 {
@@ -39,12 +42,18 @@ public class BipolarOrientationTarjanAlgorithm
     private Graph                       directed;
     private final Vertex                source;
     private final Vertex                target;
-    private final Map<Vertex, Integer>  pre_dfs_num = new HashMap<Vertex, Integer>( );
-    private final Map<Vertex, Vertex>   low         = new HashMap<Vertex, Vertex>( );
-    private final Map<Vertex, Vertex>   parents     = new HashMap<Vertex, Vertex>( );
-    private final Map<Vertex, Boolean>  sign        = new HashMap<Vertex, Boolean>( );
-    private final List<Vertex>          listL       = new ArrayList<Vertex>( );
-    private final Deque<Vertex>         preorder    = new ArrayDeque<Vertex>( );
+    private IndexedGraph                indexed;
+    private int[ ]                      pre_dfs_num;
+    private int[ ]                      low;
+    private int[ ]                      parents;
+    private boolean[ ]                  sign;
+    // lista L: siguiente y anterior de cada vertice, -1 en los extremos
+    private int[ ]                      next;
+    private int[ ]                      previous;
+    private int                         head;
+    private int[ ]                      stNumbering;
+    private int[ ]                      preorder;
+    private int                         preorderSize = 0;
     private int                         current     = 0;
     private final boolean               plus        = true;
     private final boolean               minus       = false;
@@ -66,74 +75,166 @@ public class BipolarOrientationTarjanAlgorithm
      * PRECONDICION: grafo debe ser no dirigido y planar.
      * POSTCONDICION: grafo es dirigido sin ciclos, sin aristas multiples y sin bucles.
      * @return grafo dirigido Graph
+     * @throws IllegalArgumentException si algun vertice no esta en la componente de source
+     * y target, y por tanto no tiene st-numero
      */
     public Graph orientPlanarGraph( )
     {
+        getStNumbering( );
+        // las aristas se agregan sin comprobar ciclos, lo que solo es correcto si todos los
+        // vertices estan numerados
+        for ( int v = 0; v < stNumbering.length; v++ )
+            if ( stNumbering[v] == -1 )
+                throw new IllegalArgumentException( "el grafo no es conexo" );
         directed = new Graph( UserSettings.instance.defaultGraphName.get( ), false, true, false, false );
-        for ( Vertex v : graph.vertices )
+        // agregar los vertices al nuevo grafo dirigido
+        directed.vertices.addAll( graph.vertices );
+        // agregar las aristas dirigidas; orientadas segun la st-numeracion no forman ciclos,
+        // por lo que se agregan sin buscar un camino por cada arista
+        List<Edge> directedEdges = new ArrayList<Edge>( indexed.getEdgeCount( ) );
+        for ( int e = 0; e < indexed.getEdgeCount( ); e++ )
         {
-            // agregar vertice al nuevo grafo dirigido
-            directed.vertices.add( v );
-            // inicializar pre_dfs_num
-            pre_dfs_num.put( v, 0 );
+            Edge edge = indexed.getEdge( e );
+            int numberVertexFrom = stNumbering[indexed.indexOf( edge.from )];
+            int numberVertexTo = stNumbering[indexed.indexOf( edge.to )];
+            Edge directedEdge;
+            if ( numberVertexFrom < numberVertexTo )
+                directedEdge = new Edge( true, edge.from, edge.to );
+            else
+                directedEdge = new Edge( true, edge.to, edge.from );
+            directedEdges.add( directedEdge );
         }
+        directed.addAcyclicEdges( directedEdges );
+        return directed;
+    }
+
+    /**
+     * st-numeracion de los vertices, sin construir el grafo dirigido: source tiene el 0 y
+     * target el mayor. Se calcula en la primera llamada.
+     * @return numero de cada vertice, por su indice en {@link #getIndexedGraph()}; -1 para
+     * los vertices que no estan en la componente de source y target
+     */
+    public int[ ] getStNumbering( )
+    {
+        if ( stNumbering != null )
+            return stNumbering;
+        // inicializar pre_dfs_num a cero
+        getIndexedGraph( );
+        int n = indexed.getVertexCount( );
+        int s = indexed.indexOf( source );
+        int t = indexed.indexOf( target );
+        pre_dfs_num = new int[n];
+        low = new int[n];
+        parents = new int[n];
+        sign = new boolean[n];
+        preorder = new int[n];
+        next = new int[n];
+        previous = new int[n];
         current = 1;
-        pre_dfs_num.put( source, current );
-        dfs( target );
-        listL.add( source );
-        listL.add( target );
-        sign.put( source, minus );
-        while ( preorder.isEmpty( ) == false )
+        pre_dfs_num[s] = current;
+        dfs( s, t );
+        // L = [s, t]
+        head = s;
+        previous[s] = -1;
+        next[s] = t;
+        previous[t] = s;
+        next[t] = -1;
+        sign[s] = minus;
+        while ( preorderSize > 0 )
         {
-            Vertex v = preorder.pop( );
-            if ( v != source && v != target )
+            int v = preorder[--preorderSize];
+            if ( v != s && v != t )
             {
-                Vertex pV = parents.get( v );
-                if ( sign.get( low.get( v ) ) == minus )
+                int pV = parents[v];
+                if ( sign[low[v]] == minus )
                 {
-                    listL.add( listL.indexOf( pV ), v );
-                    sign.put( pV, plus );
+                    insertBefore( v, pV );
+                    sign[pV] = plus;
                 }
-                else if ( sign.get( low.get( v ) ) == plus )
+                else
                 {
-                    listL.add( listL.indexOf( pV ) + 1, v );
-                    sign.put( pV, minus );
+                    insertAfter( v, pV );
+                    sign[pV] = minus;
                 }
             }
         }
-        // agregar las aristas dirigidas
-        for ( Edge e : graph.edges )
-        {
-            int numberVertexFrom = listL.indexOf( e.from );
-            int numberVertexTo = listL.indexOf( e.to );
-            Edge directedEdge;
-            if ( numberVertexFrom < numberVertexTo )
-                directedEdge = new Edge( true, e.from, e.to );
-            else
-                directedEdge = new Edge( true, e.to, e.from );
-            directed.edges.add( directedEdge );
-        }
-        return directed;
+        // numerar los vertices en el orden de L; los que no estan en L, -1
+        stNumbering = new int[n];
+        Arrays.fill( stNumbering, -1 );
+        int number = 0;
+        for ( int v = head; v != -1; v = next[v] )
+            stNumbering[v] = number++;
+        return stNumbering;
+    }
+
+    /**
+     * @return copia indexada del grafo sobre la que se calcula {@link #getStNumbering()}
+     */
+    public IndexedGraph getIndexedGraph( )
+    {
+        if ( indexed == null )
+            indexed = new IndexedGraph( graph );
+        return indexed;
+    }
+
+    /**
+     * Insertar v en L justo antes de w.
+     */
+    private void insertBefore( int v, int w )
+    {
+        int p = previous[w];
+        previous[v] = p;
+        next[v] = w;
+        previous[w] = v;
+        if ( p == -1 )
+            head = v;
+        else
+            next[p] = v;
+    }
+
+    /**
+     * Insertar v en L justo despues de w.
+     */
+    private void insertAfter( int v, int w )
+    {
+        int q = next[w];
+        next[v] = q;
+        previous[v] = w;
+        next[w] = v;
+        if ( q != -1 )
+            previous[q] = v;
     }
     
-    private void dfs( Vertex v )
+    private void dfs( int s, int t )
     {
-        pre_dfs_num.put( v, ++current );
-        low.put( v, v );
-        for ( Vertex w : graph.getNeighbors( v ) )
+        DepthFirstSearch search = new IndexedDepthFirstSearch( indexed )
         {
-            if ( pre_dfs_num.get( w ) == 0 )
+            @Override
+            protected void preVisit( int v, int parent, int edge )
             {
-                dfs( w );
-                parents.put( w, v );
-                preorder.push( w );
-                if ( pre_dfs_num.get( low.get( w ) ) < pre_dfs_num.get( low.get( v ) ) )
-                    low.put(v, low.get( w ) );
+                pre_dfs_num[v] = ++current;
+                low[v] = v;
             }
-            else if ( ( pre_dfs_num.get( w ) != 0 )
-                    && ( pre_dfs_num.get( w ) < pre_dfs_num.get( low.get( v ) ) ) )
-                low.put( v, w );
-        }
+
+            @Override
+            protected void treeEdgeFinished( int v, int w, int edge )
+            {
+                parents[w] = v;
+                preorder[preorderSize++] = w;
+                if ( pre_dfs_num[low[w]] < pre_dfs_num[low[v]] )
+                    low[v] = low[w];
+            }
+
+            @Override
+            protected void backEdge( int v, int w, int edge )
+            {
+                if ( pre_dfs_num[w] < pre_dfs_num[low[v]] )
+                    low[v] = w;
+            }
+        };
+        // source ya esta numerado, el recorrido empieza en target
+        search.markVisited( s );
+        search.search( t );
     }
      
 }
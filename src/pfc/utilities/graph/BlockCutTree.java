@@ -0,0 +1,449 @@
+/**
+ * BlockCutTree.java
+ */
+package pfc.utilities.graph;
+
+import java.util.Arrays;
+
+
+/**
+ * Arbol de bloques (componentes biconexas) y vertices corte de un grafo, sin tener en
+ * cuenta la orientacion de las aristas. Los vertices y las aristas se identifican por su
+ * indice en el {@link IndexedGraph}, y los bloques por un indice que no se reutiliza.
+ * Un vertice es de corte si esta en mas de un bloque; los vertices sin aristas forman un
+ * bloque ellos solos y los bucles no forman parte de ningun bloque.
+ * <p/>
+ * Los bloques se calculan con el algoritmo de Hopcroft-Tarjan sobre un recorrido en
+ * profundidad iterativo, con una pila de aristas de enteros y memoria de trabajo que se
+ * reserva una sola vez. Al eliminar un vertice solo se recalculan los bloques que lo
+ * contienen: los bloques del grafo sin el vertice son los demas bloques y los bloques de
+ * cada uno de ellos sin el vertice.
+ * Complejidad: O(|V|+|E|) al construirlo, y O(|V_B|+|E_B|) al eliminar un vertice, con
+ * V_B y E_B los vertices y aristas de los bloques que lo contienen
+ * @see "J. Hopcroft and R. Tarjan, Efficient algorithms for graph manipulation (1973)"
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - DepthFirstSearch
+ */
+public class BlockCutTree
+{
+    private static final int[ ] EMPTY = new int[0];
+
+    private final IndexedGraph  graph;
+    private final int[ ]        edgeFrom;
+    private final int[ ]        edgeTo;
+    private final boolean[ ]    removed;
+
+    // vertices y aristas de cada bloque, y cuantos de sus vertices son de corte
+    private int[ ][ ]           blockVertices = new int[16][ ];
+    private int[ ][ ]           blockEdges = new int[16][ ];
+    private int[ ]              cutVertexCount = new int[16];
+    private int                 blockIds;
+    // bloques vivos, con la posicion de cada uno para quitarlo en O(1)
+    private int[ ]              live = new int[16];
+    private int[ ]              livePosition = new int[16];
+    private int                 liveCount;
+    // bloques de cada vertice
+    private final int[ ][ ]     vertexBlocks;
+    private final int[ ]        vertexBlockCount;
+
+    // memoria de trabajo de los recorridos, indexada por vertice local
+    private final int[ ]        localIndex;
+    private final int[ ]        localVertices;
+    private final int[ ]        offsets;
+    private final int[ ]        targets;
+    private final int[ ]        adjacentEdges;
+    private final int[ ]        number;
+    private final int[ ]        low;
+    private final int[ ]        parentEdge;
+    private final int[ ]        edgeStack;
+    private final int[ ]        scratch;
+    private final boolean[ ]    marked;
+    private int                 edgeStackSize;
+    private int                 time;
+
+    /**
+     * Complejidad: O(|V|+|E|)
+     * @param graph IndexedGraph
+     */
+    public BlockCutTree( IndexedGraph graph )
+    {
+        int n = graph.getVertexCount( );
+        int m = graph.getEdgeCount( );
+        this.graph = graph;
+        this.removed = new boolean[n];
+        this.vertexBlocks = new int[n][ ];
+        this.vertexBlockCount = new int[n];
+
+        // extremos de cada arista
+        this.edgeFrom = new int[m];
+        this.edgeTo = new int[m];
+        for ( int v = 0; v < n; v++ )
+            for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ); i++ )
+            {
+                this.edgeFrom[graph.getOutEdge( i )] = v;
+                this.edgeTo[graph.getOutEdge( i )] = graph.getOutTarget( i );
+            }
+
+        this.localIndex = new int[n];
+        Arrays.fill( this.localIndex, -1 );
+        this.localVertices = new int[n];
+        this.offsets = new int[n + 1];
+        this.targets = new int[2 * m];
+        this.adjacentEdges = new int[2 * m];
+        this.number = new int[n];
+        this.low = new int[n];
+        this.parentEdge = new int[n];
+        this.edgeStack = new int[m];
+        this.scratch = new int[n];
+        this.marked = new boolean[n];
+
+        int[ ] vertices = new int[n];
+        for ( int v = 0; v < n; v++ )
+            vertices[v] = v;
+        int[ ] edges = new int[m];
+        for ( int e = 0; e < m; e++ )
+            edges[e] = e;
+        this.computeBlocks( vertices, n, edges, m );
+    }
+
+    /**
+     * @return el grafo indexado
+     */
+    public IndexedGraph getGraph( )
+    {
+        return this.graph;
+    }
+
+    /**
+     * @return numero de bloques del grafo actual
+     */
+    public int getBlockCount( )
+    {
+        return this.liveCount;
+    }
+
+    /**
+     * @param i posicion entre 0 y {@code getBlockCount( ) - 1}
+     * @return indice del i-esimo bloque del grafo actual
+     */
+    public int getBlock( int i )
+    {
+        return this.live[i];
+    }
+
+    /**
+     * @param block indice del bloque
+     * @return {@code false} si el bloque ya no existe porque se ha eliminado alguno de sus vertices
+     */
+    public boolean isAlive( int block )
+    {
+        return this.livePosition[block] >= 0;
+    }
+
+    /**
+     * Los vertices de un bloque no cambian aunque el bloque deje de existir.
+     * @param block indice del bloque
+     * @return indices de los vertices del bloque; no se debe modificar
+     */
+    public int[ ] getVertices( int block )
+    {
+        return this.blockVertices[block];
+    }
+
+    /**
+     * @param block indice del bloque
+     * @return indices de las aristas del bloque; no se debe modificar
+     */
+    public int[ ] getEdges( int block )
+    {
+        return this.blockEdges[block];
+    }
+
+    /**
+     * @param block indice de un bloque vivo
+     * @return numero de vertices de corte del bloque, su grado en el arbol
+     */
+    public int getCutVertexCount( int block )
+    {
+        return this.cutVertexCount[block];
+    }
+
+    /**
+     * @param block indice de un bloque vivo
+     * @return un vertice de corte del bloque, -1 si no tiene
+     */
+    public int getCutVertex( int block )
+    {
+        for ( int v : this.blockVertices[block] )
+            if ( this.vertexBlockCount[v] > 1 )
+                return v;
+        return -1;
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return {@code true} si v esta en mas de un bloque
+     */
+    public boolean isCutVertex( int v )
+    {
+        return this.vertexBlockCount[v] > 1;
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return numero de bloques que contienen a v
+     */
+    public int getVertexBlockCount( int v )
+    {
+        return this.vertexBlockCount[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @param k posicion entre 0 y {@code getVertexBlockCount( v ) - 1}
+     * @return indice del k-esimo bloque que contiene a v
+     */
+    public int getVertexBlock( int v, int k )
+    {
+        return this.vertexBlocks[v][k];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return {@code true} si se ha eliminado v
+     */
+    public boolean isRemoved( int v )
+    {
+        return this.removed[v];
+    }
+
+    /**
+     * Eliminar un vertice y sus aristas, recalculando solo los bloques que lo contienen.
+     * @param v indice del vertice
+     */
+    public void removeVertex( int v )
+    {
+        if ( this.removed[v] )
+            return;
+        this.removed[v] = true;
+
+        int[ ] blocks = Arrays.copyOf( this.vertexBlocks[v], this.vertexBlockCount[v] );
+        for ( int block : blocks )
+            this.removeBlock( block );
+
+        // dos bloques de v solo comparten v, asi que cada uno se recalcula por separado
+        for ( int block : blocks )
+        {
+            int[ ] vertices = this.blockVertices[block];
+            int[ ] edges = this.blockEdges[block];
+            int[ ] remainingVertices = new int[vertices.length];
+            int vertexCount = 0;
+            for ( int u : vertices )
+                if ( u != v )
+                    remainingVertices[vertexCount++] = u;
+            int[ ] remainingEdges = new int[edges.length];
+            int edgeCount = 0;
+            for ( int e : edges )
+                if ( this.edgeFrom[e] != v && this.edgeTo[e] != v )
+                    remainingEdges[edgeCount++] = e;
+            this.computeBlocks( remainingVertices, vertexCount, remainingEdges, edgeCount );
+        }
+    }
+
+    /**
+     * Anadir los bloques del subgrafo formado por los vertices y aristas dados.
+     */
+    private void computeBlocks( int[ ] vertices, int vertexCount, int[ ] edges, int edgeCount )
+    {
+        for ( int i = 0; i < vertexCount; i++ )
+        {
+            this.localIndex[vertices[i]] = i;
+            this.localVertices[i] = vertices[i];
+        }
+
+        // adyacencia local en formato CSR, sin bucles
+        Arrays.fill( this.offsets, 0, vertexCount + 1, 0 );
+        for ( int i = 0; i < edgeCount; i++ )
+        {
+            int a = this.localIndex[this.edgeFrom[edges[i]]];
+            int b = this.localIndex[this.edgeTo[edges[i]]];
+            if ( a != b )
+            {
+                this.offsets[a + 1]++;
+                this.offsets[b + 1]++;
+            }
+        }
+        for ( int i = 0; i < vertexCount; i++ )
+            this.offsets[i + 1] += this.offsets[i];
+        System.arraycopy( this.offsets, 0, this.number, 0, vertexCount );
+        for ( int i = 0; i < edgeCount; i++ )
+        {
+            int a = this.localIndex[this.edgeFrom[edges[i]]];
+            int b = this.localIndex[this.edgeTo[edges[i]]];
+            if ( a != b )
+            {
+                this.targets[this.number[a]] = b;
+                this.adjacentEdges[this.number[a]++] = edges[i];
+                this.targets[this.number[b]] = a;
+                this.adjacentEdges[this.number[b]++] = edges[i];
+            }
+        }
+
+        this.time = 0;
+        this.edgeStackSize = 0;
+        DepthFirstSearch search = new DepthFirstSearch( vertexCount )
+        {
+            @Override
+            protected int getDegree( int v )
+            {
+                return offsets[v + 1] - offsets[v];
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k )
+            {
+                return targets[offsets[v] + k];
+            }
+
+            @Override
+            protected int getEdge( int v, int k )
+            {
+                return adjacentEdges[offsets[v] + k];
+            }
+
+            @Override
+            protected void preVisit( int v, int parent, int edge )
+            {
+                number[v] = ++time;
+                low[v] = number[v];
+                parentEdge[v] = edge;
+                if ( edge >= 0 )
+                    edgeStack[edgeStackSize++] = edge;
+            }
+
+            @Override
+            protected void backEdge( int v, int w, int edge )
+            {
+                // las aristas a descendientes ya se han apilado desde el descendiente
+                if ( edge != parentEdge[v] && number[w] < number[v] )
+                {
+                    edgeStack[edgeStackSize++] = edge;
+                    low[v] = Math.min( low[v], number[w] );
+                }
+            }
+
+            @Override
+            protected void treeEdgeFinished( int v, int w, int edge )
+            {
+                low[v] = Math.min( low[v], low[w] );
+                // v separa el subarbol de w del resto: sus aristas apiladas forman un bloque
+                if ( low[w] >= number[v] )
+                    popBlock( edge );
+            }
+        };
+        search.searchAll( );
+
+        for ( int i = 0; i < vertexCount; i++ )
+        {
+            // los vertices que se han quedado sin aristas forman un bloque
+            if ( this.vertexBlockCount[vertices[i]] == 0 )
+                this.addBlock( new int[ ] { vertices[i] }, EMPTY );
+            this.localIndex[vertices[i]] = -1;
+        }
+    }
+
+    /**
+     * Desapilar las aristas del bloque que termina en la arista del arbol dada.
+     */
+    private void popBlock( int treeEdge )
+    {
+        int end = this.edgeStackSize;
+        do
+            this.edgeStackSize--;
+        while ( this.edgeStack[this.edgeStackSize] != treeEdge );
+        int[ ] edges = Arrays.copyOfRange( this.edgeStack, this.edgeStackSize, end );
+
+        int vertexCount = 0;
+        for ( int e : edges )
+        {
+            int a = this.localIndex[this.edgeFrom[e]];
+            int b = this.localIndex[this.edgeTo[e]];
+            if ( this.marked[a] == false )
+            {
+                this.marked[a] = true;
+                this.scratch[vertexCount++] = this.localVertices[a];
+            }
+            if ( this.marked[b] == false )
+            {
+                this.marked[b] = true;
+                this.scratch[vertexCount++] = this.localVertices[b];
+            }
+        }
+        int[ ] vertices = Arrays.copyOf( this.scratch, vertexCount );
+        for ( int v : vertices )
+            this.marked[this.localIndex[v]] = false;
+        this.addBlock( vertices, edges );
+    }
+
+    private void addBlock( int[ ] vertices, int[ ] edges )
+    {
+        int block = this.blockIds++;
+        if ( block == this.blockVertices.length )
+        {
+            int capacity = 2 * block;
+            this.blockVertices = Arrays.copyOf( this.blockVertices, capacity );
+            this.blockEdges = Arrays.copyOf( this.blockEdges, capacity );
+            this.cutVertexCount = Arrays.copyOf( this.cutVertexCount, capacity );
+            this.livePosition = Arrays.copyOf( this.livePosition, capacity );
+        }
+        if ( this.liveCount == this.live.length )
+            this.live = Arrays.copyOf( this.live, 2 * this.liveCount );
+        this.blockVertices[block] = vertices;
+        this.blockEdges[block] = edges;
+        this.livePosition[block] = this.liveCount;
+        this.live[this.liveCount++] = block;
+
+        for ( int v : vertices )
+        {
+            int count = this.vertexBlockCount[v];
+            if ( this.vertexBlocks[v] == null )
+                this.vertexBlocks[v] = new int[2];
+            else if ( count == this.vertexBlocks[v].length )
+                this.vertexBlocks[v] = Arrays.copyOf( this.vertexBlocks[v], 2 * count );
+            this.vertexBlocks[v][count] = block;
+            this.vertexBlockCount[v] = ++count;
+            // v pasa a ser de corte
+            if ( count == 2 )
+                this.cutVertexCount[this.vertexBlocks[v][0]]++;
+            if ( count > 1 )
+                this.cutVertexCount[block]++;
+        }
+    }
+
+    private void removeBlock( int block )
+    {
+        int position = this.livePosition[block];
+        int last = this.live[--this.liveCount];
+        this.live[position] = last;
+        this.livePosition[last] = position;
+        this.livePosition[block] = -1;
+
+        for ( int v : this.blockVertices[block] )
+        {
+            int[ ] blocks = this.vertexBlocks[v];
+            int count = --this.vertexBlockCount[v];
+            for ( int k = 0; k <= count; k++ )
+                if ( blocks[k] == block )
+                {
+                    blocks[k] = blocks[count];
+                    break;
+                }
+            // v deja de ser de corte
+            if ( count == 1 )
+                this.cutVertexCount[blocks[0]]--;
+        }
+    }
+}
@@ -0,0 +1,686 @@
+/**
+ * CrossingDetector.java
+ */
+package pfc.utilities.graph;
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.utilities.GeometryUtilities;
+
+
+/**
+ * Deteccion de los cruces entre las aristas de un grafo dibujado con un barrido de
+ * Bentley-Ottmann. Las aristas rectas son un segmento y las aristas con dobleces una
+ * polilinea de segmentos; una linea vertical recorre los extremos de los segmentos y los
+ * puntos de cruce de izquierda a derecha, y solo se buscan cruces entre segmentos
+ * vecinos en la linea. Los puntos donde coinciden varios segmentos (vertices de grado
+ * alto, cruces multiples, segmentos verticales) se tratan a la vez, como en el algoritmo
+ * de de Berg et al.
+ * <p/>
+ * Los arcos de {@link Edge#getArc()} no entran en el barrido: se comparan solo con los
+ * segmentos y arcos cuyas cajas envolventes se solapan, con
+ * {@link GeometryUtilities#getCrossings(Line2D, Arc2D, Point2D)}.
+ * <p/>
+ * Como en {@link PlanarEmbeddingTester}, dos aristas que comparten un vertice no se
+ * cruzan en el; dos aristas solapadas se cruzan en los extremos del solape. Se cuentan
+ * todos los cruces y se guardan los k primeros en el orden del barrido (x creciente y,
+ * a igual x, y creciente).
+ * Complejidad: O((|E|+K) log |E|), con K el numero de cruces, mas las comparaciones
+ * de los arcos con los segmentos de caja solapada
+ * @see "M. de Berg et al., Computational Geometry, cap. 2"
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "*\n-crossings" EdgeCrossing
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - GeometryUtilities
+ * @depend - - - Graph
+ * @depend - - - Edge
+ */
+public class CrossingDetector
+{
+    /**
+     * orden de los eventos: x creciente y, a igual x, y creciente
+     */
+    private static final Comparator<Point2D>    POINT_ORDER = new Comparator<Point2D>( )
+    {
+        @Override
+        public int compare( Point2D p, Point2D q )
+        {
+            if ( p.getX( ) != q.getX( ) )
+                return p.getX( ) < q.getX( ) ? -1 : 1;
+            if ( p.getY( ) != q.getY( ) )
+                return p.getY( ) < q.getY( ) ? -1 : 1;
+            return 0;
+        }
+    };
+
+    private final IndexedGraph          graph;
+    private final int                   limit;
+    private final boolean               stopAtLimit;
+    private final List<EdgeCrossing>    crossings = new ArrayList<EdgeCrossing>( );
+    private int                         count;
+    private boolean                     finished;
+
+    private final List<Segment>         segments = new ArrayList<Segment>( );
+    private final List<Integer>         arcs = new ArrayList<Integer>( );
+    private double                      eps;
+
+    // estado del barrido
+    private TreeMap<Point2D, List<Segment>> queue;
+    private TreeSet<Segment>            status;
+    private double                      px;
+    private double                      py;
+    private int                         eventId;
+    private final Segment               probeLow = new Segment( -1 );
+    private final Segment               probeHigh = new Segment( 1 );
+    private Point2D                     lastPoint;
+    private final Set<Long>             lastPairs = new HashSet<Long>( );
+
+    /**
+     * Contar los cruces sin guardar ninguno.
+     * @param graph Graph
+     */
+    public CrossingDetector( Graph graph )
+    {
+        this( graph, 0 );
+    }
+
+    /**
+     * @param graph Graph
+     * @param k numero de cruces que se guardan
+     */
+    public CrossingDetector( Graph graph, int k )
+    {
+        this( new IndexedGraph( graph ), k, false );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @param k numero de cruces que se guardan
+     */
+    public CrossingDetector( IndexedGraph graph, int k )
+    {
+        this( graph, k, false );
+    }
+
+    private CrossingDetector( IndexedGraph graph, int k, boolean stopAtLimit )
+    {
+        this.graph = graph;
+        this.limit = k;
+        this.stopAtLimit = stopAtLimit;
+        this.collectPieces( );
+        this.sweep( );
+        if ( this.finished == false && this.arcs.isEmpty( ) == false )
+            this.crossArcs( );
+    }
+
+    /**
+     * Determinar si el dibujo tiene algun cruce, terminando en el primero.
+     * @param graph Graph
+     * @return {@code true} si alguna arista cruza a otra
+     */
+    public static boolean hasCrossings( Graph graph )
+    {
+        return hasCrossings( new IndexedGraph( graph ) );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @return {@code true} si alguna arista cruza a otra
+     */
+    public static boolean hasCrossings( IndexedGraph graph )
+    {
+        return new CrossingDetector( graph, 1, true ).getCrossingCount( ) > 0;
+    }
+
+    /**
+     * Segmentos de las aristas rectas y de las polilineas, y aristas en arco.
+     */
+    private void collectPieces( )
+    {
+        double scale = 1;
+        for ( int e = 0; e < this.graph.getEdgeCount( ); e++ )
+        {
+            Edge edge = this.graph.getEdge( e );
+            int from = this.graph.indexOf( edge.from );
+            int to = this.graph.indexOf( edge.to );
+            scale = Math.max( scale, Math.max( Math.abs( this.graph.getX( from ) ), Math.abs( this.graph.getY( from ) ) ) );
+            scale = Math.max( scale, Math.max( Math.abs( this.graph.getX( to ) ), Math.abs( this.graph.getY( to ) ) ) );
+
+            if ( this.graph.isLinear( e ) )
+                this.addSegment( e, this.graph.getX( from ), this.graph.getY( from ), this.graph.getX( to ), this.graph.getY( to ) );
+            else if ( this.graph.isPolyline( e ) )
+            {
+                double x = this.graph.getX( from );
+                double y = this.graph.getY( from );
+                for ( Point2D bend : this.graph.getBends( e ) )
+                {
+                    this.addSegment( e, x, y, bend.getX( ), bend.getY( ) );
+                    x = bend.getX( );
+                    y = bend.getY( );
+                    scale = Math.max( scale, Math.max( Math.abs( x ), Math.abs( y ) ) );
+                }
+                this.addSegment( e, x, y, this.graph.getX( to ), this.graph.getY( to ) );
+            }
+            else
+                this.arcs.add( e );
+        }
+        this.eps = 1e-9 * scale;
+    }
+
+    private void addSegment( int edge, double x1, double y1, double x2, double y2 )
+    {
+        // los segmentos de longitud cero no cruzan nada
+        if ( x1 == x2 && y1 == y2 )
+            return;
+        Segment s = new Segment( 0 );
+        s.id = this.segments.size( );
+        s.edge = edge;
+        boolean leftFirst = x1 < x2 || ( x1 == x2 && y1 < y2 );
+        s.x1 = leftFirst ? x1 : x2;
+        s.y1 = leftFirst ? y1 : y2;
+        s.x2 = leftFirst ? x2 : x1;
+        s.y2 = leftFirst ? y2 : y1;
+        this.segments.add( s );
+    }
+
+    /**
+     * Barrido de Bentley-Ottmann sobre los segmentos.
+     */
+    private void sweep( )
+    {
+        this.queue = new TreeMap<Point2D, List<Segment>>( POINT_ORDER );
+        for ( Segment s : this.segments )
+        {
+            this.event( new Point2D.Double( s.x1, s.y1 ) ).add( s );
+            this.event( new Point2D.Double( s.x2, s.y2 ) );
+        }
+
+        this.status = new TreeSet<Segment>( new Comparator<Segment>( )
+        {
+            @Override
+            public int compare( Segment a, Segment b )
+            {
+                return compareSegments( a, b );
+            }
+        } );
+
+        while ( this.queue.isEmpty( ) == false && this.finished == false )
+        {
+            Map.Entry<Point2D, List<Segment>> entry = this.queue.pollFirstEntry( );
+            this.handleEvent( entry.getKey( ), entry.getValue( ) );
+        }
+        this.queue = null;
+        this.status = null;
+    }
+
+    private List<Segment> event( Point2D p )
+    {
+        List<Segment> starts = this.queue.get( p );
+        if ( starts == null )
+        {
+            starts = new ArrayList<Segment>( 1 );
+            this.queue.put( p, starts );
+        }
+        return starts;
+    }
+
+    /**
+     * Tratar el punto p: los segmentos que empiezan en p, los que terminan en p y los
+     * que pasan por p se cruzan en p, y los que siguen se reordenan a la derecha de p.
+     * @param p punto del evento
+     * @param starts segmentos cuyo extremo izquierdo es p
+     */
+    private void handleEvent( Point2D p, List<Segment> starts )
+    {
+        this.eventId++;
+        this.px = p.getX( );
+        this.py = p.getY( );
+
+        // segmentos de la linea de barrido que terminan en p o lo contienen
+        NavigableSet<Segment> through = this.status.subSet( this.probeLow, true, this.probeHigh, true );
+        List<Segment> current = new ArrayList<Segment>( through );
+        through.clear( );
+
+        this.report( p, starts, current );
+
+        // reinsertar en el orden que tienen a la derecha de p
+        List<Segment> inserted = new ArrayList<Segment>( starts.size( ) + current.size( ) );
+        for ( Segment s : current )
+            if ( s.x2 != this.px || s.y2 != this.py )
+                inserted.add( s );
+        inserted.addAll( starts );
+        for ( Segment s : inserted )
+            s.event = this.eventId;
+        this.status.addAll( inserted );
+
+        if ( inserted.isEmpty( ) )
+            this.findEvent( this.status.lower( this.probeLow ), this.status.higher( this.probeHigh ), p );
+        else
+        {
+            this.findEvent( this.status.lower( this.probeLow ), this.status.higher( this.probeLow ), p );
+            this.findEvent( this.status.lower( this.probeHigh ), this.status.higher( this.probeHigh ), p );
+        }
+    }
+
+    /**
+     * Anadir como evento el cruce de dos segmentos vecinos si esta a la derecha de p.
+     */
+    private void findEvent( Segment a, Segment b, Point2D p )
+    {
+        if ( a == null || b == null )
+            return;
+        double d1 = orientation( a, b.x1, b.y1 );
+        double d2 = orientation( a, b.x2, b.y2 );
+        double d3 = orientation( b, a.x1, a.y1 );
+        double d4 = orientation( b, a.x2, a.y2 );
+        // los cruces en un extremo ya son eventos
+        if ( d1 == 0 || d2 == 0 || ( d1 > 0 ) == ( d2 > 0 ) || d3 == 0 || d4 == 0 || ( d3 > 0 ) == ( d4 > 0 ) )
+            return;
+
+        double t = d3 / ( d3 - d4 );
+        Point2D q = new Point2D.Double( a.x1 + t * ( a.x2 - a.x1 ), a.y1 + t * ( a.y2 - a.y1 ) );
+        if ( POINT_ORDER.compare( q, p ) <= 0 || this.isClose( q, p.getX( ), p.getY( ) )
+                || this.isClose( q, a.x1, a.y1 ) || this.isClose( q, a.x2, a.y2 )
+                || this.isClose( q, b.x1, b.y1 ) || this.isClose( q, b.x2, b.y2 ) )
+            return;
+        // varios cruces en casi el mismo punto son un unico evento
+        Point2D low = new Point2D.Double( q.getX( ) - this.eps, Double.NEGATIVE_INFINITY );
+        Point2D high = new Point2D.Double( q.getX( ) + this.eps, Double.POSITIVE_INFINITY );
+        for ( Point2D r : this.queue.subMap( low, true, high, true ).keySet( ) )
+            if ( this.isClose( q, r.getX( ), r.getY( ) ) )
+                return;
+        this.event( q );
+    }
+
+    private boolean isClose( Point2D q, double x, double y )
+    {
+        return Math.abs( q.getX( ) - x ) <= this.eps && Math.abs( q.getY( ) - y ) <= this.eps;
+    }
+
+    /**
+     * @return positivo si (x,y) esta por encima de la recta del segmento
+     */
+    private static double orientation( Segment s, double x, double y )
+    {
+        return ( s.x2 - s.x1 ) * ( y - s.y1 ) - ( s.y2 - s.y1 ) * ( x - s.x1 );
+    }
+
+    /**
+     * @return 1 si el punto del evento esta por encima del segmento, -1 si esta por
+     * debajo y 0 si esta sobre el segmento
+     */
+    private int side( Segment s )
+    {
+        double dx = s.x2 - s.x1;
+        double dy = s.y2 - s.y1;
+        double cross = orientation( s, this.px, this.py );
+        double length = Math.sqrt( dx * dx + dy * dy );
+        if ( Math.abs( cross ) <= this.eps * length )
+        {
+            double t = ( ( this.px - s.x1 ) * dx + ( this.py - s.y1 ) * dy ) / length;
+            if ( t >= -this.eps && t <= length + this.eps )
+                return 0;
+        }
+        if ( dx == 0 )
+            return this.py > s.y2 ? 1 : -1;
+        return cross > 0 ? 1 : -1;
+    }
+
+    /**
+     * Orden vertical de los segmentos en la linea de barrido. Los segmentos que pasan por
+     * el evento actual se ordenan por su pendiente a la derecha del evento y el resto por
+     * su posicion respecto del evento; las sondas quedan justo por debajo y por encima de
+     * los segmentos que pasan por el evento.
+     */
+    private int compareSegments( Segment a, Segment b )
+    {
+        if ( a == b )
+            return 0;
+        if ( a.probe != 0 && b.probe != 0 )
+            return a.probe < b.probe ? -1 : ( a.probe > b.probe ? 1 : 0 );
+        if ( a.probe != 0 )
+        {
+            int side = this.side( b );
+            return side == 0 ? a.probe : side;
+        }
+        if ( b.probe != 0 )
+        {
+            int side = this.side( a );
+            return side == 0 ? -b.probe : -side;
+        }
+
+        boolean throughA = a.event == this.eventId;
+        boolean throughB = b.event == this.eventId;
+        if ( throughA && throughB )
+        {
+            double cross = ( a.x2 - a.x1 ) * ( b.y2 - b.y1 ) - ( a.y2 - a.y1 ) * ( b.x2 - b.x1 );
+            if ( cross != 0 )
+                return cross > 0 ? -1 : 1;
+        }
+        else if ( throughA || throughB )
+        {
+            int side = this.side( throughA ? b : a );
+            if ( side != 0 )
+                return throughA ? side : -side;
+        }
+        else
+        {
+            double ya = this.yAt( a );
+            double yb = this.yAt( b );
+            if ( ya != yb )
+                return ya < yb ? -1 : 1;
+        }
+        return a.id < b.id ? -1 : ( a.id > b.id ? 1 : 0 );
+    }
+
+    private double yAt( Segment s )
+    {
+        if ( s.x1 == s.x2 )
+            return this.py;
+        return s.y1 + ( this.px - s.x1 ) * ( s.y2 - s.y1 ) / ( s.x2 - s.x1 );
+    }
+
+    /**
+     * Contar los cruces entre las aristas de los segmentos que coinciden en p, salvo
+     * entre aristas que tienen en p un vertice comun. Dos aristas solapadas se cuentan
+     * en los extremos del solape y no en los eventos interiores a ambas.
+     */
+    private void report( Point2D p, List<Segment> starts, List<Segment> current )
+    {
+        if ( starts.size( ) + current.size( ) < 2 )
+            return;
+
+        Map<Integer, EdgeAt> edges = new HashMap<Integer, EdgeAt>( );
+        this.collectEdges( starts, edges );
+        this.collectEdges( current, edges );
+        if ( edges.size( ) < 2 )
+            return;
+
+        // agrupar las aristas por vertice; las que no tienen vertice en p forman su propio grupo
+        int n = this.graph.getVertexCount( );
+        long[ ] keys = new long[edges.size( )];
+        int i = 0;
+        for ( Map.Entry<Integer, EdgeAt> entry : edges.entrySet( ) )
+        {
+            int vertex = entry.getValue( ).group( );
+            long group = vertex >= 0 ? vertex : n + entry.getKey( );
+            keys[i++] = ( group << 32 ) | entry.getKey( );
+        }
+        Arrays.sort( keys );
+
+        if ( this.lastPoint == null || this.isClose( this.lastPoint, p.getX( ), p.getY( ) ) == false )
+            this.lastPairs.clear( );
+        this.lastPoint = p;
+
+        int groupEnd = 0;
+        for ( i = 0; i < keys.length && this.finished == false; i++ )
+        {
+            if ( i == groupEnd )
+                while ( groupEnd < keys.length && ( keys[groupEnd] >>> 32 ) == ( keys[i] >>> 32 ) )
+                    groupEnd++;
+            for ( int j = groupEnd; j < keys.length && this.finished == false; j++ )
+            {
+                int e1 = ( int ) keys[i];
+                int e2 = ( int ) keys[j];
+                if ( edges.get( e1 ).crosses( edges.get( e2 ) ) == false )
+                    continue;
+                // un cruce casi en el mismo punto que el evento anterior ya se ha contado
+                long pair = ( ( long ) Math.min( e1, e2 ) << 32 ) | Math.max( e1, e2 );
+                if ( this.lastPairs.add( pair ) )
+                    this.addCrossing( e1, e2, p );
+            }
+        }
+    }
+
+    private void collectEdges( List<Segment> list, Map<Integer, EdgeAt> edges )
+    {
+        for ( Segment s : list )
+        {
+            EdgeAt edge = edges.get( s.edge );
+            if ( edge == null )
+            {
+                // vertices de la arista que estan en p
+                edge = new EdgeAt( );
+                Edge e = this.graph.getEdge( s.edge );
+                int from = this.graph.indexOf( e.from );
+                int to = this.graph.indexOf( e.to );
+                if ( this.graph.getX( from ) == this.px && this.graph.getY( from ) == this.py )
+                    edge.vertex = from;
+                if ( this.graph.getX( to ) == this.px && this.graph.getY( to ) == this.py )
+                    edge.other = to;
+                edges.put( s.edge, edge );
+            }
+            if ( ( s.x1 == this.px && s.y1 == this.py ) || ( s.x2 == this.px && s.y2 == this.py ) )
+                edge.end = true;
+            else
+                edge.inner.add( s );
+        }
+    }
+
+    private void addCrossing( int e1, int e2, Point2D p )
+    {
+        this.count++;
+        if ( this.crossings.size( ) < this.limit )
+            this.crossings.add( new EdgeCrossing( this.graph.getEdge( e1 ), this.graph.getEdge( e2 ), p ) );
+        if ( this.stopAtLimit && this.count >= this.limit )
+            this.finished = true;
+    }
+
+    /**
+     * Cruces de los arcos con los segmentos y arcos de caja envolvente solapada,
+     * recorriendo las cajas por x creciente.
+     */
+    private void crossArcs( )
+    {
+        int m = this.graph.getEdgeCount( );
+        List<Object[ ]> boxes = new ArrayList<Object[ ]>( this.segments.size( ) + this.arcs.size( ) );
+        for ( Segment s : this.segments )
+            boxes.add( new Object[ ] { new Rectangle2D.Double( s.x1, Math.min( s.y1, s.y2 ), s.x2 - s.x1, Math.abs( s.y2 - s.y1 ) ), s } );
+        for ( Integer e : this.arcs )
+            boxes.add( new Object[ ] { this.graph.getArc( e ).getBounds2D( ), e } );
+        Collections.sort( boxes, new Comparator<Object[ ]>( )
+        {
+            @Override
+            public int compare( Object[ ] b1, Object[ ] b2 )
+            {
+                return Double.compare( ( ( Rectangle2D ) b1[0] ).getMinX( ), ( ( Rectangle2D ) b2[0] ).getMinX( ) );
+            }
+        } );
+
+        // puntos de cruce de cada par de aristas con algun arco
+        Map<Long, List<Point2D>> points = new TreeMap<Long, List<Point2D>>( );
+        List<Object[ ]> activeArcs = new ArrayList<Object[ ]>( );
+        List<Object[ ]> activeSegments = new ArrayList<Object[ ]>( );
+        for ( Object[ ] box : boxes )
+        {
+            Rectangle2D rect = ( Rectangle2D ) box[0];
+            boolean isArc = box[1] instanceof Integer;
+            for ( int k = 0; k < 2; k++ )
+            {
+                if ( k == 1 && isArc == false )
+                    break;
+                List<Object[ ]> active = k == 0 ? activeArcs : activeSegments;
+                for ( int i = active.size( ) - 1; i >= 0; i-- )
+                {
+                    Object[ ] other = active.get( i );
+                    Rectangle2D otherRect = ( Rectangle2D ) other[0];
+                    if ( otherRect.getMaxX( ) < rect.getMinX( ) - this.eps )
+                    {
+                        // ya no se solapa con ninguna caja posterior
+                        active.set( i, active.get( active.size( ) - 1 ) );
+                        active.remove( active.size( ) - 1 );
+                    }
+                    else if ( otherRect.getMinY( ) <= rect.getMaxY( ) + this.eps && rect.getMinY( ) <= otherRect.getMaxY( ) + this.eps )
+                        this.crossArc( box[1], other[1], points, m );
+                }
+            }
+            ( isArc ? activeArcs : activeSegments ).add( box );
+        }
+
+        List<EdgeCrossing> found = new ArrayList<EdgeCrossing>( );
+        for ( Map.Entry<Long, List<Point2D>> entry : points.entrySet( ) )
+        {
+            Edge e1 = this.graph.getEdge( ( int ) ( entry.getKey( ) / m ) );
+            Edge e2 = this.graph.getEdge( ( int ) ( entry.getKey( ) % m ) );
+            List<Point2D> list = entry.getValue( );
+            // las aristas adyacentes pueden tocarse una vez, en el vertice comun
+            int skip = e1.isAdjacent( e2 ) ? 1 : 0;
+            for ( int i = skip; i < list.size( ); i++ )
+                found.add( new EdgeCrossing( e1, e2, list.get( i ) ) );
+        }
+        if ( found.isEmpty( ) )
+            return;
+
+        this.count += found.size( );
+        found.addAll( this.crossings );
+        Collections.sort( found, new Comparator<EdgeCrossing>( )
+        {
+            @Override
+            public int compare( EdgeCrossing c1, EdgeCrossing c2 )
+            {
+                return POINT_ORDER.compare( c1.getPoint( ), c2.getPoint( ) );
+            }
+        } );
+        this.crossings.clear( );
+        this.crossings.addAll( found.subList( 0, Math.min( this.limit, found.size( ) ) ) );
+    }
+
+    private void crossArc( Object piece, Object other, Map<Long, List<Point2D>> points, int m )
+    {
+        int e1 = piece instanceof Integer ? ( Integer ) piece : ( ( Segment ) piece ).edge;
+        int e2 = other instanceof Integer ? ( Integer ) other : ( ( Segment ) other ).edge;
+        if ( e1 == e2 )
+            return;
+
+        List<Point2D> found;
+        if ( piece instanceof Integer && other instanceof Integer )
+        {
+            found = GeometryUtilities.getCrossings( this.graph.getArc( e1 ), this.graph.getCenter( e1 ), this.graph.getArc( e2 ),
+                    this.graph.getCenter( e2 ) );
+        }
+        else
+        {
+            Segment s = ( Segment ) ( piece instanceof Segment ? piece : other );
+            int arc = piece instanceof Integer ? e1 : e2;
+            found = GeometryUtilities.getCrossings( new Line2D.Double( s.x1, s.y1, s.x2, s.y2 ), this.graph.getArc( arc ), this.graph.getCenter( arc ) );
+        }
+        if ( found.isEmpty( ) )
+            return;
+
+        Long key = ( long ) Math.min( e1, e2 ) * m + Math.max( e1, e2 );
+        List<Point2D> list = points.get( key );
+        if ( list == null )
+        {
+            list = new ArrayList<Point2D>( 2 );
+            points.put( key, list );
+        }
+        // un punto en el doblez de una polilinea se encuentra en sus dos segmentos
+        for ( Point2D q : found )
+        {
+            boolean repeated = false;
+            for ( Point2D r : list )
+                repeated = repeated || this.isClose( q, r.getX( ), r.getY( ) );
+            if ( repeated == false )
+                list.add( q );
+        }
+    }
+
+    /**
+     * @return numero de cruces entre aristas
+     */
+    public int getCrossingCount( )
+    {
+        return this.count;
+    }
+
+    /**
+     * @return los primeros k cruces en el orden del barrido
+     */
+    public List<EdgeCrossing> getCrossings( )
+    {
+        return Collections.unmodifiableList( this.crossings );
+    }
+
+    /**
+     * Una arista en el punto de un evento.
+     */
+    private static final class EdgeAt
+    {
+        // vertices origen y destino de la arista si estan en p, -1 si no
+        int                 vertex = -1;
+        int                 other = -1;
+        // la arista tiene en p un extremo de alguno de sus segmentos
+        boolean             end;
+        // segmentos a los que p es interior
+        final List<Segment> inner = new ArrayList<Segment>( 1 );
+
+        /**
+         * @return vertice de la arista en p que la agrupa con las demas, -1 si no tiene
+         */
+        int group( )
+        {
+            return this.vertex >= 0 ? this.vertex : this.other;
+        }
+
+        /**
+         * @return {@code false} si las aristas tienen en p un vertice comun o si p es
+         * interior a ambas y sus segmentos en p son colineales
+         */
+        boolean crosses( EdgeAt e )
+        {
+            // solo si los dos extremos de una arista estan en p
+            if ( this.other >= 0 && ( this.other == e.vertex || this.other == e.other ) )
+                return false;
+            if ( e.other >= 0 && e.other == this.vertex )
+                return false;
+            if ( this.end || e.end )
+                return true;
+            for ( Segment a : this.inner )
+                for ( Segment b : e.inner )
+                    if ( ( a.x2 - a.x1 ) * ( b.y2 - b.y1 ) != ( a.y2 - a.y1 ) * ( b.x2 - b.x1 ) )
+                        return true;
+            return false;
+        }
+    }
+
+    /**
+     * Segmento de una arista, con el extremo izquierdo primero.
+     */
+    private static final class Segment
+    {
+        // -1 y 1 para las sondas de busqueda, 0 para los segmentos
+        final int   probe;
+        int         id;
+        int         edge;
+        double      x1;
+        double      y1;
+        double      x2;
+        double      y2;
+        // ultimo evento en el que el segmento pasaba por el punto del evento
+        int         event;
+
+        Segment( int probe )
+        {
+            this.probe = probe;
+        }
+    }
+}
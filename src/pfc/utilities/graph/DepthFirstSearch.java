@@ -0,0 +1,207 @@
+/**
+ * DepthFirstSearch.java
+ */
+package pfc.utilities.graph;
+
+import java.util.Arrays;
+
+
+/**
+ * Busqueda en profundidad iterativa con pila explicita. Los vertices se identifican
+ * por un indice entre 0 y n-1, y las subclases definen la adyacencia de cada vertice
+ * ({@link #getDegree(int)}, {@link #getNeighbor(int, int)} y {@link #getEdge(int, int)})
+ * y redefinen los metodos que necesiten de entre los que se invocan durante el recorrido:
+ * <ul>
+ * <li>{@link #preVisit(int, int, int)} al descubrir un vertice (preorden)</li>
+ * <li>{@link #followEdge(int, int, int)} antes de descender por una arista a un vertice no descubierto</li>
+ * <li>{@link #treeEdgeFinished(int, int, int)} al volver al padre por una arista del arbol</li>
+ * <li>{@link #backEdge(int, int, int)} al encontrar una arista a un vertice ya descubierto</li>
+ * <li>{@link #postVisit(int)} al terminar con un vertice (postorden)</li>
+ * </ul>
+ * Los vertices se visitan en el mismo orden que en la version recursiva, pero la
+ * profundidad del recorrido no esta limitada por la pila del hilo.
+ * <p/>
+ * La adyacencia se consulta de forma perezosa: {@link #getDegree(int)} se invoca despues
+ * de {@link #preVisit(int, int, int)} y el vecino k-esimo se pide justo antes de recorrerlo,
+ * de modo que puede depender de lo ocurrido al visitar los vecinos anteriores.
+ * Complejidad: O(|V|+|E|)
+ * @author walber
+ */
+public abstract class DepthFirstSearch
+{
+    private final boolean[ ]    visited;
+    private final int[ ]        stack;
+    private final int[ ]        stackEdges;
+    private final int[ ]        positions;
+
+    /**
+     * @param vertexCount numero de vertices
+     */
+    protected DepthFirstSearch( int vertexCount )
+    {
+        this.visited = new boolean[vertexCount];
+        // cada vertice se apila como mucho una vez
+        this.stack = new int[vertexCount];
+        this.stackEdges = new int[vertexCount];
+        this.positions = new int[vertexCount];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return numero de vecinos de v
+     */
+    protected abstract int getDegree( int v );
+
+    /**
+     * @param v indice del vertice
+     * @param k posicion del vecino, entre 0 y {@code getDegree( v ) - 1}
+     * @return indice del k-esimo vecino de v
+     */
+    protected abstract int getNeighbor( int v, int k );
+
+    /**
+     * @param v indice del vertice
+     * @param k posicion del vecino, entre 0 y {@code getDegree( v ) - 1}
+     * @return indice de la arista que une v con su k-esimo vecino, -1 si el recorrido
+     * no necesita identificar las aristas
+     */
+    protected abstract int getEdge( int v, int k );
+
+    /**
+     * Se invoca al descubrir el vertice v.
+     * @param v indice del vertice
+     * @param parent indice del padre en el arbol, -1 si v es la raiz
+     * @param edge indice de la arista por la que se llega a v, -1 si v es la raiz
+     */
+    protected void preVisit( int v, int parent, int edge )
+    {
+    }
+
+    /**
+     * Decide si se desciende por la arista (v,w) cuando w aun no se ha descubierto.
+     * Si devuelve {@code false} la arista se ignora.
+     * @param v indice del vertice
+     * @param w indice del vecino no descubierto
+     * @param edge indice de la arista
+     * @return {@code true} por defecto
+     */
+    protected boolean followEdge( int v, int w, int edge )
+    {
+        return true;
+    }
+
+    /**
+     * Se invoca al volver a v despues de recorrer el subarbol de su hijo w.
+     * @param v indice del padre
+     * @param w indice del hijo
+     * @param edge indice de la arista del arbol
+     */
+    protected void treeEdgeFinished( int v, int w, int edge )
+    {
+    }
+
+    /**
+     * Se invoca para cada arista (v,w) que no forma parte del arbol porque w ya estaba
+     * descubierto (aristas de retroceso, de avance o de cruce, y bucles).
+     * @param v indice del vertice
+     * @param w indice del vecino ya descubierto
+     * @param edge indice de la arista
+     */
+    protected void backEdge( int v, int w, int edge )
+    {
+    }
+
+    /**
+     * Se invoca al terminar de recorrer todos los vecinos de v.
+     * @param v indice del vertice
+     */
+    protected void postVisit( int v )
+    {
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return {@code true} si v ya se ha descubierto
+     */
+    public boolean isVisited( int v )
+    {
+        return this.visited[v];
+    }
+
+    /**
+     * Marcar un vertice como descubierto sin visitarlo, para que el recorrido no entre en el.
+     * @param v indice del vertice
+     */
+    public void markVisited( int v )
+    {
+        this.visited[v] = true;
+    }
+
+    /**
+     * Olvidar los vertices descubiertos para poder hacer un nuevo recorrido.
+     */
+    public void reset( )
+    {
+        Arrays.fill( this.visited, false );
+    }
+
+    /**
+     * Recorrer en profundidad los vertices alcanzables desde root que aun no se han descubierto.
+     * @param root indice del vertice inicial
+     */
+    public void search( int root )
+    {
+        if ( this.visited[root] )
+            return;
+
+        int size = 0;
+        this.visited[root] = true;
+        this.preVisit( root, -1, -1 );
+        this.stack[size] = root;
+        this.stackEdges[size] = -1;
+        this.positions[size] = 0;
+        size++;
+
+        while ( size > 0 )
+        {
+            int v = this.stack[size - 1];
+            int k = this.positions[size - 1];
+            if ( k < this.getDegree( v ) )
+            {
+                this.positions[size - 1] = k + 1;
+                int w = this.getNeighbor( v, k );
+                int edge = this.getEdge( v, k );
+                if ( this.visited[w] )
+                    this.backEdge( v, w, edge );
+                else if ( this.followEdge( v, w, edge ) )
+                {
+                    // descender a w, equivalente a la llamada recursiva
+                    this.visited[w] = true;
+                    this.preVisit( w, v, edge );
+                    this.stack[size] = w;
+                    this.stackEdges[size] = edge;
+                    this.positions[size] = 0;
+                    size++;
+                }
+            }
+            else
+            {
+                // todos los vecinos recorridos, volver al padre
+                size--;
+                this.postVisit( v );
+                if ( size > 0 )
+                    this.treeEdgeFinished( this.stack[size - 1], v, this.stackEdges[size] );
+            }
+        }
+    }
+
+    /**
+     * Recorrer en profundidad todo el grafo, tomando como raices los vertices no
+     * descubiertos en orden de indice.
+     */
+    public void searchAll( )
+    {
+        for ( int v = 0; v < this.visited.length; v++ )
+            this.search( v );
+    }
+}
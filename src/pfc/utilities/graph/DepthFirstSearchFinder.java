@@ -25,6 +25,9 @@ import pfc.models.Vertex;
  * @navassoc - - "1\n-target" Vertex
  * @depend - - - Edge
  * @depend - - - Graph
+ * @depend - - - IndexedGraph
+ * @depend - - - IndexedDepthFirstSearch
+ * @depend - - - TopologicalNumbering
  */
 public class DepthFirstSearchFinder
 {
@@ -35,6 +38,9 @@ public class DepthFirstSearchFinder
     private Float 						order = new Float( 0 );
     private final Float 				seed;
     private final Float 				weight;
+    private Graph						graph;
+    private IndexedGraph				indexed;
+    private DepthFirstSearch			search;
     
     /**
 	 * Crear objeto con seed igual a 0 y weight igual a 1 en la numeracion topologica. 
@@ -64,7 +70,10 @@ public class DepthFirstSearchFinder
     public Collection<Vertex> depthFirstSearch ( Vertex v, Graph graph )
     {
         if ( this.verticesExplored.isEmpty( ) )
-            depthFirstSearchAlgorithm( v, graph );
+        {
+            this.index( graph );
+            depthFirstSearchAlgorithm( this.indexed.indexOf( v ) );
+        }
         return this.verticesExplored;
     }
     
@@ -77,7 +86,10 @@ public class DepthFirstSearchFinder
     public Collection<Edge> spanningTree ( Vertex v, Graph graph )
     {
         if ( this.edgesExplored.isEmpty( ) )
-            depthFirstSearchAlgorithm( v, graph );
+        {
+            this.index( graph );
+            depthFirstSearchAlgorithm( this.indexed.indexOf( v ) );
+        }
         return this.edgesExplored;
     }
     
@@ -93,63 +105,68 @@ public class DepthFirstSearchFinder
     {
         this.order = ( graph.vertices.size( ) * this.weight ) + this.seed;
         this.depthFirstSearch( v, graph );
-        for ( Vertex n : graph.vertices )
-            if ( this.verticesExplored.contains( n ) == false )
-                this.depthFirstSearch( n, graph );
+        this.search.searchAll( );
         
         return this.topologicalSorting;
     }
     
     /**
+     * La numeracion es {@code seed + weight * rango}, donde el rango es la longitud del
+     * camino mas largo que termina en el vertice, por lo que no depende de v.
      * Complejidad: O(|V|+|E|)
      * @param v Vertex
      * @param graph Graph
      * @return numeracion topologica de los vertices del grafo
+     * @see TopologicalNumbering
+     * @deprecated v no se usa; usar {@link TopologicalNumbering#getNumbering(float, float)}
      * 
      * {@link "http://en.wikipedia.org/wiki/Longest_path_problem"}
      */
+    @Deprecated
     public Map<Vertex, Float> topologicalNumbering ( Vertex v, Graph graph )
     {
-        Float numberU;
-    	// inicializar a cero toda la numeracion de los vertices
-        for ( Vertex w : graph.vertices )
-        {
-            this.topologicalNumbering.put( w, this.seed );
-        }
-        // realizar la ordenacion topologica
-        this.topologicalSorting( v, graph );
-        // actualizar la numeracion de cada vertice y sus vecinos
-        for ( Vertex u : this.topologicalSorting.values( ) )
-        {
-            numberU = this.topologicalNumbering.get( u );
-        	for ( Vertex w : graph.getNeighbors( u ) )
-            {
-                if ( this.topologicalNumbering.get( w ) <= numberU )
-                    this.topologicalNumbering.put( w, numberU + this.weight );
-            }
-        }
+        this.topologicalNumbering.putAll( new TopologicalNumbering( graph ).getNumbering( this.seed, this.weight ) );
         return this.topologicalNumbering;
     }
     
     /**
-     * Busqueda en profundidad modificada para marcar en postorden el vertice visitado.
-     * Complejidad: O(|V|+|E|)
-     * @param v Vertex
+     * Obtener la copia indexada del grafo, construyendola si es la primera vez que se usa.
      * @param graph Graph
      */
-    private void depthFirstSearchAlgorithm ( Vertex v, Graph graph )
+    private void index( Graph graph )
     {
-        verticesExplored.add( v );
-        for ( Vertex n : graph.getNeighbors( v ) )
+        if ( this.graph != graph )
         {
-            if ( this.verticesExplored.contains( n ) == false )
+            this.graph = graph;
+            this.indexed = new IndexedGraph( graph );
+            this.search = new IndexedDepthFirstSearch( this.indexed )
             {
-                Edge e = ( Edge ) graph.getEdges( v, n ).toArray( )[ 0 ];
-                edgesExplored.add( e );
-                depthFirstSearchAlgorithm( n, graph );
-            }
+                @Override
+                protected void preVisit( int v, int parent, int edge )
+                {
+                    if ( edge >= 0 )
+                        edgesExplored.add( this.graph.getEdge( edge ) );
+                    verticesExplored.add( this.graph.getVertex( v ) );
+                }
+
+                @Override
+                protected void postVisit( int v )
+                {
+                    // marcar en postorden el vertice visitado
+                    order -= weight;
+                    topologicalSorting.put( order, this.graph.getVertex( v ) );
+                }
+            };
         }
-        this.order -= this.weight;
-        this.topologicalSorting.put( order, v );
+    }
+    
+    /**
+     * Busqueda en profundidad modificada para marcar en postorden el vertice visitado.
+     * Complejidad: O(|V|+|E|)
+     * @param v indice del vertice
+     */
+    private void depthFirstSearchAlgorithm ( int v )
+    {
+        this.search.search( v );
     }
 }
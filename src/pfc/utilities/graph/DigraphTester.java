@@ -12,8 +12,8 @@ import java.util.Set;
 import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
-import pfc.models.algorithms.Rotation;
-import pfc.utilities.GeometryUtilities;
+import pfc.models.algorithms.DoublyConnectedEdgeList;
+import pfc.models.algorithms.RotationSystem;
 
 /**
  * @author walber
@@ -22,6 +22,10 @@ import pfc.utilities.GeometryUtilities;
  * @depend - - - Graph
  * @depend - - - Vertex
  * @depend - - - Edge
+ * @depend - - - IndexedGraph
+ * @depend - - - ReachabilityIndex
+ * @depend - - - RotationSystem
+ * @depend - - - DoublyConnectedEdgeList
  */
 public class DigraphTester
 {
@@ -40,20 +44,49 @@ public class DigraphTester
 //      if ( findWeaklyConnectedComponents( graph ).size() > 1 )
 //          return false;
         // solo hay un source y un target
-        int numberVertexS = 0;
-        int numberVertexT = 0;
-        for ( Vertex v : graph.vertices )
+        return graph.getSources( ).size( ) <= 1 && graph.getSinks( ).size( ) <= 1;
+    }
+    
+	/**
+	 * Comprobar si es un st-graph sobre una copia indexada ya construida. Del grafo solo se
+	 * leen los indicadores, que no cambian, de modo que se puede llamar desde otro hilo
+	 * aunque el grafo se este editando.
+	 * 
+	 * @param graph {@link Graph}
+	 * @param snapshot {@link IndexedGraph} copia de graph
+	 * @return {@link Boolean}
+	 */
+    public static boolean isSTGraph( Graph graph, IndexedGraph snapshot )
+    {
+        if ( graph.areCyclesAllowed || graph.areLoopsAllowed || graph.areMultipleEdgesAllowed
+                || graph.areDirectedEdgesAllowed == false )
+            return false;
+        int sources = 0;
+        int sinks = 0;
+        for ( int v = 0; v < snapshot.getVertexCount( ); v++ )
         {
-            int sizeTo = graph.getEdgesTo( v ).size();
-            int sizeFrom = graph.getEdgesFrom( v ).size();
-            if ( sizeFrom == 0 && sizeTo != 0 )
-                numberVertexT++;
-            if ( sizeFrom != 0 && sizeTo == 0 )
-                numberVertexS++;
-            if ( numberVertexS > 1 || numberVertexT > 1 )
-                return false;
+            if ( isSource( snapshot, v ) )
+                sources++;
+            else if ( isSink( snapshot, v ) )
+                sinks++;
         }
-        return true;
+        return sources <= 1 && sinks <= 1;
+    }
+    
+    /**
+     * Source como en {@link Graph#getSources()}: con aristas de salida y sin aristas de entrada.
+     */
+    private static boolean isSource( IndexedGraph graph, int v )
+    {
+        return graph.getOutDegree( v ) > 0 && graph.getInDegree( v ) == 0;
+    }
+    
+    /**
+     * Sink como en {@link Graph#getSinks()}: con aristas de entrada y sin aristas de salida.
+     */
+    private static boolean isSink( IndexedGraph graph, int v )
+    {
+        return graph.getInDegree( v ) > 0 && graph.getOutDegree( v ) == 0;
     }
     
     /**
@@ -65,35 +98,66 @@ public class DigraphTester
      */
     public static boolean areSTVerticesOnOuterFace( Graph graph )
     {
-    	Vertex s = graph.getVertexSource( );
-    	Vertex t = graph.getVertexTarget( );
-    	Vertex current = GeometryUtilities.getTheClosestVertexToOrigin( graph );
-		Vertex destination = current;
-		Vertex vertexNew, vertexOld;
+    	return areSTVerticesOnOuterFace( new IndexedGraph( graph ), graph.getVertexSource( ), graph.getVertexTarget( ) );
+    }
+    
+    /**
+     * Precondition: Grafo debe ser ST-Graph
+     * Comprobar si los vertices source y target estan en la cara externa del grafo,
+     * buscandolos en la copia indexada en lugar de en el grafo.
+     * 
+     * @param graph {@link IndexedGraph} copia dirigida del grafo
+     * @return {@link Boolean}, {@code false} si no hay source o no hay target
+     */
+    public static boolean areSTVerticesOnOuterFace( IndexedGraph graph )
+    {
+    	int source = -1;
+    	int target = -1;
+    	for ( int v = 0; v < graph.getVertexCount( ); v++ )
+    	{
+    		if ( source == -1 && isSource( graph, v ) )
+    			source = v;
+    		else if ( target == -1 && isSink( graph, v ) )
+    			target = v;
+    	}
+    	if ( source == -1 || target == -1 )
+    		return false;
+    	return areSTVerticesOnOuterFace( graph, graph.getVertex( source ), graph.getVertex( target ) );
+    }
+    
+    /**
+     * Precondition: Grafo debe ser ST-Graph
+     * Comprobar si los vertices source y target estan en la cara externa del grafo,
+     * tomando la cara externa del embedding de la copia indexada.
+     * 
+     * @param graph {@link IndexedGraph}
+     * @param s {@link Vertex} source
+     * @param t {@link Vertex} target
+     * @return {@link Boolean}
+     */
+    public static boolean areSTVerticesOnOuterFace( IndexedGraph graph, Vertex s, Vertex t )
+    {
+    	// cara externa del embedding del dibujo, en lugar de la del vertice mas cercano al origen
+    	DoublyConnectedEdgeList halfEdges = new DoublyConnectedEdgeList( new RotationSystem( graph ) );
+    	int outer = halfEdges.getOuterFace( );
+    	if ( outer == -1 )
+    		return false;
+		int source = graph.indexOf( s );
+		int target = graph.indexOf( t );
 		boolean isSourceOnOuterFace = false;
 		boolean isTargetOnOuterFace = false;
 		
-		vertexOld = new Vertex( 0, 0 );
+		int start = halfEdges.getFaceHalfEdge( outer );
+		int h = start;
 		do {
-			// obtener el siguiente vertice en el sentido clockwise a partir de vertexOld alrededor de current
-			Rotation rot = new Rotation( current, graph.getNeighborsInOut( current ) );
-			vertexNew = rot.getClockwiseVertex( vertexOld );
-			
-			if ( isSourceOnOuterFace == false && s.equals( current ) )
-			{
+			if ( halfEdges.getSource( h ) == source )
 				isSourceOnOuterFace = true;
-			}
-			if ( isTargetOnOuterFace == false && t.equals( current ) )
-			{
+			if ( halfEdges.getSource( h ) == target )
 				isTargetOnOuterFace = true;
-			}
 			if ( isSourceOnOuterFace && isTargetOnOuterFace )
-			{
 				return true;
-			}
-			vertexOld = current;
-			current = vertexNew;
-		} while ( destination.equals( current ) == false );
+			h = halfEdges.getNext( h );
+		} while ( h != start );
 		
 		return false;
     }
@@ -110,16 +174,32 @@ public class DigraphTester
                 || graph.areDirectedEdgesAllowed == false )
             return false;
     	
-    	for ( Edge e : graph.edges )
-    	{
-    		if ( isTransitiveEdge( graph, e ) )
-    			return false;
-    	}
-    	return true;
+    	return new TransitiveReduction( graph ).isReduced( );
+    }
+    
+    /**
+     * Comprobar si es un grafo reducido sobre una copia indexada ya construida. Del grafo
+     * solo se leen los indicadores, que no cambian.
+     * 
+     * @param graph {@link Graph}
+     * @param snapshot {@link IndexedGraph} copia de graph
+     * @return {@link Boolean}
+     */
+    public static boolean isReducedDigraph( Graph graph, IndexedGraph snapshot )
+    {
+    	if ( graph.areCyclesAllowed || graph.areLoopsAllowed || graph.areMultipleEdgesAllowed
+                || graph.areDirectedEdgesAllowed == false )
+            return false;
+    	
+    	return new TransitiveReduction( snapshot ).isReduced( );
     }
 
 	/**
-	 * Comprobar si la arista es transitiva.
+	 * Comprobar si la arista es transitiva, es decir, si hay otro camino de e.from a e.to con
+	 * al menos dos aristas, como en {@link TransitiveReduction}: los lazos no son transitivos,
+	 * y una arista paralela a e no la hace transitiva. En un grafo dirigido aciclico se usa
+	 * el {@link ReachabilityIndex} del grafo cuando {@link ReachabilityIndex#lookup(Graph)} lo
+	 * devuelve, es decir, cuando ya se han hecho bastantes consultas sin cambiar el grafo.
 	 * 
 	 * @param graph {@link Graph}
 	 * @param e {@link Edge}
@@ -127,13 +207,47 @@ public class DigraphTester
 	 */
 	public static boolean isTransitiveEdge( Graph graph, Edge e )
 	{
-		Graph tmp = new Graph( graph.toString( ) );
-		tmp.edges.remove( e );
-		return areConnected( tmp, e.from, e.to );
+		if( e.to.equals( e.from ) )
+			return false;
+		
+		// con el indice del grafo, e es transitiva si e.to es alcanzable desde el destino de otra arista que sale de e.from
+		ReachabilityIndex index = graph.areDirectedEdgesAllowed ? ReachabilityIndex.lookup( graph ) : null;
+		if ( index != null )
+		{
+			for ( Edge edge : graph.getOutgoingEdges( e.from ) )
+				if ( edge.to.equals( e.to ) == false && index.reaches( edge.to, e.to ) )
+					return true;
+			return false;
+		}
+		
+		// busqueda en anchura desde e.from sin pasar por e ni por sus aristas paralelas
+		Set<Vertex> visited = new HashSet<Vertex>( );
+		Queue<Vertex> toVisit = new LinkedList<Vertex>( );
+		
+		visited.add( e.from );
+		toVisit.add( e.from );
+		
+		while( toVisit.isEmpty( ) == false )
+		{
+			Vertex vertex = toVisit.poll( );
+			for( Edge edge : graph.getOutgoingEdges( vertex ) )
+			{
+				Vertex neighbor = edge.from.equals( vertex ) ? edge.to : edge.from;
+				if ( vertex.equals( e.from ) && neighbor.equals( e.to ) )
+					continue;
+				if( e.to.equals( neighbor ) )
+					return true;
+				if ( visited.add( neighbor ) )
+					toVisit.add( neighbor );
+			}
+		}
+		
+		return false;
 	}
 	
 	/**
-	 * Returns a {@code boolean} indicating whether or not there exists a path between the two vertices.
+	 * Returns a {@code boolean} indicating whether or not there exists a path between the two vertices. In a digraph queried many times without
+	 * changes the answer comes from its {@link ReachabilityIndex}; otherwise, or if the graph has cycles, this is a breadth-first search.
 	 * 
 	 * @param graph {@link Graph}
 	 * @param from {@link Vertex} the vertex from which the path begins
@@ -144,6 +258,10 @@ public class DigraphTester
 	 */
 	public static boolean areConnected( Graph graph, Vertex from, Vertex to )
 	{
+		ReachabilityIndex index = graph.areDirectedEdgesAllowed ? ReachabilityIndex.lookup( graph ) : null;
+		if ( index != null )
+			return to.equals( from ) || index.reaches( from, to );
+		
 		Set<Vertex> visited = new HashSet<Vertex>( );
 		Queue<Vertex> toVisit = new LinkedList<Vertex>( );
 		
@@ -0,0 +1,65 @@
+/**
+ * EdgeCrossing.java
+ */
+package pfc.utilities.graph;
+
+import java.awt.geom.Point2D;
+
+import pfc.models.Edge;
+
+
+/**
+ * Cruce entre dos aristas dibujadas, encontrado por {@link CrossingDetector}.
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "2\n" Edge
+ */
+public class EdgeCrossing
+{
+    private final Edge      first;
+    private final Edge      second;
+    private final Point2D   point;
+
+    /**
+     * @param first Edge
+     * @param second Edge
+     * @param point punto de cruce
+     */
+    public EdgeCrossing( Edge first, Edge second, Point2D point )
+    {
+        this.first = first;
+        this.second = second;
+        this.point = point;
+    }
+
+    /**
+     * @return la primera arista del cruce
+     */
+    public Edge getFirst( )
+    {
+        return this.first;
+    }
+
+    /**
+     * @return la segunda arista del cruce
+     */
+    public Edge getSecond( )
+    {
+        return this.second;
+    }
+
+    /**
+     * @return el punto de cruce
+     */
+    public Point2D getPoint( )
+    {
+        return (Point2D) this.point.clone( );
+    }
+
+    @Override
+    public String toString( )
+    {
+        return "(" + this.point.getX( ) + ", " + this.point.getY( ) + ")";
+    }
+}
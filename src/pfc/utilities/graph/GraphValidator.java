@@ -0,0 +1,239 @@
+/**
+ * GraphValidator.java
+ */
+package pfc.utilities.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import pfc.models.Graph;
+
+
+/**
+ * Comprobacion de las precondiciones de los algoritmos de dibujo en una sola pasada.
+ * Se construye una unica copia indexada del grafo ({@link IndexedGraph}) y las
+ * comprobaciones independientes se evaluan a la vez en los hilos de
+ * {@link ForkJoinPool#commonPool()}, que no impiden terminar la aplicacion. Las que tienen
+ * precondiciones, como {@link Check#ST_ON_OUTER_FACE}, se evaluan solo si las suyas se
+ * cumplen. Una comprobacion que lanza una excepcion no se cumple, y la excepcion queda en
+ * el {@link ValidationReport}.
+ * <p/>
+ * Las comprobaciones solo leen la copia y los indicadores del grafo, que no cambian. El
+ * grafo solo se recorre al construir la copia, en el hilo que llama a
+ * {@link #validate(Set)}, o antes si se pasa la copia ya construida con
+ * {@link #GraphValidator(Graph, IndexedGraph)}; despues puede modificarse, por ejemplo
+ * en el hilo de eventos de Swing mientras se valida en otro hilo.
+ * Complejidad: la de la comprobacion mas costosa, O(|V|*|E|/w) para
+ * {@link Check#REDUCED_DIGRAPH} y O(|E| log |E|) para {@link Check#PLANAR_EMBEDDING}
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-snapshot" IndexedGraph
+ * @depend - - - ValidationReport
+ * @depend - - - CrossingDetector
+ * @depend - - - DigraphTester
+ * @depend - - - BiconnectedComponentsFinder
+ */
+public class GraphValidator
+{
+    /**
+     * Comprobaciones disponibles.
+     */
+    public enum Check
+    {
+        /** el dibujo no tiene cruces */
+        PLANAR_EMBEDDING,
+        /** es un st-graph */
+        ST_GRAPH,
+        /** s y t estan en la cara externa del dibujo; requiere PLANAR_EMBEDDING y ST_GRAPH */
+        ST_ON_OUTER_FACE,
+        /** es biconexo */
+        BICONNECTED,
+        /** es un grafo dirigido reducido, sin aristas transitivas */
+        REDUCED_DIGRAPH,
+        /** ningun vertice tiene grado mayor que 4 */
+        MAXIMUM_DEGREE_4;
+
+        private Set<Check> getRequirements( )
+        {
+            if ( this == ST_ON_OUTER_FACE )
+                return EnumSet.of( PLANAR_EMBEDDING, ST_GRAPH );
+            return EnumSet.noneOf( Check.class );
+        }
+    }
+
+    /**
+     * precondiciones de los algoritmos sobre st-graphs dibujados
+     */
+    public static final Set<Check>  ST_GRAPH_DRAWING = Collections.unmodifiableSet( EnumSet.of( Check.PLANAR_EMBEDDING, Check.ST_GRAPH, Check.ST_ON_OUTER_FACE ) );
+    /**
+     * precondiciones del algoritmo SL-dominance
+     */
+    public static final Set<Check>  SL_DOMINANCE_DRAWING = Collections.unmodifiableSet( EnumSet.of( Check.PLANAR_EMBEDDING, Check.ST_GRAPH,
+            Check.ST_ON_OUTER_FACE, Check.REDUCED_DIGRAPH ) );
+    /**
+     * precondiciones del algoritmo ortogonal; con un grafo dirigido hay que comprobar ademas {@link Check#ST_GRAPH}
+     */
+    public static final Set<Check>  ORTHOGONAL_DRAWING = Collections.unmodifiableSet( EnumSet.of( Check.MAXIMUM_DEGREE_4, Check.PLANAR_EMBEDDING,
+            Check.BICONNECTED ) );
+
+    private final Graph             graph;
+    /**
+     * copia construida por quien crea el validador, o null para construirla en cada validacion
+     */
+    private final IndexedGraph      snapshot;
+
+    /**
+     * @param graph Graph
+     */
+    public GraphValidator( Graph graph )
+    {
+        this( graph, null );
+    }
+
+    /**
+     * @param graph Graph, del que solo se leen los indicadores
+     * @param snapshot IndexedGraph copia de graph, o null para construirla en cada validacion
+     */
+    public GraphValidator( Graph graph, IndexedGraph snapshot )
+    {
+        this.graph = graph;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @param graph Graph
+     * @param checks comprobaciones a evaluar
+     * @return ValidationReport
+     */
+    public static ValidationReport validate( Graph graph, Set<Check> checks )
+    {
+        return new GraphValidator( graph ).validate( checks );
+    }
+
+    /**
+     * Evaluar las comprobaciones dadas, y las que estas requieren.
+     * @param checks comprobaciones a evaluar
+     * @return ValidationReport con el resultado y el tiempo de cada comprobacion
+     */
+    public ValidationReport validate( Set<Check> checks )
+    {
+        long start = System.nanoTime( );
+        ValidationReport report = new ValidationReport( );
+
+        Set<Check> requested = EnumSet.noneOf( Check.class );
+        for ( Check check : checks )
+        {
+            requested.add( check );
+            requested.addAll( check.getRequirements( ) );
+        }
+
+        IndexedGraph snapshot = this.snapshot != null ? this.snapshot : new IndexedGraph( this.graph );
+        report.setSnapshotTime( System.nanoTime( ) - start );
+
+        // primero las comprobaciones sin precondiciones, todas a la vez
+        Map<Check, Future<Boolean>> running = new EnumMap<Check, Future<Boolean>>( Check.class );
+        for ( Check check : requested )
+            if ( check.getRequirements( ).isEmpty( ) )
+                running.put( check, ForkJoinPool.commonPool( ).submit( this.task( check, snapshot, report ) ) );
+        this.collect( running, report );
+
+        // despues las que dependen de otras
+        running.clear( );
+        List<Check> skipped = new ArrayList<Check>( );
+        for ( Check check : requested )
+        {
+            if ( check.getRequirements( ).isEmpty( ) )
+                continue;
+            boolean ready = true;
+            for ( Check requirement : check.getRequirements( ) )
+                ready = ready && report.isPassed( requirement );
+            if ( ready )
+                running.put( check, ForkJoinPool.commonPool( ).submit( this.task( check, snapshot, report ) ) );
+            else
+                skipped.add( check );
+        }
+        this.collect( running, report );
+        for ( Check check : skipped )
+            report.setSkipped( check );
+
+        report.setTotalTime( System.nanoTime( ) - start );
+        return report;
+    }
+
+    private void collect( Map<Check, Future<Boolean>> running, ValidationReport report )
+    {
+        for ( Map.Entry<Check, Future<Boolean>> entry : running.entrySet( ) )
+        {
+            try
+            {
+                report.setResult( entry.getKey( ), entry.getValue( ).get( ) );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread( ).interrupt( );
+                report.setResult( entry.getKey( ), false );
+            }
+            catch ( ExecutionException ex )
+            {
+                // una comprobacion que falla no cumple la precondicion, pero se guarda el motivo
+                report.setError( entry.getKey( ), ex.getCause( ) );
+            }
+        }
+    }
+
+    private Callable<Boolean> task( final Check check, final IndexedGraph snapshot, final ValidationReport report )
+    {
+        return new Callable<Boolean>( )
+        {
+            @Override
+            public Boolean call( )
+            {
+                long start = System.nanoTime( );
+                try
+                {
+                    return evaluate( check, snapshot );
+                }
+                finally
+                {
+                    report.setTime( check, System.nanoTime( ) - start );
+                }
+            }
+        };
+    }
+
+    /**
+     * @param check Check
+     * @param snapshot IndexedGraph copia del grafo
+     * @return si el grafo cumple la comprobacion
+     */
+    private boolean evaluate( Check check, IndexedGraph snapshot )
+    {
+        switch ( check )
+        {
+            case PLANAR_EMBEDDING:
+                return CrossingDetector.hasCrossings( snapshot ) == false;
+            case ST_GRAPH:
+                return DigraphTester.isSTGraph( this.graph, snapshot );
+            case ST_ON_OUTER_FACE:
+                return DigraphTester.areSTVerticesOnOuterFace( snapshot );
+            case BICONNECTED:
+                return new BiconnectedComponentsFinder( ).isBiconnected( snapshot );
+            case REDUCED_DIGRAPH:
+                return DigraphTester.isReducedDigraph( this.graph, snapshot );
+            case MAXIMUM_DEGREE_4:
+                return snapshot.getMaximumDegree( ) <= 4;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * IndexedDepthFirstSearch.java
+ */
+package pfc.utilities.graph;
+
+
+/**
+ * Busqueda en profundidad iterativa sobre la adyacencia de un {@link IndexedGraph}.
+ * Se recorren las aristas de salida de cada vertice y, si se indica que no se tenga en
+ * cuenta la orientacion, tambien las de entrada de un grafo dirigido.
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ */
+public abstract class IndexedDepthFirstSearch extends DepthFirstSearch
+{
+    protected final IndexedGraph    graph;
+    private final boolean           both;
+
+    /**
+     * Recorrer las aristas de salida de cada vertice.
+     * @param graph IndexedGraph
+     */
+    protected IndexedDepthFirstSearch( IndexedGraph graph )
+    {
+        this( graph, false );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @param ignoreDirection si es {@code true} y el grafo es dirigido, se recorren
+     * tambien las aristas de entrada de cada vertice, despues de las de salida
+     */
+    protected IndexedDepthFirstSearch( IndexedGraph graph, boolean ignoreDirection )
+    {
+        super( graph.getVertexCount( ) );
+        this.graph = graph;
+        this.both = ignoreDirection && graph.isDirected( );
+    }
+
+    @Override
+    protected int getDegree( int v )
+    {
+        return this.both ? this.graph.getOutDegree( v ) + this.graph.getInDegree( v ) : this.graph.getOutDegree( v );
+    }
+
+    @Override
+    protected int getNeighbor( int v, int k )
+    {
+        int outDegree = this.graph.getOutDegree( v );
+        if ( k < outDegree )
+            return this.graph.getOutTarget( this.graph.getOutStart( v ) + k );
+        return this.graph.getInSource( this.graph.getInStart( v ) + k - outDegree );
+    }
+
+    @Override
+    protected int getEdge( int v, int k )
+    {
+        int outDegree = this.graph.getOutDegree( v );
+        if ( k < outDegree )
+            return this.graph.getOutEdge( this.graph.getOutStart( v ) + k );
+        return this.graph.getInEdge( this.graph.getInStart( v ) + k - outDegree );
+    }
+}
@@ -0,0 +1,426 @@
+/**
+ * IndexedGraph.java
+ */
+package pfc.utilities.graph;
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Copia inmutable de un grafo en formato CSR (compressed sparse row). Los vertices
+ * se identifican por su indice en {@code graph.vertices} y las aristas por su indice
+ * en {@code graph.edges}. Para cada vertice v, las posiciones
+ * {@code getOutStart( v ) .. getOutEnd( v ) - 1} de los arrays de adyacencia de salida
+ * contienen el vecino y la arista de cada arista que sale de v, y del mismo modo las de
+ * entrada. En un grafo no dirigido la adyacencia de salida y la de entrada coinciden y
+ * contienen todas las aristas incidentes (los bucles una sola vez).
+ * <p/>
+ * La copia guarda tambien la geometria del dibujo: las coordenadas de los vertices y la
+ * forma de las aristas (recta, polilinea o arco). Los algoritmos que la usan no leen las
+ * propiedades de {@link Vertex} y {@link Edge}, de modo que pueden ejecutarse en otro
+ * hilo mientras el grafo se edita.
+ * <p/>
+ * Recorrer la adyacencia no crea objetos, a diferencia de {@link Graph#getNeighbors(Vertex)}.
+ * Construir la copia es O(|V|+|E|); si el grafo cambia hay que construir una nueva.
+ * @author walber
+ *
+ * UMLGraph
+ * @depend - - - Graph
+ * @depend - - - Edge
+ * @depend - - - Vertex
+ */
+public class IndexedGraph
+{
+    private final boolean               directed;
+    private final Vertex[ ]             vertices;
+    private final Edge[ ]               edges;
+    private final Map<Vertex, Integer>  indices;
+    private final int[ ]                outOffsets;
+    private final int[ ]                outTargets;
+    private final int[ ]                outEdges;
+    private final int[ ]                inOffsets;
+    private final int[ ]                inSources;
+    private final int[ ]                inEdges;
+    private final double[ ]             xs;
+    private final double[ ]             ys;
+    /**
+     * puntos de quiebro de cada polilinea, null si no hay ninguna polilinea
+     */
+    private final Point2D[ ][ ]         bends;
+    /**
+     * arco y centro de cada arista curva, null si no hay ningun arco
+     */
+    private final Arc2D[ ]              arcs;
+    private final Point2D[ ]            centers;
+
+    /**
+     * Complejidad: O(|V|+|E|)
+     * @param graph Graph
+     */
+    public IndexedGraph( Graph graph )
+    {
+        int n = graph.vertices.size( );
+        int m = graph.edges.size( );
+
+        this.directed = graph.areDirectedEdgesAllowed;
+        this.vertices = graph.vertices.toArray( new Vertex[n] );
+        this.edges = graph.edges.toArray( new Edge[m] );
+        this.indices = new HashMap<Vertex, Integer>( 2 * n );
+        this.xs = new double[n];
+        this.ys = new double[n];
+        for ( int i = 0; i < n; i++ )
+        {
+            this.indices.put( this.vertices[i], i );
+            this.xs[i] = this.vertices[i].x.get( );
+            this.ys[i] = this.vertices[i].y.get( );
+        }
+
+        // forma de las aristas que no son rectas
+        Point2D[ ][ ] bends = null;
+        Arc2D[ ] arcs = null;
+        Point2D[ ] centers = null;
+        for ( int e = 0; e < m; e++ )
+        {
+            Edge edge = this.edges[e];
+            if ( edge.isPolyline( ) )
+            {
+                if ( bends == null )
+                    bends = new Point2D[m][ ];
+                List<Point2D> points = edge.getBends( );
+                bends[e] = new Point2D[points.size( )];
+                for ( int i = 0; i < bends[e].length; i++ )
+                    bends[e][i] = new Point2D.Double( points.get( i ).getX( ), points.get( i ).getY( ) );
+            }
+            else if ( edge.isLinear( ) == false )
+            {
+                if ( arcs == null )
+                {
+                    arcs = new Arc2D[m];
+                    centers = new Point2D[m];
+                }
+                arcs[e] = edge.getArc( );
+                centers[e] = edge.getCenter( );
+            }
+        }
+        this.bends = bends;
+        this.arcs = arcs;
+        this.centers = centers;
+
+        int[ ] from = new int[m];
+        int[ ] to = new int[m];
+        for ( int e = 0; e < m; e++ )
+        {
+            from[e] = this.indices.get( this.edges[e].from );
+            to[e] = this.indices.get( this.edges[e].to );
+        }
+
+        // contar el grado de cada vertice
+        this.outOffsets = new int[n + 1];
+        for ( int e = 0; e < m; e++ )
+        {
+            this.outOffsets[from[e] + 1]++;
+            if ( this.directed == false && from[e] != to[e] )
+                this.outOffsets[to[e] + 1]++;
+        }
+        for ( int v = 0; v < n; v++ )
+            this.outOffsets[v + 1] += this.outOffsets[v];
+
+        int[ ] next = new int[n];
+        this.outTargets = new int[this.outOffsets[n]];
+        this.outEdges = new int[this.outOffsets[n]];
+        for ( int e = 0; e < m; e++ )
+        {
+            int i = this.outOffsets[from[e]] + next[from[e]]++;
+            this.outTargets[i] = to[e];
+            this.outEdges[i] = e;
+            if ( this.directed == false && from[e] != to[e] )
+            {
+                i = this.outOffsets[to[e]] + next[to[e]]++;
+                this.outTargets[i] = from[e];
+                this.outEdges[i] = e;
+            }
+        }
+
+        if ( this.directed == false )
+        {
+            this.inOffsets = this.outOffsets;
+            this.inSources = this.outTargets;
+            this.inEdges = this.outEdges;
+            return;
+        }
+
+        this.inOffsets = new int[n + 1];
+        for ( int e = 0; e < m; e++ )
+            this.inOffsets[to[e] + 1]++;
+        for ( int v = 0; v < n; v++ )
+            this.inOffsets[v + 1] += this.inOffsets[v];
+
+        next = new int[n];
+        this.inSources = new int[m];
+        this.inEdges = new int[m];
+        for ( int e = 0; e < m; e++ )
+        {
+            int i = this.inOffsets[to[e]] + next[to[e]]++;
+            this.inSources[i] = from[e];
+            this.inEdges[i] = e;
+        }
+    }
+
+    /**
+     * @return {@code true} si las aristas son dirigidas
+     */
+    public boolean isDirected( )
+    {
+        return this.directed;
+    }
+
+    /**
+     * @return numero de vertices
+     */
+    public int getVertexCount( )
+    {
+        return this.vertices.length;
+    }
+
+    /**
+     * @return numero de aristas
+     */
+    public int getEdgeCount( )
+    {
+        return this.edges.length;
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return Vertex
+     */
+    public Vertex getVertex( int v )
+    {
+        return this.vertices[v];
+    }
+
+    /**
+     * @param e indice de la arista
+     * @return Edge
+     */
+    public Edge getEdge( int e )
+    {
+        return this.edges[e];
+    }
+
+    /**
+     * @param vertex Vertex
+     * @return indice del vertice, -1 si no pertenece al grafo
+     */
+    public int indexOf( Vertex vertex )
+    {
+        Integer index = this.indices.get( vertex );
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return primera posicion de la adyacencia de salida de v
+     */
+    public int getOutStart( int v )
+    {
+        return this.outOffsets[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return posicion siguiente a la ultima de la adyacencia de salida de v
+     */
+    public int getOutEnd( int v )
+    {
+        return this.outOffsets[v + 1];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return numero de aristas que salen de v
+     */
+    public int getOutDegree( int v )
+    {
+        return this.outOffsets[v + 1] - this.outOffsets[v];
+    }
+
+    /**
+     * @param i posicion en la adyacencia de salida
+     * @return indice del vertice al que llega la arista
+     */
+    public int getOutTarget( int i )
+    {
+        return this.outTargets[i];
+    }
+
+    /**
+     * @param i posicion en la adyacencia de salida
+     * @return indice de la arista
+     */
+    public int getOutEdge( int i )
+    {
+        return this.outEdges[i];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return primera posicion de la adyacencia de entrada de v
+     */
+    public int getInStart( int v )
+    {
+        return this.inOffsets[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return posicion siguiente a la ultima de la adyacencia de entrada de v
+     */
+    public int getInEnd( int v )
+    {
+        return this.inOffsets[v + 1];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return numero de aristas que llegan a v
+     */
+    public int getInDegree( int v )
+    {
+        return this.inOffsets[v + 1] - this.inOffsets[v];
+    }
+
+    /**
+     * @param i posicion en la adyacencia de entrada
+     * @return indice del vertice del que sale la arista
+     */
+    public int getInSource( int i )
+    {
+        return this.inSources[i];
+    }
+
+    /**
+     * @param i posicion en la adyacencia de entrada
+     * @return indice de la arista
+     */
+    public int getInEdge( int i )
+    {
+        return this.inEdges[i];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return coordenada x del vertice al construir la copia
+     */
+    public double getX( int v )
+    {
+        return this.xs[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return coordenada y del vertice al construir la copia
+     */
+    public double getY( int v )
+    {
+        return this.ys[v];
+    }
+
+    /**
+     * @param v indice del vertice
+     * @return posicion del vertice al construir la copia
+     */
+    public Point2D getPoint2D( int v )
+    {
+        return new Point2D.Double( this.xs[v], this.ys[v] );
+    }
+
+    /**
+     * @param e indice de la arista
+     * @return {@code true} si la arista es un segmento recto, como {@link Edge#isLinear()}
+     */
+    public boolean isLinear( int e )
+    {
+        return this.isPolyline( e ) == false && ( this.arcs == null || this.arcs[e] == null );
+    }
+
+    /**
+     * @param e indice de la arista
+     * @return {@code true} si la arista tiene puntos de quiebro, como {@link Edge#isPolyline()}
+     */
+    public boolean isPolyline( int e )
+    {
+        return this.bends != null && this.bends[e] != null;
+    }
+
+    /**
+     * @param e indice de la arista
+     * @return puntos de quiebro de la arista, vacia si no es una polilinea; no deben modificarse
+     */
+    public List<Point2D> getBends( int e )
+    {
+        if ( this.isPolyline( e ) == false )
+            return Collections.emptyList( );
+        return Collections.unmodifiableList( Arrays.asList( this.bends[e] ) );
+    }
+
+    /**
+     * @param e indice de una arista curva
+     * @return copia del arco de la arista, como {@link Edge#getArc()}
+     */
+    public Arc2D getArc( int e )
+    {
+        return ( Arc2D ) this.arcs[e].clone( );
+    }
+
+    /**
+     * @param e indice de una arista curva
+     * @return centro del arco de la arista, como {@link Edge#getCenter()}
+     */
+    public Point2D getCenter( int e )
+    {
+        return ( Point2D ) this.centers[e].clone( );
+    }
+
+    /**
+     * Grado de v contando los bucles dos veces, como {@link Graph#getDegree(Vertex)}.
+     * Complejidad: O(1) en un grafo dirigido, O(grado de v) en uno no dirigido
+     * @param v indice del vertice
+     * @return numero de extremos de arista en v
+     */
+    public int getDegree( int v )
+    {
+        if ( this.directed )
+            return this.getOutDegree( v ) + this.getInDegree( v );
+
+        // la adyacencia no dirigida tiene los bucles una sola vez
+        int degree = this.getOutDegree( v );
+        for ( int i = this.getOutStart( v ); i < this.getOutEnd( v ); i++ )
+            if ( this.outTargets[i] == v )
+                degree++;
+        return degree;
+    }
+
+    /**
+     * Grado maximo contando los bucles dos veces, como {@link Graph#getMaximumDegree()}.
+     * Complejidad: O(|V|) en un grafo dirigido, O(|V|+|E|) en uno no dirigido
+     * @return grado maximo, 0 si no hay vertices
+     */
+    public int getMaximumDegree( )
+    {
+        int maximum = 0;
+        for ( int v = 0; v < this.vertices.length; v++ )
+            maximum = Math.max( maximum, this.getDegree( v ) );
+        return maximum;
+    }
+}
@@ -0,0 +1,497 @@
+/**
+ * ParallelComponentsFinder.java
+ */
+package pfc.utilities.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Componentes conexas de grafos grandes calculadas en paralelo sobre la copia indexada
+ * del grafo ({@link IndexedGraph}), en los hilos de un {@link ForkJoinPool} con el
+ * paralelismo indicado.
+ * <p/>
+ * Las componentes debilmente conexas se calculan con un union-find sin cerrojos: cada
+ * raiz apunta al vertice de menor indice con el que se une mediante compare-and-set, y
+ * las busquedas acortan los caminos a la mitad. Cada hilo une las aristas de un rango
+ * de vertices, y la raiz de cada componente es su vertice de menor indice.
+ * <p/>
+ * Las componentes fuertemente conexas se calculan con el algoritmo forward-backward:
+ * en cada particion se podan los vertices sin predecesores o sin sucesores dentro de
+ * ella, que son componentes de un solo vertice; los vertices alcanzables desde un
+ * pivote y que lo alcanzan forman su componente, y el resto se divide en tres
+ * particiones independientes que se procesan en paralelo.
+ * <p/>
+ * Las componentes se devuelven ordenadas por su vertice de menor indice, y los vertices
+ * de cada una en el orden de {@code graph.vertices}.
+ * Complejidad: O((|V|+|E|) * alpha(|V|)) para las debilmente conexas, y O(|V|*|E|) en
+ * el peor caso para las fuertemente conexas, O((|V|+|E|) * log|V|) en la practica
+ * @see "L. Fleischer, B. Hendrickson and A. Pinar, On identifying strongly connected components in parallel (2000)"
+ * @author walber
+ *
+ * UMLGraph
+ * @depend - - - Graph
+ * @depend - - - Vertex
+ * @depend - - - IndexedGraph
+ */
+public class ParallelComponentsFinder
+{
+    // vertices por tarea sin dividir en el union-find
+    private static final int    GRAIN = 4096;
+    // las particiones menores se procesan en el hilo que las crea
+    private static final int    PARTITION_GRAIN = 1024;
+
+    private final int           parallelism;
+
+    /**
+     * @param parallelism numero de hilos
+     */
+    public ParallelComponentsFinder( int parallelism )
+    {
+        if ( parallelism < 1 )
+            throw new IllegalArgumentException( "parallelism < 1" );
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param graph Graph
+     * @return componentes debilmente conexas
+     */
+    public Collection<Collection<Vertex>> findWeaklyConnectedComponents( Graph graph )
+    {
+        IndexedGraph indexed = new IndexedGraph( graph );
+        return this.group( indexed, this.getWeakComponents( indexed ) );
+    }
+
+    /**
+     * @param graph Graph
+     * @return componentes fuertemente conexas; si el grafo no es dirigido, las conexas
+     */
+    public Collection<Collection<Vertex>> findStronglyConnectedComponents( Graph graph )
+    {
+        IndexedGraph indexed = new IndexedGraph( graph );
+        return this.group( indexed, this.getStrongComponents( indexed ) );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @return para cada vertice, el indice del vertice de menor indice de su componente
+     * debilmente conexa
+     */
+    public int[ ] getWeakComponents( final IndexedGraph graph )
+    {
+        final int n = graph.getVertexCount( );
+        final AtomicIntegerArray parents = new AtomicIntegerArray( n );
+        for ( int v = 0; v < n; v++ )
+            parents.set( v, v );
+
+        this.invoke( new UnionTask( graph, parents, 0, n ) );
+
+        int[ ] components = new int[n];
+        for ( int v = 0; v < n; v++ )
+            components[v] = find( parents, v );
+        return components;
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @return para cada vertice, el indice de un vertice de su componente fuertemente
+     * conexa, el mismo para todos los de la componente
+     */
+    public int[ ] getStrongComponents( IndexedGraph graph )
+    {
+        if ( graph.isDirected( ) == false )
+            return this.getWeakComponents( graph );
+
+        int n = graph.getVertexCount( );
+        Partitions partitions = new Partitions( graph );
+        int[ ] vertices = new int[n];
+        for ( int v = 0; v < n; v++ )
+            vertices[v] = v;
+        this.invoke( new PartitionTask( partitions, vertices, partitions.newColor( vertices ) ) );
+        return partitions.components;
+    }
+
+    private void invoke( RecursiveAction task )
+    {
+        ForkJoinPool pool = new ForkJoinPool( this.parallelism );
+        try
+        {
+            pool.invoke( task );
+        }
+        finally
+        {
+            pool.shutdown( );
+        }
+    }
+
+    /**
+     * Agrupar los vertices por componente, en orden de indice.
+     */
+    private Collection<Collection<Vertex>> group( IndexedGraph graph, int[ ] components )
+    {
+        int n = graph.getVertexCount( );
+        // posicion en el resultado de la componente de cada representante
+        int[ ] positions = new int[n];
+        for ( int v = 0; v < n; v++ )
+            positions[v] = -1;
+        List<Collection<Vertex>> result = new ArrayList<Collection<Vertex>>( );
+        for ( int v = 0; v < n; v++ )
+        {
+            int component = components[v];
+            if ( positions[component] < 0 )
+            {
+                positions[component] = result.size( );
+                result.add( new LinkedList<Vertex>( ) );
+            }
+            result.get( positions[component] ).add( graph.getVertex( v ) );
+        }
+        return result;
+    }
+
+    /**
+     * Raiz del conjunto de v, apuntando cada vertice del camino a su abuelo.
+     */
+    private static int find( AtomicIntegerArray parents, int v )
+    {
+        while ( true )
+        {
+            int parent = parents.get( v );
+            if ( parent == v )
+                return v;
+            int grandparent = parents.get( parent );
+            if ( grandparent != parent )
+                parents.compareAndSet( v, parent, grandparent );
+            v = parent;
+        }
+    }
+
+    /**
+     * Unir los conjuntos de a y b colgando la raiz mayor de la menor.
+     */
+    private static void union( AtomicIntegerArray parents, int a, int b )
+    {
+        while ( true )
+        {
+            a = find( parents, a );
+            b = find( parents, b );
+            if ( a == b )
+                return;
+            if ( a < b )
+            {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            // falla si otro hilo ha colgado a mientras tanto, y se vuelve a intentar
+            if ( parents.compareAndSet( a, a, b ) )
+                return;
+        }
+    }
+
+    /**
+     * Unir los extremos de las aristas de salida de los vertices [from, to), dividiendo
+     * el rango mientras sea grande.
+     */
+    private static class UnionTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final IndexedGraph          graph;
+        private final AtomicIntegerArray    parents;
+        private final int                   from;
+        private final int                   to;
+
+        UnionTask( IndexedGraph graph, AtomicIntegerArray parents, int from, int to )
+        {
+            this.graph = graph;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute( )
+        {
+            if ( this.to - this.from > GRAIN )
+            {
+                int middle = ( this.from + this.to ) >>> 1;
+                invokeAll( new UnionTask( this.graph, this.parents, this.from, middle ),
+                        new UnionTask( this.graph, this.parents, middle, this.to ) );
+                return;
+            }
+
+            boolean directed = this.graph.isDirected( );
+            for ( int v = this.from; v < this.to; v++ )
+                for ( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); i++ )
+                {
+                    int w = this.graph.getOutTarget( i );
+                    // en un grafo no dirigido cada arista esta en la adyacencia de sus dos extremos
+                    if ( w != v && ( directed || v < w ) )
+                        union( this.parents, v, w );
+                }
+        }
+    }
+
+    /**
+     * Estado compartido del algoritmo forward-backward. Cada particion tiene un color
+     * que no se reutiliza, y cada tarea solo modifica los vertices de su particion.
+     */
+    private static class Partitions
+    {
+        // color de los vertices ya asignados a una componente
+        private static final int    DONE = -1;
+
+        private final IndexedGraph  graph;
+        private final AtomicInteger colors = new AtomicInteger( );
+        private final int[ ]        color;
+        private final int[ ]        components;
+        private final int[ ]        forward;
+        private final int[ ]        backward;
+        private final int[ ]        inDegree;
+        private final int[ ]        outDegree;
+
+        Partitions( IndexedGraph graph )
+        {
+            int n = graph.getVertexCount( );
+            this.graph = graph;
+            this.color = new int[n];
+            this.components = new int[n];
+            // marcas de los recorridos: el color de la particion que los ha alcanzado
+            this.forward = new int[n];
+            this.backward = new int[n];
+            this.inDegree = new int[n];
+            this.outDegree = new int[n];
+        }
+
+        int newColor( int[ ] vertices )
+        {
+            int c = this.colors.incrementAndGet( );
+            for ( int v : vertices )
+                this.color[v] = c;
+            return c;
+        }
+
+        /**
+         * Podar los vertices sin predecesores o sin sucesores en la particion.
+         * @return los vertices que quedan
+         */
+        int[ ] trim( int[ ] vertices, int c )
+        {
+            int[ ] queue = new int[vertices.length];
+            int tail = 0;
+            for ( int v : vertices )
+            {
+                this.inDegree[v] = this.countNeighbors( v, c, false );
+                this.outDegree[v] = this.countNeighbors( v, c, true );
+            }
+            for ( int v : vertices )
+                if ( this.inDegree[v] == 0 || this.outDegree[v] == 0 )
+                    tail = this.done( v, queue, tail );
+            for ( int head = 0; head < tail; head++ )
+            {
+                int v = queue[head];
+                for ( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); i++ )
+                {
+                    int w = this.graph.getOutTarget( i );
+                    if ( this.color[w] == c && --this.inDegree[w] == 0 )
+                        tail = this.done( w, queue, tail );
+                }
+                for ( int i = this.graph.getInStart( v ); i < this.graph.getInEnd( v ); i++ )
+                {
+                    int w = this.graph.getInSource( i );
+                    if ( this.color[w] == c && --this.outDegree[w] == 0 )
+                        tail = this.done( w, queue, tail );
+                }
+            }
+            return this.select( vertices, c );
+        }
+
+        private int countNeighbors( int v, int c, boolean out )
+        {
+            int count = 0;
+            if ( out )
+            {
+                for ( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); i++ )
+                    if ( this.graph.getOutTarget( i ) != v && this.color[this.graph.getOutTarget( i )] == c )
+                        count++;
+            }
+            else
+            {
+                for ( int i = this.graph.getInStart( v ); i < this.graph.getInEnd( v ); i++ )
+                    if ( this.graph.getInSource( i ) != v && this.color[this.graph.getInSource( i )] == c )
+                        count++;
+            }
+            return count;
+        }
+
+        private int done( int v, int[ ] queue, int tail )
+        {
+            this.color[v] = DONE;
+            this.components[v] = v;
+            queue[tail] = v;
+            return tail + 1;
+        }
+
+        /**
+         * Marcar con c los vertices de la particion alcanzables desde pivot.
+         */
+        void search( int pivot, int c, boolean out, int[ ] queue )
+        {
+            int[ ] marks = out ? this.forward : this.backward;
+            int tail = 0;
+            marks[pivot] = c;
+            queue[tail++] = pivot;
+            for ( int head = 0; head < tail; head++ )
+            {
+                int v = queue[head];
+                int start = out ? this.graph.getOutStart( v ) : this.graph.getInStart( v );
+                int end = out ? this.graph.getOutEnd( v ) : this.graph.getInEnd( v );
+                for ( int i = start; i < end; i++ )
+                {
+                    int w = out ? this.graph.getOutTarget( i ) : this.graph.getInSource( i );
+                    if ( this.color[w] == c && marks[w] != c )
+                    {
+                        marks[w] = c;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return los vertices de la lista que tienen el color c
+         */
+        int[ ] select( int[ ] vertices, int c )
+        {
+            int count = 0;
+            for ( int v : vertices )
+                if ( this.color[v] == c )
+                    count++;
+            int[ ] selected = new int[count];
+            count = 0;
+            for ( int v : vertices )
+                if ( this.color[v] == c )
+                    selected[count++] = v;
+            return selected;
+        }
+    }
+
+    /**
+     * Componentes fuertemente conexas de una particion. Las particiones pequenas que
+     * resultan se procesan en la misma tarea con una pila, y las grandes en otras tareas.
+     */
+    private static class PartitionTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Partitions    partitions;
+        private final int[ ]        vertices;
+        private final int           color;
+
+        PartitionTask( Partitions partitions, int[ ] vertices, int color )
+        {
+            this.partitions = partitions;
+            this.vertices = vertices;
+            this.color = color;
+        }
+
+        @Override
+        protected void compute( )
+        {
+            Deque<int[ ]> pending = new ArrayDeque<int[ ]>( );
+            Deque<Integer> pendingColors = new ArrayDeque<Integer>( );
+            List<PartitionTask> forked = new ArrayList<PartitionTask>( );
+            pending.push( this.vertices );
+            pendingColors.push( this.color );
+            while ( pending.isEmpty( ) == false )
+            {
+                int[ ] vertices = pending.pop( );
+                int c = pendingColors.pop( );
+                for ( int[ ] part : this.split( vertices, c ) )
+                {
+                    int partColor = this.partitions.newColor( part );
+                    if ( part.length >= PARTITION_GRAIN )
+                    {
+                        PartitionTask task = new PartitionTask( this.partitions, part, partColor );
+                        task.fork( );
+                        forked.add( task );
+                    }
+                    else
+                    {
+                        pending.push( part );
+                        pendingColors.push( partColor );
+                    }
+                }
+            }
+            for ( PartitionTask task : forked )
+                task.join( );
+        }
+
+        /**
+         * Separar la componente de un pivote.
+         * @return las particiones que quedan: alcanzables solo desde el pivote, que solo
+         * lo alcanzan, y el resto
+         */
+        private List<int[ ]> split( int[ ] vertices, int c )
+        {
+            List<int[ ]> parts = new ArrayList<int[ ]>( 3 );
+            int[ ] remaining = this.partitions.trim( vertices, c );
+            if ( remaining.length == 0 )
+                return parts;
+
+            int pivot = remaining[remaining.length / 2];
+            int[ ] queue = new int[remaining.length];
+            this.partitions.search( pivot, c, true, queue );
+            this.partitions.search( pivot, c, false, queue );
+
+            int forwardCount = 0, backwardCount = 0, restCount = 0;
+            for ( int v : remaining )
+            {
+                boolean isForward = this.partitions.forward[v] == c;
+                boolean isBackward = this.partitions.backward[v] == c;
+                if ( isForward && isBackward )
+                {
+                    this.partitions.color[v] = Partitions.DONE;
+                    this.partitions.components[v] = pivot;
+                }
+                else if ( isForward )
+                    queue[forwardCount++] = v;
+                else if ( isBackward )
+                    backwardCount++;
+                else
+                    restCount++;
+            }
+            int[ ] forward = new int[forwardCount];
+            System.arraycopy( queue, 0, forward, 0, forwardCount );
+            int[ ] backward = new int[backwardCount];
+            int[ ] rest = new int[restCount];
+            backwardCount = 0;
+            restCount = 0;
+            for ( int v : remaining )
+                if ( this.partitions.color[v] == c && this.partitions.forward[v] != c )
+                {
+                    if ( this.partitions.backward[v] == c )
+                        backward[backwardCount++] = v;
+                    else
+                        rest[restCount++] = v;
+                }
+            for ( int[ ] part : new int[ ][ ] { forward, backward, rest } )
+                if ( part.length > 0 )
+                    parts.add( part );
+            return parts;
+        }
+    }
+}
@@ -18,23 +18,21 @@ import pfc.utilities.GeometryUtilities;
  * @depend - - - Graph
  * @depend - - - Edge
  * @depend - - - GeometryUtilities
+ * @depend - - - CrossingDetector
  */
 public class PlanarEmbeddingTester
 {
     /**
-     * Determinar si un grafo esta dibujado en el plano de forma planar.
-     * Complejidad: O(|E|*|E|)
+     * Determinar si un grafo esta dibujado en el plano de forma planar,
+     * con el barrido de {@link CrossingDetector} que termina en el primer cruce.
+     * Complejidad: O(|E| log |E|) para las aristas rectas y las polilineas
      * 
      * @param graph Graph
      * @return boolean si el grafo dado tiene un planar embedding.
      */
     public static boolean isPlanarEmbedding( Graph graph )
     {
-        for ( Edge e : graph.edges )
-            if ( keepPlanarEmbeddingEdge( graph, e ) == false )
-                return false;
-
-        return true;
+        return CrossingDetector.hasCrossings( graph ) == false;
     }
 
     /**
@@ -0,0 +1,789 @@
+/**
+ * PlanarityTester.java
+ */
+package pfc.utilities.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Test de planaridad combinatorio (left-right planarity test de de Fraysseix y
+ * Rosenstiehl, en la version de Brandes) que, si el grafo es planar, construye tambien
+ * un sistema de rotaciones: para cada vertice, el orden circular de sus vecinos en un
+ * embedding planar. A diferencia de {@link PlanarEmbeddingTester} no depende de las
+ * coordenadas del dibujo, solo de la estructura del grafo.
+ * <p/>
+ * La orientacion de las aristas no se tiene en cuenta, y los bucles y las aristas
+ * multiples se ignoran. El algoritmo consta de tres recorridos en profundidad: el primero
+ * orienta las aristas y calcula los lowpoints, el segundo comprueba las restricciones
+ * izquierda-derecha entre las aristas de retroceso y el tercero construye las rotaciones
+ * a partir del lado asignado a cada arista. Los tres son iterativos
+ * ({@link DepthFirstSearch}) y trabajan sobre arrays de enteros.
+ * <p/>
+ * Si se indican dos vertices s y t, se comprueba el grafo con la arista (s,t) anadida, de
+ * modo que en el embedding s y t comparten una cara, y la rotacion de s empieza justo
+ * despues de t en el sentido de las agujas del reloj. Recorriendo las caras como
+ * {@link pfc.models.algorithms.DualGraph} desde s, la primera cara es la que contiene a
+ * s y a t, que se toma como cara externa.
+ * Complejidad: O(|V|+|E|)
+ * @see "U. Brandes, The left-right planarity test (2009)"
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - DepthFirstSearch
+ * @depend - - - Graph
+ * @depend - - - Vertex
+ */
+public class PlanarityTester
+{
+    private final IndexedGraph  graph;
+    private final int           n;
+    private final boolean       planar;
+
+    // aristas simples no dirigidas; la arista e tiene los dardos 2e (a->b) y 2e+1 (b->a)
+    private int                 m;
+    private int[ ]              endsA;
+    private int[ ]              endsB;
+    private int                 virtualEdge = -1;
+
+    // orientacion: dardo orientado de cada arista y dardo del padre de cada vertice
+    private int[ ]              oriented;
+    private int[ ]              parentEdge;
+    private int[ ]              height;
+    private int[ ]              lowpt;
+    private int[ ]              lowpt2;
+    private int[ ]              nesting;
+
+    // aristas orientadas que salen de cada vertice, ordenadas
+    private int[ ]              outStart;
+    private int[ ]              outDarts;
+
+    // pila de pares de conflicto: intervalos izquierdo y derecho [low, high]
+    private int[ ]              ref;
+    private int[ ]              side;
+    private int[ ]              lowptEdge;
+    private int[ ]              stackBottom;
+    private int[ ]              leftLow;
+    private int[ ]              leftHigh;
+    private int[ ]              rightLow;
+    private int[ ]              rightHigh;
+    private int[ ]              pairIds;
+    private int                 size;
+    private int                 nextPairId;
+    private boolean             failed;
+
+    // embedding: lista circular de dardos alrededor de cada vertice
+    private int[ ]              clockwise;
+    private int[ ]              counterClockwise;
+    private int[ ]              first;
+    private int[ ]              leftRef;
+    private int[ ]              rightRef;
+
+    // rotaciones finales en formato CSR
+    private int[ ]              rotationStart;
+    private int[ ]              rotations;
+
+    /**
+     * @param graph Graph
+     */
+    public PlanarityTester( Graph graph )
+    {
+        this( new IndexedGraph( graph ) );
+    }
+
+    /**
+     * @param graph Graph
+     * @param s Vertex que debe compartir cara con t
+     * @param t Vertex
+     */
+    public PlanarityTester( Graph graph, Vertex s, Vertex t )
+    {
+        this( new IndexedGraph( graph ), s, t );
+    }
+
+    private PlanarityTester( IndexedGraph graph, Vertex s, Vertex t )
+    {
+        this( graph, graph.indexOf( s ), graph.indexOf( t ) );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     */
+    public PlanarityTester( IndexedGraph graph )
+    {
+        this( graph, -1, -1 );
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @param s indice del vertice que debe compartir cara con t, -1 si no se exige
+     * @param t indice del vertice
+     */
+    public PlanarityTester( IndexedGraph graph, int s, int t )
+    {
+        this.graph = graph;
+        this.n = graph.getVertexCount( );
+        this.collectEdges( s, t );
+
+        // un grafo planar simple tiene como mucho 3|V|-6 aristas
+        if ( this.n > 2 && this.m > 3 * this.n - 6 )
+        {
+            this.planar = false;
+            return;
+        }
+
+        this.orient( );
+        this.sortOutDarts( this.nesting, 0 );
+        this.planar = this.test( );
+        if ( this.planar )
+            this.embed( s, t );
+
+        // liberar las estructuras intermedias
+        this.lowpt = this.lowpt2 = this.nesting = this.ref = this.side = this.lowptEdge = null;
+        this.stackBottom = this.leftLow = this.leftHigh = this.rightLow = this.rightHigh = this.pairIds = null;
+        this.clockwise = this.counterClockwise = this.first = this.leftRef = this.rightRef = null;
+    }
+
+    /**
+     * Aristas simples del grafo sin orientacion, mas la arista virtual (s,t) si no existe.
+     */
+    private void collectEdges( int s, int t )
+    {
+        int capacity = this.graph.getEdgeCount( ) + 1;
+        this.endsA = new int[capacity];
+        this.endsB = new int[capacity];
+        int[ ] mark = new int[this.n];
+        Arrays.fill( mark, -1 );
+        for ( int v = 0; v < this.n; v++ )
+        {
+            for ( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); i++ )
+                this.addEdge( v, this.graph.getOutTarget( i ), mark );
+            if ( this.graph.isDirected( ) )
+                for ( int i = this.graph.getInStart( v ); i < this.graph.getInEnd( v ); i++ )
+                    this.addEdge( v, this.graph.getInSource( i ), mark );
+        }
+
+        if ( s >= 0 && t >= 0 && s != t && this.findEdge( s, t ) == -1 )
+        {
+            this.virtualEdge = this.m;
+            this.endsA[this.m] = s;
+            this.endsB[this.m] = t;
+            this.m++;
+        }
+    }
+
+    private void addEdge( int v, int w, int[ ] mark )
+    {
+        // cada par {v,w} se anade una vez, desde el menor de los dos
+        if ( v < w && mark[w] != v )
+        {
+            mark[w] = v;
+            this.endsA[this.m] = v;
+            this.endsB[this.m] = w;
+            this.m++;
+        }
+    }
+
+    private int findEdge( int s, int t )
+    {
+        for ( int e = 0; e < this.m; e++ )
+            if ( ( this.endsA[e] == s && this.endsB[e] == t ) || ( this.endsA[e] == t && this.endsB[e] == s ) )
+                return e;
+        return -1;
+    }
+
+    private int source( int dart )
+    {
+        return ( dart & 1 ) == 0 ? this.endsA[dart >> 1] : this.endsB[dart >> 1];
+    }
+
+    private int target( int dart )
+    {
+        return ( dart & 1 ) == 0 ? this.endsB[dart >> 1] : this.endsA[dart >> 1];
+    }
+
+    /**
+     * Primer recorrido: orientar las aristas (del arbol hacia abajo, de retroceso hacia
+     * arriba) y calcular lowpt, lowpt2 y la profundidad de anidamiento de cada arista.
+     */
+    private void orient( )
+    {
+        final int[ ] start = new int[this.n + 1];
+        for ( int e = 0; e < this.m; e++ )
+        {
+            start[this.endsA[e] + 1]++;
+            start[this.endsB[e] + 1]++;
+        }
+        for ( int v = 0; v < this.n; v++ )
+            start[v + 1] += start[v];
+        final int[ ] darts = new int[2 * this.m];
+        int[ ] next = new int[this.n];
+        for ( int d = 0; d < 2 * this.m; d++ )
+        {
+            int v = this.source( d );
+            darts[start[v] + next[v]++] = d;
+        }
+
+        this.oriented = new int[this.m];
+        Arrays.fill( this.oriented, -1 );
+        this.parentEdge = new int[this.n];
+        this.height = new int[this.n];
+        this.lowpt = new int[this.m];
+        this.lowpt2 = new int[this.m];
+        this.nesting = new int[this.m];
+
+        new DepthFirstSearch( this.n )
+        {
+            @Override
+            protected int getDegree( int v )
+            {
+                return start[v + 1] - start[v];
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k )
+            {
+                return target( darts[start[v] + k] );
+            }
+
+            @Override
+            protected int getEdge( int v, int k )
+            {
+                return darts[start[v] + k];
+            }
+
+            @Override
+            protected void preVisit( int v, int parent, int edge )
+            {
+                parentEdge[v] = edge;
+                height[v] = parent == -1 ? 0 : height[parent] + 1;
+            }
+
+            @Override
+            protected boolean followEdge( int v, int w, int edge )
+            {
+                // arista del arbol
+                oriented[edge >> 1] = edge;
+                lowpt[edge >> 1] = height[v];
+                lowpt2[edge >> 1] = height[v];
+                return true;
+            }
+
+            @Override
+            protected void treeEdgeFinished( int v, int w, int edge )
+            {
+                finishEdge( v, edge );
+            }
+
+            @Override
+            protected void backEdge( int v, int w, int edge )
+            {
+                // las aristas ya orientadas (la del padre y las que suben desde descendientes) se ignoran
+                if ( oriented[edge >> 1] != -1 )
+                    return;
+                oriented[edge >> 1] = edge;
+                lowpt[edge >> 1] = height[w];
+                lowpt2[edge >> 1] = height[v];
+                finishEdge( v, edge );
+            }
+        }.searchAll( );
+    }
+
+    /**
+     * Profundidad de anidamiento de la arista orientada que sale de v y actualizacion de
+     * los lowpoints de la arista del padre de v.
+     */
+    private void finishEdge( int v, int dart )
+    {
+        int e = dart >> 1;
+        this.nesting[e] = 2 * this.lowpt[e];
+        // arista cordal
+        if ( this.lowpt2[e] < this.height[v] )
+            this.nesting[e]++;
+
+        if ( this.parentEdge[v] == -1 )
+            return;
+        int p = this.parentEdge[v] >> 1;
+        if ( this.lowpt[e] < this.lowpt[p] )
+        {
+            this.lowpt2[p] = Math.min( this.lowpt[p], this.lowpt2[e] );
+            this.lowpt[p] = this.lowpt[e];
+        }
+        else if ( this.lowpt[e] > this.lowpt[p] )
+            this.lowpt2[p] = Math.min( this.lowpt2[p], this.lowpt[e] );
+        else
+            this.lowpt2[p] = Math.min( this.lowpt2[p], this.lowpt2[e] );
+    }
+
+    /**
+     * Ordenar las aristas orientadas que salen de cada vertice segun la clave dada,
+     * con una ordenacion por cuentas: O(|V|+|E|).
+     * @param keys clave de cada arista
+     * @param offset desplazamiento para que las claves no sean negativas
+     */
+    private void sortOutDarts( int[ ] keys, int offset )
+    {
+        int range = 2 * offset + 2 * this.n + 2;
+        int[ ] buckets = new int[range + 1];
+        for ( int e = 0; e < this.m; e++ )
+            buckets[keys[e] + offset + 1]++;
+        for ( int k = 0; k < range; k++ )
+            buckets[k + 1] += buckets[k];
+        int[ ] sorted = new int[this.m];
+        for ( int e = 0; e < this.m; e++ )
+            sorted[buckets[keys[e] + offset]++] = e;
+
+        this.outStart = new int[this.n + 1];
+        for ( int e = 0; e < this.m; e++ )
+            this.outStart[this.source( this.oriented[e] ) + 1]++;
+        for ( int v = 0; v < this.n; v++ )
+            this.outStart[v + 1] += this.outStart[v];
+        this.outDarts = new int[this.m];
+        int[ ] next = new int[this.n];
+        for ( int i = 0; i < this.m; i++ )
+        {
+            int dart = this.oriented[sorted[i]];
+            int v = this.source( dart );
+            this.outDarts[this.outStart[v] + next[v]++] = dart;
+        }
+    }
+
+    /**
+     * Segundo recorrido: comprobar las restricciones izquierda-derecha.
+     * @return {@code true} si el grafo es planar
+     */
+    private boolean test( )
+    {
+        this.ref = new int[this.m];
+        this.side = new int[this.m];
+        this.lowptEdge = new int[this.m];
+        this.stackBottom = new int[this.m];
+        Arrays.fill( this.ref, -1 );
+        Arrays.fill( this.side, 1 );
+        this.leftLow = new int[this.m + 1];
+        this.leftHigh = new int[this.m + 1];
+        this.rightLow = new int[this.m + 1];
+        this.rightHigh = new int[this.m + 1];
+        this.pairIds = new int[this.m + 1];
+        this.size = 0;
+        this.failed = false;
+
+        new DepthFirstSearch( this.n )
+        {
+            @Override
+            protected int getDegree( int v )
+            {
+                // al encontrar un conflicto se deshace el recorrido sin mirar mas aristas
+                return failed ? 0 : outStart[v + 1] - outStart[v];
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k )
+            {
+                return target( outDarts[outStart[v] + k] );
+            }
+
+            @Override
+            protected int getEdge( int v, int k )
+            {
+                return outDarts[outStart[v] + k];
+            }
+
+            @Override
+            protected boolean followEdge( int v, int w, int edge )
+            {
+                stackBottom[edge >> 1] = topPair( );
+                return true;
+            }
+
+            @Override
+            protected void treeEdgeFinished( int v, int w, int edge )
+            {
+                if ( failed == false )
+                    integrateReturnEdges( v, edge );
+            }
+
+            @Override
+            protected void backEdge( int v, int w, int edge )
+            {
+                int e = edge >> 1;
+                stackBottom[e] = topPair( );
+                lowptEdge[e] = e;
+                pushPair( -1, -1, e, e, nextPairId++ );
+                integrateReturnEdges( v, edge );
+            }
+
+            @Override
+            protected void postVisit( int v )
+            {
+                if ( failed == false && parentEdge[v] != -1 )
+                    removeBackEdges( parentEdge[v] );
+            }
+        }.searchAll( );
+        return this.failed == false;
+    }
+
+    private void integrateReturnEdges( int v, int dart )
+    {
+        int e = dart >> 1;
+        if ( this.lowpt[e] >= this.height[v] )
+            return;
+        int parent = this.parentEdge[v] >> 1;
+        if ( dart == this.outDarts[this.outStart[v]] )
+            this.lowptEdge[parent] = this.lowptEdge[e];
+        else if ( this.addConstraints( e, parent ) == false )
+            this.failed = true;
+    }
+
+    private int topPair( )
+    {
+        return this.size == 0 ? -1 : this.pairIds[this.size - 1];
+    }
+
+    private void pushPair( int ll, int lh, int rl, int rh, int id )
+    {
+        this.leftLow[this.size] = ll;
+        this.leftHigh[this.size] = lh;
+        this.rightLow[this.size] = rl;
+        this.rightHigh[this.size] = rh;
+        this.pairIds[this.size] = id;
+        this.size++;
+    }
+
+    private boolean conflicting( int low, int high, int e )
+    {
+        return ( low != -1 || high != -1 ) && this.lowpt[high] > this.lowpt[e];
+    }
+
+    private int lowest( int k )
+    {
+        if ( this.leftLow[k] == -1 && this.leftHigh[k] == -1 )
+            return this.lowpt[this.rightLow[k]];
+        if ( this.rightLow[k] == -1 && this.rightHigh[k] == -1 )
+            return this.lowpt[this.leftLow[k]];
+        return Math.min( this.lowpt[this.leftLow[k]], this.lowpt[this.rightLow[k]] );
+    }
+
+    /**
+     * Anadir las restricciones de la arista ei, hija de e.
+     * @return {@code false} si las restricciones no se pueden cumplir
+     */
+    private boolean addConstraints( int ei, int e )
+    {
+        int pll = -1, plh = -1, prl = -1, prh = -1;
+        // unir las aristas de retorno de ei en el intervalo derecho de P
+        do
+        {
+            this.size--;
+            int qll = this.leftLow[this.size], qlh = this.leftHigh[this.size];
+            int qrl = this.rightLow[this.size], qrh = this.rightHigh[this.size];
+            if ( qll != -1 || qlh != -1 )
+            {
+                int low = qll, high = qlh;
+                qll = qrl;
+                qlh = qrh;
+                qrl = low;
+                qrh = high;
+            }
+            if ( qll != -1 || qlh != -1 )
+                return false;
+            if ( this.lowpt[qrl] > this.lowpt[e] )
+            {
+                if ( prl == -1 && prh == -1 )
+                    prh = qrh;
+                else
+                    this.ref[prl] = qrh;
+                prl = qrl;
+            }
+            else
+                this.ref[qrl] = this.lowptEdge[e];
+        }
+        while ( this.topPair( ) != this.stackBottom[ei] );
+
+        // unir las aristas de retorno en conflicto de e1 .. ei-1 en el intervalo izquierdo de P
+        while ( this.size > 0
+                && ( this.conflicting( this.leftLow[this.size - 1], this.leftHigh[this.size - 1], ei )
+                || this.conflicting( this.rightLow[this.size - 1], this.rightHigh[this.size - 1], ei ) ) )
+        {
+            this.size--;
+            int qll = this.leftLow[this.size], qlh = this.leftHigh[this.size];
+            int qrl = this.rightLow[this.size], qrh = this.rightHigh[this.size];
+            if ( this.conflicting( qrl, qrh, ei ) )
+            {
+                int low = qll, high = qlh;
+                qll = qrl;
+                qlh = qrh;
+                qrl = low;
+                qrh = high;
+            }
+            if ( this.conflicting( qrl, qrh, ei ) )
+                return false;
+            if ( prl != -1 )
+                this.ref[prl] = qrh;
+            if ( qrl != -1 )
+                prl = qrl;
+            if ( pll == -1 && plh == -1 )
+                plh = qlh;
+            else
+                this.ref[pll] = qlh;
+            pll = qll;
+        }
+
+        if ( pll != -1 || plh != -1 || prl != -1 || prh != -1 )
+            this.pushPair( pll, plh, prl, prh, this.nextPairId++ );
+        return true;
+    }
+
+    /**
+     * Quitar de la pila las aristas de retroceso que terminan en el padre de la arista e.
+     * @param dart arista orientada del arbol
+     */
+    private void removeBackEdges( int dart )
+    {
+        int u = this.source( dart );
+        int e = dart >> 1;
+        while ( this.size > 0 && this.lowest( this.size - 1 ) == this.height[u] )
+        {
+            this.size--;
+            if ( this.leftLow[this.size] != -1 )
+                this.side[this.leftLow[this.size]] = -1;
+        }
+
+        if ( this.size > 0 )
+        {
+            // recortar los intervalos del par de la cima
+            int k = this.size - 1;
+            while ( this.leftHigh[k] != -1 && this.target( this.oriented[this.leftHigh[k]] ) == u )
+                this.leftHigh[k] = this.ref[this.leftHigh[k]];
+            if ( this.leftHigh[k] == -1 && this.leftLow[k] != -1 )
+            {
+                this.ref[this.leftLow[k]] = this.rightLow[k];
+                this.side[this.leftLow[k]] = -1;
+                this.leftLow[k] = -1;
+            }
+            while ( this.rightHigh[k] != -1 && this.target( this.oriented[this.rightHigh[k]] ) == u )
+                this.rightHigh[k] = this.ref[this.rightHigh[k]];
+            if ( this.rightHigh[k] == -1 && this.rightLow[k] != -1 )
+            {
+                this.ref[this.rightLow[k]] = this.leftLow[k];
+                this.side[this.rightLow[k]] = -1;
+                this.rightLow[k] = -1;
+            }
+        }
+
+        // el lado de e es el de la arista de retorno mas alta
+        if ( this.lowpt[e] < this.height[u] && this.size > 0 )
+        {
+            int hl = this.leftHigh[this.size - 1];
+            int hr = this.rightHigh[this.size - 1];
+            if ( hl != -1 && ( hr == -1 || this.lowpt[hl] > this.lowpt[hr] ) )
+                this.ref[e] = hl;
+            else
+                this.ref[e] = hr;
+        }
+    }
+
+    /**
+     * Lado definitivo de la arista e, resolviendo la cadena de referencias sin recursion.
+     */
+    private int sign( int e, int[ ] chain )
+    {
+        int length = 0;
+        int f = e;
+        while ( this.ref[f] != -1 )
+        {
+            chain[length++] = f;
+            f = this.ref[f];
+        }
+        while ( length > 0 )
+        {
+            int g = chain[--length];
+            this.side[g] *= this.side[this.ref[g]];
+            this.ref[g] = -1;
+        }
+        return this.side[e];
+    }
+
+    /**
+     * Tercer recorrido: construir las rotaciones.
+     */
+    private void embed( int s, int t )
+    {
+        int[ ] chain = new int[this.m];
+        int[ ] signed = new int[this.m];
+        for ( int e = 0; e < this.m; e++ )
+            signed[e] = this.sign( e, chain ) * this.nesting[e];
+        this.sortOutDarts( signed, 2 * this.n + 2 );
+
+        this.clockwise = new int[2 * this.m];
+        this.counterClockwise = new int[2 * this.m];
+        this.first = new int[this.n];
+        this.leftRef = new int[this.n];
+        this.rightRef = new int[this.n];
+        Arrays.fill( this.first, -1 );
+        // las aristas que salen de cada vertice, en orden de anidamiento con signo
+        for ( int v = 0; v < this.n; v++ )
+        {
+            int previous = -1;
+            for ( int i = this.outStart[v]; i < this.outStart[v + 1]; i++ )
+            {
+                if ( previous == -1 )
+                    this.insertFirst( v, this.outDarts[i] );
+                else
+                    this.insertAfter( previous, this.outDarts[i] );
+                previous = this.outDarts[i];
+            }
+        }
+
+        new DepthFirstSearch( this.n )
+        {
+            @Override
+            protected int getDegree( int v )
+            {
+                return outStart[v + 1] - outStart[v];
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k )
+            {
+                return target( outDarts[outStart[v] + k] );
+            }
+
+            @Override
+            protected int getEdge( int v, int k )
+            {
+                return outDarts[outStart[v] + k];
+            }
+
+            @Override
+            protected boolean followEdge( int v, int w, int edge )
+            {
+                // arista del arbol: v es el primero en la rotacion de w
+                insertFirst( w, edge ^ 1 );
+                leftRef[v] = edge;
+                rightRef[v] = edge;
+                return true;
+            }
+
+            @Override
+            protected void backEdge( int v, int w, int edge )
+            {
+                if ( side[edge >> 1] == 1 )
+                    insertAfter( rightRef[w], edge ^ 1 );
+                else
+                {
+                    insertBefore( leftRef[w], edge ^ 1 );
+                    leftRef[w] = edge ^ 1;
+                }
+            }
+        }.searchAll( );
+
+        this.collectRotations( s, t );
+    }
+
+    private void insertFirst( int v, int dart )
+    {
+        if ( this.first[v] == -1 )
+        {
+            this.clockwise[dart] = dart;
+            this.counterClockwise[dart] = dart;
+        }
+        else
+            this.insertBefore( this.first[v], dart );
+        this.first[v] = dart;
+    }
+
+    private void insertAfter( int reference, int dart )
+    {
+        int next = this.clockwise[reference];
+        this.clockwise[reference] = dart;
+        this.counterClockwise[dart] = reference;
+        this.clockwise[dart] = next;
+        this.counterClockwise[next] = dart;
+    }
+
+    private void insertBefore( int reference, int dart )
+    {
+        this.insertAfter( this.counterClockwise[reference], dart );
+    }
+
+    /**
+     * Pasar las listas circulares a formato CSR sin la arista virtual.
+     */
+    private void collectRotations( int s, int t )
+    {
+        if ( s >= 0 && t >= 0 && s != t )
+        {
+            // la rotacion de s empieza despues de la arista (s,t)
+            int e = this.virtualEdge != -1 ? this.virtualEdge : this.findEdge( s, t );
+            int dart = this.endsA[e] == s ? 2 * e : 2 * e + 1;
+            this.first[s] = this.clockwise[dart];
+        }
+
+        this.rotationStart = new int[this.n + 1];
+        this.rotations = new int[2 * this.m];
+        int count = 0;
+        for ( int v = 0; v < this.n; v++ )
+        {
+            this.rotationStart[v] = count;
+            int dart = this.first[v];
+            if ( dart == -1 )
+                continue;
+            do
+            {
+                if ( ( dart >> 1 ) != this.virtualEdge )
+                    this.rotations[count++] = this.target( dart );
+                dart = this.clockwise[dart];
+            }
+            while ( dart != this.first[v] );
+        }
+        this.rotationStart[this.n] = count;
+    }
+
+    /**
+     * @return {@code true} si el grafo es planar
+     */
+    public boolean isPlanar( )
+    {
+        return this.planar;
+    }
+
+    /**
+     * @param v indice del vertice en el {@link IndexedGraph}
+     * @return indices de los vecinos de v en el sentido de las agujas del reloj,
+     * {@code null} si el grafo no es planar
+     */
+    public int[ ] getRotation( int v )
+    {
+        if ( this.planar == false )
+            return null;
+        int[ ] rotation = new int[this.rotationStart[v + 1] - this.rotationStart[v]];
+        System.arraycopy( this.rotations, this.rotationStart[v], rotation, 0, rotation.length );
+        return rotation;
+    }
+
+    /**
+     * @param vertex Vertex
+     * @return vecinos de vertex en el sentido de las agujas del reloj, vacio si el vertice
+     * no pertenece al grafo, {@code null} si el grafo no es planar
+     */
+    public List<Vertex> getRotation( Vertex vertex )
+    {
+        if ( this.planar == false )
+            return null;
+        int v = this.graph.indexOf( vertex );
+        if ( v == -1 )
+            return Collections.emptyList( );
+        List<Vertex> rotation = new ArrayList<Vertex>( this.rotationStart[v + 1] - this.rotationStart[v] );
+        for ( int i = this.rotationStart[v]; i < this.rotationStart[v + 1]; i++ )
+            rotation.add( this.graph.getVertex( this.rotations[i] ) );
+        return rotation;
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * ReachabilityIndex.java
+ */
+package pfc.utilities.graph;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Indice de alcanzabilidad de un grafo dirigido aciclico: responde en O(1) si existe un
+ * camino de u a v. Se construye una vez sobre una copia {@link IndexedGraph}, por lo que
+ * deja de ser valido si el grafo cambia; {@link #get(Graph)} guarda el indice de cada grafo
+ * y lo vuelve a construir cuando cambia {@link Graph#getStructureVersion()}.
+ * <p/>
+ * Si cabe en la memoria indicada, cada vertice guarda un conjunto de bits con todos los
+ * vertices que alcanza, calculado en orden topologico inverso (O(|V|*|E|/64) en tiempo y
+ * |V|*|V|/8 bytes). Si no cabe, los vertices se descomponen en k cadenas (caminos
+ * disjuntos) y cada vertice guarda, para cada cadena, la primera posicion de la cadena
+ * que alcanza (O(k*|E|) en tiempo y 4*k*|V| bytes). Si tampoco cabe, o si el grafo tiene
+ * ciclos, no se construye el indice.
+ * <p/>
+ * {@link #lookup(Graph)} es la entrada de las consultas sueltas ({@link Graph#areConnected(Vertex, Vertex)},
+ * {@link DigraphTester#areConnected(Graph, Vertex, Vertex)}): solo construye el indice cuando
+ * ya se han hecho sobre la misma version del grafo tantas busquedas como cuesta construirlo.
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - TopologicalNumbering
+ * @depend - - - Graph
+ * @depend - - - Vertex
+ */
+public class ReachabilityIndex
+{
+    /**
+     * memoria maxima por defecto, en bytes
+     */
+    public static final long    DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * consultas minimas sobre una misma version del grafo antes de que {@link #lookup(Graph)}
+     * construya el indice
+     */
+    public static final int     MIN_QUERIES_BEFORE_BUILD = 8;
+
+    /**
+     * Indice de un grafo y version del grafo con la que se construyo, o consultas hechas
+     * sobre esa version mientras no se ha construido.
+     */
+    private static class CachedIndex
+    {
+        private int                 version;
+        private int                 queries;
+        private boolean             built;
+        private ReachabilityIndex   index;
+
+        private CachedIndex( int version )
+        {
+            this.version = version;
+        }
+    }
+
+    // los vertices del indice observan el grafo, asi que el valor no puede ser una referencia
+    // fuerte o la clave debil nunca se liberaria
+    private static final Map<Graph, SoftReference<CachedIndex>> CACHE = new WeakHashMap<Graph, SoftReference<CachedIndex>>( );
+
+    private final IndexedGraph  graph;
+    // conjuntos de bits, null si se usan cadenas
+    private final long[ ]       reach;
+    private final int           words;
+    // cadena de cada vertice, su posicion en ella y la primera posicion alcanzable de cada cadena
+    private final int[ ]        chains;
+    private final int[ ]        chainPositions;
+    private final int[ ]        labels;
+    private final int           chainCount;
+
+    private ReachabilityIndex( IndexedGraph graph, long[ ] reach, int words )
+    {
+        this.graph = graph;
+        this.reach = reach;
+        this.words = words;
+        this.chains = null;
+        this.chainPositions = null;
+        this.labels = null;
+        this.chainCount = 0;
+    }
+
+    private ReachabilityIndex( IndexedGraph graph, int[ ] chains, int[ ] chainPositions, int[ ] labels, int chainCount )
+    {
+        this.graph = graph;
+        this.reach = null;
+        this.words = 0;
+        this.chains = chains;
+        this.chainPositions = chainPositions;
+        this.labels = labels;
+        this.chainCount = chainCount;
+    }
+
+    /**
+     * Indice de la version actual del grafo, construido con {@link #DEFAULT_MEMORY_BUDGET}
+     * la primera vez y reutilizado hasta que el grafo cambia. Solo compensa cuando se hacen
+     * muchas consultas sobre el mismo grafo.
+     * @param graph grafo dirigido
+     * @return indice, {@code null} si el grafo tiene ciclos o el indice no cabe en memoria
+     */
+    public static ReachabilityIndex get( Graph graph )
+    {
+        int version = graph.getStructureVersion( );
+        synchronized ( CACHE )
+        {
+            SoftReference<CachedIndex> reference = CACHE.get( graph );
+            CachedIndex cached = reference == null ? null : reference.get( );
+            if ( cached != null && cached.version == version && cached.built )
+                return cached.index;
+        }
+
+        CachedIndex built = new CachedIndex( version );
+        built.built = true;
+        built.index = create( new IndexedGraph( graph ) );
+        synchronized ( CACHE )
+        {
+            CACHE.put( graph, new SoftReference<CachedIndex>( built ) );
+        }
+        return built.index;
+    }
+
+    /**
+     * Indice de la version actual del grafo para una consulta suelta. Si ya se construyo se
+     * reutiliza; si no, se cuenta la consulta y solo se construye con {@link #get(Graph)} cuando
+     * las consultas sobre esta version llegan a max({@link #MIN_QUERIES_BEFORE_BUILD}, |V|/64),
+     * que es cuando las busquedas ya han costado lo que cuesta construir los conjuntos de bits.
+     * Asi una consulta aislada, o las de un grafo que cambia entre consultas (como la de cada
+     * arista que se anade a un grafo sin ciclos), siguen costando una sola busqueda.
+     * @param graph grafo dirigido
+     * @return indice, {@code null} si todavia no compensa construirlo, si el grafo tiene ciclos
+     * o si el indice no cabe en memoria; en ese caso se hace la busqueda
+     */
+    public static ReachabilityIndex lookup( Graph graph )
+    {
+        int version = graph.getStructureVersion( );
+        synchronized ( CACHE )
+        {
+            SoftReference<CachedIndex> reference = CACHE.get( graph );
+            CachedIndex cached = reference == null ? null : reference.get( );
+            if ( cached == null )
+            {
+                cached = new CachedIndex( version );
+                CACHE.put( graph, new SoftReference<CachedIndex>( cached ) );
+            }
+            else if ( cached.version != version )
+            {
+                // se reutiliza la entrada para no crear una por cada cambio del grafo
+                cached.version = version;
+                cached.queries = 0;
+                cached.built = false;
+                cached.index = null;
+            }
+
+            if ( cached.built )
+                return cached.index;
+            if ( ++cached.queries < Math.max( MIN_QUERIES_BEFORE_BUILD, graph.vertices.size( ) / 64 ) )
+                return null;
+        }
+        return get( graph );
+    }
+
+    /**
+     * @param graph grafo dirigido
+     * @return indice con {@link #DEFAULT_MEMORY_BUDGET}, {@code null} si el grafo tiene ciclos
+     * o el indice no cabe en memoria
+     */
+    public static ReachabilityIndex create( IndexedGraph graph )
+    {
+        return create( graph, DEFAULT_MEMORY_BUDGET );
+    }
+
+    /**
+     * @param graph grafo dirigido
+     * @param memoryBudget memoria maxima del indice, en bytes
+     * @return indice, {@code null} si el grafo tiene ciclos o el indice no cabe en memoria
+     */
+    public static ReachabilityIndex create( IndexedGraph graph, long memoryBudget )
+    {
+        TopologicalNumbering numbering = new TopologicalNumbering( graph );
+        if ( numbering.isAcyclic( ) == false )
+            return null;
+
+        int n = graph.getVertexCount( );
+        int words = ( n + 63 ) / 64;
+        if ( 8L * n * words <= memoryBudget )
+            return createBitsets( graph, numbering, words );
+
+        // descomposicion voraz en cadenas siguiendo el orden topologico
+        int[ ] chains = new int[n];
+        int[ ] chainPositions = new int[n];
+        Arrays.fill( chains, -1 );
+        int k = 0;
+        for ( int p = 0; p < n; p++ )
+        {
+            int v = numbering.getOrdered( p );
+            if ( chains[v] != -1 )
+                continue;
+
+            int position = 0;
+            while ( v != -1 )
+            {
+                chains[v] = k;
+                chainPositions[v] = position++;
+                int next = -1;
+                for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ) && next == -1; i++ )
+                    if ( chains[graph.getOutTarget( i )] == -1 )
+                        next = graph.getOutTarget( i );
+                v = next;
+            }
+            k++;
+        }
+        if ( 4L * n * k > memoryBudget )
+            return null;
+
+        int[ ] labels = new int[n * k];
+        for ( int p = n - 1; p >= 0; p-- )
+        {
+            int v = numbering.getOrdered( p );
+            int row = v * k;
+            Arrays.fill( labels, row, row + k, Integer.MAX_VALUE );
+            labels[row + chains[v]] = chainPositions[v];
+            for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ); i++ )
+            {
+                int w = graph.getOutTarget( i ) * k;
+                for ( int c = 0; c < k; c++ )
+                    if ( labels[w + c] < labels[row + c] )
+                        labels[row + c] = labels[w + c];
+            }
+        }
+        return new ReachabilityIndex( graph, chains, chainPositions, labels, k );
+    }
+
+    private static ReachabilityIndex createBitsets( IndexedGraph graph, TopologicalNumbering numbering, int words )
+    {
+        int n = graph.getVertexCount( );
+        long[ ] reach = new long[n * words];
+        for ( int p = n - 1; p >= 0; p-- )
+        {
+            int v = numbering.getOrdered( p );
+            int row = v * words;
+            reach[row + ( v >>> 6 )] |= 1L << v;
+            for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ); i++ )
+            {
+                int w = graph.getOutTarget( i ) * words;
+                for ( int k = 0; k < words; k++ )
+                    reach[row + k] |= reach[w + k];
+            }
+        }
+        return new ReachabilityIndex( graph, reach, words );
+    }
+
+    /**
+     * @param u indice del vertice origen en el {@link IndexedGraph}
+     * @param v indice del vertice destino
+     * @return {@code true} si existe un camino de u a v (todo vertice se alcanza a si mismo)
+     */
+    public boolean reaches( int u, int v )
+    {
+        if ( this.reach != null )
+            return ( this.reach[u * this.words + ( v >>> 6 )] & ( 1L << v ) ) != 0;
+        return this.labels[u * this.chainCount + this.chains[v]] <= this.chainPositions[v];
+    }
+
+    /**
+     * @param from Vertex origen
+     * @param to Vertex destino
+     * @return {@code true} si existe un camino de from a to, {@code false} tambien si
+     * alguno de los vertices no pertenece al grafo
+     */
+    public boolean reaches( Vertex from, Vertex to )
+    {
+        int u = this.graph.indexOf( from );
+        int v = this.graph.indexOf( to );
+        if ( u == -1 || v == -1 )
+            return false;
+        return this.reaches( u, v );
+    }
+
+    /**
+     * @return {@code true} si el indice usa la descomposicion en cadenas
+     */
+    public boolean isCompressed( )
+    {
+        return this.reach == null;
+    }
+
+    /**
+     * @return memoria ocupada por el indice, en bytes
+     */
+    public long getMemorySize( )
+    {
+        if ( this.reach != null )
+            return 8L * this.reach.length;
+        return 4L * ( this.labels.length + this.chains.length + this.chainPositions.length );
+    }
+}
@@ -1,66 +1,378 @@
 package pfc.utilities.graph;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import pfc.models.Edge;
 import pfc.models.Graph;
-import pfc.models.Vertex;
 
 
 /**
- * 
+ * Matriz de distancias minimas entre todos los pares de vertices. Los vertices se
+ * identifican por su indice en {@code graph.vertices}.
+ * <p/>
+ * En grafos densos se usa Roy-Floyd-Warshall por bloques de {@link #BLOCK_SIZE} x
+ * {@link #BLOCK_SIZE} sobre una matriz plana: para cada bloque k se actualiza primero el
+ * bloque diagonal, despues los bloques de su fila y su columna, y por ultimo el resto,
+ * repartiendo los bloques independientes entre los hilos de
+ * {@link ForkJoinPool#commonPool()}.
+ * En grafos dispersos sin pesos negativos se hace una busqueda desde cada vertice
+ * (Dijkstra con monticulo binario, o en anchura si todos los pesos son iguales),
+ * repartiendo los origenes entre los hilos.
+ * Complejidad: O(|V|^3) con Roy-Floyd-Warshall, O(|V|*|E|*log|V|) con Dijkstra
  * @author walber
  *
  * UMLGraph
  * @depend - - - Graph
- * @depend - - - Edge
- * @depend - - - Vertex
+ * @depend - - - IndexedGraph
  */
 public class RoyFloydWarshallDistancesAlgorithm {
 
+    /**
+     * lado de los bloques de la matriz; un bloque de doubles ocupa 32 KB
+     */
+    public static final int BLOCK_SIZE = 64;
+
+    /**
+     * @param graph Graph
+     * @param weighted si se usan los pesos de las aristas, en otro caso todas pesan 1
+     * @return distancias[i][j] desde el vertice i al j, infinito si no hay camino
+     */
     public static double[ ][ ] getDistanceMatrix( Graph graph, boolean weighted )
     {
-        double[ ][ ] distances = new double[graph.vertices.size( )][graph.vertices.size( )];
-        
+        int n = graph.vertices.size( );
+        double[ ] flat = getDistances( new IndexedGraph( graph ), weighted );
+
+        double[ ][ ] distances = new double[n][n];
+        for( int i = 0; i < n; ++i )
+            System.arraycopy( flat, i * n, distances[i], 0, n );
+        return distances;
+    }
+
+    /**
+     * @param graph IndexedGraph
+     * @param weighted si se usan los pesos de las aristas, en otro caso todas pesan 1
+     * @return matriz de distancias por filas: la distancia del vertice i al j esta en la
+     * posicion {@code i * n + j}
+     */
+    public static double[ ] getDistances( IndexedGraph graph, boolean weighted )
+    {
+        int n = graph.getVertexCount( );
+        int m = graph.getEdgeCount( );
+
+        // pesos sin boxing, y si son todos iguales y no negativos
+        double[ ] weights = new double[m];
+        boolean uniform = true;
+        boolean negative = false;
+        for( int e = 0; e < m; ++e )
+        {
+            weights[e] = weighted ? graph.getEdge( e ).weight.get( ) : 1.0;
+            uniform &= ( weights[e] == weights[0] );
+            negative |= ( weights[e] < 0 );
+        }
+
+        double[ ] distances = new double[n * n];
+        if( n == 0 )
+            return distances;
+        if( negative == false && isSparse( n, m ) )
+            searchFromEverySource( graph, weights, uniform, distances );
+        else
+            blockedFloydWarshall( graph, weights, distances );
+        return distances;
+    }
+
+    /**
+     * Dijkstra desde cada vertice cuesta del orden de |V|*|E|*log|V| frente a |V|^3.
+     */
+    private static boolean isSparse( int n, int m )
+    {
+        int log = 32 - Integer.numberOfLeadingZeros( Math.max( n, 1 ) );
+        return 4L * m * log < ( long ) n * n;
+    }
+
+    private static void blockedFloydWarshall( IndexedGraph graph, double[ ] weights, double[ ] d )
+    {
+        int n = graph.getVertexCount( );
+
         // Initialize the distance matrix
-        for( int i = 0; i < graph.vertices.size( ); ++i )
-            for( int j = 0; j < graph.vertices.size( ); ++j )
-                distances[i][j] = ( i == j ? 0.0 : Double.POSITIVE_INFINITY );
-        
+        Arrays.fill( d, Double.POSITIVE_INFINITY );
+        for( int i = 0; i < n; ++i )
+            d[i * n + i] = 0.0;
+
         // Add non-loop edges to the distance matrix
-        Map<Vertex, Integer> indices = new HashMap<Vertex, Integer>( );
-        for( int i = 0; i < graph.vertices.size( ); ++i )
-            indices.put( graph.vertices.get( i ), i );
-        
-        for( Edge edge : graph.edges )
-            if( !edge.isLoop )
+        for( int from = 0; from < n; ++from )
+            for( int i = graph.getOutStart( from ); i < graph.getOutEnd( from ); ++i )
+            {
+                int to = graph.getOutTarget( i );
+                double weight = weights[graph.getOutEdge( i )];
+                if( to != from && weight < d[from * n + to] )
+                    d[from * n + to] = weight;
+            }
+
+        // Run the Roy-Floyd-Warshall algorithm block by block
+        int blocks = ( n + BLOCK_SIZE - 1 ) / BLOCK_SIZE;
+        List<BlockTask> tasks = new ArrayList<BlockTask>( blocks );
+        for( int kb = 0; kb < blocks; ++kb )
+        {
+            // bloque diagonal
+            updateBlock( d, n, kb, kb, kb );
+
+            // bloques de la fila y la columna de kb, que solo dependen del diagonal
+            tasks.clear( );
+            for( int b = 0; b < blocks; ++b )
+                if( b != kb )
+                {
+                    tasks.add( new BlockTask( d, n, kb, kb, b ) );
+                    tasks.add( new BlockTask( d, n, kb, b, kb ) );
+                }
+            runAll( tasks );
+
+            // resto de bloques, una fila de bloques por tarea
+            tasks.clear( );
+            for( int bi = 0; bi < blocks; ++bi )
+                if( bi != kb )
+                    tasks.add( new BlockTask( d, n, kb, bi, -1 ) );
+            runAll( tasks );
+        }
+    }
+
+    private static void runAll( final List<BlockTask> tasks )
+    {
+        if( tasks.isEmpty( ) )
+            return;
+        ForkJoinPool.commonPool( ).invoke( new RecursiveAction( )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute( )
             {
-                int from = indices.get( edge.from ), to = indices.get( edge.to );
-                
-                if( weighted )
+                invokeAll( tasks );
+            }
+        } );
+    }
+
+    /**
+     * Actualizar el bloque (bi,bj) con los caminos que pasan por los vertices del bloque kb.
+     */
+    private static void updateBlock( double[ ] d, int n, int kb, int bi, int bj )
+    {
+        int k0 = kb * BLOCK_SIZE, k1 = Math.min( n, k0 + BLOCK_SIZE );
+        int i0 = bi * BLOCK_SIZE, i1 = Math.min( n, i0 + BLOCK_SIZE );
+        int j0 = bj * BLOCK_SIZE, j1 = Math.min( n, j0 + BLOCK_SIZE );
+
+        for( int k = k0; k < k1; ++k )
+        {
+            int rowK = k * n;
+            for( int i = i0; i < i1; ++i )
+            {
+                int rowI = i * n;
+                double ik = d[rowI + k];
+                if( ik == Double.POSITIVE_INFINITY )
+                    continue;
+
+                for( int j = j0; j < j1; ++j )
                 {
-                    if( edge.weight.get( ) < distances[from][to] )
-                        distances[from][to] = edge.weight.get( );
-                    
-                    if( !edge.isDirected && edge.weight.get( ) < distances[to][from] )
-                        distances[to][from] = edge.weight.get( );
+                    double through = ik + d[rowK + j];
+                    if( through < d[rowI + j] )
+                        d[rowI + j] = through;
                 }
+            }
+        }
+    }
+
+    /**
+     * Actualizacion de un bloque, o de todos los bloques de una fila salvo el de la
+     * columna kb si {@code bj == -1}.
+     */
+    private static class BlockTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final double[ ] d;
+        private final int       n;
+        private final int       kb;
+        private final int       bi;
+        private final int       bj;
+
+        BlockTask( double[ ] d, int n, int kb, int bi, int bj )
+        {
+            this.d = d;
+            this.n = n;
+            this.kb = kb;
+            this.bi = bi;
+            this.bj = bj;
+        }
+
+        @Override
+        protected void compute( )
+        {
+            if( this.bj != -1 )
+            {
+                updateBlock( this.d, this.n, this.kb, this.bi, this.bj );
+                return;
+            }
+
+            int blocks = ( this.n + BLOCK_SIZE - 1 ) / BLOCK_SIZE;
+            for( int b = 0; b < blocks; ++b )
+                if( b != this.kb )
+                    updateBlock( this.d, this.n, this.kb, this.bi, b );
+        }
+    }
+
+    private static void searchFromEverySource( IndexedGraph graph, double[ ] weights, boolean uniform, double[ ] distances )
+    {
+        int n = graph.getVertexCount( );
+        ForkJoinPool.commonPool( ).invoke( new SourcesTask( graph, weights, uniform, distances, 0, n ) );
+    }
+
+    /**
+     * Busquedas desde los origenes [from, to), dividiendo el rango mientras sea grande.
+     */
+    private static class SourcesTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // origenes por tarea sin dividir
+        private static final int    GRAIN = 16;
+
+        private final IndexedGraph  graph;
+        private final double[ ]     weights;
+        private final boolean       uniform;
+        private final double[ ]     distances;
+        private final int           from;
+        private final int           to;
+
+        SourcesTask( IndexedGraph graph, double[ ] weights, boolean uniform, double[ ] distances, int from, int to )
+        {
+            this.graph = graph;
+            this.weights = weights;
+            this.uniform = uniform;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute( )
+        {
+            if( this.to - this.from > GRAIN )
+            {
+                int middle = ( this.from + this.to ) >>> 1;
+                invokeAll( new SourcesTask( this.graph, this.weights, this.uniform, this.distances, this.from, middle ),
+                        new SourcesTask( this.graph, this.weights, this.uniform, this.distances, middle, this.to ) );
+                return;
+            }
+
+            // memoria de trabajo compartida por los origenes de la tarea
+            int n = this.graph.getVertexCount( );
+            // cada entrada de la adyacencia mete como mucho un elemento en el monticulo
+            int[ ] queue = new int[this.uniform ? n : this.graph.getOutEnd( n - 1 ) + 1];
+            double[ ] keys = this.uniform ? null : new double[queue.length];
+            for( int s = this.from; s < this.to; ++s )
+            {
+                Arrays.fill( this.distances, s * n, s * n + n, Double.POSITIVE_INFINITY );
+                if( this.uniform )
+                    this.breadthFirst( s, queue );
                 else
+                    this.dijkstra( s, queue, keys );
+            }
+        }
+
+        /**
+         * Todas las aristas pesan lo mismo: la distancia es el numero de aristas por el peso.
+         */
+        private void breadthFirst( int s, int[ ] queue )
+        {
+            int n = this.graph.getVertexCount( );
+            int row = s * n;
+            double weight = this.weights.length == 0 ? 1.0 : this.weights[0];
+            int head = 0, tail = 0;
+
+            this.distances[row + s] = 0.0;
+            queue[tail++] = s;
+            while( head < tail )
+            {
+                int v = queue[head++];
+                double next = this.distances[row + v] + weight;
+                for( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); ++i )
                 {
-                    distances[from][to] = 1.0;
-                    
-                    if( !edge.isDirected )
-                        distances[to][from] = 1.0;
+                    int w = this.graph.getOutTarget( i );
+                    if( this.distances[row + w] == Double.POSITIVE_INFINITY )
+                    {
+                        this.distances[row + w] = next;
+                        queue[tail++] = w;
+                    }
                 }
             }
-        
-        // Run the Roy-Floyd-Warshall algorithm
-        for( int k = 0; k < graph.vertices.size( ); ++k )
-            for( int i = 0; i < graph.vertices.size( ); ++i )
-                for( int j = 0; j < graph.vertices.size( ); ++j )
-                    distances[i][j] = Math.min( distances[i][j], distances[i][k] + distances[k][j] );
-        
-        return distances;
+        }
+
+        /**
+         * Dijkstra con un monticulo binario de pares (distancia, vertice) en el que las
+         * entradas obsoletas se descartan al extraerlas.
+         */
+        private void dijkstra( int s, int[ ] heap, double[ ] keys )
+        {
+            int n = this.graph.getVertexCount( );
+            int row = s * n;
+            int size = 0;
+
+            this.distances[row + s] = 0.0;
+            heap[size] = s;
+            keys[size++] = 0.0;
+            while( size > 0 )
+            {
+                int v = heap[0];
+                double key = keys[0];
+                // sacar la raiz
+                size--;
+                siftDown( heap, keys, size, heap[size], keys[size] );
+                if( key > this.distances[row + v] )
+                    continue;
+
+                for( int i = this.graph.getOutStart( v ); i < this.graph.getOutEnd( v ); ++i )
+                {
+                    int w = this.graph.getOutTarget( i );
+                    double through = key + this.weights[this.graph.getOutEdge( i )];
+                    if( through < this.distances[row + w] )
+                    {
+                        this.distances[row + w] = through;
+                        // subir la nueva entrada
+                        int c = size++;
+                        while( c > 0 && keys[( c - 1 ) >>> 1] > through )
+                        {
+                            heap[c] = heap[( c - 1 ) >>> 1];
+                            keys[c] = keys[( c - 1 ) >>> 1];
+                            c = ( c - 1 ) >>> 1;
+                        }
+                        heap[c] = w;
+                        keys[c] = through;
+                    }
+                }
+            }
+        }
+
+        private static void siftDown( int[ ] heap, double[ ] keys, int size, int vertex, double key )
+        {
+            int c = 0;
+            while( 2 * c + 1 < size )
+            {
+                int child = 2 * c + 1;
+                if( child + 1 < size && keys[child + 1] < keys[child] )
+                    child++;
+                if( keys[child] >= key )
+                    break;
+                heap[c] = heap[child];
+                keys[c] = keys[child];
+                c = child;
+            }
+            if( size > 0 )
+            {
+                heap[c] = vertex;
+                keys[c] = key;
+            }
+        }
     }
 }
@@ -0,0 +1,76 @@
+/**
+ * ScratchBuffers.java
+ */
+package pfc.utilities.graph;
+
+import java.util.Arrays;
+
+
+/**
+ * Arrays de trabajo reutilizables entre ejecuciones de los algoritmos sobre la copia
+ * indexada ({@link IndexedGraph}), para no reservar memoria nueva con cada grafo cuando
+ * un mismo hilo dibuja muchos seguidos. Por ahora solo los usa el modo "solo calculo"
+ * de la representacion de visibilidad: {@link pfc.models.algorithms.RotationSystem},
+ * {@link TopologicalNumbering} y las caras y el dual de
+ * {@link pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationAlgorithm#computeDrawing(IndexedGraph, ScratchBuffers)}.
+ * <p/>
+ * Funciona como una pila que se vacia con {@link #reset()} al empezar cada grafo: la
+ * i-esima peticion devuelve siempre el i-esimo array, que crece al doble cuando se pide
+ * uno mayor. Como la secuencia de peticiones de un algoritmo es la misma para todos los
+ * grafos, tras los primeros grafos ya no se reserva memoria. Los arrays pueden ser mas
+ * largos que lo pedido, por lo que los algoritmos deben usar la longitud pedida y no
+ * la del array. Un array no debe usarse despues de {@link #reset()}.
+ * <p/>
+ * No es thread-safe: cada hilo usa el suyo.
+ * @author walber
+ */
+public class ScratchBuffers
+{
+    private int[ ][ ]       ints = new int[0][ ];
+    private int             intCount;
+    private double[ ][ ]    doubles = new double[0][ ];
+    private int             doubleCount;
+
+    /**
+     * Liberar todos los arrays para el siguiente grafo.
+     */
+    public void reset( )
+    {
+        this.intCount = 0;
+        this.doubleCount = 0;
+    }
+
+    /**
+     * @param length longitud minima
+     * @return array con las posiciones 0 .. length-1 a cero
+     */
+    public int[ ] getInts( int length )
+    {
+        if ( this.intCount == this.ints.length )
+            this.ints = Arrays.copyOf( this.ints, Math.max( 4, 2 * this.ints.length ) );
+        int[ ] array = this.ints[this.intCount];
+        if ( array == null || array.length < length )
+            array = this.ints[this.intCount] = new int[array == null ? length : Math.max( length, 2 * array.length )];
+        else
+            Arrays.fill( array, 0, length, 0 );
+        this.intCount++;
+        return array;
+    }
+
+    /**
+     * @param length longitud minima
+     * @return array con las posiciones 0 .. length-1 a cero
+     */
+    public double[ ] getDoubles( int length )
+    {
+        if ( this.doubleCount == this.doubles.length )
+            this.doubles = Arrays.copyOf( this.doubles, Math.max( 4, 2 * this.doubles.length ) );
+        double[ ] array = this.doubles[this.doubleCount];
+        if ( array == null || array.length < length )
+            array = this.doubles[this.doubleCount] = new double[array == null ? length : Math.max( length, 2 * array.length )];
+        else
+            Arrays.fill( array, 0, length, 0 );
+        this.doubleCount++;
+        return array;
+    }
+}
@@ -1,13 +1,9 @@
 package pfc.utilities.graph;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Stack;
 
-import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
 
@@ -18,16 +14,19 @@ import pfc.models.Vertex;
  *
  * UMLGraph
  * @depend - - - Graph
- * @depend - - - Edge
  * @depend - - - Vertex
+ * @depend - - - IndexedGraph
+ * @depend - - - IndexedDepthFirstSearch
  */
 public class StronglyConnectedComponentsFinder
 {
     private int                                     index       = 0;
-    private final Stack<Vertex>                     stack       = new Stack<Vertex>( );
-    private final Map<Vertex, Integer>              indices     = new HashMap<Vertex, Integer>( );
-    private final Map<Vertex, Integer>              lowLinks    = new HashMap<Vertex, Integer>( );
-    private final Map<Vertex, Boolean>              isOnStack   = new HashMap<Vertex, Boolean>( );
+    private IndexedGraph                            indexed;
+    private int[ ]                                  stack;
+    private int                                     stackSize   = 0;
+    private int[ ]                                  indices;
+    private int[ ]                                  lowLinks;
+    private boolean[ ]                              isOnStack;
     private final Collection<Collection<Vertex>>    components  = new LinkedList<Collection<Vertex>>( );
     
     public Collection<Collection<Vertex>> find( Graph graph )
@@ -35,51 +34,64 @@ public class StronglyConnectedComponentsFinder
         if( graph.vertices.isEmpty( ) )
             return this.components;
         
-        for( Vertex vertex : graph.vertices )
-            this.isOnStack.put( vertex, false );
+        this.indexed = new IndexedGraph( graph );
+        int n = this.indexed.getVertexCount( );
+        this.stack = new int[n];
+        this.indices = new int[n];
+        this.lowLinks = new int[n];
+        this.isOnStack = new boolean[n];
         
-        for( Vertex vertex : graph.vertices )
-            if( !this.indices.containsKey( vertex ) )
-                this.tarjansAlgorithm( vertex, graph );
+        this.tarjansAlgorithm( );
         
         return this.components;
     }
     
-    private void tarjansAlgorithm( Vertex from, Graph graph )
+    private void tarjansAlgorithm( )
     {
-        this.indices.put( from, this.index );
-        this.lowLinks.put( from, this.index );
-        ++this.index;
-        
-        this.stack.push( from );
-        this.isOnStack.put( from, true );
-        
-        for( Edge edge : graph.getEdgesFrom( from ) )
+        new IndexedDepthFirstSearch( this.indexed )
         {
-            Vertex to = edge.to;
+            @Override
+            protected void preVisit( int from, int parent, int edge )
+            {
+                indices[from] = index;
+                lowLinks[from] = index;
+                ++index;
+                
+                stack[stackSize++] = from;
+                isOnStack[from] = true;
+            }
             
-            if( !this.indices.containsKey( to ) )
+            @Override
+            protected void treeEdgeFinished( int from, int to, int edge )
             {
-                this.tarjansAlgorithm( to, graph );
-                this.lowLinks.put( from, Math.min( this.lowLinks.get( from ), this.lowLinks.get( to ) ) );
+                lowLinks[from] = Math.min( lowLinks[from], lowLinks[to] );
             }
-            else if( this.isOnStack.get( to ) )
-                this.lowLinks.put( from, Math.min( this.lowLinks.get( from ), this.indices.get( to ) ) );
-        }
-        
-        if( this.lowLinks.get( from ).equals( this.indices.get( from ) ) )
-        {
-            Vertex to;
-            List<Vertex> component = new LinkedList<Vertex>( );
             
-            do
+            @Override
+            protected void backEdge( int from, int to, int edge )
             {
-                to = this.stack.pop( );
-                this.isOnStack.put( to, false );
-                component.add( to );
-            } while( to != from );
+                if( isOnStack[to] )
+                    lowLinks[from] = Math.min( lowLinks[from], indices[to] );
+            }
             
-            this.components.add( component );
-        }
+            @Override
+            protected void postVisit( int from )
+            {
+                if( lowLinks[from] == indices[from] )
+                {
+                    int to;
+                    List<Vertex> component = new LinkedList<Vertex>( );
+                    
+                    do
+                    {
+                        to = stack[--stackSize];
+                        isOnStack[to] = false;
+                        component.add( this.graph.getVertex( to ) );
+                    } while( to != from );
+                    
+                    components.add( component );
+                }
+            }
+        }.searchAll( );
     }
 }
@@ -0,0 +1,259 @@
+/**
+ * TopologicalNumbering.java
+ */
+package pfc.utilities.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Ordenacion y numeracion topologica de un grafo dirigido aciclico con el algoritmo
+ * de Kahn. El rango de cada vertice es la longitud del camino mas largo que termina en
+ * el (los vertices sin aristas entrantes tienen rango 0), de modo que para toda arista
+ * (u,w) se cumple rango(u) &lt; rango(w) y los rangos forman una division en capas
+ * (longest-path layering). La numeracion con semilla y peso de
+ * {@link DepthFirstSearchFinder#topologicalNumbering(Vertex, Graph)} es
+ * {@code seed + weight * rango}.
+ * <p/>
+ * Los rangos son enteros, por lo que no se pierde precision con grafos grandes.
+ * Si el grafo tiene ciclos, los vertices de los ciclos y los alcanzables desde ellos
+ * quedan fuera del orden con rango 0, y {@link #isAcyclic()} devuelve {@code false}.
+ * Complejidad: O(|V|+|E|)
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - Graph
+ * @depend - - - Vertex
+ */
+public class TopologicalNumbering
+{
+    private final IndexedGraph  graph;
+    private final int[ ]        ranks;
+    private final int[ ]        order;
+    private final int           ordered;
+    private final int           layers;
+
+    /**
+     * @param graph grafo dirigido
+     */
+    public TopologicalNumbering( Graph graph )
+    {
+        this( new IndexedGraph( graph ) );
+    }
+
+    /**
+     * @param graph grafo dirigido
+     */
+    public TopologicalNumbering( IndexedGraph graph )
+    {
+        int n = graph.getVertexCount( );
+        this.graph = graph;
+        this.ranks = new int[n];
+        this.order = new int[n];
+
+        // grado de entrada pendiente de cada vertice
+        int[ ] pending = new int[n];
+        int tail = 0;
+        for ( int v = 0; v < n; v++ )
+        {
+            pending[v] = graph.getInDegree( v );
+            if ( pending[v] == 0 )
+                this.order[tail++] = v;
+        }
+
+        // el array del orden hace de cola
+        int head = 0;
+        int maxRank = -1;
+        while ( head < tail )
+        {
+            int u = this.order[head++];
+            maxRank = Math.max( maxRank, this.ranks[u] );
+            for ( int i = graph.getOutStart( u ); i < graph.getOutEnd( u ); i++ )
+            {
+                int w = graph.getOutTarget( i );
+                if ( this.ranks[w] <= this.ranks[u] )
+                    this.ranks[w] = this.ranks[u] + 1;
+                if ( --pending[w] == 0 )
+                    this.order[tail++] = w;
+            }
+        }
+        this.ordered = tail;
+        this.layers = maxRank + 1;
+
+        // los vertices de ciclos no tienen rango definido
+        if ( this.ordered < n )
+            for ( int v = 0; v < n; v++ )
+                if ( pending[v] > 0 )
+                    this.ranks[v] = 0;
+    }
+
+    /**
+     * Rangos de un grafo dado solo por sus aristas, sin construir un {@link Graph}.
+     * Los rangos son los mismos que los de la numeracion de un grafo con esas aristas.
+     * Complejidad: O(|V|+|E|)
+     * @param vertexCount numero de vertices
+     * @param sources vertice origen de cada arista
+     * @param targets vertice destino de cada arista
+     * @return rango de cada vertice, 0 para los vertices de ciclos
+     */
+    public static int[ ] getRanks( int vertexCount, int[ ] sources, int[ ] targets )
+    {
+        return getRanks( vertexCount, sources.length, sources, targets, new ScratchBuffers( ) );
+    }
+
+    /**
+     * Rangos con los arrays de trabajo tomados de scratch.
+     * @param vertexCount numero de vertices
+     * @param edgeCount numero de aristas, las primeras de sources y targets
+     * @param sources vertice origen de cada arista
+     * @param targets vertice destino de cada arista
+     * @param scratch ScratchBuffers
+     * @return rango de cada vertice en las posiciones 0 .. vertexCount-1, tomado de scratch
+     */
+    public static int[ ] getRanks( int vertexCount, int edgeCount, int[ ] sources, int[ ] targets, ScratchBuffers scratch )
+    {
+        // adyacencia de salida en formato CSR
+        int[ ] offsets = scratch.getInts( vertexCount + 1 );
+        int[ ] pending = scratch.getInts( vertexCount );
+        for ( int e = 0; e < edgeCount; e++ )
+        {
+            offsets[sources[e] + 1]++;
+            pending[targets[e]]++;
+        }
+        for ( int v = 0; v < vertexCount; v++ )
+            offsets[v + 1] += offsets[v];
+        int[ ] next = scratch.getInts( vertexCount );
+        System.arraycopy( offsets, 0, next, 0, vertexCount );
+        int[ ] adjacency = scratch.getInts( edgeCount );
+        for ( int e = 0; e < edgeCount; e++ )
+            adjacency[next[sources[e]]++] = targets[e];
+
+        int[ ] ranks = scratch.getInts( vertexCount );
+        int[ ] queue = scratch.getInts( vertexCount );
+        int tail = 0;
+        for ( int v = 0; v < vertexCount; v++ )
+            if ( pending[v] == 0 )
+                queue[tail++] = v;
+        for ( int head = 0; head < tail; head++ )
+        {
+            int u = queue[head];
+            for ( int i = offsets[u]; i < offsets[u + 1]; i++ )
+            {
+                int w = adjacency[i];
+                if ( ranks[w] <= ranks[u] )
+                    ranks[w] = ranks[u] + 1;
+                if ( --pending[w] == 0 )
+                    queue[tail++] = w;
+            }
+        }
+        if ( tail < vertexCount )
+            for ( int v = 0; v < vertexCount; v++ )
+                if ( pending[v] > 0 )
+                    ranks[v] = 0;
+        return ranks;
+    }
+
+    /**
+     * @return {@code true} si todos los vertices tienen numeracion topologica
+     */
+    public boolean isAcyclic( )
+    {
+        return this.ordered == this.ranks.length;
+    }
+
+    /**
+     * @return numero de capas, es decir, el rango maximo mas uno
+     */
+    public int getLayerCount( )
+    {
+        return this.layers;
+    }
+
+    /**
+     * @param v indice del vertice en el {@link IndexedGraph}
+     * @return rango del vertice
+     */
+    public int getRank( int v )
+    {
+        return this.ranks[v];
+    }
+
+    /**
+     * @param vertex Vertex
+     * @return rango del vertice
+     */
+    public int getRank( Vertex vertex )
+    {
+        return this.ranks[this.graph.indexOf( vertex )];
+    }
+
+    /**
+     * @param vertex Vertex
+     * @param seed valor asignado a los vertices de rango 0
+     * @param weight incremento por cada capa
+     * @return {@code seed + weight * rango}
+     */
+    public float getNumber( Vertex vertex, float seed, float weight )
+    {
+        return seed + weight * this.getRank( vertex );
+    }
+
+    /**
+     * @return rango de cada vertice
+     */
+    public Map<Vertex, Integer> getRanks( )
+    {
+        Map<Vertex, Integer> ranks = new HashMap<Vertex, Integer>( 2 * this.ranks.length );
+        for ( int v = 0; v < this.ranks.length; v++ )
+            ranks.put( this.graph.getVertex( v ), this.ranks[v] );
+        return ranks;
+    }
+
+    /**
+     * @param seed valor asignado a los vertices de rango 0
+     * @param weight incremento por cada capa
+     * @return {@code seed + weight * rango} de cada vertice
+     */
+    public Map<Vertex, Float> getNumbering( float seed, float weight )
+    {
+        Map<Vertex, Float> numbering = new HashMap<Vertex, Float>( 2 * this.ranks.length );
+        for ( int v = 0; v < this.ranks.length; v++ )
+            numbering.put( this.graph.getVertex( v ), seed + weight * this.ranks[v] );
+        return numbering;
+    }
+
+    /**
+     * @return numero de vertices en el orden topologico
+     */
+    public int getOrderedCount( )
+    {
+        return this.ordered;
+    }
+
+    /**
+     * @param i posicion en el orden topologico, entre 0 y {@code getOrderedCount( ) - 1}
+     * @return indice del vertice en esa posicion
+     */
+    public int getOrdered( int i )
+    {
+        return this.order[i];
+    }
+
+    /**
+     * @return vertices en orden topologico (sin los vertices de ciclos)
+     */
+    public List<Vertex> getOrder( )
+    {
+        List<Vertex> order = new ArrayList<Vertex>( this.ordered );
+        for ( int i = 0; i < this.ordered; i++ )
+            order.add( this.graph.getVertex( this.order[i] ) );
+        return order;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * TransitiveReduction.java
+ */
+package pfc.utilities.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+
+
+/**
+ * Aristas transitivas de un grafo dirigido aciclico, calculadas todas a la vez sin copiar
+ * el grafo. Una arista (u,w) es transitiva si existe otro camino de u a w, es decir, si w
+ * es alcanzable desde algun otro sucesor de u, es decir, si hay un camino de u a w con al
+ * menos dos aristas. Quitando las aristas transitivas se obtiene la reduccion transitiva
+ * del grafo. Los lazos nunca son transitivos, y una arista paralela a otra no la hace
+ * transitiva.
+ * <p/>
+ * Se recorren los vertices en orden topologico inverso calculando, para cada vertice, el
+ * conjunto de bits de los vertices alcanzables por caminos de longitud 2 o mas. Para no
+ * superar {@link #MEMORY_BUDGET} los vertices destino se procesan por bloques de posiciones
+ * del orden topologico, con una pasada por bloque.
+ * <p/>
+ * Los lazos no cuentan para el orden topologico, porque no cambian la alcanzabilidad entre
+ * vertices distintos. Los vertices que forman otros ciclos, y los alcanzables desde ellos,
+ * no tienen orden topologico y sus aristas no se marcan como transitivas.
+ * Complejidad: O(|V|*|E|/64) en tiempo
+ * @author walber
+ *
+ * UMLGraph
+ * @navassoc - - "1\n-graph" IndexedGraph
+ * @depend - - - Graph
+ * @depend - - - Edge
+ */
+public class TransitiveReduction
+{
+    /**
+     * memoria maxima, en bytes, de los conjuntos de alcanzables de una pasada
+     */
+    public static final long    MEMORY_BUDGET = 32L << 20;
+
+    private final IndexedGraph  graph;
+    private final boolean[ ]    transitive;
+    private final int           transitiveCount;
+
+    /**
+     * @param graph grafo dirigido aciclico
+     */
+    public TransitiveReduction( Graph graph )
+    {
+        this( new IndexedGraph( graph ) );
+    }
+
+    /**
+     * @param graph grafo dirigido aciclico
+     */
+    public TransitiveReduction( IndexedGraph graph )
+    {
+        this( graph, MEMORY_BUDGET );
+    }
+
+    /**
+     * @param graph grafo dirigido aciclico
+     * @param memoryBudget memoria maxima, en bytes, de los conjuntos de alcanzables
+     */
+    public TransitiveReduction( IndexedGraph graph, long memoryBudget )
+    {
+        this.graph = graph;
+        this.transitive = new boolean[graph.getEdgeCount( )];
+
+        // orden topologico de Kahn sin los lazos
+        int vertexCount = graph.getVertexCount( );
+        int[ ] pending = new int[vertexCount];
+        int[ ] order = new int[vertexCount];
+        int n = 0;
+        for ( int v = 0; v < vertexCount; v++ )
+        {
+            for ( int i = graph.getInStart( v ); i < graph.getInEnd( v ); i++ )
+                if ( graph.getInSource( i ) != v )
+                    pending[v]++;
+            if ( pending[v] == 0 )
+                order[n++] = v;
+        }
+        for ( int head = 0; head < n; head++ )
+        {
+            int u = order[head];
+            for ( int i = graph.getOutStart( u ); i < graph.getOutEnd( u ); i++ )
+            {
+                int w = graph.getOutTarget( i );
+                if ( w != u && --pending[w] == 0 )
+                    order[n++] = w;
+            }
+        }
+        int[ ] positions = new int[vertexCount];
+        Arrays.fill( positions, -1 );
+        for ( int p = 0; p < n; p++ )
+            positions[order[p]] = p;
+
+        // palabras de 64 bits por vertice en cada pasada
+        int words = ( n + 63 ) / 64;
+        if ( n > 0 )
+            words = ( int ) Math.max( 1, Math.min( words, memoryBudget / 8 / n ) );
+        int width = 64 * words;
+
+        // strict[p] = vertices del bloque alcanzables desde la posicion p por caminos de longitud >= 2
+        long[ ] strict = new long[n * words];
+        long[ ] reach = new long[words];
+        int count = 0;
+
+        for ( int lo = 0; lo < n; lo += width )
+        {
+            int hi = Math.min( n, lo + width );
+            // los vertices de posicion >= hi no alcanzan ninguno del bloque
+            for ( int p = hi - 1; p >= 0; p-- )
+            {
+                int u = order[p];
+                Arrays.fill( reach, 0 );
+                for ( int i = graph.getOutStart( u ); i < graph.getOutEnd( u ); i++ )
+                {
+                    int q = positions[graph.getOutTarget( i )];
+                    if ( q > p && q < hi )
+                        for ( int k = 0; k < words; k++ )
+                            reach[k] |= strict[q * words + k];
+                }
+
+                // reach contiene los alcanzables por otros caminos, y ahora se anaden los sucesores
+                for ( int i = graph.getOutStart( u ); i < graph.getOutEnd( u ); i++ )
+                {
+                    int q = positions[graph.getOutTarget( i )];
+                    if ( q <= p || q < lo || q >= hi )
+                        continue;
+                    int bit = q - lo;
+                    if ( ( reach[bit >>> 6] & ( 1L << bit ) ) != 0 )
+                    {
+                        this.transitive[graph.getOutEdge( i )] = true;
+                        count++;
+                    }
+                }
+                for ( int i = graph.getOutStart( u ); i < graph.getOutEnd( u ); i++ )
+                {
+                    int q = positions[graph.getOutTarget( i )];
+                    if ( q > p && q >= lo && q < hi )
+                        reach[( q - lo ) >>> 6] |= 1L << ( q - lo );
+                }
+                System.arraycopy( reach, 0, strict, p * words, words );
+            }
+        }
+        this.transitiveCount = count;
+    }
+
+    /**
+     * @param e indice de la arista en el {@link IndexedGraph}
+     * @return {@code true} si la arista es transitiva
+     */
+    public boolean isTransitive( int e )
+    {
+        return this.transitive[e];
+    }
+
+    /**
+     * @return {@code true} si ninguna arista es transitiva
+     */
+    public boolean isReduced( )
+    {
+        return this.transitiveCount == 0;
+    }
+
+    /**
+     * @return numero de aristas transitivas
+     */
+    public int getTransitiveEdgeCount( )
+    {
+        return this.transitiveCount;
+    }
+
+    /**
+     * @return aristas transitivas, en el orden de {@code graph.edges}
+     */
+    public List<Edge> getTransitiveEdges( )
+    {
+        List<Edge> edges = new ArrayList<Edge>( this.transitiveCount );
+        for ( int e = 0; e < this.transitive.length; e++ )
+            if ( this.transitive[e] )
+                edges.add( this.graph.getEdge( e ) );
+        return edges;
+    }
+}
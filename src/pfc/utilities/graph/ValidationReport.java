@@ -0,0 +1,155 @@
+/**
+ * ValidationReport.java
+ */
+package pfc.utilities.graph;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import pfc.utilities.graph.GraphValidator.Check;
+
+
+/**
+ * Resultado de {@link GraphValidator}: si se cumple cada comprobacion y lo que ha tardado.
+ * Una comprobacion se omite si no se cumplen sus precondiciones, y cuenta como no cumplida,
+ * igual que la que lanza una excepcion al evaluarse.
+ * Los tiempos estan en nanosegundos.
+ * @author walber
+ *
+ * UMLGraph
+ * @depend - - - GraphValidator
+ */
+public class ValidationReport
+{
+    private final Map<Check, Boolean>   results = new EnumMap<Check, Boolean>( Check.class );
+    private final Map<Check, Long>      times = new EnumMap<Check, Long>( Check.class );
+    private final Set<Check>            skipped = EnumSet.noneOf( Check.class );
+    private final Map<Check, Throwable> errors = new EnumMap<Check, Throwable>( Check.class );
+    private long                        snapshotTime;
+    private long                        totalTime;
+
+    synchronized void setResult( Check check, boolean passed )
+    {
+        this.results.put( check, passed );
+    }
+
+    synchronized void setSkipped( Check check )
+    {
+        this.results.put( check, false );
+        this.skipped.add( check );
+    }
+
+    synchronized void setError( Check check, Throwable cause )
+    {
+        this.results.put( check, false );
+        this.errors.put( check, cause );
+    }
+
+    synchronized void setTime( Check check, long nanos )
+    {
+        this.times.put( check, nanos );
+    }
+
+    synchronized void setSnapshotTime( long nanos )
+    {
+        this.snapshotTime = nanos;
+    }
+
+    synchronized void setTotalTime( long nanos )
+    {
+        this.totalTime = nanos;
+    }
+
+    /**
+     * @return {@code true} si se cumplen todas las comprobaciones evaluadas
+     */
+    public synchronized boolean isValid( )
+    {
+        return this.results.containsValue( false ) == false;
+    }
+
+    /**
+     * @param check Check
+     * @return {@code true} si la comprobacion se ha evaluado y se cumple
+     */
+    public synchronized boolean isPassed( Check check )
+    {
+        return Boolean.TRUE.equals( this.results.get( check ) );
+    }
+
+    /**
+     * @param check Check
+     * @return {@code true} si la comprobacion no se ha evaluado porque no se cumplen
+     * sus precondiciones
+     */
+    public synchronized boolean isSkipped( Check check )
+    {
+        return this.skipped.contains( check );
+    }
+
+    /**
+     * @param check Check
+     * @return excepcion lanzada al evaluar la comprobacion, {@code null} si se ha evaluado
+     * sin errores o no se ha evaluado
+     */
+    public synchronized Throwable getError( Check check )
+    {
+        return this.errors.get( check );
+    }
+
+    /**
+     * @return las comprobaciones que no se cumplen, incluidas las omitidas
+     */
+    public synchronized Set<Check> getFailedChecks( )
+    {
+        Set<Check> failed = EnumSet.noneOf( Check.class );
+        for ( Map.Entry<Check, Boolean> entry : this.results.entrySet( ) )
+            if ( entry.getValue( ) == false )
+                failed.add( entry.getKey( ) );
+        return failed;
+    }
+
+    /**
+     * @param check Check
+     * @return tiempo de la comprobacion, 0 si no se ha evaluado
+     */
+    public synchronized long getTime( Check check )
+    {
+        Long time = this.times.get( check );
+        return time == null ? 0 : time;
+    }
+
+    /**
+     * @return tiempo de construccion de la copia indexada del grafo
+     */
+    public synchronized long getSnapshotTime( )
+    {
+        return this.snapshotTime;
+    }
+
+    /**
+     * @return tiempo total de la validacion
+     */
+    public synchronized long getTotalTime( )
+    {
+        return this.totalTime;
+    }
+
+    @Override
+    public synchronized String toString( )
+    {
+        StringBuilder sb = new StringBuilder( );
+        sb.append( String.format( "%-18s %9.3f ms%n", "snapshot", this.snapshotTime / 1e6 ) );
+        for ( Map.Entry<Check, Boolean> entry : this.results.entrySet( ) )
+        {
+            String result = this.skipped.contains( entry.getKey( ) ) ? "skipped" : entry.getValue( ).toString( );
+            if ( this.errors.containsKey( entry.getKey( ) ) )
+                result = "error: " + this.errors.get( entry.getKey( ) );
+            sb.append( String.format( "%-18s %9.3f ms  %s%n", entry.getKey( ), this.getTime( entry.getKey( ) ) / 1e6, result ) );
+        }
+        sb.append( String.format( "%-18s %9.3f ms  %s", "total", this.totalTime / 1e6, this.isValid( ) ) );
+        return sb.toString( );
+    }
+}
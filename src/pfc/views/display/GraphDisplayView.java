@@ -4,9 +4,11 @@
 package pfc.views.display;
 
 import java.awt.*;
+import java.awt.geom.*;
 
 import pfc.models.*;
 import pfc.settings.*;
+import pfc.utilities.*;
 
 
 /**
@@ -25,4 +27,28 @@ public class GraphDisplayView
 			VertexDisplayView.paint( g2D, s, vertex );
 		
 	}
+	
+	public static void paintPreview( Graphics2D g2D, MappedGraphFile file, GraphSettings s )
+	{
+		// Edges are drawn as plain lines straight from the coordinate columns; handles, bends and labels wait for the full graph
+		Line2D.Double line = new Line2D.Double( );
+		for( int i = 0; i < file.getEdgeCount( ); ++i )
+		{
+			int from = file.getFrom( i ), to = file.getTo( i );
+			line.setLine( file.getX( from ), file.getY( from ), file.getX( to ), file.getY( to ) );
+			g2D.setColor( UserSettings.instance.getEdgeColor( file.getEdgeColor( i ) ) );
+			g2D.draw( line );
+		}
+		
+		Ellipse2D.Double center = new Ellipse2D.Double( );
+		for( int i = 0; i < file.getVertexCount( ); ++i )
+		{
+			double radius = file.getRadius( i );
+			center.setFrame( file.getX( i ) - radius, file.getY( i ) - radius, radius * 2, radius * 2 );
+			g2D.setColor( UserSettings.instance.getVertexColor( file.getVertexColor( i ) ) );
+			g2D.fill( center );
+			g2D.setColor( UserSettings.instance.vertexLine.get( ) );
+			g2D.draw( center );
+		}
+	}
 }
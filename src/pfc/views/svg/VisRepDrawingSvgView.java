@@ -0,0 +1,74 @@
+/**
+ * VisRepDrawingSvgView.java
+ */
+package pfc.views.svg;
+
+import java.awt.geom.*;
+
+import pfc.models.algorithms.visibilityrepresentation.EdgeSegment;
+import pfc.models.algorithms.visibilityrepresentation.VertexSegment;
+import pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationDrawing;
+import pfc.settings.*;
+import pfc.utilities.*;
+import pfc.views.display.algorithms.visibilityrepresentation.VisRepDrawingDisplayView;
+
+/**
+ * SVG de una Representacion de Visibilidad, con las mismas coordenadas que
+ * {@link VisRepDrawingDisplayView} pero sin ejes.
+ * @author walber
+ */
+public class VisRepDrawingSvgView
+{
+	public static String format( VisibilityRepresentationDrawing drawing )
+	{
+		StringBuilder sb = new StringBuilder( );
+		Rectangle2D rect = VisRepDrawingDisplayView.getBounds( drawing );
+		double firstX = VisRepDrawingDisplayView.getFirstX( );
+		double firstY = VisRepDrawingDisplayView.getFirstY( drawing );
+		double offset = GlobalSettings.defaultVertexSegmentOffset;
+		String line = SvgUtilities.formatColor( UserSettings.instance.vertexLine.get( ) );
+
+		sb.append( "<?xml version=\"1.0\" standalone=\"no\"?>\r\n" );
+		sb.append( "<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\r\n" );
+		sb.append( String.format( "<svg width=\"%1$s\" height=\"%2$s\" version=\"1.1\" xmlns=\"http://www.w3.org/2000/svg\">\r\n",
+				rect == null ? 0.0 : rect.getWidth( ), rect == null ? 0.0 : rect.getHeight( ) ) );
+
+		for( EdgeSegment eS : drawing.edgeSegments )
+		{
+			Line2D l = VisRepDrawingDisplayView.getEdgeSegmentLine( eS, firstX, firstY );
+			sb.append( "<line " );
+			sb.append( "x1=\"" + l.getX1( ) + "\" " );
+			sb.append( "y1=\"" + l.getY1( ) + "\" " );
+			sb.append( "x2=\"" + l.getX2( ) + "\" " );
+			sb.append( "y2=\"" + l.getY2( ) + "\" " );
+			sb.append( "style=\"stroke:" + line + ";stroke-width:" + GlobalSettings.defaultEdgeThickness + "\"/>\r\n" );
+		}
+
+		for( VertexSegment vS : drawing.vertexSegments )
+		{
+			Point2D p = VisRepDrawingDisplayView.getVertexSegmentPoint( vS, firstX, firstY );
+			double width = 2.0 * offset + GlobalSettings.defaultHorizontalCoordinateGap * ( vS.xRightCoordinate.get( ) - vS.xLeftCoordinate.get( ) );
+			sb.append( "<rect " );
+			sb.append( "x=\"" + ( p.getX( ) - offset ) + "\" " );
+			sb.append( "y=\"" + ( p.getY( ) - offset ) + "\" " );
+			sb.append( "width=\"" + width + "\" " );
+			sb.append( "height=\"" + 2.0 * offset + "\" " );
+			sb.append( "stroke=\"" + line + "\" " );
+			sb.append( "stroke-width=\"1\" " );
+			sb.append( "fill=\"" + SvgUtilities.formatColor( UserSettings.instance.uncoloredVertexFill.get( ) ) + "\" />\r\n" );
+
+			// el algoritmo paso a paso guarda la etiqueta original en tag
+			String label = vS.vertex.tag.get( ).equals( "" ) ? vS.vertex.label.get( ) : vS.vertex.tag.get( );
+			sb.append( "<text " );
+			sb.append( "x=\"" + ( p.getX( ) - offset + width / 2.0 ) + "\" " );
+			sb.append( "y=\"" + ( p.getY( ) + offset / 2.0 ) + "\" " );
+			sb.append( "text-anchor=\"middle\" " );
+			sb.append( "font-size=\"" + Math.round( offset / 1.1 ) + "\" " );
+			sb.append( "fill=\"" + line + "\">" + SvgUtilities.formatString( label ) + "</text>\r\n" );
+		}
+
+		sb.append( "\n</svg>" );
+
+		return sb.toString( );
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * LayoutExecutorTest.java
+ */
+package pfc.cli;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pfc.cli.LayoutRunner.Algorithm;
+import pfc.cli.LayoutRunner.Layout;
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Espera de {@link LayoutExecutor#submit(Graph, LayoutExecutor.Listener)} cuando hay
+ * {@code capacity} grafos en ejecucion, y notificacion de los errores del listener.
+ * @author walber
+ *
+ */
+public class LayoutExecutorTest {
+
+    private static final int CAPACITY = 3;
+
+    private LayoutExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new LayoutExecutor( Algorithm.VISIBILITY, 2, CAPACITY );
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * st-graph triangular s -> a -> t con la arista s -> t.
+     */
+    private static Graph createTriangle() {
+        Graph graph = new Graph( "st", false, true, false, false );
+        Vertex s = new Vertex( 0, 0 );
+        Vertex a = new Vertex( 10, 10 );
+        Vertex t = new Vertex( 0, 20 );
+        graph.vertices.add( s );
+        graph.vertices.add( a );
+        graph.vertices.add( t );
+        graph.edges.add( new Edge( true, s, a ) );
+        graph.edges.add( new Edge( true, a, t ) );
+        graph.edges.add( new Edge( true, s, t ) );
+        return graph;
+    }
+
+    /**
+     * Listener que no termina hasta que se abre {@code release}, tanto si el dibujo
+     * termina como si falla, de modo que el grafo sigue ocupando su sitio.
+     */
+    private static class BlockingListener implements LayoutExecutor.Listener {
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+
+        @Override
+        public void layoutCompleted( Graph graph, Layout layout ) {
+            this.block();
+        }
+
+        @Override
+        public void layoutFailed( Graph graph, Throwable cause ) {
+            this.block();
+        }
+
+        private void block() {
+            this.started.incrementAndGet();
+            try {
+                this.release.await();
+            }
+            catch ( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+            }
+            this.finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutExecutor#submit(Graph, LayoutExecutor.Listener)}:
+     * con {@code capacity} grafos sin terminar, el siguiente envio espera a que termine alguno.
+     */
+    @Test(timeout = 10000)
+    public void testSubmitBlocksAtCapacity() throws InterruptedException {
+        final BlockingListener listener = new BlockingListener();
+        for ( int i = 0; i < CAPACITY; i++ )
+            executor.submit( createTriangle(), listener );
+
+        final CountDownLatch submitted = new CountDownLatch( 1 );
+        Thread producer = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.submit( createTriangle(), listener );
+                    submitted.countDown();
+                }
+                catch ( InterruptedException ex ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } );
+        producer.start();
+
+        assertFalse( submitted.await( 300, TimeUnit.MILLISECONDS ) );
+        assertEquals( 0, listener.finished.get() );
+
+        listener.release.countDown();
+        assertTrue( submitted.await( 5, TimeUnit.SECONDS ) );
+        producer.join();
+        executor.awaitCompletion();
+        assertEquals( CAPACITY + 1, listener.finished.get() );
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutExecutor#awaitCompletion()}: no vuelve hasta
+     * que terminan todos los grafos enviados.
+     */
+    @Test(timeout = 10000)
+    public void testAwaitCompletion() throws InterruptedException {
+        final BlockingListener listener = new BlockingListener();
+        for ( int i = 0; i < CAPACITY; i++ )
+            executor.submit( createTriangle(), listener );
+
+        final CountDownLatch completed = new CountDownLatch( 1 );
+        Thread waiter = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.awaitCompletion();
+                    completed.countDown();
+                }
+                catch ( InterruptedException ex ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } );
+        waiter.start();
+
+        assertFalse( completed.await( 300, TimeUnit.MILLISECONDS ) );
+        listener.release.countDown();
+        assertTrue( completed.await( 5, TimeUnit.SECONDS ) );
+        waiter.join();
+        assertEquals( CAPACITY, listener.finished.get() );
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutExecutor#submit(Graph, LayoutExecutor.Listener)}:
+     * una excepcion de {@code layoutCompleted} se notifica con {@code layoutFailed}.
+     */
+    @Test(timeout = 10000)
+    public void testListenerException() throws InterruptedException {
+        final RuntimeException thrown = new IllegalStateException( "listener" );
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicInteger completed = new AtomicInteger();
+        executor.submit( createTriangle(), new LayoutExecutor.Listener() {
+            @Override
+            public void layoutCompleted( Graph graph, Layout layout ) {
+                completed.incrementAndGet();
+                throw thrown;
+            }
+
+            @Override
+            public void layoutFailed( Graph graph, Throwable cause ) {
+                failure.set( cause );
+            }
+        } );
+        executor.awaitCompletion();
+
+        assertEquals( 1, completed.get() );
+        assertSame( thrown, failure.get() );
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * LayoutRunnerTest.java
+ */
+package pfc.cli;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pfc.cli.LayoutRunner.Algorithm;
+
+
+/**
+ * Ficheros de entrada tomados de un directorio y directorios que no se pueden listar.
+ * @author walber
+ *
+ */
+public class LayoutRunnerTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile( "graphs", "" );
+        assertTrue( directory.delete() );
+        assertTrue( directory.mkdir() );
+        for ( String name : new String[] { "b.vsg", "a.vsgb", "c.txt" } )
+            assertTrue( new File( directory, name ).createNewFile() );
+        assertTrue( new File( directory, "d.vsg" ).mkdir() );
+    }
+
+    @After
+    public void tearDown() {
+        for ( File file : directory.listFiles() )
+            file.delete();
+        directory.delete();
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutRunner#collectFiles(List)}: los ficheros de grafo
+     * del directorio ordenados por nombre, sin los demas ficheros ni los subdirectorios.
+     */
+    @Test
+    public void testCollectFiles() {
+        File other = new File( "other.vsg" );
+        List<File> files = LayoutRunner.collectFiles( Arrays.asList( directory.getPath(), other.getPath() ) );
+        assertEquals( Arrays.asList( new File( directory, "a.vsgb" ), new File( directory, "b.vsg" ), other ), files );
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutRunner#run(List)}: un directorio que no se ha
+     * podido listar cuenta como una entrada que falla, igual que un fichero que no se lee.
+     */
+    @Test
+    public void testRunDirectory() {
+        LayoutRunner runner = new LayoutRunner( Algorithm.VISIBILITY, directory, true, false, 1 );
+        assertEquals( 2, runner.run( Arrays.asList( directory, new File( directory, "b.vsg" ) ) ) );
+    }
+
+    /**
+     * Test method for {@link pfc.cli.LayoutRunner#collectFiles(List)} con un directorio sin
+     * permiso de lectura, que se devuelve tal cual. Si el usuario puede leerlo igualmente,
+     * como root, no hay nada que comprobar.
+     */
+    @Test
+    public void testCollectUnreadableDirectory() {
+        File unreadable = new File( directory, "d.vsg" );
+        try {
+            if ( unreadable.setReadable( false ) == false || unreadable.list() != null )
+                return;
+            assertEquals( Arrays.asList( unreadable ), LayoutRunner.collectFiles( Arrays.asList( unreadable.getPath() ) ) );
+            LayoutRunner runner = new LayoutRunner( Algorithm.VISIBILITY, directory, true, false, 1 );
+            assertEquals( 1, runner.run( LayoutRunner.collectFiles( Arrays.asList( unreadable.getPath() ) ) ) );
+        }
+        finally {
+            unreadable.setReadable( true );
+        }
+    }
+}
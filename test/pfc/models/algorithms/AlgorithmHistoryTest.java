@@ -0,0 +1,159 @@
+/**
+ * AlgorithmHistoryTest.java
+ */
+package pfc.models.algorithms;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Historial de un camino al que en cada paso se mueve un vertice y, cada pocos pasos, se
+ * anade o se quita un vertice con su arista. La segunda capa no existe hasta la mitad.
+ * Hay suficientes pasos para generar varios fotogramas clave y superar la cache de
+ * modelos reconstruidos.
+ * @author walber
+ *
+ */
+public class AlgorithmHistoryTest {
+
+    private static final int STEPS = 300;
+
+    private AlgorithmHistory history;
+    /** JSON de cada capa en cada paso, tal y como se registro; null si no existe */
+    private List<String> graphs;
+    private List<String> others;
+
+    @Before
+    public void setUp() {
+        history = new AlgorithmHistory( AlgorithmHistory.GRAPH, AlgorithmHistory.GRAPH );
+        graphs = new ArrayList<String>();
+        others = new ArrayList<String>();
+
+        Graph graph = new Graph( "path", false, false, false, true );
+        Graph other = new Graph( "other", false, false, false, true );
+        other.vertices.add( new Vertex( 0, 0 ) );
+        for ( int i = 0; i < 10; i++ ) {
+            graph.vertices.add( new Vertex( 10 * i, 0, String.valueOf( i ) ) );
+            if ( i > 0 )
+                graph.edges.add( new Edge( false, graph.vertices.get( i - 1 ), graph.vertices.get( i ) ) );
+        }
+
+        for ( int step = 0; step < STEPS; step++ ) {
+            Vertex moved = graph.vertices.get( step % graph.vertices.size() );
+            moved.y.set( moved.y.get() + 1 );
+            if ( step % 7 == 3 ) {
+                Vertex last = graph.vertices.get( graph.vertices.size() - 1 );
+                Vertex added = new Vertex( last.x.get() + 10, 0, "v" + step );
+                graph.vertices.add( added );
+                graph.edges.add( new Edge( false, last, added ) );
+            }
+            else if ( step % 11 == 5 && graph.vertices.size() > 2 )
+                graph.vertices.remove( graph.vertices.size() - 1 );
+            if ( step >= STEPS / 2 )
+                other.vertices.get( 0 ).x.set( (double) step );
+
+            Graph second = step >= STEPS / 2 ? other : null;
+            history.add( "paso " + step, graph, second );
+            graphs.add( graph.toString() );
+            others.add( second == null ? null : second.toString() );
+        }
+        assertEquals( STEPS, history.size() );
+    }
+
+    private void assertStep( int step ) {
+        assertEquals( step, history.getCurrentStep() );
+        assertEquals( "paso " + step, history.getExplanation() );
+        Graph graph = history.getModel( 0 );
+        assertEquals( "grafo distinto en el paso " + step, graphs.get( step ), graph.toString() );
+        Graph other = history.getModel( 1 );
+        assertEquals( "segunda capa distinta en el paso " + step, others.get( step ), other == null ? null : other.toString() );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.AlgorithmHistory#next()}.
+     */
+    @Test
+    public void testNext() {
+        history.setBeginning();
+        assertStep( 0 );
+        for ( int step = 1; step < STEPS; step++ ) {
+            assertTrue( history.next() );
+            assertStep( step );
+        }
+        assertFalse( history.next() );
+    }
+
+    /**
+     * End desde el principio, sin reconstruir los pasos intermedios, y despues Back hasta
+     * el principio: cada paso debe coincidir con el registrado.
+     */
+    @Test
+    public void testEndAndBack() {
+        history.setBeginning();
+        assertStep( 0 );
+        while ( history.next() )
+            ;
+        assertStep( STEPS - 1 );
+
+        for ( int step = STEPS - 2; step >= 0; step-- ) {
+            assertTrue( history.previous() );
+            assertStep( step );
+        }
+        assertFalse( history.previous() );
+
+        // End otra vez, con la cache llena de los primeros pasos
+        while ( history.next() )
+            ;
+        assertStep( STEPS - 1 );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.AlgorithmHistory#getModel(int)}: cada
+     * llamada devuelve un modelo nuevo, y modificarlo no cambia el historial.
+     */
+    @Test
+    public void testGetModelReturnsCopies() {
+        history.setBeginning();
+        for ( int step = 0; step < 20; step++ )
+            history.next();
+        Graph graph = history.getModel( 0 );
+        assertNotSame( graph, history.getModel( 0 ) );
+
+        graph.vertices.get( 0 ).x.set( -1000.0 );
+        graph.vertices.remove( graph.vertices.size() - 1 );
+        graph.edges.clear();
+        assertStep( 20 );
+
+        history.next();
+        history.previous();
+        assertStep( 20 );
+        history.setBeginning();
+        assertStep( 0 );
+    }
+
+    /**
+     * Saltos alternos entre pasos alejados, fuera de la cache de modelos.
+     */
+    @Test
+    public void testRandomAccess() {
+        history.setBeginning();
+        int[] targets = { STEPS - 1, 3, STEPS / 2, STEPS / 2 - 1, 150, 0, 97, STEPS - 1, 64, 65 };
+        for ( int target : targets ) {
+            while ( history.getCurrentStep() < target )
+                history.next();
+            while ( history.getCurrentStep() > target )
+                history.previous();
+            assertStep( target );
+        }
+    }
+}
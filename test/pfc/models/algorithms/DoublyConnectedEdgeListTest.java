@@ -0,0 +1,113 @@
+/**
+ * DoublyConnectedEdgeListTest.java
+ */
+package pfc.models.algorithms;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+import pfc.utilities.graph.IndexedGraph;
+
+
+/**
+ * Caras de un cuadrado 0-1-2-3 con la diagonal 0-2, dibujado con 0 arriba a la izquierda,
+ * y de un grafo con dos componentes.
+ * @author walber
+ *
+ */
+public class DoublyConnectedEdgeListTest {
+
+    /**
+     * Test method for {@link pfc.models.algorithms.DoublyConnectedEdgeList#DoublyConnectedEdgeList(RotationSystem)}.
+     */
+    @Test
+    public void testFaces() {
+        Graph graph = new Graph( "square", false, true, false, false );
+        Vertex[] v = { new Vertex( 10, 10 ), new Vertex( 50, 10 ), new Vertex( 50, 50 ), new Vertex( 10, 50 ) };
+        for ( Vertex vertex : v )
+            graph.vertices.add( vertex );
+        graph.edges.add( new Edge( true, v[0], v[1] ) );
+        graph.edges.add( new Edge( true, v[1], v[2] ) );
+        graph.edges.add( new Edge( true, v[0], v[3] ) );
+        graph.edges.add( new Edge( true, v[3], v[2] ) );
+        graph.edges.add( new Edge( true, v[0], v[2] ) );
+
+        IndexedGraph indexed = new IndexedGraph( graph );
+        DoublyConnectedEdgeList dcel = new DoublyConnectedEdgeList( new RotationSystem( indexed ) );
+
+        // formula de Euler: V - E + F = 2
+        assertEquals( "numero de caras distinto al esperado", 3, dcel.getFaceCount() );
+        for ( int h = 0; h < dcel.getHalfEdgeCount(); h++ ) {
+            assertEquals( h, dcel.getPrevious( dcel.getNext( h ) ) );
+            assertEquals( dcel.getTarget( h ), dcel.getSource( dcel.getNext( h ) ) );
+            assertEquals( dcel.getFace( h ), dcel.getFace( dcel.getNext( h ) ) );
+        }
+
+        // la cara externa pasa por los cuatro vertices, las internas son triangulos
+        int outer = dcel.getOuterFace();
+        assertEquals( 4, dcel.getFaceVertices( dcel.getFaceHalfEdge( outer ) ).length );
+        for ( int f = 0; f < dcel.getFaceCount(); f++ )
+            if ( f != outer )
+                assertEquals( 3, dcel.getFaceVertices( dcel.getFaceHalfEdge( f ) ).length );
+
+        // la diagonal separa las dos caras internas y los lados tocan la externa
+        assertTrue( dcel.getLeftFace( 4 ) != outer && dcel.getRightFace( 4 ) != outer );
+        assertTrue( dcel.getLeftFace( 4 ) != dcel.getRightFace( 4 ) );
+        for ( int e = 0; e < 4; e++ )
+            assertTrue( dcel.getLeftFace( e ) == outer || dcel.getRightFace( e ) == outer );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.DoublyConnectedEdgeList#getOuterFace()}
+     * con dos triangulos disjuntos: cada uno tiene su contorno y la cara externa es la del
+     * triangulo mayor, aunque se anada despues.
+     */
+    @Test
+    public void testOuterFaceOfDisconnectedGraph() {
+        Graph graph = new Graph( "triangles", false, true, false, false );
+        Vertex[] small = { new Vertex( 0, 0 ), new Vertex( 10, 0 ), new Vertex( 0, 10 ) };
+        Vertex[] large = { new Vertex( 100, 0 ), new Vertex( 200, 0 ), new Vertex( 100, 100 ) };
+        for ( Vertex[] triangle : new Vertex[][] { small, large } ) {
+            for ( Vertex vertex : triangle )
+                graph.vertices.add( vertex );
+            graph.edges.add( new Edge( true, triangle[0], triangle[1] ) );
+            graph.edges.add( new Edge( true, triangle[1], triangle[2] ) );
+            graph.edges.add( new Edge( true, triangle[0], triangle[2] ) );
+        }
+
+        IndexedGraph indexed = new IndexedGraph( graph );
+        DoublyConnectedEdgeList dcel = new DoublyConnectedEdgeList( new RotationSystem( indexed ) );
+
+        // un interior y un contorno por triangulo
+        assertEquals( 4, dcel.getFaceCount() );
+        int outer = dcel.getOuterFace();
+        int[] vertices = dcel.getFaceVertices( dcel.getFaceHalfEdge( outer ) );
+        assertEquals( 3, vertices.length );
+        for ( int v : vertices )
+            assertTrue( indexed.getVertex( v ) == large[0] || indexed.getVertex( v ) == large[1] || indexed.getVertex( v ) == large[2] );
+        // el contorno y no el interior, que tiene los mismos vertices
+        double area = getArea( indexed, vertices );
+        assertTrue( area > 0 );
+        // el contorno del triangulo pequeno tambien tiene area positiva, pero menor
+        for ( int f = 0; f < dcel.getFaceCount(); f++ )
+            if ( f != outer )
+                assertTrue( getArea( indexed, dcel.getFaceVertices( dcel.getFaceHalfEdge( f ) ) ) < area );
+    }
+
+    /**
+     * Area orientada (doble) del poligono formado por los vertices en el orden de la cara.
+     */
+    private static double getArea( IndexedGraph graph, int[] vertices ) {
+        double area = 0;
+        for ( int i = 0; i < vertices.length; i++ ) {
+            int p = vertices[i];
+            int q = vertices[( i + 1 ) % vertices.length];
+            area += graph.getX( p ) * graph.getY( q ) - graph.getX( q ) * graph.getY( p );
+        }
+        return area;
+    }
+}
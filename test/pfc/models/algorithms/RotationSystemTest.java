@@ -0,0 +1,125 @@
+/**
+ * RotationSystemTest.java
+ */
+package pfc.models.algorithms;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+import pfc.utilities.graph.IndexedGraph;
+import pfc.utilities.graph.ScratchBuffers;
+
+
+/**
+ * Rotaciones de una estrella con centro 0 y vecinos al norte, este, sur y oeste,
+ * comparadas con las de {@link Rotation}.
+ * @author walber
+ *
+ */
+public class RotationSystemTest {
+
+    private Vertex[] v;
+
+    private Graph createGraph() {
+        Graph graph = new Graph( "star", false, true, false, false );
+        v = new Vertex[] { new Vertex( 50, 50 ), new Vertex( 50, 10 ), new Vertex( 90, 50 ),
+                new Vertex( 50, 90 ), new Vertex( 10, 50 ) };
+        for ( Vertex vertex : v )
+            graph.vertices.add( vertex );
+        // aristas en ambos sentidos, la direccion no cuenta en la rotacion
+        graph.edges.add( new Edge( true, v[0], v[3] ) );
+        graph.edges.add( new Edge( true, v[1], v[0] ) );
+        graph.edges.add( new Edge( true, v[0], v[4] ) );
+        graph.edges.add( new Edge( true, v[2], v[0] ) );
+        return graph;
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.RotationSystem#getClockwiseVertex(Vertex, Vertex)}.
+     */
+    @Test
+    public void testClockwise() {
+        Graph graph = createGraph();
+        RotationSystem rotations = new RotationSystem( graph );
+        Set<Vertex> neighbors = new HashSet<Vertex>( graph.getNeighborsInOut( v[0] ) );
+        Rotation rotation = new Rotation( v[0], neighbors );
+
+        assertEquals( 4, rotations.getDegree( rotations.getGraph().indexOf( v[0] ) ) );
+        // N -> E -> S -> O
+        for ( int i = 1; i <= 4; i++ ) {
+            Vertex next = v[i % 4 + 1];
+            assertEquals( "vecino clockwise incorrecto", next, rotations.getClockwiseVertex( v[0], v[i] ) );
+            assertEquals( "distinto de Rotation", rotation.getClockwiseVertex( v[i] ), rotations.getClockwiseVertex( v[0], v[i] ) );
+            assertEquals( "vecino counterclockwise incorrecto", v[i], rotations.getCounterClockwiseVertex( v[0], next ) );
+        }
+        // un vertice que no es vecino da el primero
+        assertEquals( rotation.first(), rotations.getClockwiseVertex( v[0], new Vertex( 0, 0 ) ) );
+        assertEquals( Arrays.asList( v[1], v[2], v[3], v[4] ), Arrays.asList( rotation.getClockwiseOrder() ) );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.RotationSystem#getTwin(int)}.
+     */
+    @Test
+    public void testSlots() {
+        RotationSystem rotations = new RotationSystem( createGraph() );
+        IndexedGraph indexed = rotations.getGraph();
+        assertEquals( "dos slots por arista", 8, rotations.getSlotCount() );
+        for ( int slot = 0; slot < rotations.getSlotCount(); slot++ ) {
+            int twin = rotations.getTwin( slot );
+            assertEquals( slot, rotations.getTwin( twin ) );
+            assertEquals( rotations.getSource( slot ), rotations.getNeighbor( twin ) );
+            assertEquals( slot, rotations.getSlot( rotations.getSource( slot ), rotations.getNeighbor( slot ) ) );
+            assertEquals( slot, rotations.getCounterClockwiseSlot( rotations.getClockwiseSlot( slot ) ) );
+        }
+        assertEquals( -1, rotations.getSlot( indexed.indexOf( v[1] ), indexed.indexOf( v[2] ) ) );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.RotationSystem#getSlot(int, int)} con grafos
+     * aleatorios, con aristas multiples y bucles, construidos uno detras de otro con los
+     * mismos {@link ScratchBuffers}.
+     */
+    @Test
+    public void testSlotsWithScratch() {
+        Random random = new Random( 1 );
+        ScratchBuffers scratch = new ScratchBuffers();
+        for ( int k = 0; k < 5; k++ ) {
+            int n = 10 + random.nextInt( 60 );
+            Graph graph = new Graph( "random", true, true, true, true );
+            for ( int i = 0; i < n; i++ )
+                graph.vertices.add( new Vertex( random.nextInt( 500 ), random.nextInt( 500 ) ) );
+            for ( int i = 0; i < 3 * n; i++ )
+                graph.edges.add( new Edge( true, graph.vertices.get( random.nextInt( n ) ), graph.vertices.get( random.nextInt( n ) ) ) );
+
+            scratch.reset();
+            RotationSystem rotations = new RotationSystem( new IndexedGraph( graph ), null, scratch );
+            IndexedGraph indexed = rotations.getGraph();
+            int slots = 0;
+            for ( int a = 0; a < n; a++ )
+                for ( int b = 0; b < n; b++ ) {
+                    Vertex va = indexed.getVertex( a );
+                    Vertex vb = indexed.getVertex( b );
+                    boolean adjacent = a != b && ( graph.getEdge( va, vb ) != null || graph.getEdge( vb, va ) != null );
+                    int slot = rotations.getSlot( a, b );
+                    assertEquals( a + " - " + b, adjacent, slot != -1 );
+                    if ( adjacent ) {
+                        slots++;
+                        assertEquals( a, rotations.getSource( slot ) );
+                        assertEquals( b, rotations.getNeighbor( slot ) );
+                        assertEquals( rotations.getSlot( b, a ), rotations.getTwin( slot ) );
+                    }
+                }
+            assertEquals( slots, rotations.getSlotCount() );
+        }
+    }
+}
@@ -3,9 +3,12 @@
  */
 package pfc.models.algorithms.visibilityrepresentation;
 
+import static org.junit.Assert.*;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
 import pfc.models.algorithms.DualGraph;
@@ -143,4 +146,79 @@ public class VisibilityRepresentationAlgorithmTest {
 		System.out.println( "]" );
 		
 	}
+	
+	/**
+	 * Test method for {@link pfc.models.algorithms.visibilityrepresentation.VisibilityRepresentationAlgorithm#computeDrawing(Graph)}.
+	 */
+	@Test
+	public void testComputeDrawing()
+	{
+		// rombo s-a-b-t con la diagonal a-b, s abajo y t arriba
+		Graph stGraph = new Graph( "rombo", false, true, false, false );
+		Vertex s = new Vertex( 50, 90 ), a = new Vertex( 10, 50 ), b = new Vertex( 90, 50 ), t = new Vertex( 50, 10 );
+		stGraph.vertices.add( s );
+		stGraph.vertices.add( a );
+		stGraph.vertices.add( b );
+		stGraph.vertices.add( t );
+		stGraph.edges.add( new Edge( true, s, a ) );
+		stGraph.edges.add( new Edge( true, s, b ) );
+		stGraph.edges.add( new Edge( true, a, b ) );
+		stGraph.edges.add( new Edge( true, a, t ) );
+		stGraph.edges.add( new Edge( true, b, t ) );
+		
+		VisibilityRepresentationAlgorithm algorithm = new VisibilityRepresentationAlgorithm( stGraph );
+		algorithm.executeAlgorithm( );
+		VisibilityRepresentationDrawing expectedDrawing = algorithm.getDrawing( );
+		VisibilityRepresentationDrawing computed = VisibilityRepresentationAlgorithm.computeDrawing( stGraph );
+		
+		// mismos segmentos que executeAlgorithm, los vertices de la copia tienen los mismos id
+		assertEquals( expectedDrawing.vertexSegments.size( ), computed.vertexSegments.size( ) );
+		for ( Vertex v : stGraph.vertices )
+		{
+			VertexSegment expected = expectedDrawing.getVertexSegment( v );
+			VertexSegment actual = computed.getVertexSegment( v );
+			assertSame( v, actual.vertex );
+			assertEquals( expected.yCoordinate.get( ), actual.yCoordinate.get( ) );
+			assertEquals( expected.xLeftCoordinate.get( ), actual.xLeftCoordinate.get( ) );
+			assertEquals( expected.xRightCoordinate.get( ), actual.xRightCoordinate.get( ) );
+		}
+		assertEquals( expectedDrawing.edgeSegments.size( ), computed.edgeSegments.size( ) );
+		for ( Edge e : stGraph.edges )
+		{
+			EdgeSegment expected = expectedDrawing.getEdgeSegment( e );
+			EdgeSegment actual = computed.getEdgeSegment( e );
+			assertEquals( expected.xCoordinate.get( ), actual.xCoordinate.get( ) );
+			assertEquals( expected.yBottomCoordinate.get( ), actual.yBottomCoordinate.get( ) );
+			assertEquals( expected.yTopCoordinate.get( ), actual.yTopCoordinate.get( ) );
+		}
+		
+		// el grafo no se modifica
+		for ( Vertex v : stGraph.vertices )
+			assertEquals( "", v.tag.get( ) );
+		
+		try
+		{
+			computed.vertexSegments.clear( );
+			fail( "el dibujo deberia ser de solo lectura" );
+		}
+		catch ( UnsupportedOperationException e )
+		{
+		}
+	}
+	
+	/**
+	 * El grafo de setUp tiene el target dentro de la cara externa.
+	 */
+	@Test
+	public void testComputeDrawingInnerTarget()
+	{
+		try
+		{
+			VisibilityRepresentationAlgorithm.computeDrawing( graph );
+			fail( "el target no esta en la cara externa" );
+		}
+		catch ( IllegalArgumentException e )
+		{
+		}
+	}
 }
@@ -0,0 +1,304 @@
+/**
+ * GraphFileUtilitiesTest.java
+ */
+package pfc.utilities;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Grafos de ejemplo del directorio {@code graphs} leidos y escritos en streaming,
+ * comparados con los que se obtienen leyendo el fichero entero con {@link Graph#Graph(String)},
+ * y convertidos al formato binario y de vuelta a JSON.
+ * @author walber
+ *
+ */
+public class GraphFileUtilitiesTest {
+
+    private File[] files;
+
+    @Before
+    public void setUp() {
+        files = new File( "graphs" ).listFiles( new FilenameFilter() {
+            @Override
+            public boolean accept( File dir, String name ) {
+                return name.endsWith( GraphFileUtilities.JSON_EXTENSION );
+            }
+        } );
+        assertNotNull( "no se encuentra el directorio graphs", files );
+        assertTrue( files.length > 0 );
+        Arrays.sort( files );
+    }
+
+    /**
+     * Grafo leido como antes de {@link GraphFileUtilities}: el fichero entero en un
+     * {@code String}.
+     */
+    private static Graph readWholeFile( File file ) throws IOException {
+        Scanner scanner = new Scanner( file );
+        StringBuilder sb = new StringBuilder();
+        while ( scanner.hasNextLine() )
+            sb.append( scanner.nextLine() );
+        scanner.close();
+        return new Graph( sb.toString() );
+    }
+
+    private static File createTempFile( String extension ) throws IOException {
+        File file = File.createTempFile( "graph", extension );
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Comprobar que los dos grafos tienen los mismos atributos, vertices y aristas, en el
+     * mismo orden, incluidos los puntos de quiebro de las aristas.
+     */
+    static void assertSameGraph( String message, Graph expected, Graph actual ) {
+        assertEquals( message, expected.name.get(), actual.name.get() );
+        assertEquals( message, expected.tag.get(), actual.tag.get() );
+        assertEquals( message, expected.areLoopsAllowed, actual.areLoopsAllowed );
+        assertEquals( message, expected.areDirectedEdgesAllowed, actual.areDirectedEdgesAllowed );
+        assertEquals( message, expected.areMultipleEdgesAllowed, actual.areMultipleEdgesAllowed );
+        assertEquals( message, expected.areCyclesAllowed, actual.areCyclesAllowed );
+
+        assertEquals( message, expected.vertices.size(), actual.vertices.size() );
+        for ( int i = 0; i < expected.vertices.size(); i++ ) {
+            Vertex e = expected.vertices.get( i );
+            Vertex a = actual.vertices.get( i );
+            assertEquals( message, e.id.get(), a.id.get() );
+            assertEquals( message, e.x.get(), a.x.get() );
+            assertEquals( message, e.y.get(), a.y.get() );
+            assertEquals( message, e.label.get(), a.label.get() );
+            assertEquals( message, e.radius.get(), a.radius.get() );
+            assertEquals( message, e.color.get(), a.color.get() );
+            assertEquals( message, e.isSelected.get(), a.isSelected.get() );
+            assertEquals( message, e.weight.get(), a.weight.get() );
+            assertEquals( message, e.tag.get(), a.tag.get() );
+        }
+
+        assertEquals( message, expected.edges.size(), actual.edges.size() );
+        for ( int i = 0; i < expected.edges.size(); i++ ) {
+            Edge e = expected.edges.get( i );
+            Edge a = actual.edges.get( i );
+            assertEquals( message, e.from.id.get(), a.from.id.get() );
+            assertEquals( message, e.to.id.get(), a.to.id.get() );
+            assertEquals( message, e.isDirected, a.isDirected );
+            assertEquals( message, e.weight.get(), a.weight.get() );
+            assertEquals( message, e.color.get(), a.color.get() );
+            assertEquals( message, e.label.get(), a.label.get() );
+            assertEquals( message, e.isSelected.get(), a.isSelected.get() );
+            assertEquals( message, e.thickness.get(), a.thickness.get() );
+            assertEquals( message, e.isLinear(), a.isLinear() );
+            assertEquals( message, e.handleX.get(), a.handleX.get() );
+            assertEquals( message, e.handleY.get(), a.handleY.get() );
+            assertEquals( message, e.tag.get(), a.tag.get() );
+            assertEquals( message, e.isPolyline(), a.isPolyline() );
+            if ( e.isPolyline() )
+                assertEquals( message, e.getBends(), a.getBends() );
+        }
+    }
+
+    /**
+     * Anadir al grafo los atributos que no aparecen en los ficheros de ejemplo: puntos de
+     * quiebro, etiquetas con comillas y elementos seleccionados. Los campos {@code tag} no se
+     * guardan en JSON, y los ficheros JSON se leen y escriben con la codificacion de la
+     * plataforma, asi que {@code tag} y los caracteres no ASCII solo se prueban en binario.
+     */
+    private static void decorate( Graph graph ) {
+        for ( int i = 0; i < graph.vertices.size(); i += 2 ) {
+            Vertex vertex = graph.vertices.get( i );
+            vertex.label.set( "v" + i + " \"\\" );
+            vertex.isSelected.set( true );
+        }
+        for ( int i = 0; i < graph.edges.size(); i += 2 ) {
+            Edge edge = graph.edges.get( i );
+            List<Point2D> bends = new ArrayList<Point2D>();
+            for ( int b = 0; b <= i % 3; b++ )
+                bends.add( new Point2D.Double( 10.5 * b + i, -0.25 * b ) );
+            edge.setBends( bends );
+            edge.isSelected.set( true );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#readGraph(java.io.File)}.
+     */
+    @Test
+    public void testReadGraph() throws IOException {
+        for ( File file : files )
+            assertEquals( file.getName(), readWholeFile( file ).toString(), GraphFileUtilities.readGraph( file ).toString() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#writeGraph(Graph, java.io.File)}:
+     * el fichero escrito se lee igual con los dos caminos.
+     */
+    @Test
+    public void testWriteGraph() throws IOException {
+        File copy = createTempFile( GraphFileUtilities.JSON_EXTENSION );
+        for ( File file : files ) {
+            String expected = readWholeFile( file ).toString();
+            GraphFileUtilities.writeGraph( GraphFileUtilities.readGraph( file ), copy );
+            assertEquals( file.getName(), expected, readWholeFile( copy ).toString() );
+            assertEquals( file.getName(), expected, GraphFileUtilities.readGraph( copy ).toString() );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#writeGraph(Graph, JsonWriter)}:
+     * sin vertices ni aristas.
+     */
+    @Test
+    public void testWriteEmptyGraph() throws IOException {
+        Graph graph = new Graph( "vacio \"1\"", true, true, false, true );
+        StringWriter text = new StringWriter();
+        GraphFileUtilities.writeGraph( graph, new JsonWriter( text ) );
+        Graph read = GraphFileUtilities.readGraph( new JsonReader( text.toString() ) );
+        assertEquals( graph.toString(), read.toString() );
+        assertEquals( graph.toString(), new Graph( text.toString() ).toString() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#readGraph(java.io.File)}: un
+     * fichero truncado, o con algo despues del grafo, no se lee a medias.
+     */
+    @Test(timeout = 10000)
+    public void testReadMalformedGraph() throws IOException {
+        String json = GraphFileUtilities.readGraph( files[0] ).toString();
+        String[] malformed = { json.substring( 0, json.length() / 2 ), json.substring( 0, json.length() - 1 ), json + " }",
+                json + json };
+        File file = createTempFile( GraphFileUtilities.JSON_EXTENSION );
+        for ( String text : malformed ) {
+            FileWriter writer = new FileWriter( file );
+            writer.write( text );
+            writer.close();
+            boolean thrown = false;
+            try {
+                GraphFileUtilities.readGraph( file );
+            }
+            catch ( Error e ) {
+                thrown = true;
+            }
+            catch ( RuntimeException e ) {
+                thrown = true;
+            }
+            assertTrue( "fichero mal formado aceptado", thrown );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#convert(File, File)}: de JSON a
+     * binario y de vuelta a JSON sin perder ningun atributo, tambien los puntos de quiebro.
+     */
+    @Test
+    public void testConvert() throws IOException {
+        File json = createTempFile( GraphFileUtilities.JSON_EXTENSION );
+        File binary = createTempFile( GraphFileUtilities.BINARY_EXTENSION );
+        File back = createTempFile( GraphFileUtilities.JSON_EXTENSION );
+        for ( File file : files ) {
+            Graph expected = readWholeFile( file );
+            GraphFileUtilities.convert( file, binary );
+            assertSameGraph( file.getName(), expected, GraphFileUtilities.readGraph( binary ) );
+            GraphFileUtilities.convert( binary, back );
+            assertSameGraph( file.getName(), expected, readWholeFile( back ) );
+
+            decorate( expected );
+            GraphFileUtilities.writeGraph( expected, json );
+            GraphFileUtilities.convert( json, binary );
+            GraphFileUtilities.convert( binary, back );
+            assertSameGraph( file.getName(), expected, GraphFileUtilities.readGraph( back ) );
+            assertSameGraph( file.getName(), expected, readWholeFile( back ) );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#writeBinaryGraph(Graph, java.io.DataOutput)}:
+     * escribir de nuevo el grafo leido da los mismos bytes.
+     */
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        for ( File file : files ) {
+            Graph graph = GraphFileUtilities.readGraph( file );
+            decorate( graph );
+            graph.tag.set( "grafo" );
+            for ( int i = 0; i < graph.vertices.size(); i += 3 ) {
+                graph.vertices.get( i ).tag.set( "v" + i );
+                graph.vertices.get( i ).label.set( "\u00f1\u00e1\u4e2d" + i );
+            }
+            for ( int i = 0; i < graph.edges.size(); i += 3 )
+                graph.edges.get( i ).tag.set( "e" + i );
+            byte[] bytes = toBytes( graph );
+            Graph read = GraphFileUtilities.readBinaryGraph( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+            assertSameGraph( file.getName(), graph, read );
+            assertTrue( file.getName(), Arrays.equals( bytes, toBytes( read ) ) );
+        }
+    }
+
+    private static byte[] toBytes( Graph graph ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        GraphFileUtilities.writeBinaryGraph( graph, out );
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Comprobar que leer los bytes como grafo binario lanza una {@link IOException}.
+     */
+    private static void assertRejected( String message, byte[] bytes ) {
+        boolean thrown = false;
+        try {
+            GraphFileUtilities.readBinaryGraph( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+        }
+        catch ( IOException e ) {
+            thrown = true;
+        }
+        assertTrue( message, thrown );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphFileUtilities#readBinaryGraph(java.io.DataInput)}
+     * con una cabecera que no es la del formato, una version desconocida y un fichero truncado.
+     */
+    @Test
+    public void testReadBinaryGraphRejected() throws IOException {
+        byte[] bytes = toBytes( GraphFileUtilities.readGraph( files[0] ) );
+
+        byte[] magic = bytes.clone();
+        magic[0] ^= 0x01;
+        assertRejected( "cabecera incorrecta aceptada", magic );
+
+        byte[] version = bytes.clone();
+        version[7] = (byte) ( GraphFileUtilities.BINARY_VERSION + 1 );
+        assertRejected( "version desconocida aceptada", version );
+        version[7] = 0;
+        assertRejected( "version 0 aceptada", version );
+
+        assertRejected( "fichero truncado aceptado", Arrays.copyOf( bytes, bytes.length / 2 ) );
+        assertRejected( "fichero vacio aceptado", new byte[0] );
+        // un fichero JSON con la extension binaria
+        assertRejected( "fichero JSON aceptado", GraphFileUtilities.readGraph( files[0] ).toString().getBytes( "UTF-8" ) );
+    }
+}
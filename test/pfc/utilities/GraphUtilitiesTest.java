@@ -6,7 +6,14 @@ package pfc.utilities;
 
 import static org.junit.Assert.*;
 
+import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Before;
@@ -16,6 +23,11 @@ import pfc.models.Edge;
 import pfc.models.Graph;
 import pfc.models.Vertex;
 import pfc.utilities.GraphUtilities;
+import pfc.utilities.graph.EdgeCrossing;
+import pfc.utilities.graph.GraphValidator;
+import pfc.utilities.graph.GraphValidator.Check;
+import pfc.utilities.graph.PlanarityTester;
+import pfc.utilities.graph.ValidationReport;
 
 
 /**
@@ -73,6 +85,36 @@ public class GraphUtilitiesTest {
         }
     } 
     
+    /**
+     * Test method for {@link pfc.utilities.GraphUtilities#getDirectedPlanarGraph(pfc.models.Graph)}.
+     * Rejilla de 100x100 vertices: con una busqueda de camino por arista tardaba decenas de segundos.
+     */
+    @Test( timeout = 10000 )
+    public void testGetDirectedPlanarGraphGrid() {
+        int k = 100;
+        Graph grid = new Graph( "grid", false, false, false, true );
+        Vertex[] v = new Vertex[k * k];
+        for ( int i = 0; i < v.length; i++ ) {
+            v[i] = new Vertex( 10 + 10 * ( i % k ), 10 + 10 * ( i / k ) );
+            grid.vertices.add( v[i] );
+        }
+        for ( int i = 0; i < k; i++ )
+            for ( int j = 0; j < k; j++ ) {
+                if ( j + 1 < k )
+                    grid.edges.add( new Edge( false, v[i * k + j], v[i * k + j + 1] ) );
+                if ( i + 1 < k )
+                    grid.edges.add( new Edge( false, v[i * k + j], v[( i + 1 ) * k + j] ) );
+            }
+
+        Graph st = GraphUtilities.getDirectedPlanarGraph( grid );
+        assertEquals( grid.edges.size(), st.edges.size() );
+        assertFalse( st.areCyclesAllowed );
+        // source es la esquina mas alejada del origen y target la mas proxima
+        assertEquals( Collections.singleton( v[k * k - 1] ), st.getSources() );
+        assertEquals( Collections.singleton( v[0] ), st.getSinks() );
+        assertTrue( GraphUtilities.isSTGraph( st ) );
+    }
+
     /**
      * Test method for {@link pfc.utilities.GraphUtilities#findBiconnectedComponents(pfc.models.Graph)}.
      */
@@ -228,5 +270,260 @@ public class GraphUtilitiesTest {
         }
     }
 
+    /**
+     * Test method for {@link pfc.utilities.GraphUtilities#getTransitiveReduction(pfc.models.Graph)}.
+     */
+    @Test
+    public void testGetTransitiveReduction() {
+        // s -> a -> b -> t, con las aristas transitivas (s,b) y (s,t)
+        Graph st = new Graph( "st", false, true, false, false );
+        Vertex s = new Vertex( 0, 0 );
+        Vertex a = new Vertex( 0, 1 );
+        Vertex b = new Vertex( 0, 2 );
+        Vertex t = new Vertex( 0, 3 );
+        st.vertices.add( s );
+        st.vertices.add( a );
+        st.vertices.add( b );
+        st.vertices.add( t );
+        st.edges.add( new Edge( true, s, a ) );
+        st.edges.add( new Edge( true, a, b ) );
+        st.edges.add( new Edge( true, b, t ) );
+        st.edges.add( new Edge( true, s, b ) );
+        st.edges.add( new Edge( true, s, t ) );
+
+        List<Edge> transitive = GraphUtilities.getTransitiveReduction( st ).getTransitiveEdges( );
+        assertEquals( 2, transitive.size() );
+        assertTrue( transitive.contains( new Edge( true, s, b ) ) );
+        assertTrue( transitive.contains( new Edge( true, s, t ) ) );
+        assertFalse( GraphUtilities.isReducedDigraph( st ) );
+        for ( Edge e : st.edges )
+            assertEquals( transitive.contains( e ), GraphUtilities.isTransitiveEdge( st, e ) );
+
+        st.edges.removeAll( transitive );
+        assertTrue( GraphUtilities.isReducedDigraph( st ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphUtilities#isTransitiveEdge(pfc.models.Graph, pfc.models.Edge)}
+     * con lazos, que no son transitivos ni impiden encontrar las aristas transitivas.
+     */
+    @Test
+    public void testIsTransitiveEdgeLoops() {
+        // s -> a -> t con la arista transitiva (s,t) y lazos en s y en a
+        Graph st = new Graph( "loops", true, true, false, true );
+        Vertex s = new Vertex( 0, 0 );
+        Vertex a = new Vertex( 0, 1 );
+        Vertex t = new Vertex( 0, 2 );
+        st.vertices.add( s );
+        st.vertices.add( a );
+        st.vertices.add( t );
+        st.edges.add( new Edge( true, s, a ) );
+        st.edges.add( new Edge( true, a, t ) );
+        st.edges.add( new Edge( true, s, t ) );
+        st.edges.add( new Edge( true, s, s ) );
+        st.edges.add( new Edge( true, a, a ) );
+        assertEquals( 5, st.edges.size() );
+
+        List<Edge> transitive = GraphUtilities.getTransitiveReduction( st ).getTransitiveEdges( );
+        assertEquals( Collections.singletonList( new Edge( true, s, t ) ), transitive );
+        assertFalse( GraphUtilities.isTransitiveEdge( st, new Edge( true, s, s ) ) );
+        for ( Edge e : st.edges )
+            assertEquals( transitive.contains( e ), GraphUtilities.isTransitiveEdge( st, e ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.GraphUtilities#isTransitiveEdge(pfc.models.Graph, pfc.models.Edge)}
+     * con aristas paralelas, que no hacen transitiva a la otra.
+     */
+    @Test
+    public void testIsTransitiveEdgeParallelEdges() {
+        // dos aristas entre u y v, una en cada sentido, y despues el camino u - w - v
+        Graph multi = new Graph( "multi", false, false, true, true );
+        Vertex u = new Vertex( 0, 0 );
+        Vertex v = new Vertex( 2, 0 );
+        Vertex w = new Vertex( 1, 1 );
+        multi.vertices.add( u );
+        multi.vertices.add( v );
+        multi.vertices.add( w );
+        Edge uv = new Edge( false, u, v );
+        Edge vu = new Edge( false, v, u );
+        multi.edges.add( uv );
+        multi.edges.add( vu );
+        assertEquals( 2, multi.edges.size() );
+
+        assertTrue( GraphUtilities.getTransitiveReduction( multi ).getTransitiveEdges( ).isEmpty() );
+        assertFalse( GraphUtilities.isTransitiveEdge( multi, uv ) );
+        assertFalse( GraphUtilities.isTransitiveEdge( multi, vu ) );
+
+        multi.edges.add( new Edge( false, u, w ) );
+        multi.edges.add( new Edge( false, w, v ) );
+        assertTrue( GraphUtilities.isTransitiveEdge( multi, uv ) );
+        assertTrue( GraphUtilities.isTransitiveEdge( multi, vu ) );
+
+        // en un grafo dirigido la arista paralela a (s,a) no se anade, y una copia de (s,a) no es transitiva
+        Graph st = new Graph( "st", false, true, true, false );
+        Vertex s = new Vertex( 0, 0 );
+        Vertex a = new Vertex( 0, 1 );
+        Vertex t = new Vertex( 0, 2 );
+        st.vertices.add( s );
+        st.vertices.add( a );
+        st.vertices.add( t );
+        st.edges.add( new Edge( true, s, a ) );
+        st.edges.add( new Edge( true, s, a ) );
+        st.edges.add( new Edge( true, a, t ) );
+        st.edges.add( new Edge( true, s, t ) );
+        assertEquals( 3, st.edges.size() );
+
+        List<Edge> transitive = GraphUtilities.getTransitiveReduction( st ).getTransitiveEdges( );
+        assertEquals( Collections.singletonList( new Edge( true, s, t ) ), transitive );
+        assertFalse( GraphUtilities.isTransitiveEdge( st, new Edge( true, s, a ) ) );
+        assertTrue( GraphUtilities.isTransitiveEdge( st, new Edge( true, s, t ) ) );
+        for ( Edge e : st.edges )
+            assertEquals( transitive.contains( e ), GraphUtilities.isTransitiveEdge( st, e ) );
+    }
+
+    @Test
+    public void testIsPlanar() {
+        // K5 no es planar, K5 menos una arista si
+        Graph k5 = new Graph( "k5", false, false, false, true );
+        Vertex[ ] v = new Vertex[5];
+        for ( int i = 0; i < 5; i++ ) {
+            v[i] = new Vertex( i, i * i );
+            k5.vertices.add( v[i] );
+        }
+        for ( int i = 0; i < 5; i++ )
+            for ( int j = i + 1; j < 5; j++ )
+                k5.edges.add( new Edge( false, v[i], v[j] ) );
+        assertFalse( GraphUtilities.isPlanar( k5 ) );
+        assertNull( GraphUtilities.getPlanarEmbedding( k5 ).getRotation( v[0] ) );
+
+        k5.edges.remove( new Edge( false, v[0], v[1] ) );
+        PlanarityTester embedding = GraphUtilities.getPlanarEmbedding( k5, v[2], v[3] );
+        assertTrue( embedding.isPlanar( ) );
+        assertEquals( 3, embedding.getRotation( v[0] ).size() );
+        assertEquals( 4, embedding.getRotation( v[2] ).size() );
+        // con la arista (s,t) anadida vuelve a ser K5
+        assertFalse( GraphUtilities.getPlanarEmbedding( k5, v[0], v[1] ).isPlanar( ) );
+
+        // K3,3
+        Graph k33 = new Graph( "k33", false, false, false, true );
+        Vertex[ ] w = new Vertex[6];
+        for ( int i = 0; i < 6; i++ ) {
+            w[i] = new Vertex( i, i % 3 );
+            k33.vertices.add( w[i] );
+        }
+        for ( int i = 0; i < 3; i++ )
+            for ( int j = 3; j < 6; j++ )
+                k33.edges.add( new Edge( false, w[i], w[j] ) );
+        assertFalse( GraphUtilities.isPlanar( k33 ) );
+    }
+
+    @Test
+    public void testGetCrossings() {
+        // cuadrado con sus dos diagonales: un cruce en el centro
+        Graph square = new Graph( "square", false, false, false, true );
+        Vertex[ ] v = { new Vertex( 0, 0 ), new Vertex( 10, 0 ), new Vertex( 10, 10 ), new Vertex( 0, 10 ) };
+        for ( Vertex u : v )
+            square.vertices.add( u );
+        for ( int i = 0; i < 4; i++ )
+            square.edges.add( new Edge( false, v[i], v[( i + 1 ) % 4] ) );
+        Edge diagonal = new Edge( false, v[0], v[2] );
+        square.edges.add( diagonal );
+        square.edges.add( new Edge( false, v[1], v[3] ) );
+        assertTrue( GraphUtilities.isPlanarEmbedding( graph1 ) );
+        assertFalse( GraphUtilities.isPlanarEmbedding( square ) );
+        assertEquals( 1, GraphUtilities.getNumberOfCrossings( square ) );
+        List<EdgeCrossing> crossings = GraphUtilities.getCrossings( square, 5 ).getCrossings( );
+        assertEquals( 1, crossings.size( ) );
+        assertEquals( 5.0, crossings.get( 0 ).getPoint( ).getX( ), 1e-9 );
+        assertEquals( 5.0, crossings.get( 0 ).getPoint( ).getY( ), 1e-9 );
+
+        // la diagonal como polilinea cruza los dos lados verticales y la otra diagonal
+        List<Point2D> bends = new ArrayList<Point2D>( );
+        bends.add( new Point2D.Double( -5, 5 ) );
+        bends.add( new Point2D.Double( 15, 8 ) );
+        diagonal.setBends( bends );
+        assertEquals( 3, GraphUtilities.getNumberOfCrossings( square ) );
+        assertEquals( 0, GraphUtilities.getCrossings( square, 0 ).getCrossings( ).size( ) );
+    }
+
+    @Test
+    public void testValidate() {
+        Set<Check> all = EnumSet.allOf( Check.class );
+        // ciclo no dirigido: biconexo y planar, pero no es st-graph
+        ValidationReport report = GraphUtilities.validate( graph1, all );
+        assertFalse( report.isValid( ) );
+        assertTrue( report.isPassed( Check.PLANAR_EMBEDDING ) );
+        assertTrue( report.isPassed( Check.BICONNECTED ) );
+        assertTrue( report.isPassed( Check.MAXIMUM_DEGREE_4 ) );
+        assertFalse( report.isPassed( Check.ST_GRAPH ) );
+        assertTrue( report.isSkipped( Check.ST_ON_OUTER_FACE ) );
+        assertEquals( EnumSet.of( Check.ST_GRAPH, Check.ST_ON_OUTER_FACE, Check.REDUCED_DIGRAPH ), report.getFailedChecks( ) );
+
+        // la orientacion st del ciclo cumple las precondiciones de los algoritmos
+        report = GraphUtilities.validate( directed, GraphValidator.ST_GRAPH_DRAWING );
+        assertEquals( GraphUtilities.isPlanarEmbedding( directed ) && GraphUtilities.isSTGraph( directed )
+                && GraphUtilities.areSTOnOuterFace( directed ), report.isValid( ) );
+        assertEquals( GraphUtilities.isReducedDigraph( directed ),
+                GraphUtilities.validate( directed, EnumSet.of( Check.REDUCED_DIGRAPH ) ).isValid( ) );
+    }
+
+    @Test
+    public void testFindConnectedComponentsInParallel() {
+        // ciclo 0 -> 1 -> 2 -> 0, arista 2 -> 3, ciclo 3 -> 4 -> 3 y vertice 5 aislado
+        Graph g = new Graph( "scc", false, true, false, true );
+        Vertex[] v = new Vertex[6];
+        for ( int i = 0; i < v.length; i++ ) {
+            v[i] = new Vertex( i, 0, String.valueOf( i ) );
+            g.vertices.add( v[i] );
+        }
+        int[][] edges = { { 0, 1 }, { 1, 2 }, { 2, 0 }, { 2, 3 }, { 3, 4 }, { 4, 3 } };
+        for ( int[] e : edges )
+            g.edges.add( new Edge( true, v[e[0]], v[e[1]] ) );
+
+        Set<Set<Vertex>> strong = new HashSet<Set<Vertex>>();
+        for ( Collection<Vertex> component : GraphUtilities.findStronglyConnectedComponents( g, 2 ) )
+            strong.add( new HashSet<Vertex>( component ) );
+        assertEquals( 3, strong.size() );
+        assertTrue( strong.contains( new HashSet<Vertex>( Arrays.asList( v[0], v[1], v[2] ) ) ) );
+        assertTrue( strong.contains( new HashSet<Vertex>( Arrays.asList( v[3], v[4] ) ) ) );
+
+        // ordenadas por su primer vertice
+        List<Collection<Vertex>> weak = new ArrayList<Collection<Vertex>>( GraphUtilities.findWeaklyConnectedComponents( g, 2 ) );
+        assertEquals( 2, weak.size() );
+        assertEquals( Arrays.asList( v[0], v[1], v[2], v[3], v[4] ), new ArrayList<Vertex>( weak.get( 0 ) ) );
+        assertEquals( Arrays.asList( v[5] ), new ArrayList<Vertex>( weak.get( 1 ) ) );
+    }
+
+    @Test
+    public void testGetMaximumDegree() {
+        // estrella con centro c y cuatro hojas, mas un bucle en c
+        Graph star = new Graph( "star", true, false, false, true );
+        Vertex c = new Vertex( 0, 0 );
+        star.vertices.add( c );
+        for ( int i = 0; i < 4; i++ ) {
+            Vertex leaf = new Vertex( i + 1, 1 );
+            star.vertices.add( leaf );
+            star.edges.add( new Edge( false, c, leaf ) );
+        }
+        assertEquals( 4, GraphUtilities.getMaximumDegree( star ) );
+        assertArrayEquals( new int[] { 0, 4, 0, 0, 1 }, star.getDegreeHistogram().getDistribution() );
+
+        // el bucle cuenta dos veces
+        Edge loop = new Edge( false, c, c );
+        star.edges.add( loop );
+        assertEquals( 6, GraphUtilities.getMaximumDegree( star ) );
+        assertEquals( 1, GraphUtilities.getMaximumDegree( star, star.vertices.subList( 1, 5 ) ) );
+
+        // al quitar aristas y vertices el histograma se actualiza
+        star.edges.remove( loop );
+        star.vertices.remove( star.vertices.get( 1 ) );
+        assertEquals( 3, GraphUtilities.getMaximumDegree( star ) );
+        assertEquals( 3, star.getDegreeHistogram().getCount( 1 ) );
+        star.edges.clear();
+        assertEquals( 0, GraphUtilities.getMaximumDegree( star ) );
+        assertEquals( 4, star.getDegreeHistogram().getCount( 0 ) );
+    }
+
 }
 
@@ -0,0 +1,145 @@
+/**
+ * JsonReaderTest.java
+ */
+package pfc.utilities;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+/**
+ * Lectura en streaming comparada con {@link JsonUtilities#parseObject(String)}, secuencias
+ * de escape, valores nulos y errores en textos mal formados.
+ * @author walber
+ *
+ */
+public class JsonReaderTest {
+
+    /**
+     * Comprobar que leer el texto lanza un error, en lugar de devolver un valor incompleto.
+     */
+    private static void assertMalformed( String json ) {
+        boolean thrown = false;
+        try {
+            JsonReader reader = new JsonReader( json );
+            reader.nextValue();
+            // un documento con algo despues del valor tampoco es valido
+            thrown = reader.peek() != JsonReader.Token.END_DOCUMENT;
+        }
+        catch ( Error e ) {
+            thrown = true;
+        }
+        catch ( IOException e ) {
+            thrown = true;
+        }
+        catch ( RuntimeException e ) {
+            thrown = true;
+        }
+        assertTrue( "texto mal formado aceptado: " + json, thrown );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonReader#nextValue()}: los mismos valores que
+     * {@link JsonUtilities#parseObject(String)}.
+     */
+    @Test
+    public void testNextValue() throws IOException {
+        String json = "{ \"name\" : \"g\", \"count\" : 3, \"x\" : -1.5, \"y\" : 2.5E3, \"isSelected\" : true, "
+                + "\"color\" : #ff00ff00, \"items\" : [ 1, [ 2, 3 ], { \"a\" : false } ], \"empty\" : [ ], \"none\" : { } }";
+        assertEquals( JsonUtilities.parseObject( json ), new JsonReader( json ).nextValue() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonReader#nextValue()} con secuencias de escape,
+     * tambien las que escribe {@link JsonUtilities#formatString(String)}.
+     */
+    @Test
+    public void testEscapes() throws IOException {
+        assertEquals( "a\"b\\c/d\b\f\n\r\t\u00e9'",
+                new JsonReader( "\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\\'\"" ).nextValue() );
+        assertEquals( "comillas \"dobles\"", new JsonReader( "'comillas \"dobles\"'" ).nextValue() );
+
+        String text = "</script> \"\\ \u0001\u001f \u00f1 \u20ac\t\n";
+        assertEquals( text, new JsonReader( JsonUtilities.formatString( text ) ).nextValue() );
+        Map<String, Object> members = new HashMap<String, Object>();
+        members.put( text, text );
+        assertEquals( members, new JsonReader( JsonUtilities.formatObject( members ) ).nextValue() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonReader#nextValue()}: los miembros nulos no se
+     * guardan y los elementos nulos de una lista si, como en {@link JsonUtilities}.
+     */
+    @Test
+    public void testNulls() throws IOException {
+        String json = "{ \"a\" : null, \"b\" : [ null, 1, null ], \"c\" : NULL }";
+        Object value = new JsonReader( json ).nextValue();
+        assertEquals( JsonUtilities.parseObject( json ), value );
+        Map<?, ?> members = (Map<?, ?>) value;
+        assertFalse( members.containsKey( "a" ) );
+        assertFalse( members.containsKey( "c" ) );
+        assertEquals( Arrays.asList( null, 1, null ), members.get( "b" ) );
+        assertNull( new JsonReader( "null" ).nextValue() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonReader#skipValue()}.
+     */
+    @Test
+    public void testSkipValue() throws IOException {
+        JsonReader reader = new JsonReader( "{ \"skip\" : { \"a\" : [ 1, { \"b\" : \"]}\" } ] }, \"keep\" : 2 }" );
+        reader.beginObject();
+        assertEquals( "skip", reader.nextName() );
+        reader.skipValue();
+        assertEquals( "keep", reader.nextName() );
+        assertEquals( 2, reader.nextValue() );
+        reader.endObject();
+        assertEquals( JsonReader.Token.END_DOCUMENT, reader.peek() );
+
+        List<String> truncated = Arrays.asList( "{ \"a\" : [ 1, 2", "[ { \"a\" : 1 }", "{ \"a\" : \"b" );
+        for ( String json : truncated ) {
+            boolean thrown = false;
+            try {
+                new JsonReader( json ).skipValue();
+            }
+            catch ( Error e ) {
+                thrown = true;
+            }
+            assertTrue( "texto truncado aceptado: " + json, thrown );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonReader#nextValue()} con textos mal formados:
+     * truncados, con cadenas sin cerrar, escapes ilegales, valores que faltan o sobran.
+     */
+    @Test(timeout = 10000)
+    public void testMalformed() {
+        assertMalformed( "" );
+        assertMalformed( "{" );
+        assertMalformed( "{ \"vertices\" : [ { \"id\" : \"1\" } " );
+        assertMalformed( "{ \"a\" : [ 1, 2 }" );
+        assertMalformed( "[ 1, 2 " );
+        assertMalformed( "{ \"a\" : \"abc" );
+        assertMalformed( "{ \"a\" : \"abc\ndef\" }" );
+        assertMalformed( "{ \"a\" : \"a\\qb\" }" );
+        assertMalformed( "{ \"a\" : \"\\u00\" }" );
+        assertMalformed( "{ \"a\" : \"\\u12" );
+        assertMalformed( "{ \"a\" : }" );
+        assertMalformed( "{ \"a\" = 1 }" );
+        assertMalformed( "{ 1 : 2 }" );
+        assertMalformed( "{ \"a\" : tru e }" );
+        assertMalformed( "{ \"a\" : 1, \"a\" : 2 }" );
+        assertMalformed( "{ \"a\" : 1 } }" );
+        assertMalformed( "{ \"a\" : 1 } { \"b\" : 2 }" );
+        assertMalformed( "}" );
+        assertMalformed( "]" );
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * JsonWriterTest.java
+ */
+package pfc.utilities;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+/**
+ * Texto escrito con {@link JsonWriter} comparado con el de {@link JsonUtilities#formatObject(Map)},
+ * y leido de nuevo con {@link JsonReader}.
+ * @author walber
+ *
+ */
+public class JsonWriterTest {
+
+    /**
+     * Miembros de todos los tipos; {@link JsonUtilities#formatValue(Object)} no escribe
+     * objetos anidados, por lo que solo se anaden con {@code nested}.
+     */
+    private static Map<String, Object> createMembers( boolean nested ) {
+        Map<String, Object> members = new LinkedHashMap<String, Object>();
+        members.put( "name", "a \"b\" \\ c\n\u00e9" );
+        members.put( "count", 3 );
+        members.put( "weight", -0.25 );
+        members.put( "isSelected", true );
+        members.put( "none", null );
+        members.put( "items", Arrays.asList( 1, "dos", null, Arrays.asList( 3 ) ) );
+        members.put( "empty", Arrays.asList() );
+        if ( nested ) {
+            Map<String, Object> point = new LinkedHashMap<String, Object>();
+            point.put( "x", 1.5 );
+            point.put( "y", 2 );
+            members.put( "nested", point );
+        }
+        return members;
+    }
+
+    private static void writeObject( JsonWriter writer, Map<String, Object> members ) throws IOException {
+        writer.beginObject();
+        for ( Map.Entry<String, Object> member : members.entrySet() ) {
+            if ( member.getValue() instanceof Map<?, ?> ) {
+                @SuppressWarnings( "unchecked" )
+                Map<String, Object> nested = (Map<String, Object>) member.getValue();
+                writer.name( member.getKey() );
+                writeObject( writer, nested );
+            }
+            else if ( member.getValue() instanceof Iterable<?> ) {
+                writer.name( member.getKey() ).beginArray();
+                for ( Object item : (Iterable<?>) member.getValue() )
+                    writer.value( item );
+                writer.endArray();
+            }
+            else
+                writer.member( member.getKey(), member.getValue() );
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonWriter}: el mismo texto que
+     * {@link JsonUtilities#formatObject(Map)}, con escapes y valores nulos.
+     */
+    @Test
+    public void testFormat() throws IOException {
+        Map<String, Object> members = createMembers( false );
+        StringWriter text = new StringWriter();
+        JsonWriter writer = new JsonWriter( text );
+        writeObject( writer, members );
+        writer.flush();
+        assertEquals( JsonUtilities.formatObject( members ), text.toString() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.JsonWriter}: el texto escrito se lee con
+     * {@link JsonReader} con los mismos valores, salvo los miembros nulos, que no se guardan.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Map<String, Object> members = createMembers( true );
+        StringWriter text = new StringWriter();
+        JsonWriter writer = new JsonWriter( text );
+        writeObject( writer, members );
+        writer.close();
+
+        members.remove( "none" );
+        JsonReader reader = new JsonReader( text.toString() );
+        assertEquals( members, reader.nextValue() );
+        assertEquals( JsonReader.Token.END_DOCUMENT, reader.peek() );
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * MappedGraphFileTest.java
+ */
+package pfc.utilities;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Rectangle2D;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Grafos de ejemplo del directorio {@code graphs} escritos en binario y leidos con
+ * {@link MappedGraphFile}, comparados con el grafo del que se escribieron.
+ * @author walber
+ *
+ */
+public class MappedGraphFileTest {
+
+    private File[] files;
+
+    @Before
+    public void setUp() {
+        files = new File( "graphs" ).listFiles( new FilenameFilter() {
+            @Override
+            public boolean accept( File dir, String name ) {
+                return name.endsWith( GraphFileUtilities.JSON_EXTENSION );
+            }
+        } );
+        assertNotNull( "no se encuentra el directorio graphs", files );
+        assertTrue( files.length > 0 );
+        Arrays.sort( files );
+    }
+
+    private static File writeBinary( Graph graph ) throws IOException {
+        File file = File.createTempFile( "graph", GraphFileUtilities.BINARY_EXTENSION );
+        file.deleteOnExit();
+        GraphFileUtilities.writeGraph( graph, file );
+        return file;
+    }
+
+    /**
+     * Rectangulo que contiene los circulos de todos los vertices.
+     */
+    private static Rectangle2D getBounds( Graph graph ) {
+        Rectangle2D bounds = null;
+        for ( Vertex vertex : graph.vertices ) {
+            double r = vertex.radius.get();
+            Rectangle2D circle = new Rectangle2D.Double( vertex.x.get() - r, vertex.y.get() - r, 2 * r, 2 * r );
+            if ( bounds == null )
+                bounds = circle;
+            else
+                bounds.add( circle );
+        }
+        return bounds;
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.MappedGraphFile#MappedGraphFile(File)}: columnas
+     * de los vertices y de las aristas, rectangulo, grafo vacio y grafo completo.
+     */
+    @Test
+    public void testMappedGraphFile() throws IOException {
+        for ( File file : files ) {
+            String name = file.getName();
+            Graph graph = GraphFileUtilities.readGraph( file );
+            // colores distintos por elemento para que un desplazamiento de columna se note
+            for ( int i = 0; i < graph.vertices.size(); i++ )
+                graph.vertices.get( i ).color.set( i + 1 );
+            for ( int i = 0; i < graph.edges.size(); i++ )
+                graph.edges.get( i ).color.set( -i - 1 );
+
+            MappedGraphFile mapped = new MappedGraphFile( writeBinary( graph ) );
+            try {
+                assertEquals( name, graph.vertices.size(), mapped.getVertexCount() );
+                assertEquals( name, graph.edges.size(), mapped.getEdgeCount() );
+                for ( int i = 0; i < graph.vertices.size(); i++ ) {
+                    Vertex vertex = graph.vertices.get( i );
+                    assertEquals( name, vertex.x.get(), mapped.getX( i ), 0.0 );
+                    assertEquals( name, vertex.y.get(), mapped.getY( i ), 0.0 );
+                    assertEquals( name, vertex.radius.get(), mapped.getRadius( i ), 0.0 );
+                    assertEquals( name, (int) vertex.color.get(), mapped.getVertexColor( i ) );
+                }
+                for ( int i = 0; i < graph.edges.size(); i++ ) {
+                    Edge edge = graph.edges.get( i );
+                    assertSame( name, edge.from, graph.vertices.get( mapped.getFrom( i ) ) );
+                    assertSame( name, edge.to, graph.vertices.get( mapped.getTo( i ) ) );
+                    assertEquals( name, (int) edge.color.get(), mapped.getEdgeColor( i ) );
+                }
+                assertEquals( name, getBounds( graph ), mapped.getBounds() );
+
+                Graph empty = mapped.getEmptyGraph();
+                assertEquals( name, graph.name.get(), empty.name.get() );
+                assertEquals( name, graph.areLoopsAllowed, empty.areLoopsAllowed );
+                assertEquals( name, graph.areDirectedEdgesAllowed, empty.areDirectedEdgesAllowed );
+                assertEquals( name, graph.areMultipleEdgesAllowed, empty.areMultipleEdgesAllowed );
+                assertEquals( name, graph.areCyclesAllowed, empty.areCyclesAllowed );
+                assertTrue( name, empty.vertices.isEmpty() );
+
+                GraphFileUtilitiesTest.assertSameGraph( name, graph, mapped.toGraph() );
+                // toGraph no cambia el estado del fichero proyectado
+                GraphFileUtilitiesTest.assertSameGraph( name, graph, mapped.toGraph() );
+            }
+            finally {
+                mapped.close();
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.MappedGraphFile#getBounds()} sin vertices.
+     */
+    @Test
+    public void testEmptyGraph() throws IOException {
+        Graph graph = new Graph( "empty", false, true, false, false );
+        MappedGraphFile mapped = new MappedGraphFile( writeBinary( graph ) );
+        assertEquals( 0, mapped.getVertexCount() );
+        assertEquals( 0, mapped.getEdgeCount() );
+        assertNull( mapped.getBounds() );
+        GraphFileUtilitiesTest.assertSameGraph( "empty", graph, mapped.toGraph() );
+        mapped.close();
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.MappedGraphFile#MappedGraphFile(File)} con un
+     * fichero que no es binario.
+     */
+    @Test
+    public void testNotBinary() {
+        boolean thrown = false;
+        try {
+            new MappedGraphFile( files[0] );
+        }
+        catch ( IOException e ) {
+            thrown = true;
+        }
+        assertTrue( thrown );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.MappedGraphFile#close()}: despues solo se pueden
+     * consultar los numeros de vertices y aristas.
+     */
+    @Test
+    public void testClose() throws IOException {
+        Graph graph = GraphFileUtilities.readGraph( files[0] );
+        MappedGraphFile mapped = new MappedGraphFile( writeBinary( graph ) );
+        mapped.close();
+        assertEquals( graph.vertices.size(), mapped.getVertexCount() );
+        assertEquals( graph.edges.size(), mapped.getEdgeCount() );
+
+        int failures = 0;
+        try {
+            mapped.getX( 0 );
+        }
+        catch ( IllegalStateException e ) {
+            failures++;
+        }
+        try {
+            mapped.getFrom( 0 );
+        }
+        catch ( IllegalStateException e ) {
+            failures++;
+        }
+        try {
+            mapped.getBounds();
+        }
+        catch ( IllegalStateException e ) {
+            failures++;
+        }
+        try {
+            mapped.getEmptyGraph();
+        }
+        catch ( IllegalStateException e ) {
+            failures++;
+        }
+        try {
+            mapped.toGraph();
+        }
+        catch ( IllegalStateException e ) {
+            failures++;
+        }
+        assertEquals( 5, failures );
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * BlockCutTreeTest.java
+ */
+package pfc.utilities.graph;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Arbol de bloques y vertices corte de dos triangulos unidos por una arista, 0-1-2 y 3-4-5
+ * con la arista 2-3, al ir eliminando vertices.
+ * @author walber
+ *
+ */
+public class BlockCutTreeTest {
+
+    private Graph createGraph() {
+        Graph graph = new Graph( "triangles", false, false, false, true );
+        Vertex[] v = new Vertex[6];
+        for ( int i = 0; i < v.length; i++ ) {
+            v[i] = new Vertex( i, i % 3 );
+            graph.vertices.add( v[i] );
+        }
+        int[][] edges = { { 0, 1 }, { 1, 2 }, { 2, 0 }, { 2, 3 }, { 3, 4 }, { 4, 5 }, { 5, 3 } };
+        for ( int[] e : edges )
+            graph.edges.add( new Edge( false, v[e[0]], v[e[1]] ) );
+        return graph;
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BlockCutTree#BlockCutTree(IndexedGraph)}.
+     */
+    @Test
+    public void testBlocks() {
+        Graph graph = createGraph();
+        IndexedGraph indexed = new IndexedGraph( graph );
+        BlockCutTree tree = new BlockCutTree( indexed );
+
+        assertEquals( "numero de bloques distinto al esperado", 3, tree.getBlockCount() );
+        for ( int v = 0; v < 6; v++ ) {
+            boolean cut = indexed.getVertex( v ) == graph.vertices.get( 2 ) || indexed.getVertex( v ) == graph.vertices.get( 3 );
+            assertEquals( "vertice corte incorrecto", cut, tree.isCutVertex( v ) );
+        }
+        // el puente es el centro del arbol, los triangulos son hojas
+        for ( int i = 0; i < tree.getBlockCount(); i++ ) {
+            int block = tree.getBlock( i );
+            int expected = tree.getVertices( block ).length == 2 ? 2 : 1;
+            assertEquals( "grado del bloque distinto al esperado", expected, tree.getCutVertexCount( block ) );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BlockCutTree#removeVertex(int)}.
+     */
+    @Test
+    public void testRemoveVertex() {
+        Graph graph = createGraph();
+        IndexedGraph indexed = new IndexedGraph( graph );
+        BlockCutTree tree = new BlockCutTree( indexed );
+        int v0 = indexed.indexOf( graph.vertices.get( 0 ) );
+        int v1 = indexed.indexOf( graph.vertices.get( 1 ) );
+        int v2 = indexed.indexOf( graph.vertices.get( 2 ) );
+        int v3 = indexed.indexOf( graph.vertices.get( 3 ) );
+
+        // el triangulo 0-1-2 se convierte en el camino 1-2, y 2 sigue siendo de corte
+        tree.removeVertex( v0 );
+        assertTrue( tree.isRemoved( v0 ) );
+        assertEquals( "numero de bloques distinto al esperado", 3, tree.getBlockCount() );
+        assertTrue( "2 debe ser vertice corte", tree.isCutVertex( v2 ) );
+        assertEquals( 1, tree.getVertexBlockCount( v1 ) );
+        assertEquals( 1, tree.getCutVertexCount( tree.getVertexBlock( v1, 0 ) ) );
+
+        // sin 3 el grafo queda en dos componentes: el camino 1-2 y la arista 4-5
+        tree.removeVertex( v3 );
+        assertEquals( "numero de bloques distinto al esperado", 2, tree.getBlockCount() );
+        for ( int i = 0; i < tree.getBlockCount(); i++ )
+            assertEquals( "no debe haber vertices corte", 0, tree.getCutVertexCount( tree.getBlock( i ) ) );
+
+        // un vertice aislado forma un bloque el solo
+        tree.removeVertex( v2 );
+        assertEquals( "numero de bloques distinto al esperado", 2, tree.getBlockCount() );
+        assertArrayEquals( new int[] { v1 }, tree.getVertices( tree.getVertexBlock( v1, 0 ) ) );
+        assertEquals( -1, tree.getCutVertex( tree.getVertexBlock( v1, 0 ) ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BiconnectedComponentsFinder#isBiconnected(Graph)}:
+     * los resultados guardados no se reutilizan despues de cambiar el grafo.
+     */
+    @Test
+    public void testFinderAfterChange() {
+        Graph graph = createGraph();
+        BiconnectedComponentsFinder finder = new BiconnectedComponentsFinder();
+        assertFalse( finder.isBiconnected( graph ) );
+        assertEquals( 3, finder.getBiconnectedComponents( graph ).size() );
+
+        // con las aristas 0-4 y 1-5 no queda ningun vertice corte
+        graph.edges.add( new Edge( false, graph.vertices.get( 0 ), graph.vertices.get( 4 ) ) );
+        graph.edges.add( new Edge( false, graph.vertices.get( 1 ), graph.vertices.get( 5 ) ) );
+        assertTrue( finder.isBiconnected( graph ) );
+        assertTrue( finder.getCutPoints( graph ).isEmpty() );
+        assertEquals( 1, finder.getBiconnectedComponents( graph ).size() );
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ * DepthFirstSearchTest.java
+ */
+package pfc.utilities.graph;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Point2D;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+import pfc.models.algorithms.sldominance.SLDominanceAlgorithm;
+
+
+/**
+ * Recorridos en profundidad de un millon de vertices con el tamano de pila por defecto,
+ * y algoritmos basados en ellos sobre caminos largos y rejillas grandes.
+ * @author walber
+ *
+ */
+public class DepthFirstSearchTest {
+
+    private static final int N = 1000000;
+    private static final int K = 1000;
+    private static final int PATH = 100000;
+    private static final int GRID = 300;
+
+    /**
+     * Camino de n vertices sobre el eje x, de (0, 0) a (n-1, 0); con {@code closed} se
+     * cierra en un ciclo con la arista entre los extremos.
+     */
+    private static Graph createPath( int n, boolean directed, boolean closed ) {
+        Graph graph = new Graph( "path", false, directed, false, closed );
+        Vertex first = null;
+        Vertex previous = null;
+        for ( int i = 0; i < n; i++ ) {
+            Vertex v = new Vertex( i, 0 );
+            graph.vertices.add( v );
+            if ( previous != null )
+                graph.edges.add( new Edge( directed, previous, v ) );
+            else
+                first = v;
+            previous = v;
+        }
+        if ( closed )
+            graph.edges.add( new Edge( directed, previous, first ) );
+        return graph;
+    }
+
+    /**
+     * Rejilla k x k con aristas hacia la derecha y hacia abajo, con el vertice (i, j) en
+     * ( j, i ): (0, 0) es el mas proximo al origen y (k-1, k-1) el mas alejado. Con
+     * {@code closed} se anade la arista entre ambos.
+     */
+    private static Graph createGrid( int k, boolean directed, boolean closed ) {
+        Graph graph = new Graph( "grid", false, directed, false, !directed );
+        Vertex[] v = new Vertex[k * k];
+        for ( int i = 0; i < k * k; i++ ) {
+            v[i] = new Vertex( i % k, i / k );
+            graph.vertices.add( v[i] );
+        }
+        for ( int i = 0; i < k * k; i++ ) {
+            if ( i % k + 1 < k )
+                graph.edges.add( new Edge( directed, v[i], v[i + 1] ) );
+            if ( i + k < k * k )
+                graph.edges.add( new Edge( directed, v[i], v[i + k] ) );
+        }
+        if ( closed )
+            graph.edges.add( new Edge( directed, v[0], v[k * k - 1] ) );
+        return graph;
+    }
+
+    /**
+     * Comprobar que directed orienta todas las aristas de graph sin formar ciclos, con una
+     * sola fuente y un solo sumidero.
+     */
+    private static void assertStOrientation( Graph graph, Graph directed ) {
+        assertEquals( "numero de aristas distinto al esperado", graph.edges.size( ), directed.edges.size( ) );
+        assertTrue( "la orientacion tiene ciclos", new TopologicalNumbering( directed ).isAcyclic( ) );
+        assertEquals( "numero de fuentes distinto al esperado", 1, directed.getSources( ).size( ) );
+        assertEquals( "numero de sumideros distinto al esperado", 1, directed.getSinks( ).size( ) );
+    }
+
+    /**
+     * Comprobar que ninguna arista del dibujo de dominancia va hacia la izquierda o hacia
+     * arriba, y que cada vertice tiene coordenadas distintas de los demas.
+     */
+    private static void assertDominance( Graph graph, Graph drawing ) {
+        assertEquals( "numero de vertices distinto al esperado", graph.vertices.size( ), drawing.vertices.size( ) );
+        assertEquals( "numero de aristas distinto al esperado", graph.edges.size( ), drawing.edges.size( ) );
+        for ( Edge edge : drawing.edges ) {
+            assertTrue( "arista hacia la izquierda", edge.from.x.get( ) <= edge.to.x.get( ) );
+            assertTrue( "arista hacia arriba", edge.from.y.get( ) <= edge.to.y.get( ) );
+        }
+        Set<Point2D> points = new HashSet<Point2D>( );
+        for ( Vertex vertex : drawing.vertices )
+            assertTrue( "vertices en el mismo punto", points.add( vertex.getPoint2D( ) ) );
+    }
+
+    /**
+     * Camino 0-1-2-...-(N-1) sin construir el grafo.
+     */
+    private static class PathSearch extends DepthFirstSearch {
+        int[] pre = new int[N];
+        int[] post = new int[N];
+        int preCount = 0;
+        int postCount = 0;
+        int treeEdges = 0;
+        int backEdges = 0;
+
+        PathSearch() {
+            super( N );
+        }
+
+        @Override
+        protected int getDegree( int v ) {
+            return ( v == 0 || v == N - 1 ) ? 1 : 2;
+        }
+
+        @Override
+        protected int getNeighbor( int v, int k ) {
+            return ( v == 0 ) ? 1 : ( k == 0 ? v - 1 : v + 1 );
+        }
+
+        @Override
+        protected int getEdge( int v, int k ) {
+            return Math.min( v, this.getNeighbor( v, k ) );
+        }
+
+        @Override
+        protected void preVisit( int v, int parent, int edge ) {
+            this.pre[v] = this.preCount++;
+        }
+
+        @Override
+        protected void treeEdgeFinished( int v, int w, int edge ) {
+            this.treeEdges++;
+        }
+
+        @Override
+        protected void backEdge( int v, int w, int edge ) {
+            this.backEdges++;
+        }
+
+        @Override
+        protected void postVisit( int v ) {
+            this.post[v] = this.postCount++;
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.DepthFirstSearch#search(int)} on a path.
+     */
+    @Test
+    public void testSearchPath() {
+        PathSearch search = new PathSearch( );
+        search.search( 0 );
+
+        assertEquals( "no se han visitado todos los vertices", N, search.preCount );
+        assertEquals( "no se han terminado todos los vertices", N, search.postCount );
+        assertEquals( "numero de aristas del arbol distinto al esperado", N - 1, search.treeEdges );
+        // cada vertice salvo el primero ve la arista de su padre
+        assertEquals( "numero de aristas de retroceso distinto al esperado", N - 1, search.backEdges );
+        for ( int v = 0; v < N; v++ ) {
+            assertEquals( "preorden distinto al esperado", v, search.pre[v] );
+            assertEquals( "postorden distinto al esperado", N - 1 - v, search.post[v] );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.DepthFirstSearch#search(int)} on a K x K grid.
+     */
+    @Test
+    public void testSearchGrid() {
+        final int[] parents = new int[K * K];
+        final int[] depth = new int[K * K];
+        final int[] maxDepth = new int[1];
+        DepthFirstSearch search = new DepthFirstSearch( K * K ) {
+            @Override
+            protected int getDegree( int v ) {
+                return 4;
+            }
+
+            // derecha, abajo, izquierda, arriba; -1 fuera de la rejilla
+            private int neighbor( int v, int k ) {
+                int i = v / K, j = v % K;
+                switch ( k ) {
+                case 0: return j + 1 < K ? v + 1 : -1;
+                case 1: return i + 1 < K ? v + K : -1;
+                case 2: return j > 0 ? v - 1 : -1;
+                default: return i > 0 ? v - K : -1;
+                }
+            }
+
+            @Override
+            protected int getNeighbor( int v, int k ) {
+                int w = this.neighbor( v, k );
+                // los vecinos fuera de la rejilla se sustituyen por v, que ya esta visitado
+                return w < 0 ? v : w;
+            }
+
+            @Override
+            protected int getEdge( int v, int k ) {
+                return -1;
+            }
+
+            @Override
+            protected void preVisit( int v, int parent, int edge ) {
+                parents[v] = parent;
+                depth[v] = parent < 0 ? 0 : depth[parent] + 1;
+                maxDepth[0] = Math.max( maxDepth[0], depth[v] );
+            }
+        };
+        search.searchAll( );
+
+        for ( int v = 0; v < K * K; v++ )
+            assertTrue( "vertice no visitado", search.isVisited( v ) );
+        assertEquals( "la raiz debe ser el vertice 0", -1, parents[0] );
+        // recorriendo primero a la derecha y abajo el arbol es un unico camino en zigzag
+        assertEquals( "profundidad distinta a la esperada", K * K - 1, maxDepth[0] );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BiconnectedComponentsFinder},
+     * {@link pfc.utilities.graph.StronglyConnectedComponentsFinder} and
+     * {@link pfc.utilities.graph.TopologicalNumbering} on a long path.
+     */
+    @Test
+    public void testFindersOnLongPath() {
+        int n = 100000;
+        Graph undirected = new Graph( "path", false, false, false, true );
+        Graph directed = new Graph( "path", false, true, false, true );
+        Vertex previous = null;
+        for ( int i = 0; i < n; i++ ) {
+            Vertex v = new Vertex( i, 0 );
+            undirected.vertices.add( v );
+            directed.vertices.add( v );
+            if ( previous != null ) {
+                undirected.edges.add( new Edge( false, previous, v ) );
+                directed.edges.add( new Edge( true, previous, v ) );
+            }
+            previous = v;
+        }
+
+        assertEquals( "numero de vertices explorados distinto al esperado", n,
+                new DepthFirstSearchFinder( ).depthFirstSearch( undirected.vertices.get( 0 ), undirected ).size( ) );
+        assertEquals( "numero de componentes biconexas distinto al esperado", n - 1,
+                new BiconnectedComponentsFinder( ).getBiconnectedComponents( undirected ).size( ) );
+        assertEquals( "numero de componentes fuertemente conexas distinto al esperado", n,
+                new StronglyConnectedComponentsFinder( ).find( directed ).size( ) );
+        TopologicalNumbering numbering = new TopologicalNumbering( directed );
+        assertTrue( numbering.isAcyclic( ) );
+        assertEquals( "numeracion topologica distinta a la esperada", 0, numbering.getRank( directed.vertices.get( 0 ) ) );
+        assertEquals( "numeracion topologica distinta a la esperada", n - 1, numbering.getRank( previous ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.DepthFirstSearchFinder},
+     * {@link pfc.utilities.graph.BiconnectedComponentsFinder},
+     * {@link pfc.utilities.graph.StronglyConnectedComponentsFinder} and
+     * {@link pfc.utilities.graph.TopologicalNumbering} on a large grid.
+     */
+    @Test
+    public void testFindersOnGrid() {
+        Graph undirected = createGrid( GRID, false, false );
+        Graph directed = createGrid( GRID, true, false );
+
+        assertEquals( "numero de vertices explorados distinto al esperado", GRID * GRID,
+                new DepthFirstSearchFinder( ).depthFirstSearch( undirected.vertices.get( 0 ), undirected ).size( ) );
+        assertTrue( "la rejilla es biconexa", new BiconnectedComponentsFinder( ).isBiconnected( undirected ) );
+        assertEquals( "numero de componentes fuertemente conexas distinto al esperado", GRID * GRID,
+                new StronglyConnectedComponentsFinder( ).find( directed ).size( ) );
+        TopologicalNumbering numbering = new TopologicalNumbering( directed );
+        assertEquals( "numero de capas distinto al esperado", 2 * GRID - 1, numbering.getLayerCount( ) );
+        for ( int i = 0; i < GRID * GRID; i++ )
+            assertEquals( "numeracion topologica distinta a la esperada", i / GRID + i % GRID,
+                    numbering.getRank( directed.vertices.get( i ) ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BipolarOrientationTarjanAlgorithm#orientPlanarGraph()}
+     * on a long cycle and a large grid.
+     */
+    @Test
+    public void testTarjanOrientation() {
+        Graph cycle = createPath( PATH, false, true );
+        assertStOrientation( cycle, new BipolarOrientationTarjanAlgorithm( cycle ).orientPlanarGraph( ) );
+        Graph grid = createGrid( GRID, false, true );
+        assertStOrientation( grid, new BipolarOrientationTarjanAlgorithm( grid ).orientPlanarGraph( ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BipolarOrientationTarjanAlgorithm#orientPlanarGraph()}
+     * on two disjoint cycles. Source is the farthest vertex of the second cycle and target
+     * the closest one of the first, so the other two vertices of the second get no st-number.
+     */
+    @Test
+    public void testTarjanOrientationDisconnected() {
+        Graph graph = new Graph( "disconnected", false, false, false, true );
+        for ( int c = 0; c < 2; c++ ) {
+            Vertex[] v = new Vertex[3];
+            for ( int i = 0; i < v.length; i++ ) {
+                v[i] = new Vertex( 10 * c + i, 10 * c + i * i );
+                graph.vertices.add( v[i] );
+            }
+            for ( int i = 0; i < v.length; i++ )
+                graph.edges.add( new Edge( false, v[i], v[( i + 1 ) % v.length] ) );
+        }
+        BipolarOrientationTarjanAlgorithm algorithm = new BipolarOrientationTarjanAlgorithm( graph );
+        boolean thrown = false;
+        try {
+            algorithm.orientPlanarGraph( );
+        }
+        catch ( IllegalArgumentException e ) {
+            thrown = true;
+        }
+        assertTrue( "un grafo no conexo no se puede orientar", thrown );
+        int unnumbered = 0;
+        for ( int number : algorithm.getStNumbering( ) )
+            if ( number == -1 )
+                unnumbered++;
+        assertEquals( 2, unnumbered );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.BipolarOrientationPapamanthouAlgorithm#orientPlanarGraph()}
+     * on a long cycle and a grid. Each step recomputes the block containing the removed
+     * vertex, so the inputs are smaller than for the linear algorithms.
+     */
+    @Test
+    public void testPapamanthouOrientation() {
+        Graph cycle = createPath( PATH / 10, false, true );
+        assertStOrientation( cycle, new BipolarOrientationPapamanthouAlgorithm( cycle ).orientPlanarGraph( ) );
+        Graph grid = createGrid( GRID / 6, false, true );
+        assertStOrientation( grid, new BipolarOrientationPapamanthouAlgorithm( grid ).orientPlanarGraph( ) );
+    }
+
+    /**
+     * Test method for {@link pfc.models.algorithms.sldominance.SLDominanceAlgorithm#executeAlgorithm()},
+     * whose labelX and labelY are depth first searches, on a long path and a grid.
+     */
+    @Test
+    public void testDominanceLabels() {
+        Graph path = createPath( PATH / 10, true, false );
+        SLDominanceAlgorithm algorithm = new SLDominanceAlgorithm( path );
+        algorithm.executeAlgorithm( );
+        assertDominance( path, algorithm.getDrawing( ).getGraph( ) );
+
+        Graph grid = createGrid( GRID / 3, true, false );
+        algorithm = new SLDominanceAlgorithm( grid );
+        algorithm.executeAlgorithm( );
+        assertDominance( grid, algorithm.getDrawing( ).getGraph( ) );
+    }
+}
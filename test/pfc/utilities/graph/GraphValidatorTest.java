@@ -0,0 +1,113 @@
+/**
+ * GraphValidatorTest.java
+ */
+package pfc.utilities.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+import pfc.utilities.graph.GraphValidator.Check;
+
+
+/**
+ * Comprobaciones evaluadas sobre una copia indexada construida antes de modificar el
+ * grafo: el resultado es el de la copia, no el del grafo modificado.
+ * @author walber
+ *
+ */
+public class GraphValidatorTest {
+
+    private static final Set<Check> CHECKS = EnumSet.of( Check.PLANAR_EMBEDDING, Check.ST_GRAPH, Check.ST_ON_OUTER_FACE,
+            Check.MAXIMUM_DEGREE_4 );
+
+    /**
+     * st-graph s -> a_i -> t con {@code k} caminos de longitud dos y la arista s -> t, dibujado
+     * sin cruces.
+     */
+    private static Graph createFan( int k, Vertex[] v ) {
+        Graph graph = new Graph( "fan", false, true, false, false );
+        Vertex s = new Vertex( 0, 0 );
+        Vertex t = new Vertex( 0, 100 );
+        graph.vertices.add( s );
+        graph.vertices.add( t );
+        graph.edges.add( new Edge( true, s, t ) );
+        for ( int i = 0; i < k; i++ ) {
+            Vertex a = new Vertex( 20 * ( i + 1 ), 50 );
+            graph.vertices.add( a );
+            graph.edges.add( new Edge( true, s, a ) );
+            graph.edges.add( new Edge( true, a, t ) );
+        }
+        v[0] = s;
+        v[1] = t;
+        return graph;
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.GraphValidator#GraphValidator(Graph, IndexedGraph)}:
+     * los cambios del grafo despues de construir la copia no afectan a la validacion.
+     */
+    @Test
+    public void testSnapshot() {
+        Vertex[] st = new Vertex[2];
+        Graph graph = createFan( 2, st );
+        IndexedGraph snapshot = new IndexedGraph( graph );
+        assertTrue( new GraphValidator( graph ).validate( CHECKS ).isValid() );
+
+        // un segundo source, grado 5 en t y una arista horizontal que cruza s -> t
+        Vertex source = new Vertex( -50, 40 );
+        graph.vertices.add( source );
+        graph.edges.add( new Edge( true, source, st[1] ) );
+        Vertex u = new Vertex( 30, 20 );
+        graph.vertices.add( u );
+        graph.edges.add( new Edge( true, st[0], u ) );
+        graph.edges.add( new Edge( true, u, st[1] ) );
+        Vertex w = new Vertex( -30, 50 );
+        graph.vertices.add( w );
+        graph.edges.add( new Edge( true, w, graph.vertices.get( 2 ) ) );
+        assertEquals( 5, graph.getMaximumDegree() );
+
+        ValidationReport live = new GraphValidator( graph ).validate( CHECKS );
+        assertFalse( live.isPassed( Check.ST_GRAPH ) );
+        assertFalse( live.isPassed( Check.MAXIMUM_DEGREE_4 ) );
+        assertFalse( live.isPassed( Check.PLANAR_EMBEDDING ) );
+
+        ValidationReport report = new GraphValidator( graph, snapshot ).validate( CHECKS );
+        assertTrue( report.toString(), report.isValid() );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.IndexedGraph#getMaximumDegree()}: el mismo
+     * grado que {@link Graph#getMaximumDegree()}, con los bucles contados dos veces.
+     */
+    @Test
+    public void testMaximumDegree() {
+        for ( boolean directed : new boolean[] { false, true } ) {
+            Graph graph = new Graph( "loops", true, directed, true, true );
+            Vertex[] v = new Vertex[4];
+            for ( int i = 0; i < v.length; i++ ) {
+                v[i] = new Vertex( i, 0 );
+                graph.vertices.add( v[i] );
+            }
+            graph.edges.add( new Edge( directed, v[0], v[1] ) );
+            graph.edges.add( new Edge( directed, v[0], v[0] ) );
+            graph.edges.add( new Edge( directed, v[2], v[2] ) );
+            graph.edges.add( new Edge( directed, v[3], v[2] ) );
+            graph.edges.add( new Edge( directed, v[1], v[2] ) );
+
+            IndexedGraph indexed = new IndexedGraph( graph );
+            for ( int i = 0; i < v.length; i++ )
+                assertEquals( "vertice " + i, graph.getDegree( v[i] ), indexed.getDegree( indexed.indexOf( v[i] ) ) );
+            assertEquals( graph.getMaximumDegree(), indexed.getMaximumDegree() );
+            // una arista y un bucle
+            assertEquals( 3, indexed.getDegree( indexed.indexOf( v[0] ) ) );
+            assertEquals( 4, indexed.getMaximumDegree() );
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * ReachabilityIndexTest.java
+ */
+package pfc.utilities.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Indices de alcanzabilidad de grafos dirigidos aciclicos aleatorios, con conjuntos de bits
+ * y con cadenas, comparados con una busqueda en anchura desde cada vertice.
+ * @author walber
+ *
+ */
+public class ReachabilityIndexTest {
+
+    /**
+     * Grafo dirigido aciclico formado por {@code paths} caminos de {@code length} vertices
+     * y aristas aleatorias de un nivel a otro mayor. Los vertices se anaden en orden
+     * aleatorio para que el orden topologico no coincida con el de la lista.
+     */
+    private static Graph createLayeredDag( int paths, int length, int crossEdges, long seed ) {
+        Random random = new Random( seed );
+        Graph graph = new Graph( "dag", false, true, false, false );
+        Vertex[][] v = new Vertex[paths][length];
+        List<Vertex> shuffled = new ArrayList<Vertex>();
+        for ( int c = 0; c < paths; c++ )
+            for ( int i = 0; i < length; i++ ) {
+                v[c][i] = new Vertex( i, c );
+                shuffled.add( v[c][i] );
+            }
+        Collections.shuffle( shuffled, random );
+        graph.vertices.addAll( shuffled );
+
+        List<Edge> edges = new ArrayList<Edge>();
+        for ( int c = 0; c < paths; c++ )
+            for ( int i = 0; i + 1 < length; i++ )
+                edges.add( new Edge( true, v[c][i], v[c][i + 1] ) );
+        for ( int k = 0; k < crossEdges; k++ ) {
+            int i = random.nextInt( length - 1 );
+            int j = i + 1 + random.nextInt( length - i - 1 );
+            edges.add( new Edge( true, v[random.nextInt( paths )][i], v[random.nextInt( paths )][j] ) );
+        }
+        Collections.shuffle( edges, random );
+        graph.edges.addAll( edges );
+        return graph;
+    }
+
+    /**
+     * Alcanzables desde u por busqueda en anchura, incluido u.
+     */
+    private static boolean[] reachable( IndexedGraph graph, int u ) {
+        boolean[] visited = new boolean[graph.getVertexCount()];
+        Queue<Integer> toVisit = new LinkedList<Integer>();
+        visited[u] = true;
+        toVisit.add( u );
+        while ( toVisit.isEmpty() == false ) {
+            int v = toVisit.poll();
+            for ( int i = graph.getOutStart( v ); i < graph.getOutEnd( v ); i++ ) {
+                int w = graph.getOutTarget( i );
+                if ( visited[w] == false ) {
+                    visited[w] = true;
+                    toVisit.add( w );
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static void assertSameAsSearch( IndexedGraph graph, ReachabilityIndex index ) {
+        int n = graph.getVertexCount();
+        for ( int u = 0; u < n; u++ ) {
+            boolean[] expected = reachable( graph, u );
+            for ( int v = 0; v < n; v++ )
+                assertEquals( u + " -> " + v, expected[v], index.reaches( u, v ) );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.ReachabilityIndex#create(IndexedGraph)}.
+     */
+    @Test
+    public void testCreateBitsets() {
+        for ( long seed = 1; seed <= 5; seed++ ) {
+            IndexedGraph graph = new IndexedGraph( createLayeredDag( 8, 40, 300, seed ) );
+            ReachabilityIndex index = ReachabilityIndex.create( graph );
+            assertNotNull( index );
+            assertFalse( index.isCompressed() );
+            assertSameAsSearch( graph, index );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.ReachabilityIndex#create(IndexedGraph, long)}
+     * con una memoria en la que no caben los conjuntos de bits.
+     */
+    @Test
+    public void testCreateChains() {
+        for ( long seed = 1; seed <= 3; seed++ ) {
+            IndexedGraph graph = new IndexedGraph( createLayeredDag( 8, 400, 200, seed ) );
+            int n = graph.getVertexCount();
+            long bitsets = 8L * n * ( ( n + 63 ) / 64 );
+            ReachabilityIndex index = ReachabilityIndex.create( graph, bitsets - 1 );
+            assertNotNull( index );
+            assertTrue( index.isCompressed() );
+            assertTrue( index.getMemorySize() < bitsets );
+            assertSameAsSearch( graph, index );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.ReachabilityIndex#create(IndexedGraph)} con
+     * un ciclo y con un indice que no cabe.
+     */
+    @Test
+    public void testCreateNull() {
+        Graph graph = new Graph( "cycle", false, true, false, true );
+        Vertex[] v = { new Vertex( 0, 0 ), new Vertex( 1, 0 ), new Vertex( 2, 0 ) };
+        graph.vertices.addAll( Arrays.asList( v ) );
+        graph.edges.add( new Edge( true, v[0], v[1] ) );
+        graph.edges.add( new Edge( true, v[1], v[2] ) );
+        graph.edges.add( new Edge( true, v[2], v[0] ) );
+        assertNull( ReachabilityIndex.create( new IndexedGraph( graph ) ) );
+        assertNull( ReachabilityIndex.get( graph ) );
+
+        assertNull( ReachabilityIndex.create( new IndexedGraph( createLayeredDag( 8, 40, 300, 1 ) ), 8 ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.ReachabilityIndex#get(Graph)}: el mismo
+     * indice mientras el grafo no cambia, y uno nuevo despues.
+     */
+    @Test
+    public void testGet() {
+        Graph graph = createLayeredDag( 2, 10, 0, 1 );
+        ReachabilityIndex index = ReachabilityIndex.get( graph );
+        assertNotNull( index );
+        assertSame( index, ReachabilityIndex.get( graph ) );
+
+        Vertex from = null;
+        Vertex to = null;
+        for ( Vertex vertex : graph.vertices ) {
+            if ( vertex.x.get() == 0 && vertex.y.get() == 0 )
+                from = vertex;
+            if ( vertex.x.get() == 9 && vertex.y.get() == 1 )
+                to = vertex;
+        }
+        assertFalse( index.reaches( from, to ) );
+
+        graph.edges.add( new Edge( true, from, to ) );
+        ReachabilityIndex changed = ReachabilityIndex.get( graph );
+        assertNotSame( index, changed );
+        assertTrue( changed.reaches( from, to ) );
+        assertSame( changed, ReachabilityIndex.get( graph ) );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.ReachabilityIndex#lookup(Graph)}: sin indice
+     * en las primeras consultas, el mismo resultado que la busqueda en
+     * {@link Graph#areConnected(Vertex, Vertex)} y {@link DigraphTester#areConnected(Graph, Vertex, Vertex)},
+     * y sin indice otra vez cuando el grafo cambia.
+     */
+    @Test
+    public void testLookup() {
+        Graph graph = createLayeredDag( 4, 20, 40, 1 );
+        IndexedGraph snapshot = new IndexedGraph( graph );
+        int n = snapshot.getVertexCount();
+        boolean[][] expected = new boolean[n][];
+        for ( int u = 0; u < n; u++ )
+            expected[u] = reachable( snapshot, u );
+
+        for ( int i = 1; i < ReachabilityIndex.MIN_QUERIES_BEFORE_BUILD; i++ )
+            assertNull( ReachabilityIndex.lookup( graph ) );
+        ReachabilityIndex index = ReachabilityIndex.lookup( graph );
+        assertNotNull( index );
+        assertSame( index, ReachabilityIndex.lookup( graph ) );
+
+        Vertex closingFrom = null;
+        Vertex closingTo = null;
+        Vertex freeFrom = null;
+        Vertex freeTo = null;
+        for ( int u = 0; u < n; u++ )
+            for ( int v = 0; v < n; v++ ) {
+                Vertex from = snapshot.getVertex( u );
+                Vertex to = snapshot.getVertex( v );
+                assertEquals( u + " -> " + v, expected[u][v], DigraphTester.areConnected( graph, from, to ) );
+                // areConnected(from, to) de Graph busca un camino de to a from
+                assertEquals( v + " -> " + u, expected[v][u], graph.areConnected( from, to ) );
+                if ( u != v && expected[u][v] ) {
+                    closingFrom = to;
+                    closingTo = from;
+                }
+                if ( expected[u][v] == false && expected[v][u] == false ) {
+                    freeFrom = from;
+                    freeTo = to;
+                }
+            }
+        assertSame( index, ReachabilityIndex.lookup( graph ) );
+
+        // el indice sigue valido al rechazar una arista que cierra un ciclo
+        assertFalse( graph.edges.add( new Edge( true, closingFrom, closingTo ) ) );
+        assertSame( index, ReachabilityIndex.lookup( graph ) );
+
+        assertTrue( graph.edges.add( new Edge( true, freeFrom, freeTo ) ) );
+        assertNull( ReachabilityIndex.lookup( graph ) );
+        assertTrue( graph.areConnected( freeTo, freeFrom ) );
+    }
+
+    /**
+     * Aristas anadidas con addAll a un grafo sin ciclos: se rechaza la que cierra un ciclo,
+     * y solo esa, y las demas se anaden en orden.
+     */
+    @Test
+    public void testAddAllRejectsCycle() {
+        Graph graph = new Graph( "dag", false, true, false, false );
+        Vertex[] v = new Vertex[5];
+        for ( int i = 0; i < v.length; i++ )
+            v[i] = new Vertex( i, 0 );
+        graph.vertices.addAll( Arrays.asList( v ) );
+        graph.edges.add( new Edge( true, v[0], v[1] ) );
+
+        Edge closing = new Edge( true, v[3], v[0] );
+        List<Edge> edges = Arrays.asList( new Edge( true, v[1], v[2] ), new Edge( true, v[2], v[3] ), closing,
+                new Edge( true, v[3], v[4] ), new Edge( true, v[0], v[4] ) );
+        assertTrue( graph.edges.addAll( edges ) );
+        assertEquals( 5, graph.edges.size() );
+        assertFalse( graph.edges.contains( closing ) );
+        assertEquals( Arrays.asList( graph.edges.get( 0 ), edges.get( 0 ), edges.get( 1 ), edges.get( 3 ), edges.get( 4 ) ),
+                new ArrayList<Edge>( graph.edges ) );
+        assertTrue( ReachabilityIndex.get( graph ).reaches( v[0], v[4] ) );
+
+        // sin ciclos se anaden todas
+        assertTrue( graph.edges.addAll( Arrays.asList( new Edge( true, v[1], v[3] ), new Edge( true, v[0], v[2] ) ) ) );
+        assertEquals( 7, graph.edges.size() );
+    }
+}
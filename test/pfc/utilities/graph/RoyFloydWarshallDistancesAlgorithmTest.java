@@ -0,0 +1,136 @@
+/**
+ * RoyFloydWarshallDistancesAlgorithmTest.java
+ */
+package pfc.utilities.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import pfc.models.Edge;
+import pfc.models.Graph;
+import pfc.models.Vertex;
+
+
+/**
+ * Distancias de grafos aleatorios comparadas con el triple bucle de Roy-Floyd-Warshall
+ * sin bloques. Los pesos son enteros para que las sumas sean exactas en cualquier orden.
+ * Los grafos densos se calculan por bloques, con mas de un bloque por lado, y los
+ * dispersos con busquedas desde cada vertice.
+ * @author walber
+ *
+ */
+public class RoyFloydWarshallDistancesAlgorithmTest {
+
+    /**
+     * Grafo aleatorio con pesos enteros. Con {@code negative} cada arista (u,v) pesa
+     * w + p(u) - p(v), con w >= 0 y un potencial p por vertice, de modo que hay pesos
+     * negativos pero ningun ciclo negativo.
+     */
+    private static Graph createGraph( int n, double density, boolean directed, boolean negative, long seed ) {
+        Random random = new Random( seed );
+        Graph graph = new Graph( "random", false, directed, false, true );
+        int[] potentials = new int[n];
+        for ( int i = 0; i < n; i++ ) {
+            graph.vertices.add( new Vertex( i, 0 ) );
+            potentials[i] = negative ? random.nextInt( 50 ) : 0;
+        }
+        for ( int i = 0; i < n; i++ )
+            for ( int j = directed ? 0 : i + 1; j < n; j++ )
+                if ( i != j && random.nextDouble() < density ) {
+                    double weight = random.nextInt( 20 ) + potentials[i] - potentials[j];
+                    graph.edges.add( new Edge( directed, graph.vertices.get( i ), graph.vertices.get( j ), weight ) );
+                }
+        return graph;
+    }
+
+    /**
+     * Roy-Floyd-Warshall con el triple bucle, sin bloques ni hilos.
+     */
+    private static double[][] naive( Graph graph, boolean weighted ) {
+        int n = graph.vertices.size();
+        double[][] d = new double[n][n];
+        for ( int i = 0; i < n; i++ ) {
+            Arrays.fill( d[i], Double.POSITIVE_INFINITY );
+            d[i][i] = 0.0;
+        }
+        for ( Edge edge : graph.edges ) {
+            int from = graph.vertices.indexOf( edge.from );
+            int to = graph.vertices.indexOf( edge.to );
+            double weight = weighted ? edge.weight.get() : 1.0;
+            d[from][to] = Math.min( d[from][to], weight );
+            if ( edge.isDirected == false )
+                d[to][from] = Math.min( d[to][from], weight );
+        }
+        for ( int k = 0; k < n; k++ )
+            for ( int i = 0; i < n; i++ )
+                for ( int j = 0; j < n; j++ )
+                    if ( d[i][k] + d[k][j] < d[i][j] )
+                        d[i][j] = d[i][k] + d[k][j];
+        return d;
+    }
+
+    private static void assertSameAsNaive( Graph graph, boolean weighted ) {
+        double[][] expected = naive( graph, weighted );
+        double[][] actual = RoyFloydWarshallDistancesAlgorithm.getDistanceMatrix( graph, weighted );
+        assertEquals( expected.length, actual.length );
+        for ( int i = 0; i < expected.length; i++ )
+            for ( int j = 0; j < expected.length; j++ )
+                assertEquals( i + " -> " + j, expected[i][j], actual[i][j], 0.0 );
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.RoyFloydWarshallDistancesAlgorithm#getDistanceMatrix(Graph, boolean)}
+     * con grafos dirigidos.
+     */
+    @Test
+    public void testDirected() {
+        for ( long seed = 1; seed <= 3; seed++ ) {
+            // por bloques
+            assertSameAsNaive( createGraph( 150, 0.3, true, false, seed ), true );
+            // Dijkstra
+            assertSameAsNaive( createGraph( 200, 0.01, true, false, seed ), true );
+            // en anchura
+            assertSameAsNaive( createGraph( 200, 0.01, true, false, seed ), false );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.RoyFloydWarshallDistancesAlgorithm#getDistanceMatrix(Graph, boolean)}
+     * con grafos no dirigidos.
+     */
+    @Test
+    public void testUndirected() {
+        for ( long seed = 1; seed <= 3; seed++ ) {
+            assertSameAsNaive( createGraph( 150, 0.3, false, false, seed ), true );
+            assertSameAsNaive( createGraph( 200, 0.01, false, false, seed ), true );
+            assertSameAsNaive( createGraph( 200, 0.01, false, false, seed ), false );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.RoyFloydWarshallDistancesAlgorithm#getDistanceMatrix(Graph, boolean)}
+     * con pesos negativos, que siempre se calculan por bloques aunque el grafo sea disperso.
+     */
+    @Test
+    public void testNegativeWeights() {
+        for ( long seed = 1; seed <= 3; seed++ ) {
+            assertSameAsNaive( createGraph( 150, 0.3, true, true, seed ), true );
+            assertSameAsNaive( createGraph( 200, 0.01, true, true, seed ), true );
+        }
+    }
+
+    /**
+     * Test method for {@link pfc.utilities.graph.RoyFloydWarshallDistancesAlgorithm#getDistanceMatrix(Graph, boolean)}
+     * sin vertices y sin aristas.
+     */
+    @Test
+    public void testEmpty() {
+        assertSameAsNaive( createGraph( 0, 0.0, true, false, 1 ), true );
+        assertSameAsNaive( createGraph( 70, 0.0, true, false, 1 ), true );
+        assertSameAsNaive( createGraph( 70, 0.0, false, false, 1 ), false );
+    }
+}